@@ -2,7 +2,7 @@ package com.yas.cart.controller;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.when;
 
 import com.yas.cart.model.CartItem;
@@ -15,6 +15,7 @@ import com.yas.cart.viewmodel.ProductThumbnailVm;
 import com.yas.commonlibrary.AbstractControllerIT;
 import com.yas.commonlibrary.IntegrationTestConfiguration;
 import io.restassured.response.ValidatableResponse;
+import java.util.Collection;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -63,7 +64,7 @@ class CartItemControllerIT extends AbstractControllerIT {
         void testAddCartItem_whenRequestIsValid_shouldReturnCartItemGetVm() {
             CartItemPostVm cartItemPostVm = new CartItemPostVm(existingProduct.id(), 1);
 
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(true);
+            mockPublishedProducts();
 
             performCreateCartItemThenExpectSuccess(cartItemPostVm)
                 .body("productId", is(cartItemPostVm.productId()))
@@ -78,7 +79,7 @@ class CartItemControllerIT extends AbstractControllerIT {
                 .productId(existingProduct.id())
                 .quantity(1)
                 .build();
-            when(productService.existsById(anyLong())).thenReturn(true);
+            mockPublishedProducts();
             performCreateCartItemThenExpectSuccess(addCartItemVm);
 
             CartItemPostVm addDuplicatedCartItemVm = CartItemPostVm
@@ -102,7 +103,7 @@ class CartItemControllerIT extends AbstractControllerIT {
         void testUpdateCartItem_whenRequestIsValid_shouldReturnCartItemGetVm() {
             CartItemPutVm cartItemPutVm = new CartItemPutVm(1);
 
-            when(productService.existsById(existingProduct.id())).thenReturn(true);
+            mockPublishedProducts();
 
             givenLoggedInAsAdmin()
                 .body(cartItemPutVm)
@@ -123,7 +124,7 @@ class CartItemControllerIT extends AbstractControllerIT {
         void testGetCartItems_whenCartItemsExist_shouldReturnCartItems() {
             CartItemPostVm cartItemPostVm = new CartItemPostVm(existingProduct.id(), 1);
 
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(true);
+            mockPublishedProducts();
             performCreateCartItemThenExpectSuccess(cartItemPostVm);
 
             performGetCartItemsThenExpect()
@@ -143,7 +144,7 @@ class CartItemControllerIT extends AbstractControllerIT {
         @BeforeEach
         void setUp() {
             CartItemPostVm cartItemPostVm = new CartItemPostVm(existingProduct.id(), 10);
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(true);
+            mockPublishedProducts();
             performCreateCartItemThenExpectSuccess(cartItemPostVm);
             existingCartItem = CartItem
                 .builder()
@@ -192,7 +193,7 @@ class CartItemControllerIT extends AbstractControllerIT {
         @Test
         void testDeleteCartItem_whenCartItemExists_shouldDeleteCartItem() {
             CartItemPostVm cartItemPostVm = new CartItemPostVm(existingProduct.id(), 10);
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(true);
+            mockPublishedProducts();
             performCreateCartItemThenExpectSuccess(cartItemPostVm);
 
             givenLoggedInAsAdmin()
@@ -224,4 +225,9 @@ class CartItemControllerIT extends AbstractControllerIT {
             .then()
             .statusCode(HttpStatus.OK.value());
     }
-}
\ No newline at end of file
+
+    private void mockPublishedProducts() {
+        when(productService.getPublishedProductIds(anyCollection()))
+            .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+    }
+}
@@ -0,0 +1,153 @@
+package com.yas.cart.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yas.cart.config.DatabaseAutoConfig;
+import com.yas.cart.model.CartItem;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Adds to a few hot cart items from many threads through the JPA store and through the Redis store, and reports
+ * the adds that failed and the p50/p99 latency of each. A failed add is one that surfaced an error to the customer,
+ * which on the JPA store is the zero timeout row lock or the insert race on a new cart item.
+ *
+ * <p>Run with {@code mvn verify -Dcart.loadtest=true}; it is skipped otherwise. Both stores run on containers of
+ * the production servers, the JPA store on Postgres with its {@code NOWAIT} row lock and the Redis store on Redis,
+ * so the failures match production while the latencies only compare the two backends on the same machine.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DatabaseAutoConfig.class, JpaCartItemStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "cart.loadtest", matches = "true")
+class CartItemStoreLoadIT {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:16");
+
+    @Container
+    static GenericContainer<?> redisContainer = new GenericContainer<>("redis:7.2").withExposedPorts(6379);
+
+    private static final Logger LOG = LoggerFactory.getLogger(CartItemStoreLoadIT.class);
+
+    private static final int THREAD_COUNT = 32;
+    private static final int ADD_COUNT = 20_000;
+    private static final int CUSTOMER_COUNT = 20;
+    private static final int PRODUCTS_PER_CUSTOMER = 3;
+
+    @Autowired
+    private JpaCartItemStore jpaCartItemStore;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareStoresUnderConcurrentAdds() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LoadResult jpaResult = run("jpa", (customerId, productId) -> transactionTemplate.executeWithoutResult(
+            status -> jpaCartItemStore.addQuantity(customerId, productId, 1)));
+        int jpaQuantity = cartItemRepository.findAll().stream().mapToInt(CartItem::getQuantity).sum();
+        assertThat(jpaQuantity).isEqualTo(ADD_COUNT - jpaResult.failedCount());
+        // The Redis store loads each cart from the database on first use, start it from empty carts too
+        cartItemRepository.deleteAll();
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(redisContainer.getHost(),
+            redisContainer.getMappedPort(6379));
+        try {
+            connectionFactory.afterPropertiesSet();
+            RedisCartItemStore redisCartItemStore = new RedisCartItemStore(new StringRedisTemplate(connectionFactory),
+                cartItemRepository, Duration.ofDays(1));
+            LoadResult redisResult = run("redis",
+                (customerId, productId) -> redisCartItemStore.addQuantity(customerId, productId, 1));
+
+            int redisQuantity = 0;
+            for (int customer = 0; customer < CUSTOMER_COUNT; customer++) {
+                redisQuantity += redisCartItemStore.findByCustomerIdOrderByCreatedOnDesc("customer-" + customer)
+                    .stream().mapToInt(CartItem::getQuantity).sum();
+            }
+            assertThat(redisResult.failedCount()).isZero();
+            assertThat(redisQuantity).isEqualTo(ADD_COUNT);
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    private LoadResult run(String store, CartAdd cartAdd) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(ADD_COUNT));
+        AtomicInteger failedCount = new AtomicInteger();
+        List<Callable<Void>> adds = new ArrayList<>(ADD_COUNT);
+        for (int i = 0; i < ADD_COUNT; i++) {
+            String customerId = "customer-" + i % CUSTOMER_COUNT;
+            long productId = i / CUSTOMER_COUNT % PRODUCTS_PER_CUSTOMER + 1L;
+            adds.add(() -> {
+                long start = System.nanoTime();
+                try {
+                    cartAdd.add(customerId, productId);
+                } catch (DataAccessException e) {
+                    failedCount.incrementAndGet();
+                }
+                latencies.add(System.nanoTime() - start);
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT)) {
+            for (Future<Void> future : executor.invokeAll(adds)) {
+                future.get();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        List<Long> sortedLatencies = latencies.stream().sorted().toList();
+        LOG.info("{}: {} adds in {} ms, {} failed, p50 {} us, p99 {} us", store, ADD_COUNT,
+            elapsedNanos / 1_000_000, failedCount.get(), percentile(sortedLatencies, 50) / 1_000,
+            percentile(sortedLatencies, 99) / 1_000);
+        return new LoadResult(failedCount.get());
+    }
+
+    private static long percentile(List<Long> sortedLatencies, int percentile) {
+        return sortedLatencies.get((sortedLatencies.size() - 1) * percentile / 100);
+    }
+
+    @FunctionalInterface
+    private interface CartAdd {
+        void add(String customerId, Long productId);
+    }
+
+    private record LoadResult(int failedCount) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.yas.cart.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Product id to whether the product is published, used to validate products added to carts. Size, TTL and
+     * stats recording are configured through {@code spring.cache.caffeine.spec}.
+     */
+    public static final String PUBLISHED_PRODUCT_CACHE = "published-product";
+}
@@ -11,8 +11,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Configuration
-@EnableJpaRepositories("com.yas.cart.repository")
-@EntityScan("com.yas.cart.model")
+@EnableJpaRepositories({"com.yas.cart.repository", "com.yas.commonlibrary.kafka.cdc.repository"})
+@EntityScan({"com.yas.cart.model", "com.yas.commonlibrary.kafka.cdc.model"})
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
 public class DatabaseAutoConfig {
 
@@ -35,6 +35,13 @@ public class CartItemController {
         return ResponseEntity.ok(cartItemGetVm);
     }
 
+    @PutMapping("/storefront/cart/items")
+    public ResponseEntity<List<CartItemGetVm>> updateCartItems(
+        @RequestBody List<@Valid CartItemPostVm> cartItemPostVms) {
+        List<CartItemGetVm> cartItemGetVms = cartItemService.updateCartItems(cartItemPostVms);
+        return ResponseEntity.ok(cartItemGetVms);
+    }
+
     @GetMapping("/storefront/cart/items")
     public ResponseEntity<List<CartItemGetVm>> getCartItems() {
         List<CartItemGetVm> cartItemGetVms = cartItemService.getCartItems();
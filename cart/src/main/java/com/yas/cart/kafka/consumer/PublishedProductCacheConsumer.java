@@ -0,0 +1,56 @@
+package com.yas.cart.kafka.consumer;
+
+import static com.yas.cart.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_LISTENER_CONTAINER_FACTORY;
+import static com.yas.cart.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_TOPIC_PARTITIONS;
+
+import com.yas.cart.service.PublishedProductCacheService;
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the published product cache of this cart instance in line with the product table. The cache is local to
+ * each instance, so every instance is assigned all the partitions of the topic, without a consumer group, and
+ * starts from the latest offset.
+ */
+@Service
+@ConditionalOnProperty(name = "product.published-cache.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class PublishedProductCacheConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
+
+    private final PublishedProductCacheService publishedProductCacheService;
+
+    public PublishedProductCacheConsumer(PublishedProductCacheService publishedProductCacheService) {
+        this.publishedProductCacheService = publishedProductCacheService;
+    }
+
+    @KafkaListener(
+        id = "published-product-cache",
+        idIsGroup = false,
+        topicPartitions = @TopicPartition(topic = "${product.topic.name}",
+            partitions = "#{@" + PRODUCT_TOPIC_PARTITIONS + "}"),
+        containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY,
+        properties = "auto.offset.reset=latest"
+    )
+    public void processMessage(
+        @Header(KafkaHeaders.RECEIVED_KEY) ProductMsgKey key,
+        @Payload(required = false) ProductCdcMessage productCdcMessage,
+        @Headers MessageHeaders headers
+    ) {
+        processMessage(key, productCdcMessage, headers, (productKey, message) -> {
+            if (message == null || message.getAfter() == null) {
+                publishedProductCacheService.updateProduct(productKey.getId(), false);
+            } else {
+                publishedProductCacheService.updateProduct(productKey.getId(), message.getAfter().isPublished());
+            }
+        });
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 
@@ -41,4 +42,8 @@ public interface CartItemRepository extends JpaRepository<CartItem, CartItemId>
     List<CartItem> findByCustomerIdAndProductIdIn(String customerId, List<Long> productIds);
 
     void deleteByCustomerIdAndProductId(String customerId, Long productId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.customerId IN :customerIds")
+    void deleteByCustomerIdIn(List<String> customerIds);
 }
\ No newline at end of file
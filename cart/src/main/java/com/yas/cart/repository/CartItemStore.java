@@ -0,0 +1,56 @@
+package com.yas.cart.repository;
+
+import com.yas.cart.model.CartItem;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage of the cart items of customers. The backend is selected with {@code yas.cart.store}: {@code jpa} keeps
+ * the cart items in the database, {@code redis} keeps them in one Redis hash per customer and copies them to the
+ * database asynchronously.
+ */
+public interface CartItemStore {
+
+    /**
+     * Adds a quantity to a cart item, creating it when the customer does not have it yet. Concurrent adds to the
+     * same cart item are merged.
+     *
+     * @param customerId the ID of the customer whose cart is updated
+     * @param productId  the ID of the product to add
+     * @param quantity   the quantity to add
+     * @return the cart item with its new quantity
+     */
+    CartItem addQuantity(String customerId, Long productId, int quantity);
+
+    CartItem save(CartItem cartItem);
+
+    List<CartItem> saveAll(List<CartItem> cartItems);
+
+    List<CartItem> findByCustomerIdOrderByCreatedOnDesc(String customerId);
+
+    List<CartItem> findByCustomerIdAndProductIdIn(String customerId, List<Long> productIds);
+
+    /**
+     * Removes quantities from the cart items of a customer, cart items left without quantity are deleted.
+     * Products that are not in the cart are ignored.
+     *
+     * @param customerId          the ID of the customer whose cart is updated
+     * @param quantityByProductId the quantity to remove for each product
+     * @return the cart items whose quantity was reduced and that are still in the cart
+     */
+    List<CartItem> removeQuantities(String customerId, Map<Long, Integer> quantityByProductId);
+
+    /**
+     * Removes the quantities of an order from the cart of a customer, like {@link #removeQuantities}. A store that
+     * keeps the cart outside the database transaction records the order with the change, so the quantities of an
+     * order are removed once even when the order event is processed again after a failed commit.
+     *
+     * @param customerId          the ID of the customer whose cart is updated
+     * @param orderId             the ID of the order whose quantities are removed
+     * @param quantityByProductId the quantity to remove for each product
+     * @return the cart items whose quantity was reduced and that are still in the cart
+     */
+    List<CartItem> removeOrderedQuantities(String customerId, Long orderId, Map<Long, Integer> quantityByProductId);
+
+    void deleteByCustomerIdAndProductId(String customerId, Long productId);
+}
@@ -0,0 +1,88 @@
+package com.yas.cart.repository;
+
+import com.yas.cart.model.CartItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the cart items in the {@code cart_item} table. The cart items being changed are locked without waiting,
+ * so a concurrent change of the same cart item fails with a {@link
+ * org.springframework.dao.PessimisticLockingFailureException}.
+ */
+@Component
+@ConditionalOnProperty(name = "yas.cart.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaCartItemStore implements CartItemStore {
+    private final CartItemRepository cartItemRepository;
+
+    @Override
+    public CartItem addQuantity(String customerId, Long productId, int quantity) {
+        return cartItemRepository.findByCustomerIdAndProductId(customerId, productId)
+            .map(existingCartItem -> {
+                existingCartItem.setQuantity(existingCartItem.getQuantity() + quantity);
+                return cartItemRepository.save(existingCartItem);
+            })
+            .orElseGet(() -> cartItemRepository.save(CartItem.builder()
+                .customerId(customerId)
+                .productId(productId)
+                .quantity(quantity)
+                .build()));
+    }
+
+    @Override
+    public CartItem save(CartItem cartItem) {
+        return cartItemRepository.save(cartItem);
+    }
+
+    @Override
+    public List<CartItem> saveAll(List<CartItem> cartItems) {
+        return cartItemRepository.saveAll(cartItems);
+    }
+
+    @Override
+    public List<CartItem> findByCustomerIdOrderByCreatedOnDesc(String customerId) {
+        return cartItemRepository.findByCustomerIdOrderByCreatedOnDesc(customerId);
+    }
+
+    @Override
+    public List<CartItem> findByCustomerIdAndProductIdIn(String customerId, List<Long> productIds) {
+        return cartItemRepository.findByCustomerIdAndProductIdIn(customerId, productIds);
+    }
+
+    @Override
+    public List<CartItem> removeQuantities(String customerId, Map<Long, Integer> quantityByProductId) {
+        List<CartItem> cartItems = cartItemRepository.findByCustomerIdAndProductIdIn(customerId,
+            List.copyOf(quantityByProductId.keySet()));
+
+        List<CartItem> cartItemsToDelete = new ArrayList<>();
+        List<CartItem> cartItemsToAdjust = new ArrayList<>();
+        for (CartItem cartItem : cartItems) {
+            int quantityToRemove = quantityByProductId.get(cartItem.getProductId());
+            if (cartItem.getQuantity() <= quantityToRemove) {
+                cartItemsToDelete.add(cartItem);
+            } else {
+                cartItem.setQuantity(cartItem.getQuantity() - quantityToRemove);
+                cartItemsToAdjust.add(cartItem);
+            }
+        }
+
+        cartItemRepository.deleteAll(cartItemsToDelete);
+        return cartItemRepository.saveAll(cartItemsToAdjust);
+    }
+
+    /* The order is recorded by the caller in the same transaction, which rolls back the removal with it */
+    @Override
+    public List<CartItem> removeOrderedQuantities(String customerId, Long orderId,
+                                                  Map<Long, Integer> quantityByProductId) {
+        return removeQuantities(customerId, quantityByProductId);
+    }
+
+    @Override
+    public void deleteByCustomerIdAndProductId(String customerId, Long productId) {
+        cartItemRepository.deleteByCustomerIdAndProductId(customerId, productId);
+    }
+}
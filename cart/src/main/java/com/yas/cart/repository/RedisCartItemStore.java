@@ -0,0 +1,449 @@
+package com.yas.cart.repository;
+
+import com.yas.cart.model.CartItem;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Keeps the cart items of each customer in a Redis hash of quantities by product id, and the time each product was
+ * added in a second hash. Quantities are changed with {@code HINCRBY} in Lua scripts, so concurrent changes of the
+ * same cart item are merged instead of failing on a lock.
+ *
+ * <p>A cart is loaded from the {@code cart_item} table the first time it is used, and a marker key records that it
+ * was. The scripts refuse to change a cart without the marker, so a cart is never changed before it is loaded. All
+ * the keys of a cart expire together {@code yas.cart.redis.ttl} after its last change.
+ *
+ * <p>Every change records the customer in a set of changed carts, which {@link
+ * com.yas.cart.service.CartItemWriteBehindJob} claims to copy the carts to the database, and the time its cart
+ * expires, which the job uses to delete the expired carts from the database.
+ */
+@Component
+@ConditionalOnProperty(name = "yas.cart.store", havingValue = "redis")
+public class RedisCartItemStore implements CartItemStore {
+
+    /* The hash tag keeps the write-behind keys in the same slot, which scripts require on a Redis cluster */
+    static final String CHANGED_CARTS_KEY = "{cart:changed}";
+    static final String COPYING_CARTS_KEY = "{cart:changed}:copying";
+    static final String CART_EXPIRY_KEY = "{cart:changed}:expiry";
+
+    /* A claimed cart that is not released in time belongs to an instance that died while copying it */
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+    /* Lua false reaches Java as a list holding one null, the scripts below never return a null element otherwise */
+    private static final String CART_SCRIPT_PREFIX = """
+        if redis.call('EXISTS', KEYS[3]) == 0 then
+            return false
+        end
+        local result = {}
+        """;
+
+    private static final String CART_SCRIPT_SUFFIX = """
+        for i = 1, #KEYS do
+            redis.call('PEXPIRE', KEYS[i], ARGV[1])
+        end
+        return result
+        """;
+
+    /* KEYS: quantities, added times, loaded marker. ARGV: ttl, then product id, quantity and added time triples */
+    private static final RedisScript<Long> LOAD_SCRIPT = RedisScript.of("""
+        if redis.call('EXISTS', KEYS[3]) == 1 then
+            return 0
+        end
+        for i = 2, #ARGV, 3 do
+            redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[i + 1])
+            redis.call('HSETNX', KEYS[2], ARGV[i], ARGV[i + 2])
+        end
+        redis.call('SET', KEYS[3], '1', 'PX', ARGV[1])
+        redis.call('PEXPIRE', KEYS[1], ARGV[1])
+        redis.call('PEXPIRE', KEYS[2], ARGV[1])
+        return 1
+        """, Long.class);
+
+    /* KEYS: quantities, added times, loaded marker. ARGV: ttl, product id, quantity, now */
+    private static final RedisScript<List> ADD_QUANTITY_SCRIPT = cartScript("""
+        local quantity = redis.call('HINCRBY', KEYS[1], ARGV[2], ARGV[3])
+        redis.call('HSETNX', KEYS[2], ARGV[2], ARGV[4])
+        result = {tostring(quantity), redis.call('HGET', KEYS[2], ARGV[2])}
+        """);
+
+    /* KEYS: quantities, added times, loaded marker. ARGV: ttl, now, then product id and quantity pairs */
+    private static final RedisScript<List> SET_QUANTITIES_SCRIPT = cartScript("""
+        for i = 3, #ARGV, 2 do
+            redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            redis.call('HSETNX', KEYS[2], ARGV[i], ARGV[2])
+            table.insert(result, redis.call('HGET', KEYS[2], ARGV[i]))
+        end
+        """);
+
+    /*
+     * KEYS: quantities, added times, loaded marker, removed orders. ARGV: ttl, order id or empty, then product id and
+     * quantity pairs
+     */
+    private static final RedisScript<List> REMOVE_QUANTITIES_SCRIPT = cartScript("""
+        if ARGV[2] ~= '' and redis.call('SADD', KEYS[4], ARGV[2]) == 0 then
+            return result
+        end
+        for i = 3, #ARGV, 2 do
+            if redis.call('HEXISTS', KEYS[1], ARGV[i]) == 1 then
+                local quantity = redis.call('HINCRBY', KEYS[1], ARGV[i], -tonumber(ARGV[i + 1]))
+                if quantity <= 0 then
+                    redis.call('HDEL', KEYS[1], ARGV[i])
+                    redis.call('HDEL', KEYS[2], ARGV[i])
+                else
+                    table.insert(result, ARGV[i])
+                    table.insert(result, tostring(quantity))
+                    table.insert(result, redis.call('HGET', KEYS[2], ARGV[i]) or '')
+                end
+            end
+        end
+        """);
+
+    /* KEYS: quantities, added times, loaded marker. ARGV: ttl, product id */
+    private static final RedisScript<List> DELETE_SCRIPT = cartScript("""
+        redis.call('HDEL', KEYS[1], ARGV[2])
+        redis.call('HDEL', KEYS[2], ARGV[2])
+        """);
+
+    /* KEYS: changed carts, cart expiry times. ARGV: customer id, expiry time */
+    private static final RedisScript<Long> MARK_CHANGED_SCRIPT = RedisScript.of("""
+        redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+        return redis.call('SADD', KEYS[1], ARGV[1])
+        """, Long.class);
+
+    /*
+     * KEYS: changed carts, claimed carts. ARGV: now, count, claimed before. Claims that timed out are returned to the
+     * changed carts first, carts still claimed by another caller are left for a later claim.
+     */
+    private static final RedisScript<List> CLAIM_CHANGED_SCRIPT = RedisScript.of("""
+        for _, customerId in ipairs(redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[3])) do
+            redis.call('SADD', KEYS[1], customerId)
+            redis.call('ZREM', KEYS[2], customerId)
+        end
+        local claimed = {}
+        local stillClaimed = {}
+        for _, customerId in ipairs(redis.call('SPOP', KEYS[1], ARGV[2])) do
+            if redis.call('ZSCORE', KEYS[2], customerId) then
+                table.insert(stillClaimed, customerId)
+            else
+                redis.call('ZADD', KEYS[2], ARGV[1], customerId)
+                table.insert(claimed, customerId)
+            end
+        end
+        for _, customerId in ipairs(stillClaimed) do
+            redis.call('SADD', KEYS[1], customerId)
+        end
+        return claimed
+        """, List.class);
+
+    /* KEYS: changed carts, claimed carts. ARGV: customer id */
+    private static final RedisScript<Long> RETURN_CLAIM_SCRIPT = RedisScript.of("""
+        redis.call('SADD', KEYS[1], ARGV[1])
+        return redis.call('ZREM', KEYS[2], ARGV[1])
+        """, Long.class);
+
+    /* KEYS: cart expiry times. ARGV: customer id and expiry time pairs, a cart changed since keeps its entry */
+    private static final RedisScript<Long> FORGET_EXPIRED_SCRIPT = RedisScript.of("""
+        local removed = 0
+        for i = 1, #ARGV, 2 do
+            if tonumber(redis.call('ZSCORE', KEYS[1], ARGV[i])) == tonumber(ARGV[i + 1]) then
+                removed = removed + redis.call('ZREM', KEYS[1], ARGV[i])
+            end
+        end
+        return removed
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CartItemRepository cartItemRepository;
+    private final Duration ttl;
+
+    public RedisCartItemStore(StringRedisTemplate redisTemplate,
+                              CartItemRepository cartItemRepository,
+                              @Value("${yas.cart.redis.ttl:P30D}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.cartItemRepository = cartItemRepository;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public CartItem addQuantity(String customerId, Long productId, int quantity) {
+        List<String> result = executeOnLoadedCart(ADD_QUANTITY_SCRIPT, customerId,
+            productId.toString(), String.valueOf(quantity), now());
+        markChanged(customerId);
+        return toCartItem(customerId, productId, result.get(0), result.get(1));
+    }
+
+    @Override
+    public CartItem save(CartItem cartItem) {
+        return saveAll(List.of(cartItem)).getFirst();
+    }
+
+    @Override
+    public List<CartItem> saveAll(List<CartItem> cartItems) {
+        Map<String, List<CartItem>> cartItemsByCustomer = cartItems.stream()
+            .collect(Collectors.groupingBy(CartItem::getCustomerId, LinkedHashMap::new, Collectors.toList()));
+        List<CartItem> savedCartItems = new ArrayList<>(cartItems.size());
+        cartItemsByCustomer.forEach((customerId, customerCartItems) -> {
+            List<String> args = new ArrayList<>();
+            args.add(now());
+            customerCartItems.forEach(cartItem -> {
+                args.add(cartItem.getProductId().toString());
+                args.add(String.valueOf(cartItem.getQuantity()));
+            });
+            List<String> addedTimes = executeOnLoadedCart(SET_QUANTITIES_SCRIPT, customerId,
+                args.toArray(String[]::new));
+            markChanged(customerId);
+            for (int i = 0; i < customerCartItems.size(); i++) {
+                CartItem cartItem = customerCartItems.get(i);
+                savedCartItems.add(toCartItem(customerId, cartItem.getProductId(),
+                    String.valueOf(cartItem.getQuantity()), addedTimes.get(i)));
+            }
+        });
+        return savedCartItems;
+    }
+
+    @Override
+    public List<CartItem> findByCustomerIdOrderByCreatedOnDesc(String customerId) {
+        loadIfMissing(customerId);
+        return findCachedByCustomerId(customerId);
+    }
+
+    @Override
+    public List<CartItem> findByCustomerIdAndProductIdIn(String customerId, List<Long> productIds) {
+        loadIfMissing(customerId);
+        HashOperations<String, String, String> hashOperations = redisTemplate.opsForHash();
+        List<String> fields = productIds.stream().map(String::valueOf).toList();
+        List<String> quantities = hashOperations.multiGet(quantitiesKey(customerId), fields);
+        List<String> addedTimes = hashOperations.multiGet(addedTimesKey(customerId), fields);
+
+        List<CartItem> cartItems = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (quantities.get(i) != null) {
+                cartItems.add(toCartItem(customerId, productIds.get(i), quantities.get(i), addedTimes.get(i)));
+            }
+        }
+        return cartItems;
+    }
+
+    @Override
+    public List<CartItem> removeQuantities(String customerId, Map<Long, Integer> quantityByProductId) {
+        return removeQuantities(customerId, "", quantityByProductId);
+    }
+
+    /* The removed order is recorded by the script that removes its quantities, not by the database transaction */
+    @Override
+    public List<CartItem> removeOrderedQuantities(String customerId, Long orderId,
+                                                  Map<Long, Integer> quantityByProductId) {
+        return removeQuantities(customerId, orderId.toString(), quantityByProductId);
+    }
+
+    @Override
+    public void deleteByCustomerIdAndProductId(String customerId, Long productId) {
+        executeOnLoadedCart(DELETE_SCRIPT, customerId, productId.toString());
+        markChanged(customerId);
+    }
+
+    /**
+     * Reads the cart items of a customer kept in Redis, without loading the cart from the database. A cart that
+     * expired has no cart items.
+     *
+     * @param customerId the ID of the customer whose cart is read
+     * @return the cart items of the customer, newest first
+     */
+    public List<CartItem> findCachedByCustomerId(String customerId) {
+        HashOperations<String, String, String> hashOperations = redisTemplate.opsForHash();
+        Map<String, String> addedTimes = hashOperations.entries(addedTimesKey(customerId));
+        return hashOperations.entries(quantitiesKey(customerId)).entrySet().stream()
+            .map(entry -> toCartItem(customerId, Long.valueOf(entry.getKey()), entry.getValue(),
+                addedTimes.get(entry.getKey())))
+            .sorted(Comparator.comparing(CartItem::getCreatedOn,
+                Comparator.nullsLast(Comparator.<ZonedDateTime>reverseOrder())))
+            .toList();
+    }
+
+    /**
+     * Claims up to {@code count} customers whose cart changed since it was last copied. A claimed customer is
+     * released with {@link #releaseClaim} once its cart is copied, or {@link #returnClaim} when the copy fails. A
+     * claim that is neither released nor returned within five minutes is taken to be lost and claimed again.
+     *
+     * @param count the maximum number of customers to claim
+     * @return the IDs of the customers, each claimed by one caller only
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> claimChangedCustomerIds(int count) {
+        long now = System.currentTimeMillis();
+        List<String> customerIds = redisTemplate.execute(CLAIM_CHANGED_SCRIPT,
+            List.of(CHANGED_CARTS_KEY, COPYING_CARTS_KEY), String.valueOf(now), String.valueOf(count),
+            String.valueOf(now - CLAIM_TIMEOUT.toMillis()));
+        return customerIds == null ? List.of() : customerIds;
+    }
+
+    public void releaseClaim(String customerId) {
+        redisTemplate.opsForZSet().remove(COPYING_CARTS_KEY, customerId);
+    }
+
+    public void returnClaim(String customerId) {
+        redisTemplate.execute(RETURN_CLAIM_SCRIPT, List.of(CHANGED_CARTS_KEY, COPYING_CARTS_KEY), customerId);
+    }
+
+    /**
+     * Finds up to {@code count} customers whose cart expired from Redis, with the time it expired at. Carts that are
+     * still in Redis because the Redis clock is behind are left for a later call.
+     *
+     * @param count the maximum number of customers to find
+     * @return the expiry time in epoch milliseconds by customer ID
+     */
+    public Map<String, Long> findExpiredCarts(int count) {
+        Set<ZSetOperations.TypedTuple<String>> expiredCarts = redisTemplate.opsForZSet()
+            .rangeByScoreWithScores(CART_EXPIRY_KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis(), 0, count);
+        Map<String, Long> expiryByCustomerId = new LinkedHashMap<>();
+        if (expiredCarts != null) {
+            expiredCarts.stream()
+                .filter(expiredCart -> !Boolean.TRUE.equals(redisTemplate.hasKey(loadedKey(expiredCart.getValue()))))
+                .forEach(expiredCart -> expiryByCustomerId.put(expiredCart.getValue(),
+                    expiredCart.getScore().longValue()));
+        }
+        return expiryByCustomerId;
+    }
+
+    /**
+     * Forgets expired carts once they are deleted from the database. A cart changed since it was found keeps its
+     * new expiry time.
+     *
+     * @param expiryByCustomerId the expiry times returned by {@link #findExpiredCarts}
+     */
+    public void forgetExpiredCarts(Map<String, Long> expiryByCustomerId) {
+        List<String> args = new ArrayList<>();
+        expiryByCustomerId.forEach((customerId, expiry) -> {
+            args.add(customerId);
+            args.add(expiry.toString());
+        });
+        redisTemplate.execute(FORGET_EXPIRED_SCRIPT, List.of(CART_EXPIRY_KEY), args.toArray());
+    }
+
+    private List<CartItem> removeQuantities(String customerId, String orderId,
+                                            Map<Long, Integer> quantityByProductId) {
+        List<String> args = new ArrayList<>();
+        args.add(orderId);
+        quantityByProductId.forEach((productId, quantity) -> {
+            args.add(productId.toString());
+            args.add(quantity.toString());
+        });
+        List<String> remaining = executeOnLoadedCart(REMOVE_QUANTITIES_SCRIPT, customerId,
+            args.toArray(String[]::new));
+        markChanged(customerId);
+
+        List<CartItem> cartItems = new ArrayList<>();
+        for (int i = 0; i < remaining.size(); i += 3) {
+            cartItems.add(toCartItem(customerId, Long.valueOf(remaining.get(i)), remaining.get(i + 1),
+                remaining.get(i + 2)));
+        }
+        return cartItems;
+    }
+
+    private void markChanged(String customerId) {
+        redisTemplate.execute(MARK_CHANGED_SCRIPT, List.of(CHANGED_CARTS_KEY, CART_EXPIRY_KEY), customerId,
+            String.valueOf(System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    private void loadIfMissing(String customerId) {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(loadedKey(customerId)))) {
+            load(customerId);
+        }
+    }
+
+    /**
+     * Copies the cart of a customer from the database to Redis, unless another caller loaded it first. The database
+     * still holds a cart that expired from Redis until the write-behind job deletes it, such a cart is loaded empty.
+     */
+    private void load(String customerId) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttl.toMillis()));
+        Double expiry = redisTemplate.opsForZSet().score(CART_EXPIRY_KEY, customerId);
+        if (expiry == null || expiry > System.currentTimeMillis()) {
+            cartItemRepository.findByCustomerIdOrderByCreatedOnDesc(customerId).forEach(cartItem -> {
+                args.add(cartItem.getProductId().toString());
+                args.add(String.valueOf(cartItem.getQuantity()));
+                args.add(cartItem.getCreatedOn() == null ? now()
+                    : String.valueOf(cartItem.getCreatedOn().toInstant().toEpochMilli()));
+            });
+        }
+        redisTemplate.execute(LOAD_SCRIPT, cartKeys(customerId), args.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> executeOnLoadedCart(RedisScript<List> script, String customerId, String... args) {
+        Object[] scriptArgs = new Object[args.length + 1];
+        scriptArgs[0] = String.valueOf(ttl.toMillis());
+        System.arraycopy(args, 0, scriptArgs, 1, args.length);
+
+        List<String> result = (List<String>) redisTemplate.execute(script, cartKeys(customerId), scriptArgs);
+        if (isNotLoaded(result)) {
+            load(customerId);
+            result = (List<String>) redisTemplate.execute(script, cartKeys(customerId), scriptArgs);
+        }
+        return result;
+    }
+
+    private static boolean isNotLoaded(List<String> result) {
+        return result == null || (!result.isEmpty() && result.getFirst() == null);
+    }
+
+    private static RedisScript<List> cartScript(String body) {
+        return RedisScript.of(CART_SCRIPT_PREFIX + body + CART_SCRIPT_SUFFIX, List.class);
+    }
+
+    private static List<String> cartKeys(String customerId) {
+        return List.of(quantitiesKey(customerId), addedTimesKey(customerId), loadedKey(customerId),
+            removedOrdersKey(customerId));
+    }
+
+    /* The hash tag keeps all the keys of a customer in the same slot, which scripts require on a Redis cluster */
+    private static String quantitiesKey(String customerId) {
+        return "cart:{" + customerId + "}";
+    }
+
+    private static String addedTimesKey(String customerId) {
+        return "cart:{" + customerId + "}:added";
+    }
+
+    private static String loadedKey(String customerId) {
+        return "cart:{" + customerId + "}:loaded";
+    }
+
+    private static String removedOrdersKey(String customerId) {
+        return "cart:{" + customerId + "}:orders";
+    }
+
+    private static String now() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    private static CartItem toCartItem(String customerId, Long productId, String quantity, String addedTime) {
+        CartItem cartItem = CartItem.builder()
+            .customerId(customerId)
+            .productId(productId)
+            .quantity(Integer.parseInt(quantity))
+            .build();
+        if (StringUtils.hasText(addedTime)) {
+            cartItem.setCreatedOn(Instant.ofEpochMilli(Long.parseLong(addedTime)).atZone(ZoneOffset.UTC));
+        }
+        return cartItem;
+    }
+}
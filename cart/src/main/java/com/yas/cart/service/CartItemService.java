@@ -2,7 +2,7 @@ package com.yas.cart.service;
 
 import com.yas.cart.mapper.CartItemMapper;
 import com.yas.cart.model.CartItem;
-import com.yas.cart.repository.CartItemRepository;
+import com.yas.cart.repository.CartItemStore;
 import com.yas.cart.utils.Constants;
 import com.yas.cart.viewmodel.CartItemDeleteVm;
 import com.yas.cart.viewmodel.CartItemGetVm;
@@ -12,12 +12,14 @@ import com.yas.commonlibrary.exception.BadRequestException;
 import com.yas.commonlibrary.exception.InternalServerErrorException;
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.commonlibrary.utils.AuthenticationUtils;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -30,8 +32,8 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 @Slf4j
 public class CartItemService {
-    private final CartItemRepository cartItemRepository;
-    private final ProductService productService;
+    private final CartItemStore cartItemStore;
+    private final PublishedProductCacheService publishedProductCacheService;
     private final CartItemMapper cartItemMapper;
 
     @Transactional
@@ -51,76 +53,114 @@ public class CartItemService {
         String currentUserId = AuthenticationUtils.extractUserId();
         CartItem cartItem = cartItemMapper.toCartItem(currentUserId, productId, cartItemPutVm.quantity());
 
-        CartItem savedCartItem = cartItemRepository.save(cartItem);
+        CartItem savedCartItem = cartItemStore.save(cartItem);
         return cartItemMapper.toGetVm(savedCartItem);
     }
 
+    /**
+     * Sets the quantity of many cart items at once, creating the missing ones. All products are validated with a
+     * single lookup and the cart items are written in one batch.
+     *
+     * @param cartItemPostVms the products and their new quantities, each product at most once
+     * @return the saved cart items
+     */
+    @Transactional
+    public List<CartItemGetVm> updateCartItems(List<CartItemPostVm> cartItemPostVms) {
+        List<Long> productIds = cartItemPostVms.stream().map(CartItemPostVm::productId).toList();
+        if (new HashSet<>(productIds).size() != productIds.size()) {
+            throw new BadRequestException(Constants.ErrorCode.DUPLICATED_CART_ITEMS);
+        }
+        validateProducts(productIds);
+
+        String currentUserId = AuthenticationUtils.extractUserId();
+        Map<Long, CartItem> cartItemById = cartItemStore
+            .findByCustomerIdAndProductIdIn(currentUserId, productIds)
+            .stream()
+            .collect(Collectors.toMap(CartItem::getProductId, Function.identity()));
+
+        List<CartItem> cartItems = cartItemPostVms.stream()
+            .map(cartItemPostVm -> Optional.ofNullable(cartItemById.get(cartItemPostVm.productId()))
+                .map(existingCartItem -> {
+                    existingCartItem.setQuantity(cartItemPostVm.quantity());
+                    return existingCartItem;
+                })
+                .orElseGet(() -> cartItemMapper.toCartItem(cartItemPostVm, currentUserId)))
+            .toList();
+
+        return cartItemMapper.toGetVms(cartItemStore.saveAll(cartItems));
+    }
+
     public List<CartItemGetVm> getCartItems() {
         String currentUserId = AuthenticationUtils.extractUserId();
-        List<CartItem> cartItems = cartItemRepository.findByCustomerIdOrderByCreatedOnDesc(currentUserId);
+        List<CartItem> cartItems = cartItemStore.findByCustomerIdOrderByCreatedOnDesc(currentUserId);
         return cartItemMapper.toGetVms(cartItems);
     }
 
     @Transactional
     public List<CartItemGetVm> deleteOrAdjustCartItem(List<CartItemDeleteVm> cartItemDeleteVms) {
         validateCartItemDeleteVms(cartItemDeleteVms);
+        return performDeleteOrAdjustCartItem(AuthenticationUtils.extractUserId(), cartItemDeleteVms);
+    }
 
-        Map<Long, CartItem> cartItemById = getCartItemsByProductIds(cartItemDeleteVms);
-
-        List<CartItem> cartItemsToDelete = new ArrayList<>();
-        List<CartItem> cartItemsToAdjust = new ArrayList<>();
-
-        for (CartItemDeleteVm cartItemDeleteVm : cartItemDeleteVms) {
-            Optional<CartItem> optionalCartItem = Optional.ofNullable(cartItemById.get(cartItemDeleteVm.productId()));
-            optionalCartItem.ifPresent(cartItem -> {
-                if (cartItem.getQuantity() <= cartItemDeleteVm.quantity()) {
-                    cartItemsToDelete.add(cartItem);
-                } else {
-                    cartItem.setQuantity(cartItem.getQuantity() - cartItemDeleteVm.quantity());
-                    cartItemsToAdjust.add(cartItem);
-                }
-            });
-        }
+    /**
+     * Removes the quantities of an order from the cart of its customer, cart items left without quantity are
+     * deleted. The quantities of an order are removed once.
+     *
+     * @param customerId        the ID of the customer whose cart is updated
+     * @param orderId           the ID of the order whose quantities are removed
+     * @param cartItemDeleteVms the products and quantities to remove
+     * @return the cart items whose quantity was reduced
+     */
+    @Transactional
+    public List<CartItemGetVm> deleteOrderedCartItems(String customerId, Long orderId,
+                                                      List<CartItemDeleteVm> cartItemDeleteVms) {
+        validateCartItemDeleteVms(cartItemDeleteVms);
+        return cartItemMapper.toGetVms(cartItemStore.removeOrderedQuantities(customerId, orderId,
+            toQuantityByProductId(cartItemDeleteVms)));
+    }
 
-        cartItemRepository.deleteAll(cartItemsToDelete);
-        List<CartItem> updatedCartItems = cartItemRepository.saveAll(cartItemsToAdjust);
+    private List<CartItemGetVm> performDeleteOrAdjustCartItem(String customerId,
+                                                              List<CartItemDeleteVm> cartItemDeleteVms) {
+        List<CartItem> updatedCartItems = cartItemStore.removeQuantities(customerId,
+            toQuantityByProductId(cartItemDeleteVms));
 
         return cartItemMapper.toGetVms(updatedCartItems);
     }
 
+    private static Map<Long, Integer> toQuantityByProductId(List<CartItemDeleteVm> cartItemDeleteVms) {
+        return cartItemDeleteVms
+            .stream()
+            .collect(Collectors.toMap(CartItemDeleteVm::productId, CartItemDeleteVm::quantity,
+                (quantity, duplicatedQuantity) -> quantity, LinkedHashMap::new));
+    }
+
     @Transactional
     public void deleteCartItem(Long productId) {
         String currentUserId = AuthenticationUtils.extractUserId();
-        cartItemRepository.deleteByCustomerIdAndProductId(currentUserId, productId);
+        cartItemStore.deleteByCustomerIdAndProductId(currentUserId, productId);
     }
 
     private void validateProduct(Long productId) {
-        if (!productService.existsById(productId)) {
-            throw new NotFoundException(Constants.ErrorCode.NOT_FOUND_PRODUCT, productId);
+        validateProducts(List.of(productId));
+    }
+
+    private void validateProducts(List<Long> productIds) {
+        Set<Long> unpublishedProductIds = publishedProductCacheService.findUnpublishedProductIds(productIds);
+        if (!unpublishedProductIds.isEmpty()) {
+            throw new NotFoundException(Constants.ErrorCode.NOT_FOUND_PRODUCT,
+                unpublishedProductIds.iterator().next());
         }
     }
 
     private CartItem performAddCartItem(CartItemPostVm cartItemPostVm, String currentUserId) {
         try {
-            return cartItemRepository.findByCustomerIdAndProductId(currentUserId, cartItemPostVm.productId())
-                .map(existingCartItem -> updateExistingCartItem(cartItemPostVm, existingCartItem))
-                .orElseGet(() -> createNewCartItem(cartItemPostVm, currentUserId));
+            return cartItemStore.addQuantity(currentUserId, cartItemPostVm.productId(), cartItemPostVm.quantity());
         } catch (PessimisticLockingFailureException e) {
             log.error("Failed to acquire lock for adding cart item", e);
             throw new InternalServerErrorException(Constants.ErrorCode.ADD_CART_ITEM_FAILED);
         }
     }
 
-    private CartItem createNewCartItem(CartItemPostVm cartItemPostVm, String currentUserId) {
-        CartItem cartItem = cartItemMapper.toCartItem(cartItemPostVm, currentUserId);
-        return cartItemRepository.save(cartItem);
-    }
-
-    private CartItem updateExistingCartItem(CartItemPostVm cartItemPostVm, CartItem existingCartItem) {
-        existingCartItem.setQuantity(existingCartItem.getQuantity() + cartItemPostVm.quantity());
-        return cartItemRepository.save(existingCartItem);
-    }
-
     private void validateCartItemDeleteVms(List<CartItemDeleteVm> cartItemDeleteVms) {
         Map<Long, Integer> quantityByProductId = new HashMap<>();
 
@@ -134,16 +174,4 @@ public class CartItemService {
             quantityByProductId.put(cartItemDeleteVm.productId(), cartItemDeleteVm.quantity());
         }
     }
-
-    private Map<Long, CartItem> getCartItemsByProductIds(List<CartItemDeleteVm> cartItemDeleteVms) {
-        String currentUserId = AuthenticationUtils.extractUserId();
-        List<Long> productIds = cartItemDeleteVms
-            .stream()
-            .map(CartItemDeleteVm::productId)
-            .toList();
-        List<CartItem> cartItems = cartItemRepository.findByCustomerIdAndProductIdIn(currentUserId, productIds);
-        return cartItems
-            .stream()
-            .collect(Collectors.toMap(CartItem::getProductId, Function.identity()));
-    }
 }
\ No newline at end of file
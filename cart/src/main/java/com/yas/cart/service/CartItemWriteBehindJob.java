@@ -0,0 +1,64 @@
+package com.yas.cart.service;
+
+import com.yas.cart.repository.RedisCartItemStore;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies the carts changed in Redis to the database every {@code yas.cart.redis.write-behind.interval}, at most
+ * {@code yas.cart.redis.write-behind.batch-size} carts per run. A cart stays marked changed until it is copied, a
+ * cart that fails to copy is retried on a later run. Carts that expired from Redis are then deleted from the
+ * database, at most a batch per run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "yas.cart.store", havingValue = "redis")
+public class CartItemWriteBehindJob {
+    private final RedisCartItemStore redisCartItemStore;
+    private final CartItemWriteBehindService cartItemWriteBehindService;
+    private final int batchSize;
+
+    public CartItemWriteBehindJob(RedisCartItemStore redisCartItemStore,
+                                  CartItemWriteBehindService cartItemWriteBehindService,
+                                  @Value("${yas.cart.redis.write-behind.batch-size:500}") int batchSize) {
+        this.redisCartItemStore = redisCartItemStore;
+        this.cartItemWriteBehindService = cartItemWriteBehindService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${yas.cart.redis.write-behind.interval:PT5S}")
+    public void copyChangedCarts() {
+        List<String> customerIds = redisCartItemStore.claimChangedCustomerIds(batchSize);
+        int failedCount = 0;
+        for (String customerId : customerIds) {
+            try {
+                cartItemWriteBehindService.replaceCart(customerId,
+                    redisCartItemStore.findCachedByCustomerId(customerId));
+                redisCartItemStore.releaseClaim(customerId);
+            } catch (RuntimeException e) {
+                failedCount++;
+                redisCartItemStore.returnClaim(customerId);
+                log.warn("Failed to copy the cart of customer {} to the database", customerId, e);
+            }
+        }
+        if (failedCount > 0) {
+            log.warn("Copied {} carts to the database, {} failed", customerIds.size() - failedCount, failedCount);
+        }
+
+        deleteExpiredCarts();
+    }
+
+    private void deleteExpiredCarts() {
+        Map<String, Long> expiryByCustomerId = redisCartItemStore.findExpiredCarts(batchSize);
+        if (!expiryByCustomerId.isEmpty()) {
+            cartItemWriteBehindService.deleteCarts(List.copyOf(expiryByCustomerId.keySet()));
+            redisCartItemStore.forgetExpiredCarts(expiryByCustomerId);
+            log.debug("Deleted {} expired carts from the database", expiryByCustomerId.size());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.yas.cart.service;
+
+import com.yas.cart.model.CartItem;
+import com.yas.cart.repository.CartItemRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Copies carts kept in Redis to the {@code cart_item} table, where they are read for analytics.
+ */
+@Service
+@ConditionalOnProperty(name = "yas.cart.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class CartItemWriteBehindService {
+    private final CartItemRepository cartItemRepository;
+
+    /**
+     * Replaces the cart items of a customer in the database. Existing rows keep their creation time.
+     *
+     * @param customerId the ID of the customer whose cart is copied
+     * @param cartItems  all the cart items of the customer
+     */
+    @Transactional
+    public void replaceCart(String customerId, List<CartItem> cartItems) {
+        Map<Long, CartItem> storedCartItemById = cartItemRepository.findByCustomerIdOrderByCreatedOnDesc(customerId)
+            .stream()
+            .collect(Collectors.toMap(CartItem::getProductId, Function.identity()));
+
+        List<CartItem> cartItemsToSave = new ArrayList<>();
+        for (CartItem cartItem : cartItems) {
+            CartItem storedCartItem = storedCartItemById.remove(cartItem.getProductId());
+            if (storedCartItem == null) {
+                cartItemsToSave.add(CartItem.builder()
+                    .customerId(customerId)
+                    .productId(cartItem.getProductId())
+                    .quantity(cartItem.getQuantity())
+                    .build());
+            } else if (storedCartItem.getQuantity() != cartItem.getQuantity()) {
+                storedCartItem.setQuantity(cartItem.getQuantity());
+                cartItemsToSave.add(storedCartItem);
+            }
+        }
+
+        cartItemRepository.deleteAll(List.copyOf(storedCartItemById.values()));
+        cartItemRepository.saveAll(cartItemsToSave);
+    }
+
+    /**
+     * Deletes the carts that expired from Redis from the database.
+     *
+     * @param customerIds the IDs of the customers whose cart expired
+     */
+    @Transactional
+    public void deleteCarts(List<String> customerIds) {
+        cartItemRepository.deleteByCustomerIdIn(customerIds);
+    }
+}
@@ -0,0 +1,43 @@
+package com.yas.cart.service;
+
+import com.yas.cart.viewmodel.CartItemDeleteVm;
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.commonlibrary.kafka.cdc.repository.ProcessedOrderEventRepository;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderEventService {
+    private final ProcessedOrderEventRepository processedOrderEventRepository;
+    private final CartItemService cartItemService;
+
+    /**
+     * Removes the ordered quantities from the cart of the customer, once per order.
+     *
+     * @param event the order created event.
+     */
+    @Transactional
+    public void removeOrderedItems(OrderCreatedEvent event) {
+        if (!processedOrderEventRepository.processOnce(event.getOrderId(), () -> doRemoveOrderedItems(event))) {
+            log.debug("Cart items of order {} were already removed", event.getOrderId());
+        }
+    }
+
+    private void doRemoveOrderedItems(OrderCreatedEvent event) {
+        Map<Long, Integer> quantityByProductId = new LinkedHashMap<>();
+        event.getItems().forEach(item -> quantityByProductId.merge(item.getProductId(), item.getQuantity(),
+            Integer::sum));
+        List<CartItemDeleteVm> cartItemDeleteVms = quantityByProductId.entrySet().stream()
+            .map(entry -> new CartItemDeleteVm(entry.getKey(), entry.getValue()))
+            .toList();
+
+        cartItemService.deleteOrderedCartItems(event.getCustomerId(), event.getOrderId(), cartItemDeleteVms);
+    }
+}
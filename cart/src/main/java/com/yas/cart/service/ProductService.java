@@ -5,6 +5,7 @@ import com.yas.commonlibrary.config.ServiceUrlConfig;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
@@ -36,6 +37,26 @@ public class ProductService extends AbstractCircuitBreakFallbackHandler {
             .getBody();
     }
 
+    /**
+     * Returns which of the given products exist and are published, in one call to the product service.
+     */
+    @Retry(name = "restApi")
+    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handlePublishedProductIdsFallback")
+    public List<Long> getPublishedProductIds(Collection<Long> ids) {
+        final URI url = UriComponentsBuilder
+            .fromHttpUrl(serviceUrlConfig.product())
+            .path("/storefront/products/published-ids")
+            .queryParam("productId", ids)
+            .build()
+            .toUri();
+        return restClient.get()
+            .uri(url)
+            .retrieve()
+            .toEntity(new ParameterizedTypeReference<List<Long>>() {
+            })
+            .getBody();
+    }
+
     public ProductThumbnailVm getProductById(Long id) {
         List<ProductThumbnailVm> products = getProducts(List.of(id));
         if (CollectionUtils.isEmpty(products)) {
@@ -51,4 +72,8 @@ public class ProductService extends AbstractCircuitBreakFallbackHandler {
     protected List<ProductThumbnailVm> handleProductThumbnailFallback(Throwable throwable) throws Throwable {
         return handleTypedFallback(throwable);
     }
+
+    protected List<Long> handlePublishedProductIdsFallback(Throwable throwable) throws Throwable {
+        return handleTypedFallback(throwable);
+    }
 }
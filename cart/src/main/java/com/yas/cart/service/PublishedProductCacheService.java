@@ -0,0 +1,67 @@
+package com.yas.cart.service;
+
+import com.yas.cart.config.CacheConfig;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers whether products can be added to a cart from a short-lived local cache of the published flag of each
+ * product. Only the products missing from the cache are checked against the product service, in one call. The
+ * entries are updated from the product CDC topic, so changes are seen before the entries expire.
+ */
+@Service
+@RequiredArgsConstructor
+public class PublishedProductCacheService {
+
+    private final ProductService productService;
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the given products that do not exist or are not published.
+     *
+     * @param productIds ids of the products to check.
+     * @return the ids that cannot be added to a cart, in the given order.
+     */
+    public Set<Long> findUnpublishedProductIds(Collection<Long> productIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.PUBLISHED_PRODUCT_CACHE);
+        Set<Long> unpublishedIds = new LinkedHashSet<>();
+        Set<Long> missedIds = new LinkedHashSet<>();
+        for (Long productId : productIds) {
+            Boolean published = cache == null ? null : cache.get(productId, Boolean.class);
+            if (published == null) {
+                missedIds.add(productId);
+            } else if (!published) {
+                unpublishedIds.add(productId);
+            }
+        }
+        if (missedIds.isEmpty()) {
+            return unpublishedIds;
+        }
+
+        Set<Long> publishedIds = new HashSet<>(productService.getPublishedProductIds(missedIds));
+        for (Long productId : missedIds) {
+            boolean published = publishedIds.contains(productId);
+            if (cache != null) {
+                // A CDC update cached while the product service was called is newer than its answer
+                cache.putIfAbsent(productId, published);
+            }
+            if (!published) {
+                unpublishedIds.add(productId);
+            }
+        }
+        return unpublishedIds;
+    }
+
+    public void updateProduct(Long productId, boolean published) {
+        Cache cache = cacheManager.getCache(CacheConfig.PUBLISHED_PRODUCT_CACHE);
+        if (cache != null) {
+            cache.put(productId, published);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset yas:order-outbox-1
+CREATE TABLE IF NOT EXISTS processed_order_event (
+    order_id BIGINT NOT NULL,
+    processed_on TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (order_id)
+);
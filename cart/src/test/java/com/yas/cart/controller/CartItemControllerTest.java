@@ -161,6 +161,43 @@ class CartItemControllerTest {
         }
     }
 
+    @Nested
+    class UpdateCartItemsTest {
+
+        @Test
+        void testUpdateCartItems_whenQuantityIsLessThanOne_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(buildUpdateCartItemsRequest(new CartItemPostVm(PRODUCT_ID_SAMPLE, 0)))
+                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void testUpdateCartItems_whenRequestIsValid_shouldReturnUpdatedCartItems() throws Exception {
+            CartItemPostVm cartItemPostVm = new CartItemPostVm(PRODUCT_ID_SAMPLE, 2);
+            CartItemGetVm expectedCartItemGetVm = CartItemGetVm
+                .builder()
+                .productId(PRODUCT_ID_SAMPLE)
+                .quantity(2)
+                .customerId(CUSTOMER_ID_SAMPLE)
+                .build();
+
+            when(cartItemService.updateCartItems(anyList())).thenReturn(List.of(expectedCartItemGetVm));
+
+            mockMvc.perform(buildUpdateCartItemsRequest(cartItemPostVm))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(expectedCartItemGetVm.productId()))
+                .andExpect(jsonPath("$[0].quantity").value(expectedCartItemGetVm.quantity()));
+
+            verify(cartItemService).updateCartItems(List.of(cartItemPostVm));
+        }
+
+        private MockHttpServletRequestBuilder buildUpdateCartItemsRequest(CartItemPostVm cartItemPostVm)
+            throws Exception {
+            return put("/storefront/cart/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(cartItemPostVm)));
+        }
+    }
+
     @Nested
     class GetCartItemsTest {
 
@@ -0,0 +1,228 @@
+package com.yas.cart.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.cart.model.CartItem;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+class RedisCartItemStoreTest {
+
+    private static final String CUSTOMER_ID = "customer";
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private CartItemRepository cartItemRepository;
+    private RedisCartItemStore redisCartItemStore;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        cartItemRepository = mock(CartItemRepository.class);
+        redisCartItemStore = new RedisCartItemStore(redisTemplate, cartItemRepository, Duration.ofDays(1));
+    }
+
+    @Test
+    void testAddQuantity_whenAddedConcurrently_shouldMergeAllQuantities() throws Exception {
+        List<Callable<CartItem>> adds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            adds.add(() -> redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 2));
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (Future<CartItem> future : executor.invokeAll(adds)) {
+                future.get();
+            }
+        }
+
+        List<CartItem> cartItems = redisCartItemStore.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID);
+        assertEquals(1, cartItems.size());
+        assertEquals(400, cartItems.getFirst().getQuantity());
+        assertNotNull(cartItems.getFirst().getCreatedOn());
+    }
+
+    @Test
+    void testSaveAll_whenCartItemsExist_shouldReplaceQuantities() {
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 5);
+
+        redisCartItemStore.saveAll(List.of(buildCartItem(1L, 2), buildCartItem(2L, 3)));
+
+        List<CartItem> cartItems = redisCartItemStore.findByCustomerIdAndProductIdIn(CUSTOMER_ID, List.of(1L, 2L, 3L));
+        assertEquals(2, cartItems.size());
+        assertEquals(2, cartItems.get(0).getQuantity());
+        assertEquals(3, cartItems.get(1).getQuantity());
+    }
+
+    @Test
+    void testRemoveQuantities_whenQuantityReachesZero_shouldDeleteCartItem() {
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 2L, 5);
+
+        List<CartItem> remainingCartItems = redisCartItemStore.removeQuantities(CUSTOMER_ID,
+            Map.of(1L, 1, 2L, 2, 3L, 1));
+
+        assertEquals(1, remainingCartItems.size());
+        assertEquals(2L, remainingCartItems.getFirst().getProductId());
+        assertEquals(3, remainingCartItems.getFirst().getQuantity());
+        assertEquals(List.of(2L), redisCartItemStore.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID).stream()
+            .map(CartItem::getProductId)
+            .toList());
+    }
+
+    @Test
+    void testFindByCustomerIdOrderByCreatedOnDesc_shouldReturnNewestFirst() throws InterruptedException {
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        Thread.sleep(5);
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 2L, 1);
+
+        List<CartItem> cartItems = redisCartItemStore.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID);
+
+        assertEquals(List.of(2L, 1L), cartItems.stream().map(CartItem::getProductId).toList());
+    }
+
+    @Test
+    void testFindByCustomerIdOrderByCreatedOnDesc_whenCartNotInRedis_shouldLoadItFromDatabaseOnce() {
+        CartItem storedCartItem = buildCartItem(1L, 2);
+        storedCartItem.setCreatedOn(ZonedDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MILLIS));
+        when(cartItemRepository.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID)).thenReturn(List.of(storedCartItem));
+
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 3);
+        List<CartItem> cartItems = redisCartItemStore.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID);
+
+        assertEquals(1, cartItems.size());
+        assertEquals(5, cartItems.getFirst().getQuantity());
+        assertEquals(storedCartItem.getCreatedOn().toInstant(), cartItems.getFirst().getCreatedOn().toInstant());
+        verify(cartItemRepository, times(1)).findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID);
+    }
+
+    @Test
+    void testRemoveOrderedQuantities_whenOrderRemovedAgain_shouldRemoveQuantitiesOnce() {
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 5);
+
+        redisCartItemStore.removeOrderedQuantities(CUSTOMER_ID, 10L, Map.of(1L, 2));
+        List<CartItem> remainingCartItems = redisCartItemStore.removeOrderedQuantities(CUSTOMER_ID, 10L,
+            Map.of(1L, 2));
+
+        assertTrue(remainingCartItems.isEmpty());
+        assertEquals(3, redisCartItemStore.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID).getFirst().getQuantity());
+    }
+
+    @Test
+    void testDeleteByCustomerIdAndProductId_shouldMarkCartChanged() {
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        assertEquals(List.of(CUSTOMER_ID), redisCartItemStore.claimChangedCustomerIds(10));
+        redisCartItemStore.releaseClaim(CUSTOMER_ID);
+
+        redisCartItemStore.deleteByCustomerIdAndProductId(CUSTOMER_ID, 1L);
+
+        assertTrue(redisCartItemStore.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID).isEmpty());
+        assertEquals(List.of(CUSTOMER_ID), redisCartItemStore.claimChangedCustomerIds(10));
+        redisCartItemStore.releaseClaim(CUSTOMER_ID);
+        assertTrue(redisCartItemStore.claimChangedCustomerIds(10).isEmpty());
+    }
+
+    @Test
+    void testClaimChangedCustomerIds_whenClaimReturned_shouldClaimCustomerAgain() {
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        assertEquals(List.of(CUSTOMER_ID), redisCartItemStore.claimChangedCustomerIds(10));
+
+        redisCartItemStore.returnClaim(CUSTOMER_ID);
+
+        assertEquals(List.of(CUSTOMER_ID), redisCartItemStore.claimChangedCustomerIds(10));
+    }
+
+    @Test
+    void testClaimChangedCustomerIds_whenChangedWhileClaimed_shouldClaimCustomerAfterRelease() {
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        assertEquals(List.of(CUSTOMER_ID), redisCartItemStore.claimChangedCustomerIds(10));
+
+        redisCartItemStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        assertTrue(redisCartItemStore.claimChangedCustomerIds(10).isEmpty());
+        redisCartItemStore.releaseClaim(CUSTOMER_ID);
+
+        assertEquals(List.of(CUSTOMER_ID), redisCartItemStore.claimChangedCustomerIds(10));
+    }
+
+    @Test
+    void testFindExpiredCarts_whenCartExpired_shouldReturnCustomerUntilForgotten() throws InterruptedException {
+        RedisCartItemStore shortLivedStore =
+            new RedisCartItemStore(redisTemplate, cartItemRepository, Duration.ofMillis(50));
+        shortLivedStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        assertTrue(shortLivedStore.findExpiredCarts(10).isEmpty());
+
+        Thread.sleep(100);
+
+        Map<String, Long> expiryByCustomerId = shortLivedStore.findExpiredCarts(10);
+        assertEquals(Set.of(CUSTOMER_ID), expiryByCustomerId.keySet());
+        assertTrue(shortLivedStore.findCachedByCustomerId(CUSTOMER_ID).isEmpty());
+        shortLivedStore.forgetExpiredCarts(expiryByCustomerId);
+        assertTrue(shortLivedStore.findExpiredCarts(10).isEmpty());
+    }
+
+    @Test
+    void testFindByCustomerIdOrderByCreatedOnDesc_whenCartExpired_shouldNotLoadItFromDatabase()
+        throws InterruptedException {
+        RedisCartItemStore shortLivedStore =
+            new RedisCartItemStore(redisTemplate, cartItemRepository, Duration.ofMillis(50));
+        shortLivedStore.addQuantity(CUSTOMER_ID, 1L, 1);
+        Thread.sleep(100);
+
+        assertTrue(shortLivedStore.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID).isEmpty());
+        verify(cartItemRepository, times(1)).findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID);
+    }
+
+    private static CartItem buildCartItem(Long productId, int quantity) {
+        return CartItem.builder()
+            .customerId(CUSTOMER_ID)
+            .productId(productId)
+            .quantity(quantity)
+            .build();
+    }
+}
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.when;
 import com.yas.cart.mapper.CartItemMapper;
 import com.yas.cart.model.CartItem;
 import com.yas.cart.repository.CartItemRepository;
+import com.yas.cart.repository.JpaCartItemStore;
 import com.yas.cart.viewmodel.CartItemDeleteVm;
 import com.yas.cart.viewmodel.CartItemGetVm;
 import com.yas.cart.viewmodel.CartItemPostVm;
@@ -21,11 +22,11 @@ import com.yas.commonlibrary.exception.InternalServerErrorException;
 import com.yas.commonlibrary.exception.NotFoundException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
@@ -42,17 +43,18 @@ class CartItemServiceTest {
     private CartItemRepository cartItemRepository;
 
     @Mock
-    private ProductService productService;
+    private PublishedProductCacheService publishedProductCacheService;
 
     @Spy
     private CartItemMapper cartItemMapper = new CartItemMapper();
 
-    @InjectMocks
     private CartItemService cartItemService;
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(cartItemRepository, productService);
+        Mockito.reset(cartItemRepository, publishedProductCacheService);
+        cartItemService = new CartItemService(new JpaCartItemStore(cartItemRepository), publishedProductCacheService,
+            cartItemMapper);
     }
 
     private static final String CURRENT_USER_ID_SAMPLE = "userId";
@@ -74,7 +76,8 @@ class CartItemServiceTest {
             cartItemPostVmBuilder.productId(-1L);
             CartItemPostVm cartItemPostVm = cartItemPostVmBuilder.build();
 
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(false);
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(cartItemPostVm.productId())))
+                .thenReturn(Set.of(cartItemPostVm.productId()));
 
             assertThrows(NotFoundException.class, () -> cartItemService.addCartItem(cartItemPostVm));
         }
@@ -91,7 +94,8 @@ class CartItemServiceTest {
             int expectedQuantity = existingCartItem.getQuantity() + cartItemPostVm.quantity();
 
             mockCurrentUserId(CURRENT_USER_ID_SAMPLE);
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(true);
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(cartItemPostVm.productId())))
+                .thenReturn(Set.of());
             when(cartItemRepository.findByCustomerIdAndProductId(anyString(), anyLong())).thenReturn(
                 Optional.of(existingCartItem));
             when(cartItemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -109,7 +113,8 @@ class CartItemServiceTest {
             CartItemPostVm cartItemPostVm = cartItemPostVmBuilder.build();
 
             mockCurrentUserId(CURRENT_USER_ID_SAMPLE);
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(true);
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(cartItemPostVm.productId())))
+                .thenReturn(Set.of());
             when(cartItemRepository.findByCustomerIdAndProductId(anyString(), anyLong())).thenReturn(
                 java.util.Optional.empty());
             when(cartItemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -127,7 +132,8 @@ class CartItemServiceTest {
             CartItemPostVm cartItemPostVm = cartItemPostVmBuilder.build();
 
             mockCurrentUserId(CURRENT_USER_ID_SAMPLE);
-            when(productService.existsById(cartItemPostVm.productId())).thenReturn(true);
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(cartItemPostVm.productId())))
+                .thenReturn(Set.of());
             when(cartItemRepository.findByCustomerIdAndProductId(anyString(), anyLong()))
                 .thenThrow(new PessimisticLockingFailureException("Locking failed"));
 
@@ -148,7 +154,8 @@ class CartItemServiceTest {
         void testUpdateCartItem_whenProductNotFound_shouldThrowNotFoundException() {
             Long notExistingProductId = -1L;
 
-            when(productService.existsById(notExistingProductId)).thenReturn(false);
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(notExistingProductId)))
+                .thenReturn(Set.of(notExistingProductId));
 
             assertThrows(NotFoundException.class,
                 () -> cartItemService.updateCartItem(notExistingProductId, cartItemPutVm));
@@ -157,7 +164,8 @@ class CartItemServiceTest {
         @Test
         void testUpdateCartItem_whenRequestIsValid_shouldReturnCartItem() {
             mockCurrentUserId(CURRENT_USER_ID_SAMPLE);
-            when(productService.existsById(PRODUCT_ID_SAMPLE)).thenReturn(true);
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(PRODUCT_ID_SAMPLE)))
+                .thenReturn(Set.of());
             when(cartItemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             CartItemGetVm updatedCartItem = cartItemService.updateCartItem(PRODUCT_ID_SAMPLE, cartItemPutVm);
@@ -169,6 +177,60 @@ class CartItemServiceTest {
         }
     }
 
+    @Nested
+    class UpdateCartItemsTest {
+
+        @Test
+        void testUpdateCartItems_whenProductIdsDuplicated_shouldThrowBadRequestException() {
+            List<CartItemPostVm> cartItemPostVms = List.of(
+                new CartItemPostVm(PRODUCT_ID_SAMPLE, 1),
+                new CartItemPostVm(PRODUCT_ID_SAMPLE, 2));
+
+            assertThrows(BadRequestException.class, () -> cartItemService.updateCartItems(cartItemPostVms));
+        }
+
+        @Test
+        void testUpdateCartItems_whenProductNotFound_shouldThrowNotFoundException() {
+            List<CartItemPostVm> cartItemPostVms = List.of(
+                new CartItemPostVm(PRODUCT_ID_SAMPLE, 1),
+                new CartItemPostVm(-1L, 1));
+
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(PRODUCT_ID_SAMPLE, -1L)))
+                .thenReturn(Set.of(-1L));
+
+            assertThrows(NotFoundException.class, () -> cartItemService.updateCartItems(cartItemPostVms));
+        }
+
+        @Test
+        void testUpdateCartItems_whenRequestIsValid_shouldSetQuantitiesWithOneValidation() {
+            Long newProductId = 2L;
+            CartItem existingCartItem = CartItem.builder()
+                .customerId(CURRENT_USER_ID_SAMPLE)
+                .productId(PRODUCT_ID_SAMPLE)
+                .quantity(1)
+                .build();
+            List<CartItemPostVm> cartItemPostVms = List.of(
+                new CartItemPostVm(PRODUCT_ID_SAMPLE, 5),
+                new CartItemPostVm(newProductId, 3));
+
+            mockCurrentUserId(CURRENT_USER_ID_SAMPLE);
+            when(publishedProductCacheService.findUnpublishedProductIds(List.of(PRODUCT_ID_SAMPLE, newProductId)))
+                .thenReturn(Set.of());
+            when(cartItemRepository.findByCustomerIdAndProductIdIn(any(), any())).thenReturn(List.of(existingCartItem));
+            when(cartItemRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            List<CartItemGetVm> cartItemGetVms = cartItemService.updateCartItems(cartItemPostVms);
+
+            verify(publishedProductCacheService).findUnpublishedProductIds(any());
+            verify(cartItemRepository).saveAll(any());
+            assertEquals(2, cartItemGetVms.size());
+            assertEquals(5, existingCartItem.getQuantity());
+            assertEquals(3, cartItemGetVms.stream()
+                .filter(cartItem -> newProductId.equals(cartItem.productId()))
+                .findFirst().orElseThrow().quantity());
+        }
+    }
+
     @Nested
     class GetCartItemsTest {
 
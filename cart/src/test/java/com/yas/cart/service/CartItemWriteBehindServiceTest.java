@@ -0,0 +1,55 @@
+package com.yas.cart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.cart.model.CartItem;
+import com.yas.cart.repository.CartItemRepository;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CartItemWriteBehindServiceTest {
+
+    private static final String CUSTOMER_ID = "customer";
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @InjectMocks
+    private CartItemWriteBehindService cartItemWriteBehindService;
+
+    @Test
+    void testReplaceCart_shouldUpdateChangedInsertNewAndDeleteRemovedCartItems() {
+        CartItem unchangedCartItem = buildCartItem(1L, 1);
+        CartItem changedCartItem = buildCartItem(2L, 1);
+        CartItem removedCartItem = buildCartItem(3L, 1);
+        when(cartItemRepository.findByCustomerIdOrderByCreatedOnDesc(CUSTOMER_ID))
+            .thenReturn(List.of(unchangedCartItem, changedCartItem, removedCartItem));
+
+        cartItemWriteBehindService.replaceCart(CUSTOMER_ID,
+            List.of(buildCartItem(1L, 1), buildCartItem(2L, 4), buildCartItem(4L, 2)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CartItem>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(cartItemRepository).saveAll(savedCaptor.capture());
+        verify(cartItemRepository).deleteAll(List.of(removedCartItem));
+        List<CartItem> savedCartItems = savedCaptor.getValue();
+        assertEquals(List.of(2L, 4L), savedCartItems.stream().map(CartItem::getProductId).toList());
+        assertEquals(List.of(4, 2), savedCartItems.stream().map(CartItem::getQuantity).toList());
+    }
+
+    private static CartItem buildCartItem(Long productId, int quantity) {
+        return CartItem.builder()
+            .customerId(CUSTOMER_ID)
+            .productId(productId)
+            .quantity(quantity)
+            .build();
+    }
+}
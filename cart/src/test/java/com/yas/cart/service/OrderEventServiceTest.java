@@ -0,0 +1,50 @@
+package com.yas.cart.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.cart.viewmodel.CartItemDeleteVm;
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.commonlibrary.kafka.cdc.repository.ProcessedOrderEventRepository;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventServiceTest {
+    @Mock
+    private ProcessedOrderEventRepository processedOrderEventRepository;
+
+    @Mock
+    private CartItemService cartItemService;
+
+    @InjectMocks
+    private OrderEventService orderEventService;
+
+    @Test
+    void testRemoveOrderedItems_whenOrderNotProcessed_shouldRemoveMergedQuantitiesFromCustomerCart() {
+        when(processedOrderEventRepository.processOnce(eq(10L), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+
+        orderEventService.removeOrderedItems(buildEvent());
+
+        verify(cartItemService).deleteOrderedCartItems("customer", 10L,
+            List.of(new CartItemDeleteVm(1L, 3), new CartItemDeleteVm(2L, 1)));
+    }
+
+    private static OrderCreatedEvent buildEvent() {
+        return OrderCreatedEvent.builder()
+            .orderId(10L)
+            .customerId("customer")
+            .items(List.of(new OrderCreatedEvent.Item(1L, 2), new OrderCreatedEvent.Item(2L, 1),
+                new OrderCreatedEvent.Item(1L, 1)))
+            .build();
+    }
+}
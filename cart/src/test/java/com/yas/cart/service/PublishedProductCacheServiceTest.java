@@ -0,0 +1,74 @@
+package com.yas.cart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.cart.config.CacheConfig;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+class PublishedProductCacheServiceTest {
+
+    private ProductService productService;
+    private PublishedProductCacheService publishedProductCacheService;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        publishedProductCacheService = new PublishedProductCacheService(productService,
+            new CaffeineCacheManager(CacheConfig.PUBLISHED_PRODUCT_CACHE));
+    }
+
+    @Test
+    void testFindUnpublishedProductIds_whenSomeProductsCached_shouldOnlyRequestMissedProducts() {
+        when(productService.getPublishedProductIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+        when(productService.getPublishedProductIds(Set.of(3L))).thenReturn(List.of(3L));
+
+        publishedProductCacheService.findUnpublishedProductIds(List.of(1L, 2L));
+        Set<Long> unpublishedIds = publishedProductCacheService.findUnpublishedProductIds(List.of(1L, 2L, 3L));
+
+        verify(productService).getPublishedProductIds(Set.of(3L));
+        assertEquals(Set.of(2L), unpublishedIds);
+    }
+
+    @Test
+    void testFindUnpublishedProductIds_whenAllProductsCached_shouldNotCallProductService() {
+        when(productService.getPublishedProductIds(Set.of(1L))).thenReturn(List.of(1L));
+
+        publishedProductCacheService.findUnpublishedProductIds(List.of(1L));
+        Set<Long> unpublishedIds = publishedProductCacheService.findUnpublishedProductIds(List.of(1L));
+
+        verify(productService).getPublishedProductIds(anyCollection());
+        assertEquals(Set.of(), unpublishedIds);
+    }
+
+    @Test
+    void testFindUnpublishedProductIds_whenProductUpdatedDuringLookup_shouldKeepUpdatedFlag() {
+        when(productService.getPublishedProductIds(Set.of(1L))).thenAnswer(invocation -> {
+            publishedProductCacheService.updateProduct(1L, false);
+            return List.of(1L);
+        });
+
+        publishedProductCacheService.findUnpublishedProductIds(List.of(1L));
+
+        assertEquals(Set.of(1L), publishedProductCacheService.findUnpublishedProductIds(List.of(1L)));
+        verify(productService).getPublishedProductIds(anyCollection());
+    }
+
+    @Test
+    void testUpdateProduct_whenProductUnpublished_shouldRejectCachedProduct() {
+        when(productService.getPublishedProductIds(Set.of(1L))).thenReturn(List.of(1L));
+        publishedProductCacheService.findUnpublishedProductIds(List.of(1L));
+
+        publishedProductCacheService.updateProduct(1L, false);
+
+        assertEquals(Set.of(1L), publishedProductCacheService.findUnpublishedProductIds(List.of(1L)));
+        verify(productService).getPublishedProductIds(anyCollection());
+    }
+}
@@ -0,0 +1,157 @@
+package com.yas.commonlibrary.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yas.commonlibrary.csv.anotation.CsvColumn;
+import com.yas.commonlibrary.csv.anotation.CsvName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports one million rows through the streaming path and through the in-memory {@code byte[]} path, and reports
+ * rows per second and the peak heap of each. Also compares reading the cells with the cached method handles against
+ * the previous per-cell {@code getMethod} + {@code invoke} lookup.
+ *
+ * <p>Run with {@code mvn verify -Dcsv.benchmark=true}; it is skipped otherwise. The peak heap is the sum of the
+ * peaks of the heap pools, so it is an upper bound.
+ */
+@EnabledIfSystemProperty(named = "csv.benchmark", matches = "true")
+class CsvExporterBenchmarkIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsvExporterBenchmarkIT.class);
+
+    private static final int ROW_COUNT = 1_000_000;
+
+    @SuperBuilder
+    @CsvName(fileName = "Benchmark")
+    @Getter
+    @Setter
+    static class BenchmarkCsv extends BaseCsv {
+
+        @CsvColumn(columnName = "Name")
+        private String name;
+
+        @CsvColumn(columnName = "Email")
+        private String email;
+
+        @CsvColumn(columnName = "Total")
+        private BigDecimal total;
+
+        @CsvColumn(columnName = "Created on")
+        private ZonedDateTime createdOn;
+
+        @CsvColumn(columnName = "Tags")
+        private List<String> tags;
+    }
+
+    @Test
+    void exportOneMillionRows() throws IOException {
+        // Warm up both paths so the measured runs are compiled
+        CsvExporter.exportToCsv(rows(10_000), BenchmarkCsv.class, OutputStream.nullOutputStream());
+        CsvExporter.exportToCsv(rows(10_000).map(BaseCsv.class::cast).toList(), BenchmarkCsv.class);
+
+        CountingOutputStream outputStream = new CountingOutputStream();
+        resetHeapPeak();
+        long start = System.nanoTime();
+        CsvExporter.exportToCsv(rows(ROW_COUNT), BenchmarkCsv.class, outputStream);
+        report("streaming", System.nanoTime() - start, outputStream.count);
+
+        resetHeapPeak();
+        start = System.nanoTime();
+        byte[] csv = CsvExporter.exportToCsv(rows(ROW_COUNT).map(BaseCsv.class::cast).toList(), BenchmarkCsv.class);
+        report("in-memory", System.nanoTime() - start, csv.length);
+
+        assertThat(csv).hasSize((int) outputStream.count);
+    }
+
+    @Test
+    void readCellsWithMethodHandlesAndReflection() throws Exception {
+        List<BenchmarkCsv> data = rows(ROW_COUNT).toList();
+        List<Field> fields = Stream.concat(Stream.of(BaseCsv.class.getDeclaredFields()),
+                Stream.of(BenchmarkCsv.class.getDeclaredFields()))
+            .filter(field -> field.getAnnotation(CsvColumn.class) != null)
+            .toList();
+
+        long start = System.nanoTime();
+        long reflectionChars = 0;
+        for (BenchmarkCsv row : data) {
+            for (Field field : fields) {
+                Method getter = row.getClass().getMethod("get" + StringUtils.capitalize(field.getName()));
+                reflectionChars += String.valueOf(getter.invoke(row)).length();
+            }
+        }
+        long reflectionNanos = System.nanoTime() - start;
+
+        CountingOutputStream outputStream = new CountingOutputStream();
+        start = System.nanoTime();
+        CsvExporter.exportToCsv(data.stream(), BenchmarkCsv.class, outputStream);
+        long exportNanos = System.nanoTime() - start;
+
+        LOG.info("Per-cell reflection read {} chars in {} ms, full export with method handles took {} ms",
+            reflectionChars, reflectionNanos / 1_000_000, exportNanos / 1_000_000);
+        assertThat(outputStream.count).isPositive();
+    }
+
+    private static Stream<BenchmarkCsv> rows(int count) {
+        ZonedDateTime createdOn = ZonedDateTime.now();
+        return LongStream.rangeClosed(1, count)
+            .mapToObj(id -> BenchmarkCsv.builder()
+                .id(id)
+                .name("Customer " + id)
+                .email("customer" + id + "@example.com")
+                .total(BigDecimal.valueOf(id % 10_000, 2))
+                .createdOn(createdOn.minusMinutes(id))
+                .tags(List.of("tag" + id % 7, "tag" + id % 11))
+                .build());
+    }
+
+    private static void resetHeapPeak() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    private static void report(String path, long nanos, long bytes) {
+        long peakHeap = heapPools().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        LOG.info("{}: {} rows, {} MB of CSV in {} ms, {} rows/s, peak heap {} MB", path, ROW_COUNT,
+            bytes / (1024 * 1024), nanos / 1_000_000, ROW_COUNT * 1_000_000_000L / nanos,
+            peakHeap / (1024 * 1024));
+    }
+
+    private static Stream<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
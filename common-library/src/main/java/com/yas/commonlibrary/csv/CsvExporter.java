@@ -7,14 +7,18 @@ import com.yas.commonlibrary.csv.anotation.CsvName;
 import com.yas.commonlibrary.utils.DateTimeUtils;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -27,75 +31,98 @@ public class CsvExporter {
     }
 
     private static final String GET_PREFIX = "get";
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
 
-    public static <T> byte[] exportToCsv(List<BaseCsv> dataList, Class<T> clazz) throws IOException {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-             OutputStreamWriter outputStreamWriter = new OutputStreamWriter(byteArrayOutputStream,
-                 StandardCharsets.UTF_8);
-             CSVWriter csvWriter = new CSVWriter(outputStreamWriter, ICSVWriter.DEFAULT_SEPARATOR,
-                 ICSVWriter.NO_QUOTE_CHARACTER,
-                 ICSVWriter.DEFAULT_ESCAPE_CHARACTER, ICSVWriter.DEFAULT_LINE_END)) {
-
-            // Write CSV header
-            writeCsvHeader(csvWriter, clazz);
-
-            // Write CSV data
-            writeCsvData(csvWriter, dataList, clazz);
+    /* Getters are resolved once per CSV class, rows only invoke the cached handles */
+    private static final ClassValue<List<CsvColumnAccessor>> COLUMN_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected List<CsvColumnAccessor> computeValue(Class<?> clazz) {
+            return createColumnAccessors(clazz);
+        }
+    };
 
-            csvWriter.flush();
+    public static <T> byte[] exportToCsv(List<BaseCsv> dataList, Class<T> clazz) throws IOException {
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+            exportToCsv(dataList.stream(), clazz, byteArrayOutputStream);
             return byteArrayOutputStream.toByteArray();
         }
     }
 
-    private static <T> void writeCsvHeader(CSVWriter csvWriter, Class<T> clazz) {
-        Field[] baseFields = BaseCsv.class.getDeclaredFields();
-        Field[] fields = clazz.getDeclaredFields();
-
-        String[] header = Stream.concat(Stream.of(baseFields), Stream.of(fields))
-            .filter(field -> field.getAnnotation(CsvColumn.class) != null)
-            .map(field -> field.getAnnotation(CsvColumn.class).columnName())
-            .toArray(String[]::new);
+    /**
+     * Writes the header and then each row to the output stream as the rows are pulled from the stream, so only
+     * the rows being written are held in memory. The output stream is flushed but not closed.
+     *
+     * @param dataList     rows to write.
+     * @param clazz        CSV class declaring the columns.
+     * @param outputStream destination of the CSV content.
+     */
+    public static <T> void exportToCsv(Stream<? extends BaseCsv> dataList, Class<T> clazz,
+                                       OutputStream outputStream) throws IOException {
+        OutputStreamWriter outputStreamWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        CSVWriter csvWriter = new CSVWriter(outputStreamWriter, ICSVWriter.DEFAULT_SEPARATOR,
+            ICSVWriter.NO_QUOTE_CHARACTER,
+            ICSVWriter.DEFAULT_ESCAPE_CHARACTER, ICSVWriter.DEFAULT_LINE_END);
+        List<CsvColumnAccessor> accessors = COLUMN_ACCESSORS.get(clazz);
+
+        // Write CSV header
+        csvWriter.writeNext(accessors.stream().map(CsvColumnAccessor::columnName).toArray(String[]::new));
+
+        // Write CSV data
+        Iterator<? extends BaseCsv> iterator = dataList.iterator();
+        while (iterator.hasNext()) {
+            csvWriter.writeNext(getFieldValues(accessors, iterator.next()));
+        }
 
-        csvWriter.writeNext(header);
+        csvWriter.flush();
     }
 
-    private static <T> void writeCsvData(CSVWriter csvWriter, List<BaseCsv> dataList,
-                                         Class<T> clazz) {
+    private static List<CsvColumnAccessor> createColumnAccessors(Class<?> clazz) {
         Field[] baseFields = BaseCsv.class.getDeclaredFields();
         Field[] fields = clazz.getDeclaredFields();
 
-        Field[] allFields = Stream.concat(Stream.of(baseFields), Stream.of(fields))
+        return Stream.concat(Stream.of(baseFields), Stream.of(fields))
             .filter(field -> field.getAnnotation(CsvColumn.class) != null)
-            .toArray(Field[]::new);
+            .map(field -> new CsvColumnAccessor(field.getAnnotation(CsvColumn.class).columnName(),
+                findGetter(clazz, field)))
+            .toList();
+    }
 
-        for (BaseCsv data : dataList) {
-            String[] row = getFieldValues(allFields, data);
-            csvWriter.writeNext(row);
+    private static MethodHandle findGetter(Class<?> clazz, Field field) {
+        String getterName = GET_PREFIX + StringUtils.capitalize(field.getName());
+        try {
+            Method getter = clazz.getMethod(getterName);
+            getter.trySetAccessible();
+            return MethodHandles.lookup().unreflect(getter).asType(GETTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.warn("Get value err {}", e.getMessage());
+            return null;
         }
     }
 
-    private static String[] getFieldValues(Field[] fields, Object data) {
-        return Stream.of(fields)
-            .filter(field -> field.getAnnotation(CsvColumn.class) != null)
-            .map(field -> getFieldValueAsString(field, data))
-            .toArray(String[]::new);
+    private static String[] getFieldValues(List<CsvColumnAccessor> accessors, Object data) {
+        String[] values = new String[accessors.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getFieldValueAsString(accessors.get(i), data);
+        }
+        return values;
     }
 
-    private static String getFieldValueAsString(Field field, Object data) {
+    private static String getFieldValueAsString(CsvColumnAccessor accessor, Object data) {
+        if (accessor.getter() == null) {
+            return StringUtils.EMPTY;
+        }
         try {
-            String getterName = GET_PREFIX + StringUtils.capitalize(field.getName());
-            Method getter = data.getClass().getMethod(getterName);
-            Object value = getter.invoke(data);
+            Object value = (Object) accessor.getter().invokeExact(data);
 
-            if (!Objects.isNull(value) && value instanceof List) {
-                return ("[" + String.join("|", (List<String>) value) + "]");
+            if (value instanceof List<?> list) {
+                return list.stream().map(String::valueOf).collect(Collectors.joining("|", "[", "]"));
             }
 
             return value != null ? value.toString() : StringUtils.EMPTY;
-        } catch (IllegalAccessException e) {
-            log.warn("Get value field err {}", e.getMessage());
-            return StringUtils.EMPTY;
-        } catch (InvocationTargetException | NoSuchMethodException e) {
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // invokeExact declares Throwable, only the exceptions of the getter are left here
             log.warn("Get value err {}", e.getMessage());
             return StringUtils.EMPTY;
         }
@@ -106,4 +133,7 @@ public class CsvExporter {
         CsvName csvName = clazz.getAnnotation(CsvName.class);
         return String.format("%s_%s.csv", csvName.fileName(), fromDate);
     }
+
+    private record CsvColumnAccessor(String columnName, MethodHandle getter) {
+    }
 }
@@ -1,7 +1,10 @@
 package com.yas.commonlibrary.kafka.cdc;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -11,7 +14,12 @@ import org.springframework.messaging.MessageHeaders;
  * Base class for CDC (Change Data Capture) Kafka consumers.
  * Provides common methods for processing messages and handling Dead Letter Topic (DLT) events.
  *
- * @param <K> Type of the message payload.
+ * <p>Keyed messages are skipped when they are not newer than the last change applied for the same key, see
+ * {@link CdcVersionTracker}. This drops the duplicates of a replay or a rebalance and the retried events that
+ * were overtaken by a newer change, before the consumer does any work for them.
+ *
+ * @param <K> Type of the message key.
+ * @param <V> Type of the message payload.
  */
 public abstract class BaseCdcConsumer<K, V> {
 
@@ -19,6 +27,18 @@ public abstract class BaseCdcConsumer<K, V> {
     public static final String RECEIVED_MESSAGE_HEADERS = "## Received message - headers: {}";
     public static final String PROCESSING_RECORD_KEY_VALUE = "## Processing record - Key: {} | Value: {}";
     public static final String RECORD_PROCESSED_SUCCESSFULLY_KEY = "## Record processed successfully - Key: {} \n";
+    public static final String SKIPPING_STALE_RECORD_KEY = "## Skipping stale or duplicate record - Key: {}";
+    public static final int DEFAULT_MAX_TRACKED_KEYS = 100_000;
+
+    private final CdcVersionTracker<K> versionTracker;
+
+    protected BaseCdcConsumer() {
+        this(DEFAULT_MAX_TRACKED_KEYS);
+    }
+
+    protected BaseCdcConsumer(int maxTrackedKeys) {
+        this.versionTracker = new CdcVersionTracker<>(maxTrackedKeys);
+    }
 
     protected void processMessage(V record, MessageHeaders headers, Consumer<V> consumer) {
         LOGGER.debug(RECEIVED_MESSAGE_HEADERS, headers);
@@ -29,8 +49,57 @@ public abstract class BaseCdcConsumer<K, V> {
 
     protected void processMessage(K key, V value, MessageHeaders headers, BiConsumer<K, V> consumer) {
         LOGGER.debug(RECEIVED_MESSAGE_HEADERS, headers);
+        applyMessage(key, value, consumer);
+    }
+
+    /**
+     * Processes the records of a poll one by one, in parallel across keys and in order within a key.
+     *
+     * @param records  records of one poll.
+     * @param executor executor running the records of different keys in parallel.
+     * @param consumer processing of a single message.
+     */
+    protected void processMessagesByKey(List<ConsumerRecord<K, V>> records, KeyOrderedExecutor executor,
+                                        BiConsumer<K, V> consumer) {
+        executor.execute(records,
+            consumerRecord -> applyMessage(consumerRecord.key(), consumerRecord.value(), consumer));
+    }
+
+    private void applyMessage(K key, V value, BiConsumer<K, V> consumer) {
+        if (versionTracker.isStale(key, value)) {
+            LOGGER.debug(SKIPPING_STALE_RECORD_KEY, key);
+            return;
+        }
         LOGGER.debug(PROCESSING_RECORD_KEY_VALUE, key, value);
         consumer.accept(key, value);
+        versionTracker.markApplied(key, value);
         LOGGER.debug(RECORD_PROCESSED_SUCCESSFULLY_KEY, key);
     }
+
+    /**
+     * Removes the records of a batch that are not newer than the last change applied for their key.
+     *
+     * @param records records of one poll.
+     * @return the records to process, in their original order.
+     */
+    protected List<ConsumerRecord<K, V>> dropStaleRecords(List<ConsumerRecord<K, V>> records) {
+        return records.stream()
+            .filter(consumerRecord -> {
+                boolean isStale = versionTracker.isStale(consumerRecord.key(), consumerRecord.value());
+                if (isStale) {
+                    LOGGER.debug(SKIPPING_STALE_RECORD_KEY, consumerRecord.key());
+                }
+                return !isStale;
+            })
+            .toList();
+    }
+
+    /**
+     * Records the given records as applied, once the batch containing them was processed.
+     *
+     * @param records successfully processed records.
+     */
+    protected void markApplied(Collection<ConsumerRecord<K, V>> records) {
+        records.forEach(consumerRecord -> versionTracker.markApplied(consumerRecord.key(), consumerRecord.value()));
+    }
 }
@@ -0,0 +1,94 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import com.yas.commonlibrary.kafka.cdc.message.CdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.CdcSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the source position (Debezium {@code source.lsn}, or {@code source.ts_ms} when there is no LSN) of
+ * the last change applied for each key, so that a redelivered or retried event that is not newer can be dropped
+ * before doing any work for it.
+ *
+ * <p>Only the most recently applied keys are kept, up to {@code maxTrackedKeys}. Events of unknown keys, tombstones
+ * and events without a source position are never considered stale.
+ *
+ * @param <K> Type of the message key.
+ */
+public class CdcVersionTracker<K> {
+
+    private final Map<K, SourcePosition> appliedPositions;
+
+    public CdcVersionTracker(int maxTrackedKeys) {
+        this.appliedPositions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, SourcePosition> eldest) {
+                return size() > maxTrackedKeys;
+            }
+        };
+    }
+
+    /**
+     * Checks whether the event is older than, or the same as, the last one applied for its key.
+     *
+     * @param key   message key.
+     * @param value message value, only {@link CdcMessage} values carry a source position.
+     * @return {@code true} if the event must be skipped.
+     */
+    public boolean isStale(K key, Object value) {
+        SourcePosition position = SourcePosition.of(value);
+        if (key == null || position == null) {
+            return false;
+        }
+        SourcePosition appliedPosition;
+        synchronized (appliedPositions) {
+            appliedPosition = appliedPositions.get(key);
+        }
+        return appliedPosition != null && !position.isAfter(appliedPosition);
+    }
+
+    /**
+     * Records the event as applied for its key, unless a newer one was recorded in the meantime.
+     *
+     * @param key   message key.
+     * @param value message value.
+     */
+    public void markApplied(K key, Object value) {
+        SourcePosition position = SourcePosition.of(value);
+        if (key == null || position == null) {
+            return;
+        }
+        synchronized (appliedPositions) {
+            appliedPositions.merge(key, position,
+                (applied, candidate) -> candidate.isAfter(applied) ? candidate : applied);
+        }
+    }
+
+    private record SourcePosition(Long lsn, Long tsMs) {
+
+        static SourcePosition of(Object value) {
+            if (!(value instanceof CdcMessage cdcMessage) || cdcMessage.getSource() == null) {
+                return null;
+            }
+            CdcSource source = cdcMessage.getSource();
+            if (source.getLsn() == null && source.getTsMs() == null) {
+                return null;
+            }
+            return new SourcePosition(source.getLsn(), source.getTsMs());
+        }
+
+        /**
+         * LSNs are compared when both events have one, commit timestamps otherwise. Positions that cannot be
+         * compared are treated as newer, so that the event is applied.
+         */
+        boolean isAfter(SourcePosition other) {
+            if (lsn != null && other.lsn != null) {
+                return lsn > other.lsn;
+            }
+            if (tsMs != null && other.tsMs != null) {
+                return tsMs > other.tsMs;
+            }
+            return true;
+        }
+    }
+}
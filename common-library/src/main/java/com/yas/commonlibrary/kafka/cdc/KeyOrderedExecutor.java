@@ -0,0 +1,93 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+/**
+ * Processes the records of a poll in parallel while keeping the order of the records that share a key.
+ *
+ * <p>Records are grouped by key, each group runs serially on its own virtual thread and at most
+ * {@code maxConcurrency} groups run at the same time. Records without a key have no order to keep and run on
+ * their own. The call returns once every group is done, so with a batch listener container the offsets of the
+ * poll are committed only when all of its records completed.
+ *
+ * <p>When a record fails, the following records of its key are not processed and a
+ * {@link BatchListenerFailedException} is thrown for the earliest failed record of the poll. The container error
+ * handler then commits the records before it and retries the poll from it; records that already completed are
+ * delivered again, which {@link BaseCdcConsumer} skips as duplicates.
+ */
+public class KeyOrderedExecutor {
+
+    private final int maxConcurrency;
+
+    public KeyOrderedExecutor(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Runs the handler for every record, in parallel across keys and in order within a key.
+     *
+     * @param records records of one poll.
+     * @param handler processing of a single record.
+     * @throws BatchListenerFailedException for the earliest record that failed.
+     */
+    public <K, V> void execute(List<ConsumerRecord<K, V>> records, Consumer<ConsumerRecord<K, V>> handler) {
+        Map<ConsumerRecord<K, V>, Exception> failures = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<ConsumerRecord<K, V>> group : groupByKey(records)) {
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        processInOrder(group, handler, failures);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        records.stream()
+            .filter(failures::containsKey)
+            .findFirst()
+            .ifPresent(failedRecord -> {
+                throw new BatchListenerFailedException("Failed to process record with key " + failedRecord.key(),
+                    failures.get(failedRecord), failedRecord);
+            });
+    }
+
+    private static <K, V> void processInOrder(List<ConsumerRecord<K, V>> group,
+                                              Consumer<ConsumerRecord<K, V>> handler,
+                                              Map<ConsumerRecord<K, V>, Exception> failures) {
+        for (ConsumerRecord<K, V> consumerRecord : group) {
+            try {
+                handler.accept(consumerRecord);
+            } catch (Exception e) {
+                failures.put(consumerRecord, e);
+                return;
+            }
+        }
+    }
+
+    private static <K, V> List<List<ConsumerRecord<K, V>>> groupByKey(List<ConsumerRecord<K, V>> records) {
+        Map<K, List<ConsumerRecord<K, V>>> recordsByKey = new LinkedHashMap<>();
+        List<List<ConsumerRecord<K, V>>> groups = new ArrayList<>();
+        for (ConsumerRecord<K, V> consumerRecord : records) {
+            if (consumerRecord.key() == null) {
+                groups.add(List.of(consumerRecord));
+            } else {
+                recordsByKey.computeIfAbsent(consumerRecord.key(), key -> new ArrayList<>()).add(consumerRecord);
+            }
+        }
+        groups.addAll(recordsByKey.values());
+        return groups;
+    }
+}
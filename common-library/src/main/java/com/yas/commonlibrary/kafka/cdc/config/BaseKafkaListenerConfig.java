@@ -5,6 +5,8 @@ import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
@@ -45,6 +47,35 @@ public abstract class BaseKafkaListenerConfig<K, V> {
         return factory;
     }
 
+    /**
+     * Batch instance type ConcurrentKafkaListenerContainerFactory, listener receives the whole poll result.
+     *
+     * @param errorHandler handler applied when the listener fails for the batch.
+     * @return concurrentKafkaListenerContainerFactory {@link ConcurrentKafkaListenerContainerFactory}.
+     */
+    public ConcurrentKafkaListenerContainerFactory<K, V> batchKafkaListenerContainerFactory(
+        CommonErrorHandler errorHandler) {
+        var factory = kafkaListenerContainerFactory();
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    /**
+     * Key ordered instance type ConcurrentKafkaListenerContainerFactory, for batch listeners that process the poll
+     * with a {@link com.yas.commonlibrary.kafka.cdc.KeyOrderedExecutor}. Offsets are committed once the listener
+     * returns for the whole poll, so they never pass a record that is still in flight.
+     *
+     * @param errorHandler handler applied when a record of the poll fails.
+     * @return concurrentKafkaListenerContainerFactory {@link ConcurrentKafkaListenerContainerFactory}.
+     */
+    public ConcurrentKafkaListenerContainerFactory<K, V> keyOrderedKafkaListenerContainerFactory(
+        CommonErrorHandler errorHandler) {
+        var factory = batchKafkaListenerContainerFactory(errorHandler);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
     private ConsumerFactory<K, V> typeConsumerFactory(Class<K> keyClazz, Class<V> valueClazz) {
         Map<String, Object> props = buildConsumerProperties();
         // wrapper in case serialization/deserialization occur
@@ -0,0 +1,52 @@
+package com.yas.commonlibrary.kafka.cdc.config;
+
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Order event kafka listener, support convert the order outbox events to java object.
+ * A failed event is retried in place (4 attempts, 6s apart) so later events of the same order wait for it,
+ * then it is published to the dead letter topic.
+ *
+ * <p>Not annotated with {@code @Configuration}, so services that scan the common library only get it when they
+ * consume order events and {@code @Import} it.
+ */
+@EnableKafka
+public class OrderEventKafkaListenerConfig extends BaseKafkaListenerConfig<String, OrderCreatedEvent> {
+
+    public static final String ORDER_EVENT_LISTENER_CONTAINER_FACTORY = "orderEventListenerContainerFactory";
+
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private static final long RETRY_INTERVAL_MS = 6000L;
+    private static final long RETRY_ATTEMPTS = 3L;
+
+    private final KafkaTemplate<?, ?> kafkaTemplate;
+
+    public OrderEventKafkaListenerConfig(KafkaProperties kafkaProperties, KafkaTemplate<?, ?> kafkaTemplate) {
+        super(String.class, OrderCreatedEvent.class, kafkaProperties);
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @Bean(name = ORDER_EVENT_LISTENER_CONTAINER_FACTORY)
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> listenerContainerFactory() {
+        var factory = super.kafkaListenerContainerFactory();
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+            new DeadLetterPublishingRecoverer(
+                kafkaTemplate,
+                (consumerRecord, exception) -> new TopicPartition(consumerRecord.topic() + DLT_SUFFIX, -1)
+            ),
+            new FixedBackOff(RETRY_INTERVAL_MS, RETRY_ATTEMPTS)
+        ));
+        return factory;
+    }
+}
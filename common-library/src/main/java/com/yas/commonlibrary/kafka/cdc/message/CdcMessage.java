@@ -0,0 +1,10 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+/**
+ * Debezium change event carrying its source position, so consumers can tell stale or duplicate events apart.
+ */
+public interface CdcMessage {
+
+    CdcSource getSource();
+
+}
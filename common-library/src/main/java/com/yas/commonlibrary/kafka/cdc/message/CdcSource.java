@@ -0,0 +1,23 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+/**
+ * Source block of the Debezium envelope, telling where in the database log the change comes from.
+ */
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CdcSource {
+
+    private Long lsn;
+
+    @JsonProperty("ts_ms")
+    private Long tsMs;
+
+}
@@ -0,0 +1,41 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of the order created event, written to the order outbox table and published by the Debezium outbox
+ * event router. Consumers must be idempotent on {@link #orderId}, the event is delivered at least once.
+ */
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCreatedEvent {
+
+    public static final String AGGREGATE_TYPE = "order";
+    public static final String EVENT_TYPE = "OrderCreated";
+
+    private Long orderId;
+
+    private String customerId;
+
+    private String couponCode;
+
+    private List<Item> items;
+
+    @lombok.Getter
+    @lombok.Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long productId;
+
+        private int quantity;
+    }
+}
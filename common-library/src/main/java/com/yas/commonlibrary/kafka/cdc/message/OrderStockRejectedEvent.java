@@ -0,0 +1,35 @@
+package com.yas.commonlibrary.kafka.cdc.message;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of the order stock rejected event, published by product when an order created event asks for more
+ * stock than is left. No stock of the order is subtracted then, and order rejects the order. Consumers must be
+ * idempotent on {@link #orderId}, the event is delivered at least once.
+ */
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStockRejectedEvent {
+
+    private Long orderId;
+
+    private List<Item> items;
+
+    @lombok.Getter
+    @lombok.Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        private Long productId;
+
+        private long shortfall;
+    }
+}
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class ProductCdcMessage {
+public class ProductCdcMessage implements CdcMessage {
 
     private Product after;
 
@@ -17,5 +17,7 @@ public class ProductCdcMessage {
 
     private Operation op;
 
+    private CdcSource source;
+
 }
 
@@ -0,0 +1,30 @@
+package com.yas.commonlibrary.kafka.cdc.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Order whose created event was applied by the consuming service, so a redelivered event is not applied twice.
+ * Services that consume order events add this package to their entity scan.
+ */
+@Entity
+@Table(name = "processed_order_event")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedOrderEvent {
+
+    @Id
+    private Long orderId;
+
+    @CreationTimestamp
+    private ZonedDateTime processedOn;
+}
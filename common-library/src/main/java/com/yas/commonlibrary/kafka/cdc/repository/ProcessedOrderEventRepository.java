@@ -0,0 +1,29 @@
+package com.yas.commonlibrary.kafka.cdc.repository;
+
+import com.yas.commonlibrary.kafka.cdc.model.ProcessedOrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Services that consume order events add this package to their JPA repositories.
+ */
+@Repository
+public interface ProcessedOrderEventRepository extends JpaRepository<ProcessedOrderEvent, Long> {
+
+    /**
+     * Applies an order event unless the order was already processed, then records the order as processed.
+     * Callers run it in the transaction of their update, so the update and the record commit together.
+     *
+     * @param orderId the order of the event.
+     * @param action  the update applied for the event.
+     * @return whether the action was applied.
+     */
+    default boolean processOnce(Long orderId, Runnable action) {
+        if (existsById(orderId)) {
+            return false;
+        }
+        action.run();
+        save(new ProcessedOrderEvent(orderId, null));
+        return true;
+    }
+}
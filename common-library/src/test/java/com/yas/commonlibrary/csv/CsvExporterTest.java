@@ -7,10 +7,14 @@ import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +33,18 @@ class CsvExporterTest {
         private List<String> tags;
     }
 
+    @SuperBuilder
+    @CsvName(fileName = "FailingFile")
+    static class FailingData extends BaseCsv {
+
+        @CsvColumn(columnName = "Name")
+        private Supplier<String> name;
+
+        public String getName() {
+            return name.get();
+        }
+    }
+
     @Test
     void testExportToCsv_withValidData_shouldReturnCorrectCsvContent() throws IOException {
         // Given
@@ -72,6 +88,58 @@ class CsvExporterTest {
         assertEquals(expectedCsv, csvContent);
     }
 
+    @Test
+    void testExportToCsv_withStream_shouldWriteRowsToOutputStream() throws IOException {
+        // Given
+        Stream<TestData> dataStream = Stream.of(
+            TestData.builder().id(1L).name("Alice").tags(List.of("tag1")).build(),
+            TestData.builder().id(2L).name(null).tags(List.of()).build()
+        );
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        CsvExporter.exportToCsv(dataStream, TestData.class, outputStream);
+
+        // Then
+        String expectedCsv = """
+            Id,Name,Tags
+            1,Alice,[tag1]
+            2,,[]
+            """;
+        assertEquals(expectedCsv, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportToCsv_whenGetterThrowsException_shouldWriteEmptyValue() throws IOException {
+        // Given
+        List<BaseCsv> dataList = List.of(FailingData.builder()
+            .id(1L)
+            .name(() -> {
+                throw new IllegalStateException("name is not loaded");
+            })
+            .build());
+
+        // When
+        byte[] csvBytes = CsvExporter.exportToCsv(dataList, FailingData.class);
+
+        // Then
+        assertEquals("Id,Name\n1,\n", new String(csvBytes));
+    }
+
+    @Test
+    void testExportToCsv_whenGetterThrowsError_shouldPropagateError() {
+        // Given
+        List<BaseCsv> dataList = List.of(FailingData.builder()
+            .id(1L)
+            .name(() -> {
+                throw new OutOfMemoryError("Java heap space");
+            })
+            .build());
+
+        // When, Then
+        assertThrows(OutOfMemoryError.class, () -> CsvExporter.exportToCsv(dataList, FailingData.class));
+    }
+
     @Test
     void testCreateFileName_withValidClass_shouldReturnCorrectFileName() {
         // Given
@@ -0,0 +1,66 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.yas.commonlibrary.kafka.cdc.message.CdcSource;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import org.junit.jupiter.api.Test;
+
+class CdcVersionTrackerTest {
+
+    private final CdcVersionTracker<ProductMsgKey> versionTracker = new CdcVersionTracker<>(2);
+
+    @Test
+    void testIsStale_whenEventIsOlderOrSameAsAppliedOne_returnTrue() {
+        versionTracker.markApplied(key(1L), message(200L, 2_000L));
+
+        assertTrue(versionTracker.isStale(key(1L), message(100L, 3_000L)));
+        assertTrue(versionTracker.isStale(key(1L), message(200L, 2_000L)));
+        assertFalse(versionTracker.isStale(key(1L), message(300L, 1_000L)));
+        assertFalse(versionTracker.isStale(key(2L), message(100L, 1_000L)));
+    }
+
+    @Test
+    void testIsStale_whenEventHasNoLsn_compareTimestamps() {
+        versionTracker.markApplied(key(1L), message(null, 2_000L));
+
+        assertTrue(versionTracker.isStale(key(1L), message(null, 1_000L)));
+        assertFalse(versionTracker.isStale(key(1L), message(null, 3_000L)));
+    }
+
+    @Test
+    void testIsStale_whenEventHasNoSourceOrIsTombstone_returnFalse() {
+        versionTracker.markApplied(key(1L), message(200L, 2_000L));
+
+        assertFalse(versionTracker.isStale(key(1L), ProductCdcMessage.builder().build()));
+        assertFalse(versionTracker.isStale(key(1L), null));
+    }
+
+    @Test
+    void testMarkApplied_whenOlderEventAppliedLater_keepNewerPosition() {
+        versionTracker.markApplied(key(1L), message(200L, 2_000L));
+        versionTracker.markApplied(key(1L), message(100L, 1_000L));
+
+        assertTrue(versionTracker.isStale(key(1L), message(150L, 1_500L)));
+    }
+
+    @Test
+    void testMarkApplied_whenMoreKeysThanLimit_forgetLeastRecentlyUsedKey() {
+        versionTracker.markApplied(key(1L), message(100L, 1_000L));
+        versionTracker.markApplied(key(2L), message(100L, 1_000L));
+        versionTracker.markApplied(key(3L), message(100L, 1_000L));
+
+        assertFalse(versionTracker.isStale(key(1L), message(100L, 1_000L)));
+        assertTrue(versionTracker.isStale(key(3L), message(100L, 1_000L)));
+    }
+
+    private static ProductMsgKey key(long productId) {
+        return ProductMsgKey.builder().id(productId).build();
+    }
+
+    private static ProductCdcMessage message(Long lsn, Long tsMs) {
+        return ProductCdcMessage.builder().source(CdcSource.builder().lsn(lsn).tsMs(tsMs).build()).build();
+    }
+}
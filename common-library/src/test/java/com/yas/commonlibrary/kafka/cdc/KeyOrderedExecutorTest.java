@@ -0,0 +1,77 @@
+package com.yas.commonlibrary.kafka.cdc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+class KeyOrderedExecutorTest {
+
+    private final KeyOrderedExecutor keyOrderedExecutor = new KeyOrderedExecutor(8);
+
+    @Test
+    void testExecute_whenRecordsShareKey_processThemInOffsetOrder() {
+        Map<String, List<Long>> offsetsByKey = new ConcurrentHashMap<>();
+        List<ConsumerRecord<String, String>> records = List.of(
+            record(0, "a"), record(1, "b"), record(2, "a"), record(3, "b"), record(4, "a"));
+
+        keyOrderedExecutor.execute(records, consumerRecord -> offsetsByKey
+            .computeIfAbsent(consumerRecord.key(), key -> new CopyOnWriteArrayList<>())
+            .add(consumerRecord.offset()));
+
+        assertEquals(List.of(0L, 2L, 4L), offsetsByKey.get("a"));
+        assertEquals(List.of(1L, 3L), offsetsByKey.get("b"));
+    }
+
+    @Test
+    void testExecute_whenRecordsHaveDifferentKeys_processThemConcurrently() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        List<ConsumerRecord<String, String>> records = List.of(record(0, "a"), record(1, "b"), record(2, null));
+
+        keyOrderedExecutor.execute(records, consumerRecord -> {
+            allStarted.countDown();
+            try {
+                // Would time out if the records ran one after the other
+                assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals(0, allStarted.getCount());
+    }
+
+    @Test
+    void testExecute_whenRecordFails_skipNextRecordsOfKeyAndReportEarliestFailure() {
+        List<Long> processedOffsets = new CopyOnWriteArrayList<>();
+        ConsumerRecord<String, String> failedRecord = record(1, "a");
+        List<ConsumerRecord<String, String>> records = List.of(
+            record(0, "b"), failedRecord, record(2, "b"), record(3, "a"), record(4, "c"));
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+            () -> keyOrderedExecutor.execute(records, consumerRecord -> {
+                if (consumerRecord.offset() == 1 || consumerRecord.offset() == 4) {
+                    throw new IllegalStateException("failed " + consumerRecord.offset());
+                }
+                processedOffsets.add(consumerRecord.offset());
+            }));
+
+        assertSame(failedRecord, exception.getRecord());
+        assertEquals("failed 1", exception.getCause().getMessage());
+        assertEquals(List.of(0L, 2L), processedOffsets.stream().sorted().toList());
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key) {
+        return new ConsumerRecord<>("topic", 0, offset, key, "value-" + offset);
+    }
+}
@@ -0,0 +1,41 @@
+package com.yas.commonlibrary.kafka.cdc.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.kafka.cdc.model.ProcessedOrderEvent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+class ProcessedOrderEventRepositoryTest {
+
+    private final ProcessedOrderEventRepository processedOrderEventRepository =
+        mock(ProcessedOrderEventRepository.class, CALLS_REAL_METHODS);
+
+    private final Runnable action = mock(Runnable.class);
+
+    @Test
+    void testProcessOnce_whenOrderNotProcessed_applyActionAndRecordOrder() {
+        assertTrue(processedOrderEventRepository.processOnce(10L, action));
+
+        verify(action).run();
+        verify(processedOrderEventRepository).save(ArgumentMatchers.<ProcessedOrderEvent>argThat(
+            processedOrderEvent -> processedOrderEvent.getOrderId().equals(10L)));
+    }
+
+    @Test
+    void testProcessOnce_whenOrderAlreadyProcessed_skipAction() {
+        when(processedOrderEventRepository.existsById(10L)).thenReturn(true);
+
+        assertFalse(processedOrderEventRepository.processOnce(10L, action));
+
+        verify(action, never()).run();
+        verify(processedOrderEventRepository, never()).save(any());
+    }
+}
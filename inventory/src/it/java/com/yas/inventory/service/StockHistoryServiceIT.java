@@ -9,12 +9,15 @@ import static org.mockito.Mockito.when;
 import com.yas.inventory.model.Stock;
 import com.yas.inventory.model.StockHistory;
 import com.yas.inventory.model.Warehouse;
+import com.yas.inventory.repository.StockBatchRepository;
 import com.yas.inventory.repository.StockHistoryRepository;
 import com.yas.inventory.viewmodel.product.ProductInfoVm;
 import com.yas.inventory.viewmodel.stock.StockQuantityVm;
 import com.yas.inventory.viewmodel.stockhistory.StockHistoryListVm;
 import com.yas.inventory.viewmodel.stockhistory.StockHistoryVm;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -23,14 +26,17 @@ import org.mockito.Mockito;
 class StockHistoryServiceIT {
 
     private StockHistoryRepository stockHistoryRepository;
+    private StockBatchRepository stockBatchRepository;
     private ProductService productService;
     private StockHistoryService stockHistoryService;
 
     @BeforeEach
     void setUp() {
         stockHistoryRepository = Mockito.mock(StockHistoryRepository.class);
+        stockBatchRepository = Mockito.mock(StockBatchRepository.class);
         productService = Mockito.mock(ProductService.class);
-        stockHistoryService = new StockHistoryService(stockHistoryRepository, productService);
+        stockHistoryService = new StockHistoryService(stockHistoryRepository, stockBatchRepository,
+            productService);
     }
 
     @Test
@@ -56,13 +62,14 @@ class StockHistoryServiceIT {
 
         StockQuantityVm stockQuantityVm1 = new StockQuantityVm(1L, 10L, "Initial stock");
         StockQuantityVm stockQuantityVm2 = new StockQuantityVm(2L, 20L, "Restock");
-        List<StockQuantityVm> stockQuantityVms = List.of(stockQuantityVm1, stockQuantityVm2);
+        Map<Long, StockQuantityVm> stockQuantityVms =
+            new HashMap<>(Map.of(1L, stockQuantityVm1, 2L, stockQuantityVm2));
 
         ArgumentCaptor<List<StockHistory>> argumentCaptor = ArgumentCaptor.forClass(List.class);
 
         stockHistoryService.createStockHistories(stocks, stockQuantityVms);
 
-        verify(stockHistoryRepository, times(1)).saveAll(argumentCaptor.capture());
+        verify(stockBatchRepository, times(1)).insertStockHistories(argumentCaptor.capture());
         assertThat(argumentCaptor.getValue()).isEmpty();
     }
 
@@ -75,13 +82,13 @@ class StockHistoryServiceIT {
 
         StockQuantityVm stockQuantityVm1 = new StockQuantityVm(1L, 10L, "Initial stock");
         StockQuantityVm stockQuantityVm2 = new StockQuantityVm(2L, 20L, "Restock");
-        List<StockQuantityVm> stockQuantityVms = List.of(stockQuantityVm1, stockQuantityVm2);
+        Map<Long, StockQuantityVm> stockQuantityVms = Map.of(1L, stockQuantityVm1, 2L, stockQuantityVm2);
 
         ArgumentCaptor<List<StockHistory>> argumentCaptor = ArgumentCaptor.forClass(List.class);
 
         stockHistoryService.createStockHistories(stocks, stockQuantityVms);
 
-        verify(stockHistoryRepository, times(1)).saveAll(argumentCaptor.capture());
+        verify(stockBatchRepository, times(1)).insertStockHistories(argumentCaptor.capture());
 
         StockHistory stockHistory = argumentCaptor.getValue().getFirst();
 
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -18,15 +19,18 @@ import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.commonlibrary.exception.StockExistingException;
 import com.yas.inventory.model.Stock;
 import com.yas.inventory.model.Warehouse;
+import com.yas.inventory.repository.StockBatchRepository;
 import com.yas.inventory.repository.StockRepository;
 import com.yas.inventory.repository.WarehouseRepository;
 import com.yas.inventory.viewmodel.product.ProductInfoVm;
+import com.yas.inventory.viewmodel.product.ProductQuantityPostVm;
 import com.yas.inventory.viewmodel.stock.StockPostVm;
 import com.yas.inventory.viewmodel.stock.StockQuantityUpdateVm;
 import com.yas.inventory.viewmodel.stock.StockQuantityVm;
 import com.yas.inventory.viewmodel.stock.StockVm;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -36,6 +40,8 @@ class StockServiceIT {
 
     private StockRepository stockRepository;
 
+    private StockBatchRepository stockBatchRepository;
+
     private ProductService productService;
 
     private WarehouseService warehouseService;
@@ -48,10 +54,11 @@ class StockServiceIT {
     void setUp() {
         warehouseRepository = mock(WarehouseRepository.class);
         stockRepository = mock(StockRepository.class);
+        stockBatchRepository = mock(StockBatchRepository.class);
         productService = mock(ProductService.class);
         warehouseService = mock(WarehouseService.class);
         stockHistoryService = mock(StockHistoryService.class);
-        stockService = new StockService(warehouseRepository, stockRepository,
+        stockService = new StockService(warehouseRepository, stockRepository, stockBatchRepository,
             productService, warehouseService, stockHistoryService);
     }
 
@@ -168,9 +175,10 @@ class StockServiceIT {
         stock.setId(stockId);
         stock.setQuantity(10L);
 
+        stock.setProductId(2L);
+
         when(stockRepository.findAllById(anyList())).thenReturn(List.of(stock));
-        when(stockRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArguments()[0]);
-        doNothing().when(stockHistoryService).createStockHistories(anyList(), anyList());
+        doNothing().when(stockHistoryService).createStockHistories(anyList(), anyMap());
         Long quantity = 5L;
         doNothing().when(productService).updateProductQuantity(anyList());
         StockQuantityUpdateVm requestBody = new StockQuantityUpdateVm(
@@ -178,8 +186,29 @@ class StockServiceIT {
         );
         stockService.updateProductQuantityInStock(requestBody);
 
-        assertEquals(15L, stock.getQuantity());
-        verify(stockHistoryService, times(1)).createStockHistories(anyList(), anyList());
+        verify(stockBatchRepository, times(1)).adjustQuantities(List.of(new StockQuantityVm(stockId, quantity, "")));
+        verify(stockHistoryService, times(1)).createStockHistories(anyList(), anyMap());
+        verify(productService, times(1)).updateProductQuantity(List.of(new ProductQuantityPostVm(2L, 15L)));
+    }
+
+    @Test
+    void testUpdateProductQuantityInStock_whenManyStocks_shouldLoadAndWriteInChunks() {
+
+        List<StockQuantityVm> stockQuantityVms = LongStream.rangeClosed(1, 2500)
+            .mapToObj(stockId -> new StockQuantityVm(stockId, 1L, ""))
+            .toList();
+        when(stockRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> stockIds = invocation.getArgument(0);
+            return stockIds.stream()
+                .map(stockId -> Stock.builder().id(stockId).productId(stockId).quantity(0L).build())
+                .toList();
+        });
+
+        stockService.updateProductQuantityInStock(new StockQuantityUpdateVm(stockQuantityVms));
+
+        verify(stockRepository, times(3)).findAllById(anyList());
+        verify(stockBatchRepository, times(3)).adjustQuantities(anyList());
+        verify(productService, times(1)).updateProductQuantity(anyList());
     }
 
     @Test
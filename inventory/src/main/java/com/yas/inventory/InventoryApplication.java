@@ -2,12 +2,13 @@ package com.yas.inventory;
 
 import com.yas.commonlibrary.config.CorsConfig;
 import com.yas.inventory.config.ServiceUrlConfig;
+import com.yas.inventory.config.StockReservationConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication(scanBasePackages = {"com.yas.inventory", "com.yas.commonlibrary"})
-@EnableConfigurationProperties({ServiceUrlConfig.class, CorsConfig.class})
+@EnableConfigurationProperties({ServiceUrlConfig.class, CorsConfig.class, StockReservationConfig.class})
 public class InventoryApplication {
     public static void main(String[] args) {
         SpringApplication.run(InventoryApplication.class, args);
@@ -0,0 +1,8 @@
+package com.yas.inventory.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "inventory.reservation")
+public record StockReservationConfig(Duration ttl, int expiryBatchSize) {
+}
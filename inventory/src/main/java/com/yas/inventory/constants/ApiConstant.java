@@ -6,6 +6,8 @@ public final class ApiConstant {
     public static final String STOCK_HISTORY_URL = "/backoffice/stocks/histories";
 
     public static final String STOCK_URL = "/backoffice/stocks";
+
+    public static final String STOCK_RESERVATION_URL = "/backoffice/stocks/reservations";
     public static final String CODE_200 = "200";
     public static final String OK = "Ok";
     public static final String CODE_404 = "404";
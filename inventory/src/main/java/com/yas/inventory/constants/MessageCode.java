@@ -5,4 +5,7 @@ public final class MessageCode {
     public static final String PRODUCT_NOT_FOUND = "PRODUCT_NOT_FOUND";
     public static final String NAME_ALREADY_EXITED = "NAME_ALREADY_EXITED";
     public static final String STOCK_ALREADY_EXISTED = "STOCK_ALREADY_EXISTED";
+    public static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+    public static final String STOCK_RESERVATION_NOT_FOUND = "STOCK_RESERVATION_NOT_FOUND";
+    public static final String STOCK_RESERVATION_IN_PROGRESS = "STOCK_RESERVATION_IN_PROGRESS";
 }
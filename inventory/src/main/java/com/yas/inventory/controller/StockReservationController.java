@@ -0,0 +1,41 @@
+package com.yas.inventory.controller;
+
+import com.yas.inventory.constants.ApiConstant;
+import com.yas.inventory.service.StockReservationService;
+import com.yas.inventory.viewmodel.reservation.StockReservationPostVm;
+import com.yas.inventory.viewmodel.reservation.StockReservationVm;
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(ApiConstant.STOCK_RESERVATION_URL)
+@RequiredArgsConstructor
+public class StockReservationController {
+    private final StockReservationService stockReservationService;
+
+    @PostMapping
+    public ResponseEntity<List<StockReservationVm>> reserve(
+        @Valid @RequestBody StockReservationPostVm stockReservationPostVm) {
+        return ResponseEntity.ok(stockReservationService.reserve(stockReservationPostVm));
+    }
+
+    @PutMapping("/{checkoutId}/confirm")
+    public ResponseEntity<Void> confirm(@PathVariable String checkoutId) {
+        stockReservationService.confirm(checkoutId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{checkoutId}/release")
+    public ResponseEntity<Void> release(@PathVariable String checkoutId) {
+        stockReservationService.release(checkoutId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,5 @@
+package com.yas.inventory.model.enumeration;
+
+public enum StockReservationStatus {
+    RESERVED, CONFIRMED, RELEASED, EXPIRED
+}
@@ -0,0 +1,66 @@
+package com.yas.inventory.repository;
+
+import com.yas.inventory.model.StockHistory;
+import com.yas.inventory.viewmodel.stock.StockQuantityVm;
+import java.util.List;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writes for bulk stock adjustments. Stock and stock history use identity keys, which stop Hibernate
+ * from batching, so a warehouse sync of tens of thousands of rows would otherwise send one statement per row.
+ */
+@Repository
+public class StockBatchRepository {
+
+    private static final String ADJUST_QUANTITY_SQL = """
+        UPDATE stock
+        SET quantity = quantity + ?, last_modified_by = ?, last_modified_on = CURRENT_TIMESTAMP
+        WHERE id = ?
+        """;
+
+    private static final String INSERT_STOCK_HISTORY_SQL = """
+        INSERT INTO stock_history (product_id, adjusted_quantity, note, warehouse_id,
+            created_by, created_on, last_modified_by, last_modified_on)
+        VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, ?, CURRENT_TIMESTAMP)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+
+    public StockBatchRepository(JdbcTemplate jdbcTemplate, AuditorAware<String> auditorAware) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * Adds each adjustment to the current quantity in the database, so concurrent changes are not overwritten.
+     */
+    public void adjustQuantities(List<StockQuantityVm> stockQuantityVms) {
+        String auditor = currentAuditor();
+        List<Object[]> batchArgs = stockQuantityVms.stream()
+            .map(stockQuantityVm -> new Object[] {stockQuantityVm.quantity(), auditor, stockQuantityVm.stockId()})
+            .toList();
+        jdbcTemplate.batchUpdate(ADJUST_QUANTITY_SQL, batchArgs);
+    }
+
+    public void insertStockHistories(List<StockHistory> stockHistories) {
+        String auditor = currentAuditor();
+        List<Object[]> batchArgs = stockHistories.stream()
+            .map(stockHistory -> new Object[] {
+                stockHistory.getProductId(),
+                stockHistory.getAdjustedQuantity(),
+                stockHistory.getNote(),
+                stockHistory.getWarehouse().getId(),
+                auditor,
+                auditor
+            })
+            .toList();
+        jdbcTemplate.batchUpdate(INSERT_STOCK_HISTORY_SQL, batchArgs);
+    }
+
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse("");
+    }
+}
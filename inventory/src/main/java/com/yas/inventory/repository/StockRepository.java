@@ -3,7 +3,9 @@ package com.yas.inventory.repository;
 import com.yas.inventory.model.Stock;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface StockRepository extends JpaRepository<Stock, Long> {
 
@@ -16,4 +18,28 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
                                                 List<Long> productIds);
 
     boolean existsByWarehouseIdAndProductId(Long warehouseId, Long productId);
+
+    @Query("select s.id from Stock s where s.productId = :productId "
+        + "and s.quantity - s.reservedQuantity >= :quantity "
+        + "order by s.quantity - s.reservedQuantity desc")
+    List<Long> findIdsWithAvailableQuantity(@Param("productId") Long productId, @Param("quantity") Long quantity);
+
+    /**
+     * Reserves the quantity only if it is still available when the row is updated. Returns 0 otherwise.
+     */
+    @Modifying
+    @Query("update Stock s set s.reservedQuantity = s.reservedQuantity + :quantity "
+        + "where s.id = :id and s.quantity - s.reservedQuantity >= :quantity")
+    int reserveQuantity(@Param("id") Long id, @Param("quantity") Long quantity);
+
+    @Modifying
+    @Query("update Stock s set s.reservedQuantity = s.reservedQuantity - :quantity "
+        + "where s.id = :id and s.reservedQuantity >= :quantity")
+    int releaseReservedQuantity(@Param("id") Long id, @Param("quantity") Long quantity);
+
+    @Modifying
+    @Query("update Stock s set s.quantity = s.quantity - :quantity, "
+        + "s.reservedQuantity = s.reservedQuantity - :quantity "
+        + "where s.id = :id and s.reservedQuantity >= :quantity")
+    int confirmReservedQuantity(@Param("id") Long id, @Param("quantity") Long quantity);
 }
@@ -0,0 +1,31 @@
+package com.yas.inventory.repository;
+
+import com.yas.inventory.model.StockReservation;
+import com.yas.inventory.model.enumeration.StockReservationStatus;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByCheckoutIdAndStatus(String checkoutId, StockReservationStatus status);
+
+    List<StockReservation> findByStatusAndExpiresAtBeforeOrderByExpiresAt(StockReservationStatus status,
+                                                                         ZonedDateTime expiresAt,
+                                                                         Pageable pageable);
+
+    /**
+     * Moves a reservation out of {@code currentStatus}. Returns 0 when another request or instance already did,
+     * which makes confirm, release and expiry mutually exclusive without locking.
+     */
+    @Modifying
+    @Query("update StockReservation r set r.status = :newStatus "
+        + "where r.id = :id and r.status = :currentStatus")
+    int updateStatus(@Param("id") Long id,
+                     @Param("currentStatus") StockReservationStatus currentStatus,
+                     @Param("newStatus") StockReservationStatus newStatus);
+}
@@ -2,6 +2,7 @@ package com.yas.inventory.service;
 
 import com.yas.inventory.model.Stock;
 import com.yas.inventory.model.StockHistory;
+import com.yas.inventory.repository.StockBatchRepository;
 import com.yas.inventory.repository.StockHistoryRepository;
 import com.yas.inventory.viewmodel.product.ProductInfoVm;
 import com.yas.inventory.viewmodel.stock.StockQuantityVm;
@@ -9,6 +10,7 @@ import com.yas.inventory.viewmodel.stockhistory.StockHistoryListVm;
 import com.yas.inventory.viewmodel.stockhistory.StockHistoryVm;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,24 +19,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class StockHistoryService {
     private final StockHistoryRepository stockHistoryRepository;
 
+    private final StockBatchRepository stockBatchRepository;
+
     private final ProductService productService;
 
     public StockHistoryService(StockHistoryRepository stockHistoryRepository,
+                               StockBatchRepository stockBatchRepository,
                                ProductService productService) {
         this.stockHistoryRepository = stockHistoryRepository;
+        this.stockBatchRepository = stockBatchRepository;
         this.productService = productService;
     }
 
     public void createStockHistories(final List<Stock> stocks,
-                                     final List<StockQuantityVm> stockQuantityVms) {
+                                     final Map<Long, StockQuantityVm> stockQuantityVmByStockId) {
         List<StockHistory> stockHistories = new ArrayList<>();
 
         for (final Stock stock : stocks) {
-            StockQuantityVm stockQuantityVm = stockQuantityVms
-                .parallelStream()
-                .filter(stockQuantityVm1 -> stockQuantityVm1.stockId().equals(stock.getId()))
-                .findFirst()
-                .orElse(null);
+            StockQuantityVm stockQuantityVm = stockQuantityVmByStockId.get(stock.getId());
 
             if (stockQuantityVm == null) {
                 continue;
@@ -49,7 +51,7 @@ public class StockHistoryService {
                     .build()
             );
         }
-        stockHistoryRepository.saveAll(stockHistories);
+        stockBatchRepository.insertStockHistories(stockHistories);
     }
 
     public StockHistoryListVm getStockHistories(final Long productId,
@@ -0,0 +1,24 @@
+package com.yas.inventory.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives back the stock of checkouts that were neither paid nor cancelled before their reservation expired.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReservationExpiryJob {
+    private final StockReservationService stockReservationService;
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry-interval:PT30S}")
+    public void expireReservations() {
+        int expiredCount = stockReservationService.expireReservations();
+        if (expiredCount > 0) {
+            log.info("Released {} expired stock reservations", expiredCount);
+        }
+    }
+}
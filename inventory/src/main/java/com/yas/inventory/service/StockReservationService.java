@@ -0,0 +1,153 @@
+package com.yas.inventory.service;
+
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.commonlibrary.exception.DuplicatedException;
+import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.inventory.config.StockReservationConfig;
+import com.yas.inventory.constants.MessageCode;
+import com.yas.inventory.model.StockReservation;
+import com.yas.inventory.model.enumeration.StockReservationStatus;
+import com.yas.inventory.repository.StockRepository;
+import com.yas.inventory.repository.StockReservationRepository;
+import com.yas.inventory.viewmodel.reservation.StockReservationItemVm;
+import com.yas.inventory.viewmodel.reservation.StockReservationPostVm;
+import com.yas.inventory.viewmodel.reservation.StockReservationVm;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Holds stock for a checkout between its creation and its payment.
+ *
+ * <p>Every change is a conditional update evaluated by the database: a reservation only succeeds while the stock
+ * row still has enough unreserved quantity, and a reservation only leaves {@code RESERVED} once, whichever of
+ * confirm, release or expiry gets there first. No application lock is needed, so it works across instances.
+ */
+@Slf4j
+@Service
+@Transactional
+public class StockReservationService {
+    private final StockRepository stockRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final StockReservationConfig stockReservationConfig;
+
+    public StockReservationService(StockRepository stockRepository,
+                                   StockReservationRepository stockReservationRepository,
+                                   StockReservationConfig stockReservationConfig) {
+        this.stockRepository = stockRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.stockReservationConfig = stockReservationConfig;
+    }
+
+    /**
+     * Reserves every item of the checkout, or none of them when one product does not have enough stock.
+     * Calling it again for a checkout that is already reserved returns the existing reservations. Of two concurrent
+     * calls for the same checkout, only one commits: the unique index on the active reservations of a checkout
+     * rejects the other.
+     */
+    public List<StockReservationVm> reserve(StockReservationPostVm stockReservationPostVm) {
+        String checkoutId = stockReservationPostVm.checkoutId();
+        List<StockReservation> existingReservations = stockReservationRepository
+            .findByCheckoutIdAndStatus(checkoutId, StockReservationStatus.RESERVED);
+        if (!existingReservations.isEmpty()) {
+            return existingReservations.stream().map(StockReservationVm::fromModel).toList();
+        }
+
+        // Merge duplicated products and sort by id, so concurrent checkouts lock the stock rows in the same order
+        Map<Long, Long> quantityByProductId = stockReservationPostVm.items().stream()
+            .collect(Collectors.toMap(StockReservationItemVm::productId, StockReservationItemVm::quantity,
+                Long::sum, TreeMap::new));
+        ZonedDateTime expiresAt = ZonedDateTime.now().plus(stockReservationConfig.ttl());
+
+        List<StockReservation> reservations = quantityByProductId.entrySet().stream()
+            .map(item -> StockReservation.builder()
+                .checkoutId(checkoutId)
+                .productId(item.getKey())
+                .stockId(reserveQuantity(item.getKey(), item.getValue()))
+                .quantity(item.getValue())
+                .status(StockReservationStatus.RESERVED)
+                .expiresAt(expiresAt)
+                .build())
+            .toList();
+        try {
+            return stockReservationRepository.saveAllAndFlush(reservations).stream()
+                .map(StockReservationVm::fromModel)
+                .toList();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent call reserved the same checkout first, rolling back undoes the stock reserved here
+            throw new DuplicatedException(MessageCode.STOCK_RESERVATION_IN_PROGRESS, checkoutId);
+        }
+    }
+
+    /**
+     * Takes the reserved quantities out of stock once the checkout is paid.
+     */
+    public void confirm(String checkoutId) {
+        completeReservations(checkoutId, StockReservationStatus.CONFIRMED, stockRepository::confirmReservedQuantity);
+    }
+
+    /**
+     * Gives the reserved quantities back when the checkout is cancelled.
+     */
+    public void release(String checkoutId) {
+        completeReservations(checkoutId, StockReservationStatus.RELEASED, stockRepository::releaseReservedQuantity);
+    }
+
+    /**
+     * Releases up to {@code inventory.reservation.expiry-batch-size} reservations whose TTL has passed.
+     *
+     * @return the number of reservations expired by this call.
+     */
+    public int expireReservations() {
+        List<StockReservation> expiredReservations = stockReservationRepository
+            .findByStatusAndExpiresAtBeforeOrderByExpiresAt(StockReservationStatus.RESERVED, ZonedDateTime.now(),
+                PageRequest.of(0, stockReservationConfig.expiryBatchSize()));
+        int expiredCount = 0;
+        for (StockReservation reservation : expiredReservations) {
+            if (transition(reservation, StockReservationStatus.EXPIRED, stockRepository::releaseReservedQuantity)) {
+                expiredCount++;
+            }
+        }
+        return expiredCount;
+    }
+
+    private Long reserveQuantity(Long productId, Long quantity) {
+        // Candidates are ordered by available quantity; the conditional update skips rows drained in the meantime
+        return stockRepository.findIdsWithAvailableQuantity(productId, quantity).stream()
+            .filter(stockId -> stockRepository.reserveQuantity(stockId, quantity) > 0)
+            .findFirst()
+            .orElseThrow(() -> new BadRequestException(MessageCode.INSUFFICIENT_STOCK, productId));
+    }
+
+    private void completeReservations(String checkoutId, StockReservationStatus newStatus,
+                                      BiFunction<Long, Long, Integer> stockUpdate) {
+        List<StockReservation> reservations = stockReservationRepository
+            .findByCheckoutIdAndStatus(checkoutId, StockReservationStatus.RESERVED);
+        if (reservations.isEmpty()) {
+            throw new NotFoundException(MessageCode.STOCK_RESERVATION_NOT_FOUND, checkoutId);
+        }
+        reservations.forEach(reservation -> transition(reservation, newStatus, stockUpdate));
+    }
+
+    private boolean transition(StockReservation reservation, StockReservationStatus newStatus,
+                               BiFunction<Long, Long, Integer> stockUpdate) {
+        int updated = stockReservationRepository.updateStatus(reservation.getId(),
+            StockReservationStatus.RESERVED, newStatus);
+        if (updated == 0) {
+            return false;
+        }
+        if (stockUpdate.apply(reservation.getStockId(), reservation.getQuantity()) == 0) {
+            log.warn("Stock {} had less reserved quantity than reservation {} while moving it to {}",
+                reservation.getStockId(), reservation.getId(), newStatus);
+        }
+        return true;
+    }
+}
@@ -8,6 +8,7 @@ import com.yas.inventory.constants.MessageCode;
 import com.yas.inventory.model.Stock;
 import com.yas.inventory.model.Warehouse;
 import com.yas.inventory.model.enumeration.FilterExistInWhSelection;
+import com.yas.inventory.repository.StockBatchRepository;
 import com.yas.inventory.repository.StockRepository;
 import com.yas.inventory.repository.WarehouseRepository;
 import com.yas.inventory.viewmodel.product.ProductInfoVm;
@@ -16,9 +17,13 @@ import com.yas.inventory.viewmodel.stock.StockPostVm;
 import com.yas.inventory.viewmodel.stock.StockQuantityUpdateVm;
 import com.yas.inventory.viewmodel.stock.StockQuantityVm;
 import com.yas.inventory.viewmodel.stock.StockVm;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,8 +31,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @Transactional
 public class StockService {
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+
     private final WarehouseRepository warehouseRepository;
     private final StockRepository stockRepository;
+    private final StockBatchRepository stockBatchRepository;
     private final ProductService productService;
 
     private final WarehouseService warehouseService;
@@ -36,11 +44,13 @@ public class StockService {
 
     public StockService(WarehouseRepository warehouseRepository,
                         StockRepository stockRepository,
+                        StockBatchRepository stockBatchRepository,
                         ProductService productService,
                         WarehouseService warehouseService,
                         StockHistoryService stockHistoryService) {
         this.warehouseRepository = warehouseRepository;
         this.stockRepository = stockRepository;
+        this.stockBatchRepository = stockBatchRepository;
         this.productService = productService;
         this.warehouseService = warehouseService;
         this.stockHistoryService = stockHistoryService;
@@ -109,37 +119,41 @@ public class StockService {
         ).toList();
     }
 
+    /**
+     * Applies the adjustments in chunks of {@value #UPDATE_CHUNK_SIZE} stocks: each chunk is loaded with one
+     * query, and its quantities and histories are written as JDBC batches.
+     */
     public void updateProductQuantityInStock(final StockQuantityUpdateVm requestBody) {
-        List<StockQuantityVm> stockQuantityVms = requestBody.stockQuantityList();
-        List<Stock> stocks =
-            stockRepository.findAllById(stockQuantityVms.parallelStream().map(StockQuantityVm::stockId).toList());
-
-        for (final Stock stock : stocks) {
-            StockQuantityVm stockQuantityVm = stockQuantityVms
-                .parallelStream()
-                .filter(stockQuantityPostVm -> stockQuantityPostVm.stockId().equals(stock.getId()))
-                .findFirst()
-                .orElse(null);
-
-            if (stockQuantityVm == null) {
-                continue;
+        // Index the request by stock id once, instead of scanning it again for every stock
+        Map<Long, StockQuantityVm> stockQuantityVmByStockId = requestBody.stockQuantityList().stream()
+            .collect(Collectors.toMap(StockQuantityVm::stockId, Function.identity(),
+                (first, duplicate) -> first, LinkedHashMap::new));
+        List<Long> stockIds = new ArrayList<>(stockQuantityVmByStockId.keySet());
+
+        List<ProductQuantityPostVm> productQuantityPostVms = new ArrayList<>();
+        for (int from = 0; from < stockIds.size(); from += UPDATE_CHUNK_SIZE) {
+            List<Stock> stocks = stockRepository.findAllById(
+                stockIds.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, stockIds.size())));
+            List<StockQuantityVm> adjustments = new ArrayList<>(stocks.size());
+
+            for (final Stock stock : stocks) {
+                StockQuantityVm stockQuantityVm = stockQuantityVmByStockId.get(stock.getId());
+                Long adjustedQuantity = stockQuantityVm.quantity() != null ? stockQuantityVm.quantity() : 0;
+
+                if (adjustedQuantity < 0 && adjustedQuantity > stock.getQuantity()) {
+                    throw new BadRequestException(ApiConstant.INVALID_ADJUSTED_QUANTITY);
+                }
+
+                // The entity is left untouched so that Hibernate does not flush a second update for it
+                adjustments.add(new StockQuantityVm(stock.getId(), adjustedQuantity, stockQuantityVm.note()));
+                productQuantityPostVms.add(
+                    new ProductQuantityPostVm(stock.getProductId(), stock.getQuantity() + adjustedQuantity));
             }
-
-            Long adjustedQuantity = stockQuantityVm.quantity() != null ? stockQuantityVm.quantity() : 0;
-
-            if (adjustedQuantity < 0 && adjustedQuantity > stock.getQuantity()) {
-                throw new BadRequestException(ApiConstant.INVALID_ADJUSTED_QUANTITY);
-            }
-
-            stock.setQuantity(stock.getQuantity() + adjustedQuantity);
+            stockBatchRepository.adjustQuantities(adjustments);
+            stockHistoryService.createStockHistories(stocks, stockQuantityVmByStockId);
         }
-        stockRepository.saveAll(stocks);
-        stockHistoryService.createStockHistories(stocks, stockQuantityVms);
 
         //Update stock quantity for product
-        List<ProductQuantityPostVm> productQuantityPostVms = stocks.parallelStream()
-            .map(ProductQuantityPostVm::fromModel)
-            .toList();
         if (!productQuantityPostVms.isEmpty()) {
             productService.updateProductQuantity(productQuantityPostVms);
         }
@@ -0,0 +1,7 @@
+package com.yas.inventory.viewmodel.reservation;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record StockReservationItemVm(@NotNull Long productId, @NotNull @Positive Long quantity) {
+}
@@ -0,0 +1,10 @@
+package com.yas.inventory.viewmodel.reservation;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public record StockReservationPostVm(@NotBlank String checkoutId,
+                                     @NotEmpty List<@Valid StockReservationItemVm> items) {
+}
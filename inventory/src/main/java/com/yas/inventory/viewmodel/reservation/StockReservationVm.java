@@ -0,0 +1,27 @@
+package com.yas.inventory.viewmodel.reservation;
+
+import com.yas.inventory.model.StockReservation;
+import com.yas.inventory.model.enumeration.StockReservationStatus;
+import java.time.ZonedDateTime;
+
+public record StockReservationVm(
+    Long id,
+    String checkoutId,
+    Long productId,
+    Long stockId,
+    Long quantity,
+    StockReservationStatus status,
+    ZonedDateTime expiresAt
+) {
+    public static StockReservationVm fromModel(StockReservation stockReservation) {
+        return new StockReservationVm(
+            stockReservation.getId(),
+            stockReservation.getCheckoutId(),
+            stockReservation.getProductId(),
+            stockReservation.getStockId(),
+            stockReservation.getQuantity(),
+            stockReservation.getStatus(),
+            stockReservation.getExpiresAt()
+        );
+    }
+}
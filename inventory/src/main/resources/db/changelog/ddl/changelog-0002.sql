@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset yas:stock-reservation-1
+ALTER TABLE stock ALTER COLUMN reserved_quantity DROP DEFAULT;
+DROP SEQUENCE IF EXISTS stock_reserved_quantity_seq;
+UPDATE stock SET reserved_quantity = 0;
+ALTER TABLE stock ALTER COLUMN reserved_quantity SET DEFAULT 0;
+ALTER TABLE stock ALTER COLUMN reserved_quantity SET NOT NULL;
+
+create table stock_reservation (id bigserial not null, checkout_id varchar(255) not null, product_id bigint not null, stock_id bigint not null, quantity bigint not null, status varchar(32) not null, expires_at timestamp(6) not null, created_by varchar(255), created_on timestamp(6), last_modified_by varchar(255), last_modified_on timestamp(6), primary key (id));
+alter table if exists stock_reservation add constraint fk_stock_reservation_stock foreign key (stock_id) references stock;
+create index idx_stock_reservation_checkout_id on stock_reservation (checkout_id);
+create index idx_stock_reservation_status_expires_at on stock_reservation (status, expires_at);
@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset yas:stock-reservation-2
+create unique index ux_stock_reservation_checkout_product_reserved on stock_reservation (checkout_id, product_id) where status = 'RESERVED';
@@ -0,0 +1,176 @@
+package com.yas.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.commonlibrary.exception.DuplicatedException;
+import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.inventory.config.StockReservationConfig;
+import com.yas.inventory.model.StockReservation;
+import com.yas.inventory.model.enumeration.StockReservationStatus;
+import com.yas.inventory.repository.StockRepository;
+import com.yas.inventory.repository.StockReservationRepository;
+import com.yas.inventory.viewmodel.reservation.StockReservationItemVm;
+import com.yas.inventory.viewmodel.reservation.StockReservationPostVm;
+import com.yas.inventory.viewmodel.reservation.StockReservationVm;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+
+class StockReservationServiceTest {
+
+    private static final String CHECKOUT_ID = "checkout-1";
+
+    private StockRepository stockRepository;
+    private StockReservationRepository stockReservationRepository;
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void setUp() {
+        stockRepository = mock(StockRepository.class);
+        stockReservationRepository = mock(StockReservationRepository.class);
+        stockReservationService = new StockReservationService(stockRepository, stockReservationRepository,
+            new StockReservationConfig(Duration.ofMinutes(15), 100));
+        when(stockReservationRepository.saveAllAndFlush(anyList()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void reserve_whenItemsRepeatProduct_shouldReserveMergedQuantitiesSortedByProductId() {
+        when(stockRepository.findIdsWithAvailableQuantity(1L, 5L)).thenReturn(List.of(10L));
+        when(stockRepository.findIdsWithAvailableQuantity(2L, 1L)).thenReturn(List.of(20L));
+        when(stockRepository.reserveQuantity(anyLong(), anyLong())).thenReturn(1);
+
+        List<StockReservationVm> result = stockReservationService.reserve(new StockReservationPostVm(CHECKOUT_ID,
+            List.of(new StockReservationItemVm(2L, 1L), new StockReservationItemVm(1L, 2L),
+                new StockReservationItemVm(1L, 3L))));
+
+        InOrder inOrder = inOrder(stockRepository);
+        inOrder.verify(stockRepository).reserveQuantity(10L, 5L);
+        inOrder.verify(stockRepository).reserveQuantity(20L, 1L);
+        assertEquals(List.of(1L, 2L), result.stream().map(StockReservationVm::productId).toList());
+        assertEquals(List.of(10L, 20L), result.stream().map(StockReservationVm::stockId).toList());
+        assertEquals(StockReservationStatus.RESERVED, result.getFirst().status());
+    }
+
+    @Test
+    void reserve_whenFirstStockIsDrainedConcurrently_shouldFallBackToNextStock() {
+        when(stockRepository.findIdsWithAvailableQuantity(1L, 2L)).thenReturn(List.of(10L, 11L));
+        when(stockRepository.reserveQuantity(10L, 2L)).thenReturn(0);
+        when(stockRepository.reserveQuantity(11L, 2L)).thenReturn(1);
+
+        List<StockReservationVm> result = stockReservationService.reserve(new StockReservationPostVm(CHECKOUT_ID,
+            List.of(new StockReservationItemVm(1L, 2L))));
+
+        assertEquals(11L, result.getFirst().stockId());
+    }
+
+    @Test
+    void reserve_whenNoStockHasEnoughQuantity_shouldThrowAndSaveNothing() {
+        when(stockRepository.findIdsWithAvailableQuantity(1L, 2L)).thenReturn(List.of());
+        StockReservationPostVm postVm = new StockReservationPostVm(CHECKOUT_ID,
+            List.of(new StockReservationItemVm(1L, 2L)));
+
+        assertThrows(BadRequestException.class, () -> stockReservationService.reserve(postVm));
+        verify(stockReservationRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void reserve_whenCheckoutIsReservedConcurrently_shouldThrowDuplicated() {
+        when(stockRepository.findIdsWithAvailableQuantity(1L, 2L)).thenReturn(List.of(10L));
+        when(stockRepository.reserveQuantity(10L, 2L)).thenReturn(1);
+        when(stockReservationRepository.saveAllAndFlush(anyList()))
+            .thenThrow(new DataIntegrityViolationException("ux_stock_reservation_checkout_product_reserved"));
+        StockReservationPostVm postVm = new StockReservationPostVm(CHECKOUT_ID,
+            List.of(new StockReservationItemVm(1L, 2L)));
+
+        assertThrows(DuplicatedException.class, () -> stockReservationService.reserve(postVm));
+    }
+
+    @Test
+    void reserve_whenCheckoutAlreadyReserved_shouldReturnExistingReservations() {
+        when(stockReservationRepository.findByCheckoutIdAndStatus(CHECKOUT_ID, StockReservationStatus.RESERVED))
+            .thenReturn(List.of(reservation(1L, 10L, 2L)));
+
+        List<StockReservationVm> result = stockReservationService.reserve(new StockReservationPostVm(CHECKOUT_ID,
+            List.of(new StockReservationItemVm(1L, 2L))));
+
+        assertEquals(1, result.size());
+        verify(stockRepository, never()).reserveQuantity(anyLong(), anyLong());
+    }
+
+    @Test
+    void confirm_whenReservationIsStillReserved_shouldDeductReservedQuantity() {
+        when(stockReservationRepository.findByCheckoutIdAndStatus(CHECKOUT_ID, StockReservationStatus.RESERVED))
+            .thenReturn(List.of(reservation(1L, 10L, 2L)));
+        when(stockReservationRepository.updateStatus(1L, StockReservationStatus.RESERVED,
+            StockReservationStatus.CONFIRMED)).thenReturn(1);
+        when(stockRepository.confirmReservedQuantity(10L, 2L)).thenReturn(1);
+
+        stockReservationService.confirm(CHECKOUT_ID);
+
+        verify(stockRepository).confirmReservedQuantity(10L, 2L);
+    }
+
+    @Test
+    void release_whenReservationWasExpiredConcurrently_shouldNotReleaseTwice() {
+        when(stockReservationRepository.findByCheckoutIdAndStatus(CHECKOUT_ID, StockReservationStatus.RESERVED))
+            .thenReturn(List.of(reservation(1L, 10L, 2L)));
+        when(stockReservationRepository.updateStatus(1L, StockReservationStatus.RESERVED,
+            StockReservationStatus.RELEASED)).thenReturn(0);
+
+        stockReservationService.release(CHECKOUT_ID);
+
+        verify(stockRepository, never()).releaseReservedQuantity(anyLong(), anyLong());
+    }
+
+    @Test
+    void release_whenNoReservation_shouldThrowNotFound() {
+        when(stockReservationRepository.findByCheckoutIdAndStatus(CHECKOUT_ID, StockReservationStatus.RESERVED))
+            .thenReturn(List.of());
+
+        assertThrows(NotFoundException.class, () -> stockReservationService.release(CHECKOUT_ID));
+    }
+
+    @Test
+    void expireReservations_whenReservationsExpired_shouldReleaseTheirQuantity() {
+        when(stockReservationRepository.findByStatusAndExpiresAtBeforeOrderByExpiresAt(
+            any(StockReservationStatus.class), any(ZonedDateTime.class), any(Pageable.class)))
+            .thenReturn(List.of(reservation(1L, 10L, 2L), reservation(2L, 11L, 3L)));
+        when(stockReservationRepository.updateStatus(1L, StockReservationStatus.RESERVED,
+            StockReservationStatus.EXPIRED)).thenReturn(1);
+        when(stockReservationRepository.updateStatus(2L, StockReservationStatus.RESERVED,
+            StockReservationStatus.EXPIRED)).thenReturn(0);
+        when(stockRepository.releaseReservedQuantity(10L, 2L)).thenReturn(1);
+
+        assertEquals(1, stockReservationService.expireReservations());
+        verify(stockRepository).releaseReservedQuantity(10L, 2L);
+        verify(stockRepository, never()).releaseReservedQuantity(11L, 3L);
+    }
+
+    private static StockReservation reservation(Long id, Long stockId, Long quantity) {
+        return StockReservation.builder()
+            .id(id)
+            .checkoutId(CHECKOUT_ID)
+            .productId(1L)
+            .stockId(stockId)
+            .quantity(quantity)
+            .status(StockReservationStatus.RESERVED)
+            .expiresAt(ZonedDateTime.now())
+            .build();
+    }
+}
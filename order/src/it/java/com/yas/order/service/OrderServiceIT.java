@@ -5,23 +5,33 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import com.yas.commonlibrary.IntegrationTestConfiguration;
 import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.commonlibrary.kafka.cdc.message.OrderStockRejectedEvent;
 import com.yas.order.OrderApplication;
 import com.yas.order.model.Order;
 import com.yas.order.model.enumeration.OrderStatus;
 import com.yas.order.model.enumeration.PaymentStatus;
+import com.yas.order.model.request.OrderRequest;
 import com.yas.order.repository.OrderItemRepository;
 import com.yas.order.repository.OrderRepository;
 import com.yas.order.viewmodel.order.OrderBriefVm;
+import com.yas.order.viewmodel.order.OrderCursorListVm;
 import com.yas.order.viewmodel.order.OrderItemPostVm;
 import com.yas.order.viewmodel.order.OrderListVm;
 import com.yas.order.viewmodel.order.OrderPostVm;
 import com.yas.order.viewmodel.order.OrderVm;
 import com.yas.order.viewmodel.order.PaymentOrderStatusVm;
 import com.yas.order.viewmodel.orderaddress.OrderAddressPostVm;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -45,10 +55,7 @@ class OrderServiceIT {
     private ProductService productService;
 
     @MockBean
-    private PromotionService promotionService;
-
-    @MockBean
-    private CartService cartService;
+    private InventoryService inventoryService;
 
     @Autowired
     private OrderItemRepository orderItemRepository;
@@ -174,6 +181,68 @@ class OrderServiceIT {
         assertNull(orderListVm.orderList());
     }
 
+    @Test
+    void testGetOrdersAfter_whenPagingWithCursor_returnEachOrderOnce() {
+
+        orderService.createOrder(orderPostVm);
+        orderService.createOrder(orderPostVm);
+        orderService.createOrder(orderPostVm);
+
+        ZonedDateTime createdFrom = ZonedDateTime.now().minusDays(7);
+        ZonedDateTime createdTo = ZonedDateTime.now().plusDays(1);
+        Pair<ZonedDateTime, ZonedDateTime> timePair = Pair.of(createdFrom, createdTo);
+        Pair<String, String> billingPair = Pair.of("", "");
+
+        OrderCursorListVm firstPage = orderService.getOrdersAfter(
+            timePair, "abc", List.of(), billingPair, "", null, null, 2);
+        assertEquals(2, firstPage.orderList().size());
+        assertNotNull(firstPage.lastId());
+
+        OrderCursorListVm secondPage = orderService.getOrdersAfter(
+            timePair, "abc", List.of(), billingPair, "", firstPage.lastCreatedOn(), firstPage.lastId(), 2);
+        assertEquals(1, secondPage.orderList().size());
+        assertNull(secondPage.lastId());
+        assertTrue(secondPage.orderList().getFirst().id() < firstPage.lastId());
+    }
+
+    @Test
+    void testGetOrdersAfter_whenPageSizeIsNotPositive_returnOneOrderPerPage() {
+
+        orderService.createOrder(orderPostVm);
+        orderService.createOrder(orderPostVm);
+
+        Pair<ZonedDateTime, ZonedDateTime> timePair
+            = Pair.of(ZonedDateTime.now().minusDays(7), ZonedDateTime.now().plusDays(1));
+
+        OrderCursorListVm page = orderService.getOrdersAfter(
+            timePair, "abc", List.of(), Pair.of("", ""), "", null, null, 0);
+        assertEquals(1, page.orderList().size());
+        assertNotNull(page.lastId());
+    }
+
+    @Test
+    void testExportCsv_whenOrdersMatch_writeHeaderAndOneLinePerOrder() throws IOException {
+
+        orderService.createOrder(orderPostVm);
+        orderService.createOrder(orderPostVm);
+        OrderRequest orderRequest = OrderRequest.builder()
+            .createdFrom(ZonedDateTime.now().minusDays(7))
+            .createdTo(ZonedDateTime.now().plusDays(1))
+            .productName("abc")
+            .orderStatus(List.of())
+            .billingCountry("")
+            .billingPhoneNumber("")
+            .email("")
+            .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        orderService.exportCsv(orderRequest, outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.getFirst().startsWith("Id,Order status"));
+    }
+
     @Test
     void testFindOrderByCheckoutId_whenNormalCase_returnOrder() {
         orderService.createOrder(orderPostVm);
@@ -215,6 +284,38 @@ class OrderServiceIT {
 
         PaymentOrderStatusVm actual = orderService.updateOrderPaymentStatus(paymentOrderStatusVm);
         assertEquals(OrderStatus.PAID.getName(), actual.orderStatus());
+        verify(inventoryService).confirmStockReservation(order.getCheckoutId());
+    }
+
+    @Test
+    void testUpdateOrderPaymentStatus_whenPaymentCancelled_releaseStockReservation() {
+
+        orderService.createOrder(orderPostVm);
+        Order order = orderRepository.findAll().getFirst();
+        PaymentOrderStatusVm paymentOrderStatusVm = new PaymentOrderStatusVm(
+            order.getId(), OrderStatus.PENDING.getName(), 1L, PaymentStatus.CANCELLED.name()
+        );
+
+        orderService.updateOrderPaymentStatus(paymentOrderStatusVm);
+
+        verify(inventoryService).releaseStockReservation(order.getCheckoutId());
+        verify(inventoryService, never()).confirmStockReservation(any());
+    }
+
+    @Test
+    void testUpdateOrderPaymentStatus_whenReservationCannotBeConfirmed_stillRecordPayment() {
+
+        orderService.createOrder(orderPostVm);
+        Order order = orderRepository.findAll().getFirst();
+        doThrow(new NotFoundException("STOCK_RESERVATION_NOT_FOUND"))
+            .when(inventoryService).confirmStockReservation(order.getCheckoutId());
+        PaymentOrderStatusVm paymentOrderStatusVm = new PaymentOrderStatusVm(
+            order.getId(), OrderStatus.ACCEPTED.getName(), 1L, PaymentStatus.COMPLETED.name()
+        );
+
+        PaymentOrderStatusVm actual = orderService.updateOrderPaymentStatus(paymentOrderStatusVm);
+
+        assertEquals(OrderStatus.PAID.getName(), actual.orderStatus());
     }
 
     @Test
@@ -246,6 +347,19 @@ class OrderServiceIT {
 
     }
 
+    @Test
+    void testRejectOrderOutOfStock_whenStockIsShort_rejectOrderWithProducts() {
+        orderService.createOrder(orderPostVm);
+        Order order = orderRepository.findAll().getFirst();
+
+        orderService.rejectOrderOutOfStock(new OrderStockRejectedEvent(order.getId(), List.of(
+            new OrderStockRejectedEvent.Item(1L, 2L), new OrderStockRejectedEvent.Item(3L, 1L))));
+
+        Order actual = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.REJECT, actual.getOrderStatus());
+        assertEquals("Out of stock: products 1, 3", actual.getRejectReason());
+    }
+
     @Test
     void testRejectOrder_whenNotFound_throwNotFoundException() {
         Exception exception = assertThrows(NotFoundException.class,
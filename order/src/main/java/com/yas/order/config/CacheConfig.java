@@ -0,0 +1,15 @@
+package com.yas.order.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Product id to {@link com.yas.order.viewmodel.product.ProductCheckoutListVm} snapshots used to price
+     * checkouts. Size, TTL and stats recording are configured through {@code spring.cache.caffeine.spec}.
+     */
+    public static final String PRODUCT_CHECKOUT_CACHE = "product-checkout";
+}
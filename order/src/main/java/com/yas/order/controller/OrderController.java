@@ -6,6 +6,7 @@ import com.yas.order.model.enumeration.OrderStatus;
 import com.yas.order.model.request.OrderRequest;
 import com.yas.order.service.OrderService;
 import com.yas.order.viewmodel.order.OrderBriefVm;
+import com.yas.order.viewmodel.order.OrderCursorListVm;
 import com.yas.order.viewmodel.order.OrderExistsByProductAndUserGetVm;
 import com.yas.order.viewmodel.order.OrderGetVm;
 import com.yas.order.viewmodel.order.OrderListVm;
@@ -13,7 +14,6 @@ import com.yas.order.viewmodel.order.OrderPostVm;
 import com.yas.order.viewmodel.order.OrderVm;
 import com.yas.order.viewmodel.order.PaymentOrderStatusVm;
 import jakarta.validation.Valid;
-import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +30,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -97,18 +98,47 @@ public class OrderController {
         );
     }
 
+    @GetMapping("/backoffice/orders/cursor")
+    public ResponseEntity<OrderCursorListVm> getOrdersAfter(
+            @RequestParam(value = "createdFrom", defaultValue = "#{new java.util.Date(1970-01-01)}", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) ZonedDateTime createdFrom,
+            @RequestParam(value = "createdTo", defaultValue = "#{new java.util.Date()}", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) ZonedDateTime createdTo,
+            @RequestParam(value = "productName", defaultValue = "", required = false) String productName,
+            @RequestParam(value = "orderStatus", defaultValue = "", required = false) List<OrderStatus> orderStatus,
+            @RequestParam(value = "billingPhoneNumber", defaultValue = "", required = false) String billingPhoneNumber,
+            @RequestParam(value = "email", defaultValue = "", required = false) String email,
+            @RequestParam(value = "billingCountry", defaultValue = "", required = false) String billingCountry,
+            @RequestParam(value = "lastCreatedOn", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime lastCreatedOn,
+            @RequestParam(value = "lastId", required = false) Long lastId,
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize
+    ) {
+
+        return ResponseEntity.ok(orderService.getOrdersAfter(
+                Pair.of(createdFrom, createdTo),
+                productName,
+                orderStatus,
+                Pair.of(billingCountry, billingPhoneNumber),
+                email,
+                lastCreatedOn,
+                lastId,
+                pageSize)
+        );
+    }
+
     @GetMapping("/backoffice/orders/latest/{count}")
     public ResponseEntity<List<OrderBriefVm>> getLatestOrders(@PathVariable int count) {
         return ResponseEntity.ok(orderService.getLatestOrders(count));
     }
 
     @PostMapping("/backoffice/orders/csv")
-    public ResponseEntity<byte[]> exportCsv(@RequestBody OrderRequest orderRequest) throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestBody OrderRequest orderRequest) {
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_DISPOSITION,
             "attachment; filename=" + CsvExporter.createFileName(OrderItemCsv.class));
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        var csvBytes = orderService.exportCsv(orderRequest);
-        return new ResponseEntity<>(csvBytes, headers, HttpStatus.OK);
+        StreamingResponseBody csvBody = outputStream -> orderService.exportCsv(orderRequest, outputStream);
+        return new ResponseEntity<>(csvBody, headers, HttpStatus.OK);
     }
 }
@@ -0,0 +1,31 @@
+package com.yas.order.kafka.config.consumer;
+
+import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.yas.commonlibrary.kafka.cdc.message.OrderStockRejectedEvent;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Order stock rejected kafka listener, support convert the events product publishes for orders it could not
+ * subtract the stock of to java object.
+ */
+@EnableKafka
+@Configuration
+public class OrderStockRejectedKafkaListenerConfig extends BaseKafkaListenerConfig<String, OrderStockRejectedEvent> {
+
+    public static final String ORDER_STOCK_REJECTED_LISTENER_CONTAINER_FACTORY =
+        "orderStockRejectedListenerContainerFactory";
+
+    public OrderStockRejectedKafkaListenerConfig(KafkaProperties kafkaProperties) {
+        super(String.class, OrderStockRejectedEvent.class, kafkaProperties);
+    }
+
+    @Bean(name = ORDER_STOCK_REJECTED_LISTENER_CONTAINER_FACTORY)
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<String, OrderStockRejectedEvent> listenerContainerFactory() {
+        return super.kafkaListenerContainerFactory();
+    }
+}
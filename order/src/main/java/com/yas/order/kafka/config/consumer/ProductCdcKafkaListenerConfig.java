@@ -0,0 +1,67 @@
+package com.yas.order.kafka.config.consumer;
+
+import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import java.time.Duration;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Product CDC kafka listener, support convert product cdc message to java object. The listeners are assigned the
+ * partitions of the topic instead of subscribing to it, they join no consumer group and commit no offset.
+ */
+@Slf4j
+@EnableKafka
+@Configuration
+public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<ProductMsgKey, ProductCdcMessage> {
+
+    public static final String PRODUCT_CDC_LISTENER_CONTAINER_FACTORY = "productCdcListenerContainerFactory";
+
+    public static final String PRODUCT_TOPIC_PARTITIONS = "productTopicPartitions";
+
+    private static final Duration PARTITIONS_LOOKUP_TIMEOUT = Duration.ofSeconds(30);
+
+    public ProductCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
+        super(ProductMsgKey.class, ProductCdcMessage.class, kafkaProperties);
+    }
+
+    @Bean(name = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY)
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<ProductMsgKey, ProductCdcMessage> listenerContainerFactory() {
+        var factory = super.kafkaListenerContainerFactory();
+        factory.getConsumerFactory().removeConfig(ConsumerConfig.GROUP_ID_CONFIG);
+        return factory;
+    }
+
+    /**
+     * Partitions of the product topic, looked up once at startup. Partitions added to the topic later are consumed
+     * after a restart. When the lookup fails only partition 0 is consumed, the snapshots of the products of the
+     * other partitions then expire with the cache TTL.
+     */
+    @Bean(name = PRODUCT_TOPIC_PARTITIONS)
+    @ConditionalOnProperty(name = "product.checkout-cache.sync.enabled", havingValue = "true", matchIfMissing = true)
+    public List<Integer> productTopicPartitions(@Value("${product.topic.name}") String productTopic) {
+        try (Consumer<?, ?> consumer = listenerContainerFactory().getConsumerFactory().createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(productTopic, PARTITIONS_LOOKUP_TIMEOUT);
+            if (partitions != null && !partitions.isEmpty()) {
+                return partitions.stream().map(PartitionInfo::partition).sorted().toList();
+            }
+            log.warn("Topic {} has no partitions yet, consuming partition 0", productTopic);
+        } catch (KafkaException e) {
+            log.warn("Failed to look up the partitions of topic {}, consuming partition 0", productTopic, e);
+        }
+        return List.of(0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.yas.order.kafka.consumer;
+
+import static com.yas.order.kafka.config.consumer.OrderStockRejectedKafkaListenerConfig.ORDER_STOCK_REJECTED_LISTENER_CONTAINER_FACTORY;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.message.OrderStockRejectedEvent;
+import com.yas.order.service.OrderService;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rejects the orders product could not subtract the stock of, the compensation of the order created event.
+ */
+@Service
+public class OrderStockRejectedConsumer extends BaseCdcConsumer<String, OrderStockRejectedEvent> {
+
+    private final OrderService orderService;
+
+    public OrderStockRejectedConsumer(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    @KafkaListener(
+        id = "order-stock-rejected",
+        groupId = "order-stock-rejected",
+        topics = "${order.events.order-stock-rejected.topic.name}",
+        containerFactory = ORDER_STOCK_REJECTED_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "${order.events.consumer.enabled:true}"
+    )
+    public void processOrderStockRejected(
+        @Header(KafkaHeaders.RECEIVED_KEY) String key,
+        @Payload OrderStockRejectedEvent orderStockRejectedEvent,
+        @Headers MessageHeaders headers
+    ) {
+        processMessage(key, orderStockRejectedEvent, headers,
+            (orderId, event) -> orderService.rejectOrderOutOfStock(event));
+    }
+}
@@ -0,0 +1,51 @@
+package com.yas.order.kafka.consumer;
+
+import static com.yas.order.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_LISTENER_CONTAINER_FACTORY;
+import static com.yas.order.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_TOPIC_PARTITIONS;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.order.service.ProductCheckoutCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts the checkout snapshot of a product whenever the product changes. The snapshot cache is local to each
+ * order instance, so every instance is assigned all the partitions of the topic, without a consumer group, and
+ * starts from the latest offset.
+ */
+@Service
+@ConditionalOnProperty(name = "product.checkout-cache.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCheckoutCacheConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
+
+    private final ProductCheckoutCacheService productCheckoutCacheService;
+
+    public ProductCheckoutCacheConsumer(ProductCheckoutCacheService productCheckoutCacheService) {
+        this.productCheckoutCacheService = productCheckoutCacheService;
+    }
+
+    @KafkaListener(
+        id = "product-checkout-cache",
+        idIsGroup = false,
+        topicPartitions = @TopicPartition(topic = "${product.topic.name}",
+            partitions = "#{@" + PRODUCT_TOPIC_PARTITIONS + "}"),
+        containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY,
+        properties = "auto.offset.reset=latest"
+    )
+    public void processMessage(
+        @Header(KafkaHeaders.RECEIVED_KEY) ProductMsgKey key,
+        @Payload(required = false) ProductCdcMessage productCdcMessage,
+        @Headers MessageHeaders headers
+    ) {
+        processMessage(key, productCdcMessage, headers,
+            (productKey, message) -> productCheckoutCacheService.evictProduct(productKey.getId()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.yas.order.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Event written in the same transaction as the order change it describes. The Debezium outbox event router
+ * publishes every inserted row to the {@code outbox.event.<type>} topic, keyed by {@code aggregate_id}.
+ */
+@Entity
+@Table(name = "order_outbox_event")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderOutboxEvent {
+
+    @Id
+    private UUID id;
+
+    private String aggregateType;
+
+    private String aggregateId;
+
+    private String type;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", columnDefinition = "jsonb")
+    private String payload;
+
+    @CreationTimestamp
+    private ZonedDateTime createdOn;
+}
@@ -0,0 +1,17 @@
+package com.yas.order.repository;
+
+import com.yas.order.model.OrderOutboxEvent;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderOutboxEventRepository extends JpaRepository<OrderOutboxEvent, UUID> {
+
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.createdOn < :createdBefore")
+    int deleteByCreatedOnBefore(ZonedDateTime createdBefore);
+}
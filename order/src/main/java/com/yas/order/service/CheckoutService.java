@@ -40,11 +40,13 @@ public class CheckoutService {
 
     private final CheckoutRepository checkoutRepository;
     private final OrderService orderService;
-    private final ProductService productService;
+    private final ProductCheckoutCacheService productCheckoutCacheService;
+    private final InventoryService inventoryService;
     private final CheckoutMapper checkoutMapper;
 
     /**
-     * Creates a new {@link Checkout} object in a PENDING state.
+     * Creates a new {@link Checkout} object in a PENDING state and reserves the stock of its items until its payment
+     * completes or is cancelled. The checkout is not created when the stock can't be reserved.
      *
      * @param checkoutPostVm the view model containing checkout details and items
      * @return a {@link CheckoutVm} object representing the newly created checkout
@@ -56,6 +58,7 @@ public class CheckoutService {
 
         prepareCheckoutItems(checkout, checkoutPostVm);
         checkout = checkoutRepository.save(checkout);
+        inventoryService.reserveStock(checkout.getId(), checkout.getCheckoutItems());
 
         CheckoutVm checkoutVm = checkoutMapper.toVm(checkout);
         Set<CheckoutItemVm> checkoutItemVms = checkout.getCheckoutItems()
@@ -82,8 +85,7 @@ public class CheckoutService {
                     return item;
                 }).toList();
 
-        Map<Long, ProductCheckoutListVm> products
-                = productService.getProductInfomation(productIds, 0, productIds.size());
+        Map<Long, ProductCheckoutListVm> products = productCheckoutCacheService.getProducts(productIds);
 
         List<CheckoutItem> enrichedItems = enrichCheckoutItemsWithProductDetails(products, checkoutItems);
         BigDecimal totalAmount = enrichedItems.stream()
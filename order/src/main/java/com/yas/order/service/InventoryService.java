@@ -0,0 +1,79 @@
+package com.yas.order.service;
+
+import com.yas.commonlibrary.utils.AuthenticationUtils;
+import com.yas.order.config.ServiceUrlConfig;
+import com.yas.order.model.CheckoutItem;
+import com.yas.order.viewmodel.inventory.StockReservationItemVm;
+import com.yas.order.viewmodel.inventory.StockReservationPostVm;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import java.net.URI;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Holds the stock of a checkout in the inventory service from its creation until its payment completes or is
+ * cancelled. Reserving a checkout again returns its existing reservations, so retries are safe.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryService extends AbstractCircuitBreakFallbackHandler {
+
+    private static final String STOCK_RESERVATIONS_PATH = "/backoffice/stocks/reservations";
+
+    private final RestClient restClient;
+    private final ServiceUrlConfig serviceUrlConfig;
+
+    @Retry(name = "restApi")
+    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
+    public void reserveStock(String checkoutId, List<CheckoutItem> checkoutItems) {
+        final String jwt = AuthenticationUtils.extractJwt();
+
+        final URI url = UriComponentsBuilder
+                .fromHttpUrl(serviceUrlConfig.inventory())
+                .path(STOCK_RESERVATIONS_PATH)
+                .build()
+                .toUri();
+
+        List<StockReservationItemVm> items = checkoutItems.stream()
+                .map(item -> new StockReservationItemVm(item.getProductId(), (long) item.getQuantity()))
+                .toList();
+        restClient.post()
+                .uri(url)
+                .headers(h -> h.setBearerAuth(jwt))
+                .body(new StockReservationPostVm(checkoutId, items))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    @Retry(name = "restApi")
+    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
+    public void confirmStockReservation(String checkoutId) {
+        completeStockReservation(checkoutId, "confirm");
+    }
+
+    @Retry(name = "restApi")
+    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
+    public void releaseStockReservation(String checkoutId) {
+        completeStockReservation(checkoutId, "release");
+    }
+
+    private void completeStockReservation(String checkoutId, String action) {
+        final String jwt = AuthenticationUtils.extractJwt();
+
+        final URI url = UriComponentsBuilder
+                .fromHttpUrl(serviceUrlConfig.inventory())
+                .path(STOCK_RESERVATIONS_PATH + "/{checkoutId}/{action}")
+                .buildAndExpand(checkoutId, action)
+                .toUri();
+
+        restClient.put()
+                .uri(url)
+                .headers(h -> h.setBearerAuth(jwt))
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
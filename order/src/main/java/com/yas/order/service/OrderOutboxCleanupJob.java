@@ -0,0 +1,32 @@
+package com.yas.order.service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges outbox events once they are older than {@code yas.order.outbox.retention}.
+ */
+@Slf4j
+@Component
+public class OrderOutboxCleanupJob {
+    private final OrderOutboxService orderOutboxService;
+    private final Duration retention;
+
+    public OrderOutboxCleanupJob(OrderOutboxService orderOutboxService,
+                                 @Value("${yas.order.outbox.retention:P7D}") Duration retention) {
+        this.orderOutboxService = orderOutboxService;
+        this.retention = retention;
+    }
+
+    @Scheduled(cron = "${yas.order.outbox.cleanup-cron:0 30 2 * * *}")
+    public void deleteExpiredEvents() {
+        int deletedCount = orderOutboxService.deleteEventsCreatedBefore(ZonedDateTime.now().minus(retention));
+        if (deletedCount > 0) {
+            log.info("Deleted {} expired order outbox events", deletedCount);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.yas.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.order.model.Order;
+import com.yas.order.model.OrderItem;
+import com.yas.order.model.OrderOutboxEvent;
+import com.yas.order.repository.OrderOutboxEventRepository;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records order events in the outbox table. Product, cart and promotion react to them asynchronously, so they
+ * are not called over HTTP while the order transaction is open.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderOutboxService {
+    private final OrderOutboxEventRepository orderOutboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Adds the order created event to the outbox, it is only published when the order transaction commits.
+     *
+     * @param order      the created order.
+     * @param orderItems the items of the order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addOrderCreatedEvent(Order order, Collection<OrderItem> orderItems) {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+            .orderId(order.getId())
+            .customerId(order.getCreatedBy())
+            .couponCode(order.getCouponCode())
+            .items(orderItems.stream()
+                .map(item -> new OrderCreatedEvent.Item(item.getProductId(), item.getQuantity()))
+                .toList())
+            .build();
+
+        orderOutboxEventRepository.save(OrderOutboxEvent.builder()
+            .id(UUID.randomUUID())
+            .aggregateType(OrderCreatedEvent.AGGREGATE_TYPE)
+            .aggregateId(String.valueOf(order.getId()))
+            .type(OrderCreatedEvent.EVENT_TYPE)
+            .payload(toJson(event))
+            .build());
+    }
+
+    /**
+     * Removes the events created before the given time. Debezium reads the events from the write-ahead log,
+     * the rows are only kept to investigate deliveries.
+     *
+     * @param createdBefore events created before this time are removed.
+     * @return the number of removed events.
+     */
+    @Transactional
+    public int deleteEventsCreatedBefore(ZonedDateTime createdBefore) {
+        return orderOutboxEventRepository.deleteByCreatedOnBefore(createdBefore);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox event payload cannot be serialized", e);
+        }
+    }
+}
@@ -2,9 +2,9 @@ package com.yas.order.service;
 
 import static com.yas.order.utils.Constants.ErrorCode.ORDER_NOT_FOUND;
 
-import com.yas.commonlibrary.csv.BaseCsv;
 import com.yas.commonlibrary.csv.CsvExporter;
 import com.yas.commonlibrary.exception.NotFoundException;
+import com.yas.commonlibrary.kafka.cdc.message.OrderStockRejectedEvent;
 import com.yas.commonlibrary.utils.AuthenticationUtils;
 import com.yas.order.mapper.OrderMapper;
 import com.yas.order.model.Order;
@@ -20,6 +20,7 @@ import com.yas.order.repository.OrderRepository;
 import com.yas.order.specification.OrderSpecification;
 import com.yas.order.utils.Constants;
 import com.yas.order.viewmodel.order.OrderBriefVm;
+import com.yas.order.viewmodel.order.OrderCursorListVm;
 import com.yas.order.viewmodel.order.OrderExistsByProductAndUserGetVm;
 import com.yas.order.viewmodel.order.OrderGetVm;
 import com.yas.order.viewmodel.order.OrderListVm;
@@ -28,17 +29,18 @@ import com.yas.order.viewmodel.order.OrderVm;
 import com.yas.order.viewmodel.order.PaymentOrderStatusVm;
 import com.yas.order.viewmodel.orderaddress.OrderAddressPostVm;
 import com.yas.order.viewmodel.product.ProductVariationVm;
-import com.yas.order.viewmodel.promotion.PromotionUsageVm;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -48,6 +50,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
@@ -56,12 +59,15 @@ import org.springframework.util.CollectionUtils;
 @Transactional
 @RequiredArgsConstructor
 public class OrderService {
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductService productService;
-    private final CartService cartService;
     private final OrderMapper orderMapper;
-    private final PromotionService promotionService;
+    private final OrderOutboxService orderOutboxService;
+    private final InventoryService inventoryService;
 
     public OrderVm createOrder(OrderPostVm orderPostVm) {
 
@@ -128,22 +134,11 @@ public class OrderService {
                 .collect(Collectors.toSet());
         orderItemRepository.saveAll(orderItems);
 
+        // Stock, cart and promotion usage are updated by their services from the outbox event
+        orderOutboxService.addOrderCreatedEvent(order, orderItems);
+
         OrderVm orderVm = OrderVm.fromModel(order, orderItems);
-        productService.subtractProductStockQuantity(orderVm);
-        cartService.deleteCartItems(orderVm);
         acceptOrder(orderVm.id());
-
-        // update promotion
-        List<PromotionUsageVm> promotionUsageVms = new ArrayList<>();
-        orderItems.forEach(item -> {
-            PromotionUsageVm promotionUsageVm = PromotionUsageVm.builder()
-                    .productId(item.getProductId())
-                    .orderId(order.getId())
-                    .promotionCode(order.getCouponCode())
-                    .build();
-            promotionUsageVms.add(promotionUsageVm);
-        });
-        promotionService.updateUsagePromotion(promotionUsageVms);
         return orderVm;
     }
 
@@ -165,7 +160,64 @@ public class OrderService {
 
         Sort sort = Sort.by(Sort.Direction.DESC, Constants.Column.CREATE_ON_COLUMN);
         Pageable pageable = PageRequest.of(infoPage.getFirst(), infoPage.getSecond(), sort);
+        Specification<Order> spec = buildOrderSpecification(timePair, productName, orderStatus, billingPair, email);
+
+        Page<Order> orderPage = orderRepository.findAll(spec, pageable);
+        if (orderPage.isEmpty()) {
+            return new OrderListVm(null, 0, 0);
+        }
+
+        List<OrderBriefVm> orderVms = orderPage.getContent()
+                .stream()
+                .map(OrderBriefVm::fromModel)
+                .toList();
+
+        return new OrderListVm(orderVms, orderPage.getTotalElements(), orderPage.getTotalPages());
+    }
+
+    /**
+     * Returns the orders matching the filters, newest first, starting after the order identified by the cursor.
+     * Unlike {@link #getAllOrder} there is no offset and no total count, so every page costs the same whatever
+     * its depth.
+     *
+     * @param lastCreatedOn createdOn of the last order of the previous page, {@code null} for the first page.
+     * @param lastId        id of the last order of the previous page, {@code null} for the first page.
+     * @param pageSize      maximum number of orders to return, clamped to [1, {@value #MAX_CURSOR_PAGE_SIZE}].
+     */
+    public OrderCursorListVm getOrdersAfter(Pair<ZonedDateTime, ZonedDateTime> timePair,
+                                            String productName,
+                                            List<OrderStatus> orderStatus,
+                                            Pair<String, String> billingPair,
+                                            String email,
+                                            ZonedDateTime lastCreatedOn,
+                                            Long lastId,
+                                            int pageSize) {
+
+        int limit = Math.clamp(pageSize, 1, MAX_CURSOR_PAGE_SIZE);
+        Sort sort = Sort.by(Sort.Direction.DESC, Constants.Column.CREATE_ON_COLUMN, Constants.Column.ID_COLUMN);
+        Specification<Order> spec = buildOrderSpecification(timePair, productName, orderStatus, billingPair, email)
+            .and(OrderSpecification.withCreatedBefore(lastCreatedOn, lastId));
+
+        // One extra row tells whether there is a next page without counting
+        List<Order> orders = orderRepository.findBy(spec, query -> query.sortBy(sort).limit(limit + 1).all());
+        boolean hasNext = orders.size() > limit;
+        List<OrderBriefVm> orderVms = orders.stream()
+            .limit(limit)
+            .map(OrderBriefVm::fromModel)
+            .toList();
+
+        if (!hasNext) {
+            return new OrderCursorListVm(orderVms, null, null);
+        }
+        OrderBriefVm last = orderVms.getLast();
+        return new OrderCursorListVm(orderVms, last.createdOn(), last.id());
+    }
 
+    private Specification<Order> buildOrderSpecification(Pair<ZonedDateTime, ZonedDateTime> timePair,
+                                                         String productName,
+                                                         List<OrderStatus> orderStatus,
+                                                         Pair<String, String> billingPair,
+                                                         String email) {
         List<OrderStatus> allOrderStatus = Arrays.asList(OrderStatus.values());
 
         ZonedDateTime createdFrom = timePair.getFirst();
@@ -173,7 +225,7 @@ public class OrderService {
         String billingCountry = billingPair.getFirst();
         String billingPhoneNumber = billingPair.getSecond();
 
-        Specification<Order> spec = OrderSpecification.findOrderByWithMulCriteria(
+        return OrderSpecification.findOrderByWithMulCriteria(
             orderStatus.isEmpty() ? allOrderStatus : orderStatus,
             billingPhoneNumber,
             billingCountry,
@@ -182,18 +234,6 @@ public class OrderService {
             createdFrom,
             createdTo
         );
-
-        Page<Order> orderPage = orderRepository.findAll(spec, pageable);
-        if (orderPage.isEmpty()) {
-            return new OrderListVm(null, 0, 0);
-        }
-
-        List<OrderBriefVm> orderVms = orderPage.getContent()
-                .stream()
-                .map(OrderBriefVm::fromModel)
-                .toList();
-
-        return new OrderListVm(orderVms, orderPage.getTotalElements(), orderPage.getTotalPages());
     }
 
     public List<OrderBriefVm> getLatestOrders(int count) {
@@ -253,6 +293,11 @@ public class OrderService {
                 .orElseThrow(() -> new NotFoundException(ORDER_NOT_FOUND, "of checkoutId " + checkoutId));
     }
 
+    /**
+     * Records the payment of the order, and confirms the stock reserved for its checkout once the payment completes
+     * or releases it when the payment is cancelled. The payment is recorded even when the reservation can't be
+     * completed, a reservation that is left expires.
+     */
     public PaymentOrderStatusVm updateOrderPaymentStatus(PaymentOrderStatusVm paymentOrderStatusVm) {
         var order = this.orderRepository
                 .findById(paymentOrderStatusVm.orderId())
@@ -265,6 +310,11 @@ public class OrderService {
             order.setOrderStatus(OrderStatus.PAID);
         }
         Order result = this.orderRepository.save(order);
+        if (PaymentStatus.COMPLETED.name().equals(paymentStatus)) {
+            completeStockReservation(order.getCheckoutId(), inventoryService::confirmStockReservation);
+        } else if (PaymentStatus.CANCELLED.name().equals(paymentStatus)) {
+            completeStockReservation(order.getCheckoutId(), inventoryService::releaseStockReservation);
+        }
         return PaymentOrderStatusVm.builder()
                 .orderId(result.getId())
                 .orderStatus(result.getOrderStatus().getName())
@@ -273,6 +323,14 @@ public class OrderService {
                 .build();
     }
 
+    private void completeStockReservation(String checkoutId, Consumer<String> completion) {
+        try {
+            completion.accept(checkoutId);
+        } catch (RuntimeException e) {
+            log.error("Failed to complete the stock reservation of checkout {}", checkoutId, e);
+        }
+    }
+
     public void rejectOrder(Long orderId, String rejectReason) {
         Order order = this.orderRepository.findById(orderId)
                 .orElseThrow(() -> new NotFoundException(ORDER_NOT_FOUND, orderId));
@@ -281,6 +339,27 @@ public class OrderService {
         this.orderRepository.save(order);
     }
 
+    /**
+     * Rejects an order product could not subtract the stock of. The event is delivered at least once, an order
+     * that is already rejected is left as it is.
+     *
+     * @param event the order stock rejected event.
+     */
+    public void rejectOrderOutOfStock(OrderStockRejectedEvent event) {
+        Order order = this.orderRepository.findById(event.getOrderId())
+                .orElseThrow(() -> new NotFoundException(ORDER_NOT_FOUND, event.getOrderId()));
+        if (OrderStatus.REJECT.equals(order.getOrderStatus())) {
+            return;
+        }
+        String productIds = event.getItems().stream()
+                .map(item -> String.valueOf(item.getProductId()))
+                .collect(Collectors.joining(", "));
+        log.warn("Order {} is rejected, products {} are out of stock", order.getId(), productIds);
+        order.setOrderStatus(OrderStatus.REJECT);
+        order.setRejectReason("Out of stock: products " + productIds);
+        this.orderRepository.save(order);
+    }
+
     public void acceptOrder(Long orderId) {
         Order order = this.orderRepository.findById(orderId)
                 .orElseThrow(() -> new NotFoundException(ORDER_NOT_FOUND, orderId));
@@ -288,32 +367,29 @@ public class OrderService {
         this.orderRepository.save(order);
     }
 
-    public byte[] exportCsv(OrderRequest orderRequest) throws IOException {
-        ZonedDateTime createdFrom = orderRequest.getCreatedFrom();
-        ZonedDateTime createdTo = orderRequest.getCreatedTo();
+    /**
+     * Writes every order matching the filters to the output stream, newest first. Orders are read in keyset
+     * chunks of {@value #EXPORT_CHUNK_SIZE} and written as they arrive, so memory stays bounded whatever the
+     * number of orders. No transaction spans the export, each chunk is read and released on its own.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void exportCsv(OrderRequest orderRequest, OutputStream outputStream) throws IOException {
+        Pair<ZonedDateTime, ZonedDateTime> timePair
+            = Pair.of(orderRequest.getCreatedFrom(), orderRequest.getCreatedTo());
         String productName = orderRequest.getProductName();
         List<OrderStatus> orderStatus = orderRequest.getOrderStatus();
-        String billingCountry = orderRequest.getBillingCountry();
-        String billingPhoneNumber = orderRequest.getBillingPhoneNumber();
+        Pair<String, String> billingPair
+            = Pair.of(orderRequest.getBillingCountry(), orderRequest.getBillingPhoneNumber());
         String email = orderRequest.getEmail();
-        int pageNo = orderRequest.getPageNo();
-        int pageSize = orderRequest.getPageSize();
-
-        OrderListVm orderListVm = getAllOrder(
-            Pair.of(createdFrom, createdTo),
-            productName,
-            orderStatus,
-            Pair.of(billingCountry, billingPhoneNumber),
-            email,
-            Pair.of(pageNo, pageSize)
-        );
-
-        if (Objects.isNull(orderListVm.orderList())) {
-            return CsvExporter.exportToCsv(List.of(), OrderItemCsv.class);
-        }
 
-        List<BaseCsv> orders = orderListVm.orderList().stream().map(orderMapper::toCsv).collect(
-            Collectors.toUnmodifiableList());
-        return CsvExporter.exportToCsv(orders, OrderItemCsv.class);
+        Stream<OrderItemCsv> orders = Stream.iterate(
+                getOrdersAfter(timePair, productName, orderStatus, billingPair, email, null, null,
+                    EXPORT_CHUNK_SIZE),
+                Objects::nonNull,
+                page -> page.lastId() == null ? null : getOrdersAfter(timePair, productName, orderStatus,
+                    billingPair, email, page.lastCreatedOn(), page.lastId(), EXPORT_CHUNK_SIZE))
+            .flatMap(page -> page.orderList().stream())
+            .map(orderMapper::toCsv);
+        CsvExporter.exportToCsv(orders, OrderItemCsv.class, outputStream);
     }
 }
@@ -0,0 +1,91 @@
+package com.yas.order.service;
+
+import com.yas.order.config.CacheConfig;
+import com.yas.order.viewmodel.product.ProductCheckoutListVm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps short-lived name and price snapshots of products, so checkouts that are retried or recreated within
+ * seconds do not ask the product service again. Snapshots expire with the cache TTL and are evicted when a
+ * product change is consumed from the product CDC topic. A snapshot fetched while a product was evicted may hold
+ * the details from before the change, so the snapshots of a fetch are dropped when an eviction ran meanwhile.
+ */
+@Service
+public class ProductCheckoutCacheService {
+
+    private final ProductService productService;
+    private final CacheManager cacheManager;
+    private final DistributionSummary cachedLookupsSummary;
+    private final Counter savedRemoteCallsCounter;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProductCheckoutCacheService(ProductService productService, CacheManager cacheManager,
+                                       MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.cacheManager = cacheManager;
+        this.cachedLookupsSummary = DistributionSummary.builder("order.checkout.product.cache.hits")
+                .description("Products of a checkout priced from the snapshot cache instead of the product service")
+                .register(meterRegistry);
+        this.savedRemoteCallsCounter = Counter.builder("order.checkout.product.remote.saved")
+                .description("Product service calls saved by checkouts priced entirely from the snapshot cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the checkout details of the given products, only the products missing from the cache are
+     * requested from the product service, in one call.
+     *
+     * @param productIds ids of the products of a checkout.
+     * @return product details by product id, products that do not exist are omitted.
+     */
+    public Map<Long, ProductCheckoutListVm> getProducts(Set<Long> productIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_CHECKOUT_CACHE);
+        Map<Long, ProductCheckoutListVm> products = new HashMap<>();
+        Set<Long> missedIds = new HashSet<>();
+        for (Long productId : productIds) {
+            ProductCheckoutListVm cachedProduct = cache == null ? null : cache.get(productId,
+                    ProductCheckoutListVm.class);
+            if (cachedProduct != null) {
+                products.put(productId, cachedProduct);
+            } else {
+                missedIds.add(productId);
+            }
+        }
+        cachedLookupsSummary.record(products.size());
+        if (missedIds.isEmpty()) {
+            savedRemoteCallsCounter.increment();
+            return products;
+        }
+
+        long generation = evictions.get();
+        Map<Long, ProductCheckoutListVm> fetchedProducts
+                = productService.getProductInfomation(missedIds, 0, missedIds.size());
+        if (cache != null) {
+            fetchedProducts.forEach(cache::putIfAbsent);
+            // Checked after the put, an eviction that ran before it or alongside it then drops the snapshots too
+            if (evictions.get() != generation) {
+                fetchedProducts.keySet().forEach(cache::evict);
+            }
+        }
+        products.putAll(fetchedProducts);
+        return products;
+    }
+
+    public void evictProduct(Long productId) {
+        evictions.incrementAndGet();
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_CHECKOUT_CACHE);
+        if (cache != null) {
+            cache.evict(productId);
+        }
+    }
+}
@@ -3,11 +3,8 @@ package com.yas.order.service;
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.commonlibrary.utils.AuthenticationUtils;
 import com.yas.order.config.ServiceUrlConfig;
-import com.yas.order.viewmodel.order.OrderItemVm;
-import com.yas.order.viewmodel.order.OrderVm;
 import com.yas.order.viewmodel.product.ProductCheckoutListVm;
 import com.yas.order.viewmodel.product.ProductGetCheckoutListVm;
-import com.yas.order.viewmodel.product.ProductQuantityItem;
 import com.yas.order.viewmodel.product.ProductVariationVm;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -50,24 +47,6 @@ public class ProductService extends AbstractCircuitBreakFallbackHandler {
                 .getBody();
     }
 
-    @Retry(name = "restApi")
-    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
-    public void subtractProductStockQuantity(OrderVm orderVm) {
-        final String jwt = AuthenticationUtils.extractJwt();
-
-        final URI url = UriComponentsBuilder
-                .fromHttpUrl(serviceUrlConfig.product())
-                .path("/backoffice/products/subtract-quantity")
-                .buildAndExpand()
-                .toUri();
-
-        restClient.put()
-                .uri(url)
-                .headers(h -> h.setBearerAuth(jwt))
-                .body(buildProductQuantityItems(orderVm.orderItemVms()))
-                .retrieve();
-    }
-
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleProductInfomationFallback")
     public Map<Long, ProductCheckoutListVm> getProductInfomation(Set<Long> ids, int pageNo, int pageSize) {
@@ -99,17 +78,6 @@ public class ProductService extends AbstractCircuitBreakFallbackHandler {
         }
     }
 
-    private List<ProductQuantityItem> buildProductQuantityItems(Set<OrderItemVm> orderItems) {
-        return orderItems.stream()
-                .map(orderItem
-                        -> ProductQuantityItem
-                        .builder()
-                        .productId(orderItem.productId())
-                        .quantity(Long.valueOf(orderItem.quantity()))
-                        .build()
-                ).toList();
-    }
-
     protected List<ProductVariationVm> handleProductVariationListFallback(Throwable throwable) throws Throwable {
         return handleTypedFallback(throwable);
     }
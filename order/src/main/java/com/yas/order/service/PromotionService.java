@@ -1,40 +0,0 @@
-package com.yas.order.service;
-
-import com.yas.order.config.ServiceUrlConfig;
-import com.yas.order.viewmodel.promotion.PromotionUsageVm;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-import java.net.URI;
-import java.util.List;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.util.UriComponentsBuilder;
-
-
-@Service
-@RequiredArgsConstructor
-public class PromotionService extends AbstractCircuitBreakFallbackHandler {
-    private final RestClient restClient;
-    private final ServiceUrlConfig serviceUrlConfig;
-
-    @Retry(name = "restApi")
-    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
-    public void updateUsagePromotion(List<PromotionUsageVm> promotionUsageVms) {
-        final String jwt = ((Jwt) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
-                .getTokenValue();
-        final URI url = UriComponentsBuilder
-                .fromHttpUrl(serviceUrlConfig.promotion())
-                .path("/backoffice/promotions/updateUsage")
-                .buildAndExpand()
-                .toUri();
-
-        restClient.post()
-                .uri(url)
-                .headers(h -> h.setBearerAuth(jwt))
-                .body(promotionUsageVms)
-                .retrieve();
-    }
-}
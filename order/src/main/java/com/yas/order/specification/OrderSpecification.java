@@ -228,6 +228,26 @@ public class OrderSpecification {
         };
     }
 
+    /**
+     * Keyset condition for the (createdOn DESC, id DESC) order: keeps the orders after the given last order.
+     * The redundant {@code createdOn <= lastCreatedOn} bound lets the index scan start at the cursor instead of
+     * filtering every row before it.
+     */
+    public static Specification<Order> withCreatedBefore(ZonedDateTime lastCreatedOn, Long lastId) {
+        return (root, query, criteriaBuilder) -> {
+            if (lastCreatedOn == null || lastId == null) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.and(
+                criteriaBuilder.lessThanOrEqualTo(root.get(Constants.Column.CREATE_ON_COLUMN), lastCreatedOn),
+                criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get(Constants.Column.CREATE_ON_COLUMN), lastCreatedOn),
+                    criteriaBuilder.lessThan(root.get(Constants.Column.ID_COLUMN), lastId)
+                )
+            );
+        };
+    }
+
     public static Specification<Order> withDateRange(ZonedDateTime createdFrom, ZonedDateTime createdTo) {
         return (root, query, criteriaBuilder) -> {
             if (createdFrom != null && createdTo != null) {
@@ -0,0 +1,4 @@
+package com.yas.order.viewmodel.inventory;
+
+public record StockReservationItemVm(Long productId, Long quantity) {
+}
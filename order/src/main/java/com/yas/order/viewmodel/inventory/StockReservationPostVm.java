@@ -0,0 +1,6 @@
+package com.yas.order.viewmodel.inventory;
+
+import java.util.List;
+
+public record StockReservationPostVm(String checkoutId, List<StockReservationItemVm> items) {
+}
@@ -0,0 +1,17 @@
+package com.yas.order.viewmodel.order;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import lombok.Builder;
+
+/**
+ * A page of orders read with a keyset cursor, the next page is requested with {@code lastCreatedOn} and
+ * {@code lastId}. Both are {@code null} on the last page.
+ */
+@Builder(toBuilder = true)
+public record OrderCursorListVm(
+    List<OrderBriefVm> orderList,
+    ZonedDateTime lastCreatedOn,
+    Long lastId
+) {
+}
@@ -1,7 +0,0 @@
-package com.yas.order.viewmodel.product;
-
-import lombok.Builder;
-
-@Builder
-public record ProductQuantityItem(Long productId, Long quantity) {
-}
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+--changeset yas:order-search-1
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+--changeset yas:order-search-2 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS order_created_on_id_idx ON "order" (created_on DESC, id DESC);
+
+--changeset yas:order-search-3 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS order_status_created_on_id_idx ON "order" (status, created_on DESC, id DESC);
+
+--changeset yas:order-search-4 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS order_email_trgm_idx ON "order" USING GIN (lower(email) gin_trgm_ops);
+
+--changeset yas:order-search-5 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS order_item_order_id_idx ON order_item (order_id);
+
+--changeset yas:order-search-6 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS order_item_name_trgm_idx ON order_item USING GIN (lower(name) gin_trgm_ops);
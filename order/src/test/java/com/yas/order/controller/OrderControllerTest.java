@@ -3,10 +3,14 @@ package com.yas.order.controller;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,6 +25,7 @@ import com.yas.order.model.enumeration.PaymentStatus;
 import com.yas.order.model.request.OrderRequest;
 import com.yas.order.service.OrderService;
 import com.yas.order.viewmodel.order.OrderBriefVm;
+import com.yas.order.viewmodel.order.OrderCursorListVm;
 import com.yas.order.viewmodel.order.OrderExistsByProductAndUserGetVm;
 import com.yas.order.viewmodel.order.OrderGetVm;
 import com.yas.order.viewmodel.order.OrderItemPostVm;
@@ -31,6 +36,7 @@ import com.yas.order.viewmodel.order.OrderVm;
 import com.yas.order.viewmodel.order.PaymentOrderStatusVm;
 import com.yas.order.viewmodel.orderaddress.OrderAddressPostVm;
 import com.yas.order.viewmodel.orderaddress.OrderAddressVm;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -51,6 +57,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 @ExtendWith(SpringExtension.class)
@@ -207,6 +214,34 @@ class OrderControllerTest {
                 .json(objectWriter.writeValueAsString(orderListVm)));
     }
 
+    @Test
+    void testGetOrdersAfter_whenCursorGiven_thenReturnOrderCursorListVm() throws Exception {
+
+        ZonedDateTime lastCreatedOn = ZonedDateTime.parse("2024-05-01T10:15:30Z");
+        OrderCursorListVm orderCursorListVm = new OrderCursorListVm(List.of(), null, null);
+        when(orderService.getOrdersAfter(
+            any(),
+            anyString(),
+            anyList(),
+            any(),
+            anyString(),
+            eq(lastCreatedOn),
+            eq(5L),
+            eq(20)
+        )).thenReturn(orderCursorListVm);
+
+        mockMvc.perform(get("/backoffice/orders/cursor")
+                .param("createdFrom", "1970-01-01T00:00:00Z")
+                .param("createdTo", ZonedDateTime.now().toString())
+                .param("lastCreatedOn", "2024-05-01T10:15:30Z")
+                .param("lastId", "5")
+                .param("pageSize", "20")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(MockMvcResultMatchers.content()
+                .json(objectWriter.writeValueAsString(orderCursorListVm)));
+    }
+
     @Test
     void testGetLatestOrders_whenRequestIsValid_thenReturnOrderListVm() throws Exception {
 
@@ -227,11 +262,18 @@ class OrderControllerTest {
         OrderRequest orderRequest = new OrderRequest();
         byte[] csvBytes = "ID,Name,Tags\n1,Alice,tag1,tag2\n2,Bob,tag3,tag4\n".getBytes();
 
-        when(orderService.exportCsv(any(OrderRequest.class))).thenReturn(csvBytes);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write(csvBytes);
+            return null;
+        }).when(orderService).exportCsv(any(OrderRequest.class), any(OutputStream.class));
 
-        mockMvc.perform(post("/backoffice/orders/csv")
+        MvcResult mvcResult = mockMvc.perform(post("/backoffice/orders/csv")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(mapper.writeValueAsString(orderRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
             .andExpect(status().isOk())
             .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION,
                 "attachment; filename=Orders_" +
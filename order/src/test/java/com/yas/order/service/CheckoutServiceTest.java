@@ -7,9 +7,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.yas.commonlibrary.exception.BadRequestException;
 import com.yas.commonlibrary.exception.ForbiddenException;
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.order.mapper.CheckoutMapperImpl;
@@ -35,7 +37,6 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -58,7 +59,10 @@ class CheckoutServiceTest {
     OrderService orderService;
 
     @MockBean
-    ProductService productService;
+    ProductCheckoutCacheService productCheckoutCacheService;
+
+    @MockBean
+    InventoryService inventoryService;
 
     @Autowired
     CheckoutService checkoutService;
@@ -119,7 +123,7 @@ class CheckoutServiceTest {
         checkoutCreated.setCheckoutItems(checkoutItems);
         when(checkoutRepository.save(any())).thenReturn(checkoutCreated);
         when(checkoutItemRepository.saveAll(anyCollection())).thenReturn(checkoutItems);
-        when(productService.getProductInfomation(any(Set.class), anyInt(), anyInt())).thenReturn(productCheckoutListVmMap);
+        when(productCheckoutCacheService.getProducts(any(Set.class))).thenReturn(productCheckoutListVmMap);
         var res = checkoutService.createCheckout(checkoutPostVm);
 
         assertThat(res)
@@ -131,6 +135,18 @@ class CheckoutServiceTest {
         assertThat(res.checkoutItemVms())
                 .hasSize(checkoutPostVm.checkoutItemPostVms().size())
                 .allMatch(item -> item.checkoutId().equals(checkoutId));
+        verify(inventoryService).reserveStock(checkoutId, checkoutItems);
+    }
+
+    @Test
+    void testCreateCheckout_whenStockCannotBeReserved_throwError() {
+        checkoutCreated.setCheckoutItems(checkoutItems);
+        when(checkoutRepository.save(any())).thenReturn(checkoutCreated);
+        when(productCheckoutCacheService.getProducts(any(Set.class))).thenReturn(productCheckoutListVmMap);
+        doThrow(new BadRequestException("INSUFFICIENT_STOCK"))
+                .when(inventoryService).reserveStock(checkoutId, checkoutItems);
+
+        assertThrows(BadRequestException.class, () -> checkoutService.createCheckout(checkoutPostVm));
     }
 
     @Test
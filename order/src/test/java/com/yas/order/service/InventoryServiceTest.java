@@ -0,0 +1,85 @@
+package com.yas.order.service;
+
+import static com.yas.order.utils.SecurityContextUtils.setUpSecurityContext;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.order.config.ServiceUrlConfig;
+import com.yas.order.model.CheckoutItem;
+import com.yas.order.viewmodel.inventory.StockReservationItemVm;
+import com.yas.order.viewmodel.inventory.StockReservationPostVm;
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.client.RestClient;
+
+class InventoryServiceTest {
+
+    private static final String INVENTORY_URL = "http://api.yas.local/inventory";
+
+    private RestClient restClient;
+
+    private RestClient.RequestBodyUriSpec requestBodyUriSpec;
+
+    private RestClient.ResponseSpec responseSpec;
+
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        restClient = mock(RestClient.class);
+        ServiceUrlConfig serviceUrlConfig = mock(ServiceUrlConfig.class);
+        inventoryService = new InventoryService(restClient, serviceUrlConfig);
+        requestBodyUriSpec = mock(RestClient.RequestBodyUriSpec.class);
+        responseSpec = mock(RestClient.ResponseSpec.class);
+        setUpSecurityContext("test");
+        when(serviceUrlConfig.inventory()).thenReturn(INVENTORY_URL);
+        when(requestBodyUriSpec.uri(any(URI.class))).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.headers(any())).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.body(any(Object.class))).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.retrieve()).thenReturn(responseSpec);
+    }
+
+    @Test
+    void reserveStock_whenCheckoutHasItems_postOneReservationForTheCheckout() {
+        when(restClient.post()).thenReturn(requestBodyUriSpec);
+
+        inventoryService.reserveStock("checkout-1", List.of(
+            CheckoutItem.builder().productId(1L).quantity(2).build(),
+            CheckoutItem.builder().productId(3L).quantity(1).build()));
+
+        verify(requestBodyUriSpec).uri(URI.create(INVENTORY_URL + "/backoffice/stocks/reservations"));
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(requestBodyUriSpec).body(body.capture());
+        assertThat(body.getValue()).isEqualTo(new StockReservationPostVm("checkout-1", List.of(
+            new StockReservationItemVm(1L, 2L), new StockReservationItemVm(3L, 1L))));
+        verify(responseSpec).toBodilessEntity();
+    }
+
+    @Test
+    void confirmStockReservation_whenCalled_putConfirmOfTheCheckout() {
+        when(restClient.put()).thenReturn(requestBodyUriSpec);
+
+        inventoryService.confirmStockReservation("checkout-1");
+
+        verify(requestBodyUriSpec).uri(
+            URI.create(INVENTORY_URL + "/backoffice/stocks/reservations/checkout-1/confirm"));
+        verify(responseSpec).toBodilessEntity();
+    }
+
+    @Test
+    void releaseStockReservation_whenCalled_putReleaseOfTheCheckout() {
+        when(restClient.put()).thenReturn(requestBodyUriSpec);
+
+        inventoryService.releaseStockReservation("checkout-1");
+
+        verify(requestBodyUriSpec).uri(
+            URI.create(INVENTORY_URL + "/backoffice/stocks/reservations/checkout-1/release"));
+        verify(responseSpec).toBodilessEntity();
+    }
+}
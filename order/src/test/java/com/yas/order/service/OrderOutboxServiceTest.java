@@ -0,0 +1,58 @@
+package com.yas.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.order.model.Order;
+import com.yas.order.model.OrderItem;
+import com.yas.order.model.OrderOutboxEvent;
+import com.yas.order.repository.OrderOutboxEventRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class OrderOutboxServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OrderOutboxEventRepository orderOutboxEventRepository;
+
+    private OrderOutboxService orderOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        orderOutboxEventRepository = mock(OrderOutboxEventRepository.class);
+        orderOutboxService = new OrderOutboxService(orderOutboxEventRepository, objectMapper);
+    }
+
+    @Test
+    void testAddOrderCreatedEvent_shouldSaveEventKeyedByOrderWithItemsAndCoupon() throws Exception {
+        Order order = Order.builder().id(10L).couponCode("SALE").build();
+        order.setCreatedBy("customer");
+        List<OrderItem> orderItems = List.of(
+            OrderItem.builder().productId(1L).quantity(2).build(),
+            OrderItem.builder().productId(2L).quantity(1).build());
+
+        orderOutboxService.addOrderCreatedEvent(order, orderItems);
+
+        ArgumentCaptor<OrderOutboxEvent> captor = ArgumentCaptor.forClass(OrderOutboxEvent.class);
+        verify(orderOutboxEventRepository).save(captor.capture());
+        OrderOutboxEvent outboxEvent = captor.getValue();
+        assertNotNull(outboxEvent.getId());
+        assertEquals(OrderCreatedEvent.AGGREGATE_TYPE, outboxEvent.getAggregateType());
+        assertEquals("10", outboxEvent.getAggregateId());
+        assertEquals(OrderCreatedEvent.EVENT_TYPE, outboxEvent.getType());
+
+        OrderCreatedEvent payload = objectMapper.readValue(outboxEvent.getPayload(), OrderCreatedEvent.class);
+        assertEquals(10L, payload.getOrderId());
+        assertEquals("customer", payload.getCustomerId());
+        assertEquals("SALE", payload.getCouponCode());
+        assertEquals(List.of(1L, 2L), payload.getItems().stream().map(OrderCreatedEvent.Item::getProductId).toList());
+        assertEquals(List.of(2, 1), payload.getItems().stream().map(OrderCreatedEvent.Item::getQuantity).toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.yas.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.order.config.CacheConfig;
+import com.yas.order.viewmodel.product.ProductCheckoutListVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+class ProductCheckoutCacheServiceTest {
+
+    private ProductService productService;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCheckoutCacheService productCheckoutCacheService;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        productCheckoutCacheService = new ProductCheckoutCacheService(productService,
+            new CaffeineCacheManager(CacheConfig.PRODUCT_CHECKOUT_CACHE), meterRegistry);
+    }
+
+    @Test
+    void testGetProducts_whenSomeProductsCached_shouldOnlyRequestMissedProducts() {
+        when(productService.getProductInfomation(Set.of(1L, 2L), 0, 2))
+            .thenReturn(Map.of(1L, buildProduct(1L, 10.0), 2L, buildProduct(2L, 20.0)));
+        when(productService.getProductInfomation(Set.of(3L), 0, 1)).thenReturn(Map.of(3L, buildProduct(3L, 30.0)));
+
+        productCheckoutCacheService.getProducts(Set.of(1L, 2L));
+        Map<Long, ProductCheckoutListVm> result = productCheckoutCacheService.getProducts(Set.of(1L, 2L, 3L));
+
+        verify(productService).getProductInfomation(Set.of(3L), 0, 1);
+        assertEquals(Set.of(1L, 2L, 3L), result.keySet());
+        assertEquals(20.0, result.get(2L).getPrice());
+        assertEquals(2.0, meterRegistry.get("order.checkout.product.cache.hits").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("order.checkout.product.remote.saved").counter().count());
+    }
+
+    @Test
+    void testGetProducts_whenAllProductsCached_shouldSaveRemoteCall() {
+        when(productService.getProductInfomation(Set.of(1L), 0, 1)).thenReturn(Map.of(1L, buildProduct(1L, 10.0)));
+
+        productCheckoutCacheService.getProducts(Set.of(1L));
+        productCheckoutCacheService.getProducts(Set.of(1L));
+
+        verify(productService).getProductInfomation(anySet(), anyInt(), anyInt());
+        assertEquals(1.0, meterRegistry.get("order.checkout.product.remote.saved").counter().count());
+    }
+
+    @Test
+    void testEvictProduct_shouldRequestProductAgain() {
+        when(productService.getProductInfomation(Set.of(1L), 0, 1))
+            .thenReturn(Map.of(1L, buildProduct(1L, 10.0)), Map.of(1L, buildProduct(1L, 12.0)));
+
+        productCheckoutCacheService.getProducts(Set.of(1L));
+        productCheckoutCacheService.evictProduct(1L);
+        Map<Long, ProductCheckoutListVm> result = productCheckoutCacheService.getProducts(Set.of(1L));
+
+        assertEquals(12.0, result.get(1L).getPrice());
+        verify(productService, times(2)).getProductInfomation(Set.of(1L), 0, 1);
+    }
+
+    @Test
+    void testGetProducts_whenProductEvictedWhileFetched_shouldNotCacheFetchedProduct() {
+        when(productService.getProductInfomation(Set.of(1L), 0, 1))
+            .thenAnswer(invocation -> {
+                productCheckoutCacheService.evictProduct(1L);
+                return Map.of(1L, buildProduct(1L, 10.0));
+            })
+            .thenReturn(Map.of(1L, buildProduct(1L, 12.0)));
+
+        productCheckoutCacheService.getProducts(Set.of(1L));
+        Map<Long, ProductCheckoutListVm> result = productCheckoutCacheService.getProducts(Set.of(1L));
+
+        assertEquals(12.0, result.get(1L).getPrice());
+        verify(productService, times(2)).getProductInfomation(Set.of(1L), 0, 1);
+    }
+
+    private static ProductCheckoutListVm buildProduct(Long id, Double price) {
+        return ProductCheckoutListVm.builder().id(id).name("product" + id).price(price).build();
+    }
+}
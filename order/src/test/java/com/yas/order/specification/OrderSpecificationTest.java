@@ -147,4 +147,39 @@ class OrderSpecificationTest {
 
         assertNotNull(predicate);
     }
+
+    @Test
+    void testWithCreatedBefore_whenCursorGiven_thenBoundAndTieBreakOnId() {
+        ZonedDateTime lastCreatedOn = ZonedDateTime.now();
+        Path createdOnPath = mock(Path.class);
+        Path idPath = mock(Path.class);
+        when(root.get("createdOn")).thenReturn(createdOnPath);
+        when(root.get("id")).thenReturn(idPath);
+        Predicate upperBound = mock(Predicate.class);
+        Predicate createdBefore = mock(Predicate.class);
+        Predicate idBefore = mock(Predicate.class);
+        Predicate createdOrIdBefore = mock(Predicate.class);
+        Predicate expectedPredicate = mock(Predicate.class);
+        when(criteriaBuilder.lessThanOrEqualTo(createdOnPath, lastCreatedOn)).thenReturn(upperBound);
+        when(criteriaBuilder.lessThan(createdOnPath, lastCreatedOn)).thenReturn(createdBefore);
+        when(criteriaBuilder.lessThan(idPath, 10L)).thenReturn(idBefore);
+        when(criteriaBuilder.or(createdBefore, idBefore)).thenReturn(createdOrIdBefore);
+        when(criteriaBuilder.and(upperBound, createdOrIdBefore)).thenReturn(expectedPredicate);
+
+        Specification<Order> spec = OrderSpecification.withCreatedBefore(lastCreatedOn, 10L);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertEquals(expectedPredicate, predicate);
+    }
+
+    @Test
+    void testWithCreatedBefore_whenFirstPage_thenConjunction() {
+        Predicate conjunction = mock(Predicate.class);
+        when(criteriaBuilder.conjunction()).thenReturn(conjunction);
+
+        Specification<Order> spec = OrderSpecification.withCreatedBefore(null, null);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+
+        assertEquals(conjunction, predicate);
+    }
 }
@@ -527,7 +527,9 @@ class ProductControllerIT extends AbstractControllerIT {
             .when()
             .put(PRODUCT_BACKOFFICE_URL + "/subtract-quantity")
             .then()
-            .statusCode(HttpStatus.NO_CONTENT.value())
+            .statusCode(HttpStatus.OK.value())
+            .body("[0].productId", equalTo(productOne.getId().intValue()))
+            .body("[0].updated", equalTo(true))
             .log().ifValidationFails();
 
     }
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import com.yas.commonlibrary.IntegrationTestConfiguration;
@@ -87,6 +88,7 @@ class ProductServiceIT {
     void setUp() {
         noFileMediaVm = new NoFileMediaVm(1L, "caption", "fileName", "mediaType", "url");
         when(mediaService.getMedia(1L)).thenReturn(noFileMediaVm);
+        when(mediaService.getMediaByIds(any())).thenReturn(List.of(noFileMediaVm));
         generateTestData();
     }
 
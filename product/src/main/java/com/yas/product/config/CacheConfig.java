@@ -0,0 +1,15 @@
+package com.yas.product.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Media id to {@link com.yas.product.viewmodel.NoFileMediaVm} mappings. Size, TTL and stats recording
+     * are configured through {@code spring.cache.caffeine.spec}.
+     */
+    public static final String MEDIA_CACHE = "media";
+}
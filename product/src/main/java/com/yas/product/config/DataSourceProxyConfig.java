@@ -0,0 +1,74 @@
+package com.yas.product.config;
+
+import com.yas.product.datasource.QueryBudgetFilter;
+import com.yas.product.datasource.QueryMetricsListener;
+import com.yas.product.datasource.RepositoryMethodAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps the data source in a datasource-proxy, to record the statements by repository method in place of the
+ * Hibernate SQL logging. See {@link QueryMetricsListener} and {@link QueryBudgetFilter}.
+ *
+ * <p>The statements are intercepted by the proxy of each connection and statement. Counting the rows read also
+ * needs a proxy of each result set, which intercepts every {@code ResultSet} call, the column reads included,
+ * through reflection. That is only done with {@code yas.datasource.proxy.count-rows} on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "yas.datasource.proxy.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(
+        ObjectProvider<QueryMetricsListener> listener,
+        @Value("${yas.datasource.proxy.count-rows:false}") boolean countRows) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    QueryMetricsListener queryMetricsListener = listener.getObject();
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(queryMetricsListener);
+                    if (countRows) {
+                        builder.methodListener(queryMetricsListener).proxyResultSet();
+                    }
+                    return builder.build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryMetricsListener queryMetricsListener(
+        MeterRegistry meterRegistry,
+        @Value("${yas.datasource.slow-query-threshold:PT1S}") Duration slowQueryThreshold) {
+        return new QueryMetricsListener(meterRegistry, slowQueryThreshold);
+    }
+
+    @Bean
+    public RepositoryMethodAspect repositoryMethodAspect() {
+        return new RepositoryMethodAspect();
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(
+        MeterRegistry meterRegistry,
+        @Value("${yas.datasource.request-query-budget:20}") int requestQueryBudget) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+            new FilterRegistrationBean<>(new QueryBudgetFilter(meterRegistry, requestQueryBudget));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
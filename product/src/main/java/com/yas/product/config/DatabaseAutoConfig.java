@@ -11,8 +11,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Configuration
-@EnableJpaRepositories("com.yas.product.repository")
-@EntityScan({"com.yas.product.model", "com.yas.product.model.attribute"})
+@EnableJpaRepositories({"com.yas.product.repository", "com.yas.commonlibrary.kafka.cdc.repository"})
+@EntityScan({"com.yas.product.model", "com.yas.product.model.attribute", "com.yas.commonlibrary.kafka.cdc.model"})
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
 public class DatabaseAutoConfig {
 
@@ -1,8 +1,13 @@
 package com.yas.product.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.yas.product.model.StorefrontProjection;
 import com.yas.product.model.enumeration.FilterExistInWhSelection;
 import com.yas.product.service.ProductDetailService;
 import com.yas.product.service.ProductService;
+import com.yas.product.service.StorefrontProjectionService;
 import com.yas.product.viewmodel.error.ErrorVm;
 import com.yas.product.viewmodel.product.ProductDetailGetVm;
 import com.yas.product.viewmodel.product.ProductDetailInfoVm;
@@ -20,6 +25,7 @@ import com.yas.product.viewmodel.product.ProductPostVm;
 import com.yas.product.viewmodel.product.ProductPutVm;
 import com.yas.product.viewmodel.product.ProductQuantityPostVm;
 import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
 import com.yas.product.viewmodel.product.ProductSlugGetVm;
 import com.yas.product.viewmodel.product.ProductThumbnailGetVm;
 import com.yas.product.viewmodel.product.ProductThumbnailVm;
@@ -31,7 +37,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -44,16 +52,22 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Validated
 @RestController
 public class ProductController {
     private final ProductService productService;
     private final ProductDetailService productDetailService;
+    private final StorefrontProjectionService storefrontProjectionService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService, ProductDetailService productDetailService) {
+    public ProductController(ProductService productService, ProductDetailService productDetailService,
+                             StorefrontProjectionService storefrontProjectionService, ObjectMapper objectMapper) {
         this.productService = productService;
         this.productDetailService = productDetailService;
+        this.storefrontProjectionService = storefrontProjectionService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/backoffice/products")
@@ -67,11 +81,23 @@ public class ProductController {
     }
 
     @GetMapping("/backoffice/export/products")
-    public ResponseEntity<List<ProductExportingDetailVm>> exportProducts(
+    public ResponseEntity<StreamingResponseBody> exportProducts(
             @RequestParam(value = "product-name", defaultValue = "", required = false) String productName,
             @RequestParam(value = "brand-name", defaultValue = "", required = false) String brandName
     ) {
-        return ResponseEntity.ok(productService.exportProducts(productName, brandName));
+        Stream<ProductExportingDetailVm> products = productService.exportProducts(productName, brandName);
+        StreamingResponseBody productsBody = outputStream -> {
+            // Written element by element, the response is the same JSON array as before
+            try (SequenceWriter sequenceWriter = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValuesAsArray(outputStream)) {
+                Iterator<ProductExportingDetailVm> iterator = products.iterator();
+                while (iterator.hasNext()) {
+                    sequenceWriter.write(iterator.next());
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(productsBody);
     }
 
     @PostMapping(path = "/backoffice/products", consumes = {MediaType.APPLICATION_JSON_VALUE})
@@ -99,12 +125,17 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ok",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ProductFeatureGetVm.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified", content = @Content())})
     @GetMapping("/storefront/products/featured")
-    public ResponseEntity<ProductFeatureGetVm> getFeaturedProducts(
+    public ResponseEntity<String> getFeaturedProducts(
             @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
             @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize
     ) {
-        return ResponseEntity.ok(productService.getListFeaturedProducts(pageNo, pageSize));
+        return toResponse(storefrontProjectionService.getFeaturedProducts(pageNo, pageSize));
     }
 
     @GetMapping("/storefront/brand/{brandSlug}/products")
@@ -112,7 +143,23 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductsByBrand(brandSlug));
     }
 
-    @GetMapping({"/storefront/category/{categorySlug}/products", "/backoffice/category/{categorySlug}/products"})
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ok",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ProductListGetFromCategoryVm.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified", content = @Content()),
+        @ApiResponse(responseCode = "404", description = "Not found",
+                content = @Content(schema = @Schema(implementation = ErrorVm.class)))})
+    @GetMapping("/storefront/category/{categorySlug}/products")
+    public ResponseEntity<String> getStorefrontProductsByCategory(
+            @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "2", required = false) int pageSize,
+            @PathVariable String categorySlug
+    ) {
+        return toResponse(storefrontProjectionService.getProductsFromCategory(pageNo, pageSize, categorySlug));
+    }
+
+    @GetMapping("/backoffice/category/{categorySlug}/products")
     public ResponseEntity<ProductListGetFromCategoryVm> getProductsByCategory(
             @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
             @RequestParam(value = "pageSize", defaultValue = "2", required = false) int pageSize,
@@ -133,9 +180,21 @@ public class ProductController {
         return ResponseEntity.ok(productService.getFeaturedProductsById(productIds));
     }
 
+    @GetMapping("/storefront/products/published-ids")
+    public ResponseEntity<List<Long>> getPublishedProductIds(@RequestParam("productId") List<Long> productIds) {
+        return ResponseEntity.ok(productService.getPublishedProductIds(productIds));
+    }
+
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ok",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = ProductDetailGetVm.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified", content = @Content()),
+        @ApiResponse(responseCode = "404", description = "Not found",
+                content = @Content(schema = @Schema(implementation = ErrorVm.class)))})
     @GetMapping("/storefront/product/{slug}")
-    public ResponseEntity<ProductDetailGetVm> getProductDetail(@PathVariable("slug") String slug) {
-        return ResponseEntity.ok(productService.getProductDetail(slug));
+    public ResponseEntity<String> getProductDetail(@PathVariable("slug") String slug) {
+        return toResponse(storefrontProjectionService.getProductDetail(slug));
     }
 
     @DeleteMapping("/backoffice/products/{id}")
@@ -188,6 +247,19 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductEsDetailById(productId));
     }
 
+    @GetMapping("/storefront/products-es")
+    public ResponseEntity<List<ProductEsDetailVm>> getProductEsDetailsByIds(
+            @RequestParam("ids") List<Long> productIds) {
+        return ResponseEntity.ok(productService.getProductEsDetailsByIds(productIds));
+    }
+
+    @GetMapping("/storefront/products-es/published")
+    public ResponseEntity<List<ProductEsDetailVm>> getPublishedProductEsDetails(
+            @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(value = "size", defaultValue = "500") int size) {
+        return ResponseEntity.ok(productService.getPublishedProductEsDetails(afterId, size));
+    }
+
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Get related products by product id successfully",
                 content = @Content(mediaType = "application/json",
@@ -242,16 +314,17 @@ public class ProductController {
 
     @PutMapping(path = "/backoffice/products/subtract-quantity", consumes = {MediaType.APPLICATION_JSON_VALUE})
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "204", description = "Updated"),
+        @ApiResponse(responseCode = "200", description = "Updated",
+                content = @Content(mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = ProductQuantityResultVm.class)))),
         @ApiResponse(responseCode = "404", description = "Not found",
                 content = @Content(schema = @Schema(implementation = ErrorVm.class))),
         @ApiResponse(responseCode = "400", description = "Bad request",
                 content = @Content(schema = @Schema(implementation = ErrorVm.class)))})
-    public ResponseEntity<Void> subtractProductQuantity(
+    public ResponseEntity<List<ProductQuantityResultVm>> subtractProductQuantity(
             @Valid @RequestBody List<ProductQuantityPutVm> productQuantityPutVm
     ) {
-        productService.subtractStockQuantity(productQuantityPutVm);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(productService.subtractStockQuantity(productQuantityPutVm));
     }
 
     @GetMapping("/backoffice/products/by-ids")
@@ -281,6 +354,11 @@ public class ProductController {
         return ResponseEntity.ok(productDetailService.getProductDetailById(productId));
     }
 
+    @GetMapping("/storefront/products/details")
+    public ResponseEntity<List<ProductDetailInfoVm>> getProductDetailsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productDetailService.getProductDetailsByIds(ids));
+    }
+
     @GetMapping("/products")
     public ResponseEntity<ProductGetCheckoutListVm> getProductCheckoutList(
         @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
@@ -288,4 +366,12 @@ public class ProductController {
         @RequestParam(value = "ids", required = false) List<Long> productIds) {
         return ResponseEntity.ok(productService.getProductCheckoutList(pageNo, pageSize, productIds));
     }
+
+    /* The ETag lets Spring answer a matching If-None-Match with 304 and no body */
+    private static ResponseEntity<String> toResponse(StorefrontProjection projection) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(projection.etag())
+            .body(projection.json());
+    }
 }
@@ -0,0 +1,70 @@
+package com.yas.product.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the statements each request runs and records them in {@code product.request.queries} by URI pattern.
+ * A request running more statements than the budget is logged with its most repeated statements, which is how
+ * an N+1 select shows: one statement, often a lazy load outside any repository method, run once per row of an
+ * earlier result.
+ */
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    static final String REQUEST_QUERIES_SUMMARY = "product.request.queries";
+    static final String OVER_BUDGET_TAG = "over_budget";
+    private static final int LOGGED_STATEMENTS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final int queryBudget;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry, int queryBudget) {
+        this.meterRegistry = meterRegistry;
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        QueryContext.startRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, QueryContext.endRequest());
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryContext.RequestQueries requestQueries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        boolean overBudget = requestQueries.count() > queryBudget;
+        DistributionSummary.builder(REQUEST_QUERIES_SUMMARY)
+            .description("Statements run by request")
+            .tag("uri", uri)
+            .tag(OVER_BUDGET_TAG, String.valueOf(overBudget))
+            .register(meterRegistry)
+            .record(requestQueries.count());
+
+        if (overBudget) {
+            String busiestStatements = requestQueries.countByStatement().entrySet().stream()
+                .sorted(Map.Entry.<QueryContext.Statement, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(LOGGED_STATEMENTS)
+                .map(entry -> entry.getValue() + " x " + entry.getKey())
+                .collect(Collectors.joining("; "));
+            log.warn("{} {} ran {} queries, over the budget of {}: {}", request.getMethod(), request.getRequestURI(),
+                requestQueries.count(), queryBudget, busiestStatements);
+        }
+    }
+}
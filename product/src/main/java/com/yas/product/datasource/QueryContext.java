@@ -0,0 +1,94 @@
+package com.yas.product.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tells the query listener which repository method a statement runs for and which request it counts against.
+ * Both are kept per thread, so statements run on other threads are left unattributed.
+ */
+final class QueryContext {
+
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+    private static final ThreadLocal<RequestQueries> REQUEST_QUERIES = new ThreadLocal<>();
+
+    private QueryContext() {
+    }
+
+    /**
+     * Returns the repository method of the current thread, or {@code null} outside a repository call.
+     */
+    static String repositoryMethod() {
+        return REPOSITORY_METHOD.get();
+    }
+
+    /**
+     * Sets the repository method of the current thread.
+     *
+     * @return the previous method, to restore once the method returns.
+     */
+    static String enterRepositoryMethod(String repositoryMethod) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(repositoryMethod);
+        return previous;
+    }
+
+    static void exitRepositoryMethod(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        } else {
+            REPOSITORY_METHOD.set(previous);
+        }
+    }
+
+    static void startRequest() {
+        REQUEST_QUERIES.set(new RequestQueries());
+    }
+
+    static RequestQueries endRequest() {
+        RequestQueries requestQueries = REQUEST_QUERIES.get();
+        REQUEST_QUERIES.remove();
+        return requestQueries == null ? new RequestQueries() : requestQueries;
+    }
+
+    static void recordQuery(String label, String sql) {
+        RequestQueries requestQueries = REQUEST_QUERIES.get();
+        if (requestQueries != null) {
+            requestQueries.record(label, sql);
+        }
+    }
+
+    /**
+     * Statements run during one request, in total and by label and SQL, so a statement repeated once per row of
+     * an earlier result counts as one entry.
+     */
+    static final class RequestQueries {
+
+        private final Map<Statement, Integer> countByStatement = new LinkedHashMap<>();
+        private int count;
+
+        private void record(String label, String sql) {
+            count++;
+            countByStatement.merge(new Statement(label, sql), 1, Integer::sum);
+        }
+
+        int count() {
+            return count;
+        }
+
+        Map<Statement, Integer> countByStatement() {
+            return countByStatement;
+        }
+    }
+
+    /**
+     * A statement run during a request, labelled like its metrics.
+     */
+    record Statement(String label, String sql) {
+
+        @Override
+        public String toString() {
+            return label + ": " + sql;
+        }
+    }
+}
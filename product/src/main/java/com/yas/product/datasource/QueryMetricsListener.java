@@ -0,0 +1,137 @@
+package com.yas.product.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Records every statement run through the proxied data source, by the repository method it runs for:
+ * <ul>
+ *     <li>{@code product.repository.query}, a timer of the statements,</li>
+ *     <li>{@code product.repository.rows}, the rows they updated, plus the rows read from their result sets when
+ *     the result sets are proxied.</li>
+ * </ul>
+ * Statements run outside a repository method, such as lazy loads and flushes, are labelled by their first
+ * keyword and table instead, such as {@code select product_image}. Statements slower than the threshold are
+ * logged with their SQL, without the parameter values.
+ */
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    static final String QUERY_TIMER = "product.repository.query";
+    static final String ROWS_COUNTER = "product.repository.rows";
+    static final String METHOD_TAG = "method";
+
+    /* The table a statement reads or writes first: select ... from t, insert into t, update t, delete from t */
+    private static final Pattern TABLE_PATTERN =
+        Pattern.compile("\\b(?:from|into|update)\\s+([\\w.\"]+)", Pattern.CASE_INSENSITIVE);
+
+    /* The result sets read on a thread belong to the statement it ran last */
+    private static final ThreadLocal<String> LAST_STATEMENT_LABEL = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowQueryThreshold;
+    private final Map<String, Timer> timerByMethod = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowsCounterByMethod = new ConcurrentHashMap<>();
+
+    public QueryMetricsListener(MeterRegistry meterRegistry, Duration slowQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // measured by the proxy, nothing to do before the statement runs
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.getFirst().getQuery();
+        String label = label(sql);
+        LAST_STATEMENT_LABEL.set(label);
+        QueryContext.recordQuery(label, sql);
+        timer(label).record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        long updatedRows = updatedRows(execInfo.getResult());
+        if (updatedRows > 0) {
+            rowsCounter(label).increment(updatedRows);
+        }
+
+        if (execInfo.getElapsedTime() >= slowQueryThreshold.toMillis()) {
+            log.warn("Slow query in {}: {} ms, batch size {}: {}", label, execInfo.getElapsedTime(),
+                Math.max(execInfo.getBatchSize(), 1), sql);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        // only the results of ResultSet.next are of interest
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+            && Boolean.TRUE.equals(executionContext.getResult())
+            && "next".equals(executionContext.getMethod().getName())) {
+            String label = LAST_STATEMENT_LABEL.get();
+            rowsCounter(label == null ? label(null) : label).increment();
+        }
+    }
+
+    /**
+     * Labels a statement with the repository method it runs for, or outside one with its first keyword and table.
+     */
+    static String label(String sql) {
+        String repositoryMethod = QueryContext.repositoryMethod();
+        if (repositoryMethod != null) {
+            return repositoryMethod;
+        }
+        if (sql == null || sql.isBlank()) {
+            return "none";
+        }
+        String keyword = sql.stripLeading().split("\\s+", 2)[0].toLowerCase(Locale.ROOT);
+        Matcher matcher = TABLE_PATTERN.matcher(sql);
+        return matcher.find() ? keyword + " " + matcher.group(1).replace("\"", "").toLowerCase(Locale.ROOT)
+            : keyword;
+    }
+
+    private static long updatedRows(Object result) {
+        if (result instanceof Integer updateCount) {
+            return Math.max(updateCount, 0);
+        }
+        if (result instanceof int[] updateCounts) {
+            return Arrays.stream(updateCounts).filter(updateCount -> updateCount > 0).sum();
+        }
+        return 0;
+    }
+
+    private Timer timer(String repositoryMethod) {
+        return timerByMethod.computeIfAbsent(repositoryMethod, method -> Timer.builder(QUERY_TIMER)
+            .description("Statements run by repository method")
+            .tag(METHOD_TAG, method)
+            .register(meterRegistry));
+    }
+
+    private Counter rowsCounter(String repositoryMethod) {
+        return rowsCounterByMethod.computeIfAbsent(repositoryMethod, method -> Counter.builder(ROWS_COUNTER)
+            .description("Rows read or updated by repository method")
+            .tag(METHOD_TAG, method)
+            .register(meterRegistry));
+    }
+}
@@ -0,0 +1,46 @@
+package com.yas.product.datasource;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Names the statements run inside a Spring Data repository call after the repository interface and method, such
+ * as {@code ProductRepository.findAllByIdIn}. Nested repository calls name their statements after the innermost
+ * call.
+ */
+@Aspect
+public class RepositoryMethodAspect {
+
+    private final Map<Class<?>, String> repositoryNameByClass = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object nameQueries(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repositoryMethod = repositoryName(joinPoint) + "." + joinPoint.getSignature().getName();
+        String previous = QueryContext.enterRepositoryMethod(repositoryMethod);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryContext.exitRepositoryMethod(previous);
+        }
+    }
+
+    /* The target is the Spring Data proxy, which implements the application repository interface */
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        Object target = joinPoint.getTarget();
+        if (target == null) {
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        }
+        return repositoryNameByClass.computeIfAbsent(target.getClass(), targetClass ->
+            Arrays.stream(targetClass.getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .filter(repositoryInterface -> !repositoryInterface.getName().startsWith("org.springframework."))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(joinPoint.getSignature().getDeclaringType().getSimpleName()));
+    }
+}
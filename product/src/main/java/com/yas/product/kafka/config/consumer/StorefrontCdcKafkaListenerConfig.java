@@ -0,0 +1,95 @@
+package com.yas.product.kafka.config.consumer;
+
+import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.yas.product.kafka.message.StorefrontCdcKey;
+import com.yas.product.kafka.message.StorefrontCdcMessage;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Product database CDC kafka listener, support convert the change events the storefront projections depend on
+ * to java object. The local tier listeners are assigned the partitions of the topics instead of subscribing to
+ * them, they join no consumer group and commit no offset. The shared tier listeners subscribe in a consumer group.
+ */
+@Slf4j
+@EnableKafka
+@Configuration
+public class StorefrontCdcKafkaListenerConfig extends BaseKafkaListenerConfig<StorefrontCdcKey, StorefrontCdcMessage> {
+
+    public static final String STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY = "storefrontCdcListenerContainerFactory";
+
+    public static final String SHARED_STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY =
+        "sharedStorefrontCdcListenerContainerFactory";
+
+    public static final String STOREFRONT_TOPIC_PARTITIONS = "storefrontTopicPartitions";
+
+    private static final Duration PARTITIONS_LOOKUP_TIMEOUT = Duration.ofSeconds(30);
+
+    public StorefrontCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
+        super(StorefrontCdcKey.class, StorefrontCdcMessage.class, kafkaProperties);
+    }
+
+    @Bean(name = STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY)
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<StorefrontCdcKey, StorefrontCdcMessage> listenerContainerFactory() {
+        var factory = super.kafkaListenerContainerFactory();
+        factory.getConsumerFactory().removeConfig(ConsumerConfig.GROUP_ID_CONFIG);
+        return factory;
+    }
+
+    @Bean(name = SHARED_STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<StorefrontCdcKey, StorefrontCdcMessage>
+        sharedListenerContainerFactory() {
+        return super.kafkaListenerContainerFactory();
+    }
+
+    /**
+     * Partitions of the topics the storefront projections are evicted by, looked up once at startup. Partitions
+     * added to a topic later are consumed after a restart. When the lookup fails only partition 0 of the topic is
+     * consumed, the projections evicted by the other partitions then expire with the local tier.
+     */
+    @Bean(name = STOREFRONT_TOPIC_PARTITIONS)
+    @ConditionalOnProperty(name = "yas.storefront.projection.sync.enabled", havingValue = "true",
+        matchIfMissing = true)
+    public Map<String, List<Integer>> storefrontTopicPartitions(
+        @Value("${product.topic.name}") String productTopic,
+        @Value("${product-category.topic.name}") String productCategoryTopic,
+        @Value("${product-image.topic.name}") String productImageTopic,
+        @Value("${category.topic.name}") String categoryTopic,
+        @Value("${brand.topic.name}") String brandTopic) {
+        Map<String, List<Integer>> partitionsByTopic = new LinkedHashMap<>();
+        try (Consumer<?, ?> consumer = listenerContainerFactory().getConsumerFactory().createConsumer()) {
+            Stream.of(productTopic, productCategoryTopic, productImageTopic, categoryTopic, brandTopic)
+                .forEach(topic -> partitionsByTopic.put(topic, partitionsOf(consumer, topic)));
+        }
+        return partitionsByTopic;
+    }
+
+    private static List<Integer> partitionsOf(Consumer<?, ?> consumer, String topic) {
+        try {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic, PARTITIONS_LOOKUP_TIMEOUT);
+            if (partitions != null && !partitions.isEmpty()) {
+                return partitions.stream().map(PartitionInfo::partition).sorted().toList();
+            }
+            log.warn("Topic {} has no partitions yet, consuming partition 0", topic);
+        } catch (KafkaException e) {
+            log.warn("Failed to look up the partitions of topic {}, consuming partition 0", topic, e);
+        }
+        return List.of(0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.yas.product.kafka.consumer;
+
+import static com.yas.product.kafka.config.consumer.StorefrontCdcKafkaListenerConfig.SHARED_STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY;
+import static com.yas.product.kafka.config.consumer.StorefrontCdcKafkaListenerConfig.STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY;
+import static com.yas.product.kafka.config.consumer.StorefrontCdcKafkaListenerConfig.STOREFRONT_TOPIC_PARTITIONS;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.product.kafka.message.StorefrontCdcKey;
+import com.yas.product.kafka.message.StorefrontCdcMessage;
+import com.yas.product.kafka.message.StorefrontCdcRow;
+import com.yas.product.repository.StorefrontProjectionStore.Tier;
+import com.yas.product.service.StorefrontProjectionService;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Evicts the storefront projections a change of the product database affects. The local tier belongs to each
+ * product instance, so every instance is assigned all the partitions of the topics, without a consumer group, and
+ * starts from the latest offset. The shared Redis tier is evicted once for all the instances, by the listener of
+ * the instance the partitions are assigned to in the {@code product-storefront-projection} consumer group.
+ *
+ * <p>Evictions are idempotent and the topics share the {@code id} key of different tables, so the events are
+ * processed without the per key stale event check.
+ */
+@Service
+@ConditionalOnProperty(name = "yas.storefront.projection.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class StorefrontProjectionConsumer extends BaseCdcConsumer<StorefrontCdcKey, StorefrontCdcMessage> {
+
+    private final StorefrontProjectionService storefrontProjectionService;
+    private final Map<String, BiConsumer<Tier, StorefrontCdcMessage>> evictionByTopic;
+
+    public StorefrontProjectionConsumer(StorefrontProjectionService storefrontProjectionService,
+                                        @Value("${product.topic.name}") String productTopic,
+                                        @Value("${product-category.topic.name}") String productCategoryTopic,
+                                        @Value("${product-image.topic.name}") String productImageTopic,
+                                        @Value("${category.topic.name}") String categoryTopic,
+                                        @Value("${brand.topic.name}") String brandTopic) {
+        this.storefrontProjectionService = storefrontProjectionService;
+        this.evictionByTopic = Map.of(
+            productTopic, this::evictProduct,
+            productCategoryTopic, this::evictProductCategory,
+            productImageTopic, this::evictProductImages,
+            categoryTopic, (tier, message) -> storefrontProjectionService.evictCategories(tier),
+            brandTopic, (tier, message) -> storefrontProjectionService.evictBrands(tier));
+    }
+
+    @KafkaListener(
+        id = "storefront-projection-local",
+        idIsGroup = false,
+        topicPartitions = {
+            @TopicPartition(topic = "${product.topic.name}",
+                partitions = "#{@" + STOREFRONT_TOPIC_PARTITIONS + "['${product.topic.name}']}"),
+            @TopicPartition(topic = "${product-category.topic.name}",
+                partitions = "#{@" + STOREFRONT_TOPIC_PARTITIONS + "['${product-category.topic.name}']}"),
+            @TopicPartition(topic = "${product-image.topic.name}",
+                partitions = "#{@" + STOREFRONT_TOPIC_PARTITIONS + "['${product-image.topic.name}']}"),
+            @TopicPartition(topic = "${category.topic.name}",
+                partitions = "#{@" + STOREFRONT_TOPIC_PARTITIONS + "['${category.topic.name}']}"),
+            @TopicPartition(topic = "${brand.topic.name}",
+                partitions = "#{@" + STOREFRONT_TOPIC_PARTITIONS + "['${brand.topic.name}']}")
+        },
+        containerFactory = STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY,
+        properties = "auto.offset.reset=latest"
+    )
+    public void evictLocal(
+        @Payload(required = false) StorefrontCdcMessage message,
+        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+        @Headers MessageHeaders headers
+    ) {
+        evict(Tier.LOCAL, topic, message, headers);
+    }
+
+    @KafkaListener(
+        id = "storefront-projection-shared",
+        groupId = "product-storefront-projection",
+        topics = {"${product.topic.name}", "${product-category.topic.name}", "${product-image.topic.name}",
+            "${category.topic.name}", "${brand.topic.name}"},
+        containerFactory = SHARED_STOREFRONT_CDC_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "${yas.storefront.projection.redis.enabled:false}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void evictShared(
+        @Payload(required = false) StorefrontCdcMessage message,
+        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+        @Headers MessageHeaders headers
+    ) {
+        evict(Tier.SHARED, topic, message, headers);
+    }
+
+    /* Skips the tombstones that follow deletes */
+    private void evict(Tier tier, String topic, StorefrontCdcMessage message, MessageHeaders headers) {
+        BiConsumer<Tier, StorefrontCdcMessage> eviction = evictionByTopic.get(topic);
+        if (message == null || eviction == null) {
+            return;
+        }
+        processMessage(message, headers, changeMessage -> eviction.accept(tier, changeMessage));
+    }
+
+    private void evictProduct(Tier tier, StorefrontCdcMessage message) {
+        StorefrontCdcRow row = message.getAfter() != null ? message.getAfter() : message.getBefore();
+        if (row != null) {
+            storefrontProjectionService.evictProduct(tier, row.getId(), isFeaturedChanged(message));
+        }
+    }
+
+    /*
+     * Whether the change adds the product to, removes it from or changes it on the featured product pages. An
+     * update or delete without the old row, as sent before the product table had a full replica identity, is
+     * taken as a change.
+     */
+    private static boolean isFeaturedChanged(StorefrontCdcMessage message) {
+        StorefrontCdcRow before = message.getBefore();
+        StorefrontCdcRow after = message.getAfter();
+        boolean created = message.getOp() == Operation.CREATE || message.getOp() == Operation.READ;
+        if (!created && (before == null || before.getIsFeatured() == null)) {
+            return true;
+        }
+        boolean listedBefore = before != null && before.isListedAsFeatured();
+        boolean listedAfter = after != null && after.isListedAsFeatured();
+        if (listedBefore != listedAfter) {
+            return true;
+        }
+        return listedAfter && !Objects.equals(before.featuredColumns(), after.featuredColumns());
+    }
+
+    private void evictProductCategory(Tier tier, StorefrontCdcMessage message) {
+        rowsOf(message)
+            .filter(row -> row.getProductId() != null && row.getCategoryId() != null)
+            .forEach(row -> storefrontProjectionService.evictProductCategory(tier, row.getProductId(),
+                row.getCategoryId()));
+    }
+
+    private void evictProductImages(Tier tier, StorefrontCdcMessage message) {
+        rowsOf(message)
+            .filter(row -> row.getProductId() != null)
+            .forEach(row -> storefrontProjectionService.evictProductImages(tier, row.getProductId()));
+    }
+
+    /* The rows before and after the change */
+    private static Stream<StorefrontCdcRow> rowsOf(StorefrontCdcMessage message) {
+        return Stream.of(message.getBefore(), message.getAfter()).filter(Objects::nonNull);
+    }
+}
@@ -0,0 +1,19 @@
+package com.yas.product.kafka.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Key of the change events of the product database tables, all keyed by their {@code id} column.
+ */
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class StorefrontCdcKey {
+    private Long id;
+}
@@ -0,0 +1,25 @@
+package com.yas.product.kafka.message;
+
+import com.yas.commonlibrary.kafka.cdc.message.CdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.CdcSource;
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorefrontCdcMessage implements CdcMessage {
+
+    private StorefrontCdcRow after;
+
+    private StorefrontCdcRow before;
+
+    private Operation op;
+
+    private CdcSource source;
+
+}
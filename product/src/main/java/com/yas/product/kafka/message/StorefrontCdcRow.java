@@ -0,0 +1,58 @@
+package com.yas.product.kafka.message;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+
+/**
+ * The columns the storefront projections are evicted by, from a row of the product, category, brand,
+ * product_category or product_image table. Columns a table does not have stay null.
+ */
+@lombok.Getter
+@lombok.Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorefrontCdcRow {
+
+    private Long id;
+
+    @JsonProperty("product_id")
+    private Long productId;
+
+    @JsonProperty("category_id")
+    private Long categoryId;
+
+    @JsonProperty("is_featured")
+    private Boolean isFeatured;
+
+    @JsonProperty("is_published")
+    private Boolean isPublished;
+
+    @JsonProperty("is_visible_individually")
+    private Boolean isVisibleIndividually;
+
+    private String name;
+
+    private String slug;
+
+    private Double price;
+
+    @JsonProperty("thumbnail_media_id")
+    private Long thumbnailMediaId;
+
+    /* Whether the product row is listed on the featured product pages */
+    public boolean isListedAsFeatured() {
+        return Boolean.TRUE.equals(isFeatured) && Boolean.TRUE.equals(isPublished)
+            && Boolean.TRUE.equals(isVisibleIndividually);
+    }
+
+    /* The columns of the product row the featured product pages show */
+    public List<Object> featuredColumns() {
+        return Arrays.asList(name, slug, price, thumbnailMediaId);
+    }
+
+}
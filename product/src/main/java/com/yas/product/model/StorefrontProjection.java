@@ -0,0 +1,17 @@
+package com.yas.product.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.springframework.util.DigestUtils;
+
+/**
+ * A storefront response serialized to JSON once, with the ETag of that JSON and the refs it was built from. A ref
+ * names something the response depends on, such as {@code product:12}, and evicting a ref evicts every projection
+ * built from it.
+ */
+public record StorefrontProjection(String json, String etag, Set<String> refs) {
+
+    public static StorefrontProjection of(String json, Set<String> refs) {
+        return new StorefrontProjection(json, DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8)), refs);
+    }
+}
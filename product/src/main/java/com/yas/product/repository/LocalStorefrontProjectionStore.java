@@ -0,0 +1,82 @@
+package com.yas.product.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.yas.product.model.StorefrontProjection;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps storefront projections in a Caffeine cache of this instance, with an index of the projection keys by ref.
+ * Projections leaving the cache are removed from the index of each of their refs as they leave.
+ */
+@Component
+@Order(1)
+public class LocalStorefrontProjectionStore implements StorefrontProjectionStore {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, Set<String>> keysByRef = new ConcurrentHashMap<>();
+    private final Cache<String, StorefrontProjection> projections;
+
+    public LocalStorefrontProjectionStore(
+        @Value("${yas.storefront.projection.local.spec:maximumSize=20000,expireAfterWrite=6h}") String spec) {
+        this.projections = Caffeine.from(spec)
+            .<String, StorefrontProjection>evictionListener(
+                (String key, StorefrontProjection projection, RemovalCause cause) -> unindex(key, projection))
+            .build();
+    }
+
+    @Override
+    public Tier tier() {
+        return Tier.LOCAL;
+    }
+
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
+    @Override
+    public StorefrontProjection get(String key) {
+        return projections.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, StorefrontProjection projection, long generation) {
+        projections.asMap().compute(key, (projectionKey, current) -> {
+            // index before checking the generation, so an eviction either skips this projection or finds it
+            projection.refs().forEach(ref ->
+                keysByRef.computeIfAbsent(ref, unused -> ConcurrentHashMap.newKeySet()).add(projectionKey));
+            return this.generation.get() == generation ? projection : current;
+        });
+    }
+
+    @Override
+    public void evict(Collection<String> refs) {
+        generation.incrementAndGet();
+        refs.forEach(ref -> {
+            Set<String> keys = keysByRef.remove(ref);
+            if (keys != null) {
+                // the eviction listener only sees size and expiry removals, unindex the other refs of each key here
+                keys.forEach(key -> unindex(key, projections.asMap().remove(key)));
+            }
+        });
+    }
+
+    private void unindex(String key, StorefrontProjection projection) {
+        if (key == null || projection == null) {
+            return;
+        }
+        projection.refs().forEach(ref -> keysByRef.computeIfPresent(ref, (unused, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        }));
+    }
+}
@@ -2,11 +2,22 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Product;
 import com.yas.product.model.attribute.ProductAttributeValue;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProductAttributeValueRepository extends JpaRepository<ProductAttributeValue, Long> {
     List<ProductAttributeValue> findAllByProduct(Product product);
+
+    @Query("SELECT av FROM ProductAttributeValue av JOIN FETCH av.productAttribute pa "
+        + "LEFT JOIN FETCH pa.productAttributeGroup WHERE av.product.id = :productId ORDER BY av.id ASC")
+    List<ProductAttributeValue> findAllWithAttributeByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT av FROM ProductAttributeValue av JOIN FETCH av.productAttribute pa "
+        + "LEFT JOIN FETCH pa.productAttributeGroup WHERE av.product.id IN :productIds ORDER BY av.id ASC")
+    List<ProductAttributeValue> findAllWithAttributeByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
@@ -1,10 +1,12 @@
 package com.yas.product.repository;
 
 import com.yas.product.model.ProductImage;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -17,4 +19,7 @@ public interface ProductImageRepository extends JpaRepository<ProductImage, Long
     @Modifying
     @Query("DELETE FROM ProductImage p WHERE p.product.id = :productId")
     void deleteByProductId(Long productId);
+
+    @Query("SELECT p FROM ProductImage p WHERE p.product.id IN :productIds ORDER BY p.id ASC")
+    List<ProductImage> findAllByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
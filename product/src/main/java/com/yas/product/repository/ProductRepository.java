@@ -2,6 +2,9 @@ package com.yas.product.repository;
 
 import com.yas.product.model.Brand;
 import com.yas.product.model.Product;
+import com.yas.product.viewmodel.product.ProductEsNameVm;
+import com.yas.product.viewmodel.product.ProductExportingDetailVm;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -30,12 +33,20 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                                         @Param("brandName") String brandName,
                                         Pageable pageable);
 
-    @Query(value = "SELECT p FROM Product p WHERE LOWER(p.name) LIKE %:productName% "
-            + "AND (p.brand.name IN :brandName OR (:brandName is null OR :brandName = '')) "
+    @Query(value = "SELECT new com.yas.product.viewmodel.product.ProductExportingDetailVm(p.id, p.name, "
+            + "p.shortDescription, p.description, p.specification, p.sku, p.gtin, p.slug, p.isAllowedToOrder, "
+            + "p.isPublished, p.isFeatured, p.isVisibleIndividually, p.stockTrackingEnabled, p.price, b.id, b.name, "
+            + "p.metaTitle, p.metaKeyword, p.metaDescription) "
+            + "FROM Product p JOIN p.brand b WHERE LOWER(p.name) LIKE %:productName% "
+            + "AND (b.name IN :brandName OR (:brandName is null OR :brandName = '')) "
             + "AND p.isVisibleIndividually = TRUE "
             + "AND p.isPublished = TRUE "
+            + "AND p.id > :afterId "
             + "ORDER BY p.id ASC ")
-    List<Product> getExportingProducts(@Param("productName") String productName, @Param("brandName") String brandName);
+    List<ProductExportingDetailVm> getExportingProductsAfter(@Param("productName") String productName,
+                                                             @Param("brandName") String brandName,
+                                                             @Param("afterId") Long afterId,
+                                                             Pageable pageable);
 
     List<Product> findAllByIdIn(List<Long> productIds);
 
@@ -80,4 +91,46 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     @Query("SELECT p FROM Product p WHERE p.id IN :productIds AND p.isPublished = TRUE")
     Page<Product> findAllPublishedProductsByIds(@Param("productIds") List<Long> productIds, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand WHERE p.id IN :productIds ORDER BY p.id ASC")
+    List<Product> findAllWithBrandByIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand LEFT JOIN FETCH p.parent "
+        + "LEFT JOIN FETCH p.productCategories pc LEFT JOIN FETCH pc.category c LEFT JOIN FETCH c.parent "
+        + "WHERE p.id = :productId AND p.isPublished = TRUE")
+    Optional<Product> findPublishedWithCategoriesById(@Param("productId") Long productId);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand LEFT JOIN FETCH p.parent "
+        + "LEFT JOIN FETCH p.productCategories pc LEFT JOIN FETCH pc.category c LEFT JOIN FETCH c.parent "
+        + "WHERE p.id IN :productIds AND p.isPublished = TRUE ORDER BY p.id ASC")
+    List<Product> findAllPublishedWithCategoriesByIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand LEFT JOIN FETCH p.parent "
+        + "LEFT JOIN FETCH p.productCategories pc LEFT JOIN FETCH pc.category c LEFT JOIN FETCH c.parent "
+        + "WHERE p.slug = :slug AND p.isPublished = TRUE")
+    Optional<Product> findPublishedWithCategoriesBySlug(@Param("slug") String slug);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand "
+        + "WHERE p.parent.id = :parentId AND p.isPublished = TRUE ORDER BY p.id ASC")
+    List<Product> findPublishedVariationsByParentId(@Param("parentId") Long parentId);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand "
+        + "WHERE p.parent.id IN :parentIds AND p.isPublished = TRUE ORDER BY p.id ASC")
+    List<Product> findPublishedVariationsByParentIdIn(@Param("parentIds") Collection<Long> parentIds);
+
+    @Query("SELECT p.id FROM Product p WHERE p.isPublished = TRUE AND p.id IN :productIds")
+    List<Long> findPublishedProductIdsIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT p.id FROM Product p WHERE p.isPublished = TRUE AND p.id > :afterId ORDER BY p.id ASC")
+    List<Long> findPublishedProductIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.yas.product.viewmodel.product.ProductEsNameVm(pc.product.id, c.name) "
+        + "FROM ProductCategory pc JOIN pc.category c "
+        + "WHERE pc.product.id IN :productIds ORDER BY pc.id")
+    List<ProductEsNameVm> findCategoryNamesByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query("SELECT new com.yas.product.viewmodel.product.ProductEsNameVm(pav.product.id, pa.name) "
+        + "FROM ProductAttributeValue pav JOIN pav.productAttribute pa "
+        + "WHERE pav.product.id IN :productIds ORDER BY pav.id")
+    List<ProductEsNameVm> findAttributeNamesByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
@@ -0,0 +1,84 @@
+package com.yas.product.repository;
+
+import com.yas.product.viewmodel.product.ProductQuantityPostVm;
+import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based stock updates, all items are sent as a single JDBC batch. Restores are applied as {@code UPDATE}s
+ * evaluated by the database, and subtractions overwrite the quantities of rows locked first in id order, so
+ * concurrent orders can neither overwrite each other's changes nor deadlock.
+ */
+@Repository
+public class ProductStockRepository {
+
+    private static final String LOCK_STOCK_QUANTITY_SQL = """
+        SELECT id, COALESCE(stock_quantity, 0) AS stock_quantity
+        FROM product
+        WHERE id IN (%s) AND stock_tracking_enabled = TRUE
+        ORDER BY id
+        FOR UPDATE
+        """;
+
+    private static final String RESTORE_STOCK_QUANTITY_SQL = """
+        UPDATE product
+        SET stock_quantity = COALESCE(stock_quantity, 0) + ?, last_modified_on = CURRENT_TIMESTAMP
+        WHERE id = ? AND stock_tracking_enabled = TRUE
+        """;
+
+    private static final String SET_STOCK_QUANTITY_SQL = """
+        UPDATE product
+        SET stock_quantity = ?, last_modified_on = CURRENT_TIMESTAMP
+        WHERE id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks the given products in id order until the end of the transaction and returns their stock quantity by id.
+     * Products that do not exist or do not track stock are left out.
+     */
+    public Map<Long, Long> lockStockQuantities(List<Long> productIds) {
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        Map<Long, Long> stockQuantities = new HashMap<>();
+        jdbcTemplate.query(LOCK_STOCK_QUANTITY_SQL.formatted(placeholders),
+            rs -> {
+                stockQuantities.put(rs.getLong("id"), rs.getLong("stock_quantity"));
+            },
+            productIds.toArray());
+        return stockQuantities;
+    }
+
+    /**
+     * Returns the number of updated rows per item, 0 when the product does not exist or does not track stock.
+     */
+    public int[] restoreStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
+        return batchUpdate(RESTORE_STOCK_QUANTITY_SQL, productQuantityItems);
+    }
+
+    /**
+     * Overwrites the stock quantity with the value counted by inventory. Unknown product ids are ignored.
+     */
+    public void setStockQuantity(List<ProductQuantityPostVm> productQuantityPostVms) {
+        List<Object[]> batchArgs = productQuantityPostVms.stream()
+            .map(item -> new Object[] {item.stockQuantity(), item.productId()})
+            .toList();
+        jdbcTemplate.batchUpdate(SET_STOCK_QUANTITY_SQL, batchArgs);
+    }
+
+    private int[] batchUpdate(String sql, List<ProductQuantityPutVm> productQuantityItems) {
+        List<Object[]> batchArgs = productQuantityItems.stream()
+            .map(item -> new Object[] {item.quantity(), item.productId()})
+            .toList();
+        return jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+}
@@ -0,0 +1,141 @@
+package com.yas.product.repository;
+
+import com.yas.product.model.StorefrontProjection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares storefront projections between product instances in Redis, so a new or restarted instance fills its
+ * local tier without reading the database. Each projection is a hash, and each ref a set of the projection keys
+ * built from it. The puts and evictions run as Lua scripts, so the generation check and the ref index change
+ * together with the projections.
+ *
+ * <p>Reads and writes that fail are logged and treated as misses, so the storefront keeps working from the
+ * database while Redis is down. Failed evictions are thrown, for the change event to be retried.
+ */
+@Slf4j
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "yas.storefront.projection.redis.enabled", havingValue = "true")
+public class RedisStorefrontProjectionStore implements StorefrontProjectionStore {
+
+    /* The hash tag keeps all the keys in the same slot, which the scripts require on a Redis cluster */
+    private static final String KEY_PREFIX = "{storefront}:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+    private static final String REFS_SEPARATOR = "\n";
+
+    /* KEYS: generation, projection, then the ref sets. ARGV: generation, json, etag, refs, ttl */
+    private static final RedisScript<Long> PUT_SCRIPT = RedisScript.of("""
+        if (redis.call('GET', KEYS[1]) or '0') ~= ARGV[1] then
+            return 0
+        end
+        redis.call('HSET', KEYS[2], 'json', ARGV[2], 'etag', ARGV[3], 'refs', ARGV[4])
+        redis.call('PEXPIRE', KEYS[2], ARGV[5])
+        for i = 3, #KEYS do
+            redis.call('SADD', KEYS[i], KEYS[2])
+            redis.call('PEXPIRE', KEYS[i], ARGV[5])
+        end
+        return 1
+        """, Long.class);
+
+    /* KEYS: generation, then the ref sets */
+    private static final RedisScript<Long> EVICT_SCRIPT = RedisScript.of("""
+        redis.call('INCR', KEYS[1])
+        local evicted = 0
+        for i = 2, #KEYS do
+            for _, key in ipairs(redis.call('SMEMBERS', KEYS[i])) do
+                evicted = evicted + redis.call('DEL', key)
+            end
+            redis.call('DEL', KEYS[i])
+        end
+        return evicted
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisStorefrontProjectionStore(StringRedisTemplate redisTemplate,
+                                          @Value("${yas.storefront.projection.redis.ttl:PT6H}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Tier tier() {
+        return Tier.SHARED;
+    }
+
+    @Override
+    public long generation() {
+        try {
+            String generation = redisTemplate.opsForValue().get(GENERATION_KEY);
+            return generation == null ? 0 : Long.parseLong(generation);
+        } catch (DataAccessException e) {
+            log.warn("Cannot read the storefront projection generation from Redis", e);
+            return -1;
+        }
+    }
+
+    @Override
+    public StorefrontProjection get(String key) {
+        try {
+            HashOperations<String, String, String> hashOperations = redisTemplate.opsForHash();
+            Map<String, String> fields = hashOperations.entries(projectionKey(key));
+            if (fields.isEmpty()) {
+                return null;
+            }
+            String refs = fields.get("refs");
+            return new StorefrontProjection(fields.get("json"), fields.get("etag"),
+                refs == null || refs.isEmpty() ? Set.of() : Set.of(refs.split(REFS_SEPARATOR)));
+        } catch (DataAccessException e) {
+            log.warn("Cannot read the storefront projection {} from Redis", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, StorefrontProjection projection, long generation) {
+        if (generation < 0) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        keys.add(GENERATION_KEY);
+        keys.add(projectionKey(key));
+        projection.refs().forEach(ref -> keys.add(refKey(ref)));
+        try {
+            redisTemplate.execute(PUT_SCRIPT, keys, String.valueOf(generation), projection.json(),
+                projection.etag(), String.join(REFS_SEPARATOR, projection.refs()), String.valueOf(ttl.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Cannot write the storefront projection {} to Redis", key, e);
+        }
+    }
+
+    @Override
+    public void evict(Collection<String> refs) {
+        List<String> keys = new ArrayList<>();
+        keys.add(GENERATION_KEY);
+        refs.forEach(ref -> keys.add(refKey(ref)));
+        redisTemplate.execute(EVICT_SCRIPT, keys);
+    }
+
+    private static String projectionKey(String key) {
+        return KEY_PREFIX + "projection:" + key;
+    }
+
+    private static String refKey(String ref) {
+        return KEY_PREFIX + "ref:" + ref;
+    }
+}
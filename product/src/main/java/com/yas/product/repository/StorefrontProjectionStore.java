@@ -0,0 +1,31 @@
+package com.yas.product.repository;
+
+import com.yas.product.model.StorefrontProjection;
+import java.util.Collection;
+
+/**
+ * One tier of the storefront projection cache. A projection built from data read before an eviction must not
+ * be stored after it, so callers read {@link #generation()} before building and pass it back to
+ * {@link #put(String, StorefrontProjection, long)}, which skips the projection when an eviction ran in between.
+ */
+public interface StorefrontProjectionStore {
+
+    /**
+     * Who a store belongs to, which decides who evicts it: every instance evicts its {@code LOCAL} stores, one
+     * instance evicts the {@code SHARED} stores for all of them.
+     */
+    enum Tier {
+        LOCAL,
+        SHARED
+    }
+
+    Tier tier();
+
+    long generation();
+
+    StorefrontProjection get(String key);
+
+    void put(String key, StorefrontProjection projection, long generation);
+
+    void evict(Collection<String> refs);
+}
@@ -1,16 +1,27 @@
 package com.yas.product.service;
 
 import com.yas.commonlibrary.config.ServiceUrlConfig;
+import com.yas.product.config.CacheConfig;
 import com.yas.product.viewmodel.NoFileMediaVm;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -20,7 +31,10 @@ import org.springframework.web.util.UriComponentsBuilder;
 public class MediaService extends AbstractCircuitBreakFallbackHandler {
     private final RestClient restClient;
     private final ServiceUrlConfig serviceUrlConfig;
+    private final CacheManager cacheManager;
 
+    @CachePut(cacheNames = CacheConfig.MEDIA_CACHE, key = "#result.id()",
+        condition = "#result != null && #result.id() != null")
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleMediaFallback")
     public NoFileMediaVm saveFile(MultipartFile multipartFile, String caption, String fileNameOverride) {
@@ -42,6 +56,7 @@ public class MediaService extends AbstractCircuitBreakFallbackHandler {
                 .body(NoFileMediaVm.class);
     }
 
+    @Cacheable(cacheNames = CacheConfig.MEDIA_CACHE, condition = "#id != null", unless = "#result == null")
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleMediaFallback")
     public NoFileMediaVm getMedia(Long id) {
@@ -57,6 +72,52 @@ public class MediaService extends AbstractCircuitBreakFallbackHandler {
                 .body(NoFileMediaVm.class);
     }
 
+    @Retry(name = "restApi")
+    @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleMediaListFallback")
+    public List<NoFileMediaVm> getMediaByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        final Cache mediaCache = cacheManager.getCache(CacheConfig.MEDIA_CACHE);
+        List<NoFileMediaVm> medias = new ArrayList<>();
+        List<Long> missedIds = new ArrayList<>();
+        for (Long id : ids) {
+            NoFileMediaVm cachedMedia = mediaCache == null ? null : mediaCache.get(id, NoFileMediaVm.class);
+            if (cachedMedia != null) {
+                medias.add(cachedMedia);
+            } else {
+                missedIds.add(id);
+            }
+        }
+        if (missedIds.isEmpty()) {
+            return medias;
+        }
+
+        List<NoFileMediaVm> fetchedMedias = fetchMediaByIds(missedIds);
+        if (mediaCache != null) {
+            fetchedMedias.forEach(media -> mediaCache.put(media.id(), media));
+        }
+        medias.addAll(fetchedMedias);
+        return medias;
+    }
+
+    private List<NoFileMediaVm> fetchMediaByIds(List<Long> ids) {
+        final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.media())
+            .path("/medias").queryParam("ids", ids).build().toUri();
+        try {
+            List<NoFileMediaVm> medias = restClient.get()
+                .uri(url)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {
+                });
+            return medias == null ? List.of() : medias;
+        } catch (HttpClientErrorException.NotFound e) {
+            // media service answers 404 when none of the requested ids exist
+            return List.of();
+        }
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.MEDIA_CACHE)
     @Retry(name = "restApi")
     @CircuitBreaker(name = "restCircuitBreaker", fallbackMethod = "handleBodilessFallback")
     public void removeMedia(Long id) {
@@ -74,4 +135,8 @@ public class MediaService extends AbstractCircuitBreakFallbackHandler {
     private NoFileMediaVm handleMediaFallback(Throwable throwable) throws Throwable {
         return handleTypedFallback(throwable);
     }
+
+    private List<NoFileMediaVm> handleMediaListFallback(Throwable throwable) throws Throwable {
+        return handleTypedFallback(throwable);
+    }
 }
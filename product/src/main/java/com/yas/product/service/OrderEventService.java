@@ -0,0 +1,66 @@
+package com.yas.product.service;
+
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.commonlibrary.kafka.cdc.message.OrderStockRejectedEvent;
+import com.yas.commonlibrary.kafka.cdc.repository.ProcessedOrderEventRepository;
+import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+public class OrderEventService {
+    private final ProcessedOrderEventRepository processedOrderEventRepository;
+    private final ProductService productService;
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+    private final String orderStockRejectedTopic;
+
+    public OrderEventService(ProcessedOrderEventRepository processedOrderEventRepository,
+                             ProductService productService,
+                             KafkaTemplate<Object, Object> kafkaTemplate,
+                             @Value("${order.events.order-stock-rejected.topic.name}") String orderStockRejectedTopic) {
+        this.processedOrderEventRepository = processedOrderEventRepository;
+        this.productService = productService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.orderStockRejectedTopic = orderStockRejectedTopic;
+    }
+
+    /**
+     * Subtracts the ordered quantities from the product stock, once per order. When a product has less stock than
+     * ordered, nothing is subtracted and an order stock rejected event is published so order rejects the order.
+     * The event is sent before the transaction commits, a failed send is retried with the order created event.
+     *
+     * @param event the order created event.
+     */
+    @Transactional
+    public void subtractStockQuantity(OrderCreatedEvent event) {
+        if (!processedOrderEventRepository.processOnce(event.getOrderId(), () -> doSubtractStockQuantity(event))) {
+            log.debug("Stock of order {} was already subtracted", event.getOrderId());
+        }
+    }
+
+    private void doSubtractStockQuantity(OrderCreatedEvent event) {
+        List<ProductQuantityResultVm> results = productService.subtractAvailableStockQuantity(event.getItems().stream()
+            .map(item -> new ProductQuantityPutVm(item.getProductId(), (long) item.getQuantity()))
+            .toList());
+        results.stream()
+            .filter(result -> !result.updated())
+            .forEach(result -> log.warn("Stock of product {} was not subtracted for order {}",
+                result.productId(), event.getOrderId()));
+
+        List<OrderStockRejectedEvent.Item> shortfalls = results.stream()
+            .filter(result -> result.shortfall() > 0)
+            .map(result -> new OrderStockRejectedEvent.Item(result.productId(), result.shortfall()))
+            .toList();
+        if (!shortfalls.isEmpty()) {
+            log.warn("Order {} is rejected, {} products are short of stock", event.getOrderId(), shortfalls.size());
+            kafkaTemplate.send(orderStockRejectedTopic, String.valueOf(event.getOrderId()),
+                new OrderStockRejectedEvent(event.getOrderId(), shortfalls)).join();
+        }
+    }
+}
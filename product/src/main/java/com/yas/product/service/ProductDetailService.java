@@ -5,20 +5,28 @@ import com.yas.product.model.Brand;
 import com.yas.product.model.Category;
 import com.yas.product.model.Product;
 import com.yas.product.model.ProductCategory;
+import com.yas.product.model.ProductImage;
 import com.yas.product.model.ProductOptionCombination;
+import com.yas.product.repository.ProductAttributeValueRepository;
+import com.yas.product.repository.ProductImageRepository;
 import com.yas.product.repository.ProductOptionCombinationRepository;
 import com.yas.product.repository.ProductRepository;
 import com.yas.product.utils.Constants;
 import com.yas.product.viewmodel.ImageVm;
+import com.yas.product.viewmodel.NoFileMediaVm;
 import com.yas.product.viewmodel.product.ProductDetailInfoVm;
 import com.yas.product.viewmodel.product.ProductVariationGetVm;
 import com.yas.product.viewmodel.productattribute.ProductAttributeValueGetVm;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +41,8 @@ public class ProductDetailService {
     private final ProductRepository productRepository;
     private final MediaService mediaService;
     private final ProductOptionCombinationRepository productOptionCombinationRepository;
+    private final ProductAttributeValueRepository productAttributeValueRepository;
+    private final ProductImageRepository productImageRepository;
 
     /**
      * Constructor for {@code ProductRecommendationService} that initializes the service with necessary dependencies.
@@ -41,115 +51,173 @@ public class ProductDetailService {
      * @param mediaService                       the service responsible for managing media assets associated
      *                                           with products
      * @param productOptionCombinationRepository the repository for managing product option combinations
+     * @param productAttributeValueRepository    the repository for the attribute values of products
+     * @param productImageRepository             the repository for the images of products
      */
     public ProductDetailService(ProductRepository productRepository, MediaService mediaService,
-                                ProductOptionCombinationRepository productOptionCombinationRepository) {
+                                ProductOptionCombinationRepository productOptionCombinationRepository,
+                                ProductAttributeValueRepository productAttributeValueRepository,
+                                ProductImageRepository productImageRepository) {
         this.productRepository = productRepository;
         this.mediaService = mediaService;
         this.productOptionCombinationRepository = productOptionCombinationRepository;
+        this.productAttributeValueRepository = productAttributeValueRepository;
+        this.productImageRepository = productImageRepository;
     }
 
     /**
      * Retrieves detailed information about a product by its unique identifier.
+     * The product, its attribute values, its variations, the images and the option combinations are each read
+     * with one query, and the media urls with one call, whatever the number of variations.
      *
      * @param productId the unique identifier of the product to be retrieved
      * @return a {@link ProductDetailInfoVm} containing detailed information about the product
      * @throws NotFoundException if no product is found with the given {@code productId}
      */
     public ProductDetailInfoVm getProductDetailById(long productId) {
-        List<ProductVariationGetVm> variations = new ArrayList<>();
         Product product = productRepository
-                .findById(productId)
-                .filter(Product::isPublished)
+                .findPublishedWithCategoriesById(productId)
                 .orElseThrow(() ->
                         new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, productId)
                 );
+        return toProductDetails(List.of(product)).getFirst();
+    }
 
-        List<Category> categories = Optional.ofNullable(product.getProductCategories())
-                .orElse(Collections.emptyList())  // Handle null case
-                .stream()
-                .map(ProductCategory::getCategory)
-                .toList();
+    /**
+     * Retrieves detailed information about the published products among the given identifiers, with the same
+     * queries as a single product whatever the number of products. Products that do not exist or are not
+     * published are left out.
+     *
+     * @param productIds the unique identifiers of the products to be retrieved
+     * @return the {@link ProductDetailInfoVm} of the published products, ordered by id
+     */
+    public List<ProductDetailInfoVm> getProductDetailsByIds(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return toProductDetails(productRepository.findAllPublishedWithCategoriesByIdIn(productIds));
+    }
 
-        Long brandId = Optional.ofNullable(product.getBrand())
-                .map(Brand::getId)
-                .orElse(null);
-        String brandName = Optional.ofNullable(product.getBrand())
-                .map(Brand::getName)
-                .orElse(null);
+    private List<ProductDetailInfoVm> toProductDetails(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        List<Long> parentIds = products.stream().map(Product::getId).toList();
 
-        List<ProductAttributeValueGetVm> productAttributes = product.getAttributeValues()
+        Map<Long, List<ProductAttributeValueGetVm>> attributesByProductId = productAttributeValueRepository
+                .findAllWithAttributeByProductIdIn(parentIds)
                 .stream()
-                .map(ProductAttributeValueGetVm::fromModel)
+                .collect(Collectors.groupingBy(attributeValue -> attributeValue.getProduct().getId(),
+                        Collectors.mapping(ProductAttributeValueGetVm::fromModel, Collectors.toList())));
+
+        List<Long> parentIdsWithOptions = products.stream()
+                .filter(product -> Boolean.TRUE.equals(product.isHasOptions()))
+                .map(Product::getId)
                 .toList();
+        List<Product> productVariations = parentIdsWithOptions.isEmpty()
+                ? List.of()
+                : productRepository.findPublishedVariationsByParentIdIn(parentIdsWithOptions);
+        Map<Long, List<Product>> variationsByParentId = productVariations.stream()
+                .collect(Collectors.groupingBy(variation -> variation.getParent().getId()));
+        List<Long> productIds = new ArrayList<>(parentIds);
+        productVariations.forEach(variation -> productIds.add(variation.getId()));
 
-        if (Boolean.TRUE.equals(product.isHasOptions())) {
-            List<Product> productVariations = product.getProducts()
+        Map<Long, List<Long>> imageIdsByProductId = productImageRepository.findAllByProductIdIn(productIds)
+                .stream()
+                .collect(Collectors.groupingBy(image -> image.getProduct().getId(),
+                        Collectors.mapping(ProductImage::getImageId, Collectors.toList())));
+        Map<Long, Map<Long, String>> optionsByProductId = productVariations.isEmpty()
+                ? Map.of()
+                : productOptionCombinationRepository.findAllWithOptionByProductIdIn(productIds)
+                .stream()
+                .collect(Collectors.groupingBy(combination -> combination.getProduct().getId(),
+                        Collectors.toMap(combination -> combination.getProductOption().getId(),
+                                ProductOptionCombination::getValue)));
+
+        List<Long> mediaIds = new ArrayList<>();
+        Stream.concat(products.stream(), productVariations.stream())
+                .map(Product::getThumbnailMediaId)
+                .filter(Objects::nonNull)
+                .forEach(mediaIds::add);
+        imageIdsByProductId.values().forEach(mediaIds::addAll);
+        Map<Long, String> mediaUrls = getMediaUrls(mediaIds);
+
+        return products.stream().map(product -> {
+            List<Category> categories = product.getProductCategories()
                     .stream()
+                    .map(ProductCategory::getCategory)
                     .toList();
-            variations = productVariations.stream()
-                    .filter(Product::isPublished)
-                    .map(pro -> {
-                        List<ProductOptionCombination> productOptionCombinations =
-                                productOptionCombinationRepository.findAllByProduct(pro);
-                        Map<Long, String> options = productOptionCombinations.stream().collect(Collectors.toMap(
-                                productOptionCombination -> productOptionCombination.getProductOption().getId(),
-                                ProductOptionCombination::getValue
-                        ));
-
-                        return new ProductVariationGetVm(
-                                pro.getId(),
-                                pro.getName(),
-                                pro.getSlug(),
-                                pro.getSku(),
-                                pro.getGtin(),
-                                pro.getPrice(),
-                                getThumbnailFromProduct(pro),
-                                getImagesFromProduct(pro),
-                                options
-                        );
-                    }).toList();
+
+            Long brandId = Optional.ofNullable(product.getBrand())
+                    .map(Brand::getId)
+                    .orElse(null);
+            String brandName = Optional.ofNullable(product.getBrand())
+                    .map(Brand::getName)
+                    .orElse(null);
+
+            List<ProductVariationGetVm> variations = variationsByParentId.getOrDefault(product.getId(), List.of())
+                    .stream()
+                    .map(pro -> new ProductVariationGetVm(
+                            pro.getId(),
+                            pro.getName(),
+                            pro.getSlug(),
+                            pro.getSku(),
+                            pro.getGtin(),
+                            pro.getPrice(),
+                            getThumbnail(pro, mediaUrls),
+                            getImages(imageIdsByProductId.get(pro.getId()), mediaUrls),
+                            optionsByProductId.getOrDefault(pro.getId(), Map.of())
+                    )).toList();
+
+            return new ProductDetailInfoVm(product.getId(),
+                    product.getName(),
+                    product.getShortDescription(),
+                    product.getDescription(),
+                    product.getSpecification(),
+                    product.getSku(),
+                    product.getGtin(),
+                    product.getSlug(),
+                    product.isAllowedToOrder(),
+                    product.isPublished(),
+                    product.isFeatured(),
+                    product.isVisibleIndividually(),
+                    product.isStockTrackingEnabled(),
+                    product.getPrice(),
+                    brandId,
+                    categories,
+                    product.getMetaTitle(),
+                    product.getMetaKeyword(),
+                    product.getMetaDescription(),
+                    product.getTaxClassId(),
+                    brandName,
+                    attributesByProductId.getOrDefault(product.getId(), List.of()),
+                    variations,
+                    getThumbnail(product, mediaUrls),
+                    getImages(imageIdsByProductId.get(product.getId()), mediaUrls)
+            );
+        }).toList();
+    }
+
+    private Map<Long, String> getMediaUrls(List<Long> mediaIds) {
+        if (mediaIds.isEmpty()) {
+            return Map.of();
         }
-        return new ProductDetailInfoVm(product.getId(),
-                product.getName(),
-                product.getShortDescription(),
-                product.getDescription(),
-                product.getSpecification(),
-                product.getSku(),
-                product.getGtin(),
-                product.getSlug(),
-                product.isAllowedToOrder(),
-                product.isPublished(),
-                product.isFeatured(),
-                product.isVisibleIndividually(),
-                product.isStockTrackingEnabled(),
-                product.getPrice(),
-                brandId,
-                categories,
-                product.getMetaTitle(),
-                product.getMetaKeyword(),
-                product.getMetaDescription(),
-                product.getTaxClassId(),
-                brandName,
-                productAttributes,
-                variations,
-                getThumbnailFromProduct(product),
-                getImagesFromProduct(product)
-        );
+        return mediaService.getMediaByIds(new LinkedHashSet<>(mediaIds)).stream()
+                .filter(media -> media.id() != null && media.url() != null)
+                .collect(Collectors.toMap(NoFileMediaVm::id, NoFileMediaVm::url, (url1, url2) -> url1));
     }
 
-    private ImageVm getThumbnailFromProduct(Product product) {
+    private static ImageVm getThumbnail(Product product, Map<Long, String> mediaUrls) {
         return Optional.ofNullable(product.getThumbnailMediaId())
-                .map(thumbnailId -> new ImageVm(thumbnailId, mediaService.getMedia(thumbnailId).url()))
+                .map(thumbnailId -> new ImageVm(thumbnailId, mediaUrls.getOrDefault(thumbnailId, "")))
                 .orElse(null);
-
     }
 
-    private List<ImageVm> getImagesFromProduct(Product product) {
-        return Optional.ofNullable(product.getProductImages())
+    private static List<ImageVm> getImages(List<Long> imageIds, Map<Long, String> mediaUrls) {
+        return Optional.ofNullable(imageIds)
                 .orElse(Collections.emptyList())
                 .stream()
-                .map(image -> new ImageVm(image.getImageId(), mediaService.getMedia(image.getImageId()).url()))
+                .map(imageId -> new ImageVm(imageId, mediaUrls.getOrDefault(imageId, "")))
                 .toList();
     }
-}
+}
\ No newline at end of file
@@ -20,6 +20,7 @@ import com.yas.product.model.attribute.ProductAttributeValue;
 import com.yas.product.model.enumeration.FilterExistInWhSelection;
 import com.yas.product.repository.BrandRepository;
 import com.yas.product.repository.CategoryRepository;
+import com.yas.product.repository.ProductAttributeValueRepository;
 import com.yas.product.repository.ProductCategoryRepository;
 import com.yas.product.repository.ProductImageRepository;
 import com.yas.product.repository.ProductOptionCombinationRepository;
@@ -27,12 +28,15 @@ import com.yas.product.repository.ProductOptionRepository;
 import com.yas.product.repository.ProductOptionValueRepository;
 import com.yas.product.repository.ProductRelatedRepository;
 import com.yas.product.repository.ProductRepository;
+import com.yas.product.repository.ProductStockRepository;
 import com.yas.product.utils.Constants;
 import com.yas.product.viewmodel.ImageVm;
+import com.yas.product.viewmodel.NoFileMediaVm;
 import com.yas.product.viewmodel.product.ProductCheckoutListVm;
 import com.yas.product.viewmodel.product.ProductDetailGetVm;
 import com.yas.product.viewmodel.product.ProductDetailVm;
 import com.yas.product.viewmodel.product.ProductEsDetailVm;
+import com.yas.product.viewmodel.product.ProductEsNameVm;
 import com.yas.product.viewmodel.product.ProductExportingDetailVm;
 import com.yas.product.viewmodel.product.ProductFeatureGetVm;
 import com.yas.product.viewmodel.product.ProductGetCheckoutListVm;
@@ -46,6 +50,7 @@ import com.yas.product.viewmodel.product.ProductProperties;
 import com.yas.product.viewmodel.product.ProductPutVm;
 import com.yas.product.viewmodel.product.ProductQuantityPostVm;
 import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
 import com.yas.product.viewmodel.product.ProductSaveVm;
 import com.yas.product.viewmodel.product.ProductSlugGetVm;
 import com.yas.product.viewmodel.product.ProductThumbnailGetVm;
@@ -58,23 +63,27 @@ import com.yas.product.viewmodel.productattribute.ProductAttributeGroupGetVm;
 import com.yas.product.viewmodel.productattribute.ProductAttributeValueVm;
 import io.micrometer.common.util.StringUtils;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.BiFunction;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.ListUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -82,6 +91,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class ProductService {
     private static final String NONE_GROUP = "None group";
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    static final int MAX_PRODUCT_ES_DETAILS = 500;
     private final ProductRepository productRepository;
     private final MediaService mediaService;
     private final BrandRepository brandRepository;
@@ -92,6 +103,8 @@ public class ProductService {
     private final ProductOptionValueRepository productOptionValueRepository;
     private final ProductOptionCombinationRepository productOptionCombinationRepository;
     private final ProductRelatedRepository productRelatedRepository;
+    private final ProductStockRepository productStockRepository;
+    private final ProductAttributeValueRepository productAttributeValueRepository;
 
     public ProductService(ProductRepository productRepository,
                           MediaService mediaService,
@@ -102,7 +115,9 @@ public class ProductService {
                           ProductOptionRepository productOptionRepository,
                           ProductOptionValueRepository productOptionValueRepository,
                           ProductOptionCombinationRepository productOptionCombinationRepository,
-                          ProductRelatedRepository productRelatedRepository) {
+                          ProductRelatedRepository productRelatedRepository,
+                          ProductStockRepository productStockRepository,
+                          ProductAttributeValueRepository productAttributeValueRepository) {
         this.productRepository = productRepository;
         this.mediaService = mediaService;
         this.brandRepository = brandRepository;
@@ -113,6 +128,8 @@ public class ProductService {
         this.productOptionValueRepository = productOptionValueRepository;
         this.productOptionCombinationRepository = productOptionCombinationRepository;
         this.productRelatedRepository = productRelatedRepository;
+        this.productStockRepository = productStockRepository;
+        this.productAttributeValueRepository = productAttributeValueRepository;
     }
 
     public ProductGetDetailVm createProduct(ProductPostVm productPostVm) {
@@ -638,17 +655,24 @@ public class ProductService {
             .orElseThrow(() ->
                 new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, productId)
             );
+        List<Long> mediaIds = new ArrayList<>();
+        mediaIds.add(product.getThumbnailMediaId());
+        if (null != product.getProductImages()) {
+            product.getProductImages().forEach(image -> mediaIds.add(image.getImageId()));
+        }
+        Map<Long, String> mediaUrls = getMediaUrlsByIds(mediaIds);
+
         List<ImageVm> productImageMedias = new ArrayList<>();
         if (null != product.getProductImages()) {
             for (ProductImage image : product.getProductImages()) {
                 productImageMedias.add(new ImageVm(image.getImageId(),
-                    mediaService.getMedia(image.getImageId()).url()));
+                    getMediaUrl(mediaUrls, image.getImageId())));
             }
         }
         ImageVm thumbnailMedia = null;
         if (null != product.getThumbnailMediaId()) {
             thumbnailMedia = new ImageVm(product.getThumbnailMediaId(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url());
+                getMediaUrl(mediaUrls, product.getThumbnailMediaId()));
         }
         List<Category> categories = new ArrayList<>();
         if (null != product.getProductCategories()) {
@@ -716,12 +740,13 @@ public class ProductService {
             .findBySlug(brandSlug)
             .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.BRAND_NOT_FOUND, brandSlug));
         List<Product> products = productRepository.findAllByBrandAndIsPublishedTrueOrderByIdAsc(brand);
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url()));
+                getMediaUrl(thumbnailUrls, product.getThumbnailMediaId())));
         }
         return productThumbnailVms;
     }
@@ -737,12 +762,13 @@ public class ProductService {
         List<ProductCategory> productList = productCategoryPage.getContent();
         List<Product> products = productList.stream()
             .map(ProductCategory::getProduct).toList();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url()));
+                getMediaUrl(thumbnailUrls, product.getThumbnailMediaId())));
         }
         return new ProductListGetFromCategoryVm(
             productThumbnailVms,
@@ -756,9 +782,19 @@ public class ProductService {
 
     public List<ProductThumbnailGetVm> getFeaturedProductsById(List<Long> productIds) {
         List<Product> products = productRepository.findAllByIdIn(productIds);
+        // variations without their own thumbnail fall back to the parent's, so resolve both in one call
+        List<Long> mediaIds = new ArrayList<>();
+        products.forEach(product -> {
+            mediaIds.add(product.getThumbnailMediaId());
+            if (Objects.nonNull(product.getParent())) {
+                mediaIds.add(product.getParent().getThumbnailMediaId());
+            }
+        });
+        Map<Long, String> thumbnailUrls = getMediaUrlsByIds(mediaIds);
+
         return products.stream().map(product -> {
 
-            String thumbnailUrl = mediaService.getMedia(product.getThumbnailMediaId()).url();
+            String thumbnailUrl = getMediaUrl(thumbnailUrls, product.getThumbnailMediaId());
             if (StringUtils.isNotEmpty(thumbnailUrl) || Objects.isNull(product.getParent())) {
                 return new ProductThumbnailGetVm(
                     product.getId(),
@@ -768,14 +804,11 @@ public class ProductService {
                     product.getPrice());
             }
 
-            Optional<Product> parentProduct = productRepository.findById(product.getParent().getId());
-
             return new ProductThumbnailGetVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                parentProduct.map(pr -> mediaService.getMedia(pr.getThumbnailMediaId()).url())
-                    .orElse(""),
+                getMediaUrl(thumbnailUrls, product.getParent().getThumbnailMediaId()),
                 product.getPrice());
         }).toList();
     }
@@ -785,33 +818,43 @@ public class ProductService {
         List<ProductThumbnailGetVm> productThumbnailVms = new ArrayList<>();
         Page<Product> productPage = productRepository.getFeaturedProduct(pageable);
         List<Product> products = productPage.getContent();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailGetVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url(),
+                getMediaUrl(thumbnailUrls, product.getThumbnailMediaId()),
                 product.getPrice()));
         }
         return new ProductFeatureGetVm(productThumbnailVms, productPage.getTotalPages());
     }
 
+    /**
+     * Reads the product page of a product with a constant number of queries: the product with its brand and
+     * categories, its images and its attribute values, plus one call for the media urls.
+     */
     public ProductDetailGetVm getProductDetail(String slug) {
-        Product product = productRepository.findBySlugAndIsPublishedTrue(slug)
+        Product product = productRepository.findPublishedWithCategoriesBySlug(slug)
             .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, slug));
 
         Long productThumbnailMediaId = product.getThumbnailMediaId();
-        String productThumbnailUrl = mediaService.getMedia(productThumbnailMediaId).url();
-
-        List<String> productImageMediaUrls = new ArrayList<>();
-        if (CollectionUtils.isNotEmpty(product.getProductImages())) {
-            for (ProductImage image : product.getProductImages()) {
-                productImageMediaUrls.add(mediaService.getMedia(image.getImageId()).url());
-            }
-        }
+        List<Long> imageIds = productImageRepository.findAllByProductIdIn(List.of(product.getId())).stream()
+            .map(ProductImage::getImageId)
+            .toList();
+        List<Long> mediaIds = new ArrayList<>();
+        mediaIds.add(productThumbnailMediaId);
+        mediaIds.addAll(imageIds);
+        Map<Long, String> mediaUrls = getMediaUrlsByIds(mediaIds);
+        String productThumbnailUrl = getMediaUrl(mediaUrls, productThumbnailMediaId);
+
+        List<String> productImageMediaUrls = imageIds.stream()
+            .map(imageId -> getMediaUrl(mediaUrls, imageId))
+            .toList();
 
         List<ProductAttributeGroupGetVm> productAttributeGroupsVm = new ArrayList<>();
-        List<ProductAttributeValue> productAttributeValues = product.getAttributeValues();
+        List<ProductAttributeValue> productAttributeValues =
+            productAttributeValueRepository.findAllWithAttributeByProductId(product.getId());
         if (CollectionUtils.isNotEmpty(productAttributeValues)) {
             List<ProductAttributeGroup> productAttributeGroups = productAttributeValues.stream()
                 .map(productAttributeValue
@@ -895,12 +938,13 @@ public class ProductService {
 
         List<ProductThumbnailGetVm> productThumbnailVms = new ArrayList<>();
         List<Product> products = productPage.getContent();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(products);
         for (Product product : products) {
             productThumbnailVms.add(new ProductThumbnailGetVm(
                 product.getId(),
                 product.getName(),
                 product.getSlug(),
-                mediaService.getMedia(product.getThumbnailMediaId()).url(),
+                getMediaUrl(thumbnailUrls, product.getThumbnailMediaId()),
                 product.getPrice()));
         }
 
@@ -921,6 +965,13 @@ public class ProductService {
             List<Product> productVariations
                 = parentProduct.getProducts().stream().filter(Product::isPublished).toList();
 
+            List<Long> mediaIds = new ArrayList<>();
+            productVariations.forEach(product -> {
+                mediaIds.add(product.getThumbnailMediaId());
+                product.getProductImages().forEach(productImage -> mediaIds.add(productImage.getImageId()));
+            });
+            Map<Long, String> mediaUrls = getMediaUrlsByIds(mediaIds);
+
             return productVariations.stream().map(product -> {
                 List<ProductOptionCombination> productOptionCombinations =
                     productOptionCombinationRepository.findAllByProduct(product);
@@ -931,7 +982,7 @@ public class ProductService {
                 ImageVm image = null;
                 if (product.getThumbnailMediaId() != null) {
                     image = new ImageVm(product.getThumbnailMediaId(),
-                        mediaService.getMedia(product.getThumbnailMediaId()).url());
+                        getMediaUrl(mediaUrls, product.getThumbnailMediaId()));
                 }
                 return new ProductVariationGetVm(
                     product.getId(),
@@ -943,7 +994,7 @@ public class ProductService {
                     image,
                     product.getProductImages().stream()
                         .map(productImage -> new ImageVm(productImage.getImageId(),
-                            mediaService.getMedia(productImage.getImageId()).url())).toList(),
+                            getMediaUrl(mediaUrls, productImage.getImageId()))).toList(),
                     options
                 );
             }).toList();
@@ -951,32 +1002,34 @@ public class ProductService {
         return Collections.emptyList();
     }
 
-    public List<ProductExportingDetailVm> exportProducts(String productName, String brandName) {
-        List<Product> productList = productRepository.getExportingProducts(productName.trim().toLowerCase(),
-            brandName.trim());
+    /**
+     * Returns the products to export, ordered by id. The products are read lazily in chunks of
+     * {@value #EXPORT_CHUNK_SIZE} as the stream is consumed, each chunk in its own read, so exporting the whole
+     * catalog keeps only one chunk in memory.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Stream<ProductExportingDetailVm> exportProducts(String productName, String brandName) {
+        String name = productName.trim().toLowerCase();
+        String brand = brandName.trim();
+        Pageable chunk = PageRequest.of(0, EXPORT_CHUNK_SIZE);
+
+        return Stream.iterate(
+                productRepository.getExportingProductsAfter(name, brand, 0L, chunk),
+                products -> !products.isEmpty(),
+                products -> products.size() < EXPORT_CHUNK_SIZE
+                    ? List.of()
+                    : productRepository.getExportingProductsAfter(name, brand, products.getLast().id(), chunk))
+            .flatMap(List::stream);
+    }
 
-        return productList.stream()
-            .map(product -> new ProductExportingDetailVm(product.getId(),
-                product.getName(),
-                product.getShortDescription(),
-                product.getDescription(),
-                product.getSpecification(),
-                product.getSku(),
-                product.getGtin(),
-                product.getSlug(),
-                product.isAllowedToOrder(),
-                product.isPublished(),
-                product.isFeatured(),
-                product.isVisibleIndividually(),
-                product.isStockTrackingEnabled(),
-                product.getPrice(),
-                product.getBrand().getId(),
-                product.getBrand().getName(),
-                product.getMetaTitle(),
-                product.getMetaKeyword(),
-                product.getMetaDescription()
-            ))
-            .toList();
+    /**
+     * Returns which of the given products exist and are published, without loading the products.
+     */
+    public List<Long> getPublishedProductIds(List<Long> productIds) {
+        if (CollectionUtils.isEmpty(productIds)) {
+            return List.of();
+        }
+        return productRepository.findPublishedProductIdsIn(new HashSet<>(productIds));
     }
 
     public ProductSlugGetVm getProductSlug(Long id) {
@@ -995,15 +1048,68 @@ public class ProductService {
             .orElseThrow(() ->
                 new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, productId)
             );
+        return toProductEsDetailVm(product);
+    }
 
-        Long thumbnailMediaId = null;
-        if (null != product.getThumbnailMediaId()) {
-            thumbnailMediaId = product.getThumbnailMediaId();
+    /**
+     * Bulk variant of {@link #getProductEsDetailById(long)}. Products, category names and attribute names are
+     * each loaded with one query, whatever the number of requested ids.
+     */
+    public List<ProductEsDetailVm> getProductEsDetailsByIds(List<Long> productIds) {
+        if (CollectionUtils.isEmpty(productIds)) {
+            return List.of();
         }
+        List<Long> distinctIds = productIds.stream().distinct().toList();
+        if (distinctIds.size() > MAX_PRODUCT_ES_DETAILS) {
+            throw new BadRequestException(Constants.ErrorCode.TOO_MANY_PRODUCT_IDS, MAX_PRODUCT_ES_DETAILS);
+        }
+        List<Product> products = productRepository.findAllWithBrandByIdIn(distinctIds);
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> categoryNames = groupNamesByProductId(
+            productRepository.findCategoryNamesByProductIdIn(distinctIds));
+        Map<Long, List<String>> attributeNames = groupNamesByProductId(
+            productRepository.findAttributeNamesByProductIdIn(distinctIds));
+
+        return products.stream()
+            .map(product -> toProductEsDetailVm(product,
+                categoryNames.getOrDefault(product.getId(), List.of()),
+                attributeNames.getOrDefault(product.getId(), List.of())))
+            .toList();
+    }
+
+    /**
+     * Returns the next chunk of published products, ordered by id, for a full search reindex.
+     * Keyset pagination keeps every chunk as cheap as the first one, whatever the catalog size. The chunk size is
+     * capped, so the whole catalog can't be read in one request.
+     */
+    public List<ProductEsDetailVm> getPublishedProductEsDetails(Long afterId, int size) {
+        PageRequest chunk = PageRequest.of(0, Math.clamp(size, 1, MAX_PRODUCT_ES_DETAILS));
+        List<Long> productIds = productRepository.findPublishedProductIdsAfter(afterId, chunk);
+        return getProductEsDetailsByIds(productIds);
+    }
+
+    private static Map<Long, List<String>> groupNamesByProductId(List<ProductEsNameVm> productEsNameVms) {
+        return productEsNameVms.stream()
+            .collect(Collectors.groupingBy(ProductEsNameVm::productId,
+                Collectors.mapping(ProductEsNameVm::name, Collectors.toList())));
+    }
+
+    private ProductEsDetailVm toProductEsDetailVm(Product product) {
         List<String> categoryNames = product.getProductCategories().stream().map(productCategory
             -> productCategory.getCategory().getName()).toList();
         List<String> attributeNames = product.getAttributeValues().stream().map(attributeValue
             -> attributeValue.getProductAttribute().getName()).toList();
+        return toProductEsDetailVm(product, categoryNames, attributeNames);
+    }
+
+    private static ProductEsDetailVm toProductEsDetailVm(Product product, List<String> categoryNames,
+                                                         List<String> attributeNames) {
+        Long thumbnailMediaId = null;
+        if (null != product.getThumbnailMediaId()) {
+            thumbnailMediaId = product.getThumbnailMediaId();
+        }
 
         String brandName = null;
         if (null != product.getBrand()) {
@@ -1053,17 +1159,18 @@ public class ProductService {
             .orElseThrow(() -> new NotFoundException(Constants.ErrorCode.PRODUCT_NOT_FOUND, id));
         Page<ProductRelated> relatedProductsPage
             = productRelatedRepository.findAllByProduct(product, PageRequest.of(pageNo, pageSize));
-        List<ProductThumbnailGetVm> productThumbnailVms = relatedProductsPage.stream()
-            .filter(productRelated -> productRelated.getRelatedProduct().isPublished())
-            .map(productRelated -> {
-                Product relatedProduct = productRelated.getRelatedProduct();
-                return new ProductThumbnailGetVm(
-                    relatedProduct.getId(),
-                    relatedProduct.getName(),
-                    relatedProduct.getSlug(),
-                    mediaService.getMedia(relatedProduct.getThumbnailMediaId()).url(),
-                    relatedProduct.getPrice());
-            })
+        List<Product> relatedProducts = relatedProductsPage.stream()
+            .map(ProductRelated::getRelatedProduct)
+            .filter(Product::isPublished)
+            .toList();
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(relatedProducts);
+        List<ProductThumbnailGetVm> productThumbnailVms = relatedProducts.stream()
+            .map(relatedProduct -> new ProductThumbnailGetVm(
+                relatedProduct.getId(),
+                relatedProduct.getName(),
+                relatedProduct.getSlug(),
+                getMediaUrl(thumbnailUrls, relatedProduct.getThumbnailMediaId()),
+                relatedProduct.getPrice()))
             .toList();
         return new ProductsGetVm(
             productThumbnailVms,
@@ -1082,74 +1189,93 @@ public class ProductService {
     }
 
     public void updateProductQuantity(List<ProductQuantityPostVm> productQuantityPostVms) {
-
-        List<Long> productIds = productQuantityPostVms.stream().map(ProductQuantityPostVm::productId).toList();
-        List<Product> products = productRepository.findAllByIdIn(productIds);
-        products.parallelStream().forEach(product -> {
-            Optional<ProductQuantityPostVm> productQuantityPostVmOptional = productQuantityPostVms.parallelStream()
-                .filter(productPostVm -> product.getId().equals(productPostVm.productId())).findFirst();
-            productQuantityPostVmOptional.ifPresent(productQuantityPostVm
-                -> product.setStockQuantity(productQuantityPostVm.stockQuantity()));
-        });
-
-        productRepository.saveAll(products);
+        // Keep the first quantity sent for a product, as the previous lookup did
+        Map<Long, ProductQuantityPostVm> productQuantityPostVmById = productQuantityPostVms.stream()
+            .collect(Collectors.toMap(ProductQuantityPostVm::productId, Function.identity(),
+                (first, duplicate) -> first, LinkedHashMap::new));
+        productStockRepository.setStockQuantity(List.copyOf(productQuantityPostVmById.values()));
     }
 
-    private void partitionUpdateStockQuantityByCalculation(List<ProductQuantityPutVm> productQuantityItems,
-                                                           BiFunction<Long, Long, Long> calculation) {
-        var productIds = productQuantityItems.stream()
-            .map(ProductQuantityPutVm::productId)
-            .toList();
-
-        var productQuantityItemMap = productQuantityItems.stream()
-            .collect(Collectors.toMap(
-                ProductQuantityPutVm::productId,
-                Function.identity(),
-                this::mergeProductQuantityItem
-            ));
-
-
-        List<Product> products = this.productRepository.findAllByIdIn(productIds);
-        products.forEach(product -> {
-            if (product.isStockTrackingEnabled()) {
-                long amount = getRemainAmountOfStockQuantity(productQuantityItemMap, product, calculation);
-                product.setStockQuantity(amount);
-            }
-        });
-        this.productRepository.saveAll(products);
+    /**
+     * Subtracts the quantities from the product stock. A product with less stock than its quantity is brought down
+     * to 0, and the quantity that could not be subtracted is reported as its shortfall.
+     */
+    public List<ProductQuantityResultVm> subtractStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
+        return subtractStockQuantity(productQuantityItems, true);
     }
 
-    public void subtractStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
-        ListUtils.partition(productQuantityItems, 5)
-            .forEach(it -> partitionUpdateStockQuantityByCalculation(it, this.subtractStockQuantity()));
+    /**
+     * Subtracts the quantities from the product stock only when every product has enough stock. Otherwise no stock
+     * is subtracted, and the quantities that are missing are reported as the shortfalls.
+     */
+    public List<ProductQuantityResultVm> subtractAvailableStockQuantity(
+        List<ProductQuantityPutVm> productQuantityItems) {
+        return subtractStockQuantity(productQuantityItems, false);
     }
 
-    private BiFunction<Long, Long, Long> subtractStockQuantity() {
-        return (totalQuantity, amount) -> {
-            long result = totalQuantity - amount;
-            return result < 0 ? 0 : result;
-        };
+    private List<ProductQuantityResultVm> subtractStockQuantity(List<ProductQuantityPutVm> productQuantityItems,
+                                                                boolean allowShortfall) {
+        List<ProductQuantityPutVm> mergedItems = mergeProductQuantityItems(productQuantityItems);
+        if (mergedItems.isEmpty()) {
+            return List.of();
+        }
+
+        // Lock every product up front, in the id order of the merged items, then subtract from the locked quantities
+        Map<Long, Long> stockQuantities = productStockRepository.lockStockQuantities(
+            mergedItems.stream().map(ProductQuantityPutVm::productId).toList());
+        List<ProductQuantityPostVm> remainingQuantities = new ArrayList<>();
+        List<ProductQuantityResultVm> results = mergedItems.stream()
+            .map(item -> {
+                Long stockQuantity = stockQuantities.get(item.productId());
+                if (stockQuantity == null) {
+                    return new ProductQuantityResultVm(item.productId(), item.quantity(), false, 0);
+                }
+                remainingQuantities.add(new ProductQuantityPostVm(item.productId(),
+                    Math.max(stockQuantity - item.quantity(), 0)));
+                return new ProductQuantityResultVm(item.productId(), item.quantity(), true,
+                    Math.max(item.quantity() - stockQuantity, 0));
+            })
+            .toList();
+        boolean hasShortfall = results.stream().anyMatch(result -> result.shortfall() > 0);
+        if (!remainingQuantities.isEmpty() && (allowShortfall || !hasShortfall)) {
+            productStockRepository.setStockQuantity(remainingQuantities);
+        }
+        return results;
     }
 
     public List<ProductListVm> getProductByIds(List<Long> productIds) {
         return this.productRepository.findAllByIdIn(productIds).stream().map(ProductListVm::fromModel).toList();
     }
 
-    public void restoreStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
-        ListUtils.partition(productQuantityItems, 5)
-            .forEach(it -> partitionUpdateStockQuantityByCalculation(it, this.restoreStockQuantity()));
+    public List<ProductQuantityResultVm> restoreStockQuantity(List<ProductQuantityPutVm> productQuantityItems) {
+        return updateStockQuantity(productQuantityItems, productStockRepository::restoreStockQuantity);
     }
 
-    private BiFunction<Long, Long, Long> restoreStockQuantity() {
-        return Long::sum;
+    private List<ProductQuantityResultVm> updateStockQuantity(
+        List<ProductQuantityPutVm> productQuantityItems,
+        Function<List<ProductQuantityPutVm>, int[]> stockUpdate) {
+        List<ProductQuantityPutVm> mergedItems = mergeProductQuantityItems(productQuantityItems);
+        if (mergedItems.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updatedRows = stockUpdate.apply(mergedItems);
+        return IntStream.range(0, mergedItems.size())
+            .mapToObj(i -> new ProductQuantityResultVm(mergedItems.get(i).productId(),
+                mergedItems.get(i).quantity(), updatedRows[i] > 0, 0))
+            .toList();
     }
 
-    private Long getRemainAmountOfStockQuantity(Map<Long, ProductQuantityPutVm> productQuantityItemMap,
-                                                Product product, BiFunction<Long, Long, Long> calculation) {
-        Long stockQuantity = product.getStockQuantity();
-        var productItem = productQuantityItemMap.get(product.getId());
-        Long quantity = productItem.quantity();
-        return calculation.apply(stockQuantity, quantity);
+    private List<ProductQuantityPutVm> mergeProductQuantityItems(List<ProductQuantityPutVm> productQuantityItems) {
+        // Merge duplicated products and sort by id, so concurrent orders lock the product rows in the same order
+        return List.copyOf(productQuantityItems.stream()
+            .collect(Collectors.toMap(
+                ProductQuantityPutVm::productId,
+                Function.identity(),
+                this::mergeProductQuantityItem,
+                TreeMap::new
+            ))
+            .values());
     }
 
     private ProductQuantityPutVm mergeProductQuantityItem(ProductQuantityPutVm p1, ProductQuantityPutVm p2) {
@@ -1170,9 +1296,10 @@ public class ProductService {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
         Page<Product> productPage = productRepository.findAllPublishedProductsByIds(productIds, pageable);
 
+        Map<Long, String> thumbnailUrls = getThumbnailUrls(productPage.getContent());
         List<ProductCheckoutListVm> productCheckoutListVms = productPage.getContent()
             .stream().map(product -> {
-                String thumbnailUrl = mediaService.getMedia(product.getThumbnailMediaId()).url();
+                String thumbnailUrl = getMediaUrl(thumbnailUrls, product.getThumbnailMediaId());
                 ProductCheckoutListVm productCheckoutListVm = ProductCheckoutListVm.fromModel(product);
                 if (StringUtils.isNotEmpty(thumbnailUrl)) {
                     return productCheckoutListVm.toBuilder().thumbnailUrl(thumbnailUrl).build();
@@ -1188,4 +1315,24 @@ public class ProductService {
             productPage.isLast()
         );
     }
+
+    private Map<Long, String> getThumbnailUrls(List<Product> products) {
+        return getMediaUrlsByIds(products.stream().map(Product::getThumbnailMediaId).toList());
+    }
+
+    private Map<Long, String> getMediaUrlsByIds(Collection<Long> mediaIds) {
+        Set<Long> distinctMediaIds = mediaIds.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (distinctMediaIds.isEmpty()) {
+            return Map.of();
+        }
+        return mediaService.getMediaByIds(distinctMediaIds).stream()
+            .filter(media -> media.id() != null && media.url() != null)
+            .collect(Collectors.toMap(NoFileMediaVm::id, NoFileMediaVm::url, (url1, url2) -> url1));
+    }
+
+    private static String getMediaUrl(Map<Long, String> mediaUrls, Long mediaId) {
+        return mediaId == null ? "" : mediaUrls.getOrDefault(mediaId, "");
+    }
 }
@@ -0,0 +1,191 @@
+package com.yas.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.product.model.StorefrontProjection;
+import com.yas.product.repository.CategoryRepository;
+import com.yas.product.repository.StorefrontProjectionStore;
+import com.yas.product.repository.StorefrontProjectionStore.Tier;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves the storefront product page, featured products and category pages as JSON built once and kept in the
+ * {@link StorefrontProjectionStore} tiers, the local one first. A projection is only rebuilt, on its next read,
+ * after a change event evicted one of its refs:
+ * <ul>
+ *     <li>{@code product:{id}}, by the product page and the category pages showing the product,</li>
+ *     <li>{@code category:{slug}}, by the pages of the category,</li>
+ *     <li>{@code featured}, {@code product-details} and {@code category-pages}, by all the projections of a kind,
+ *     for the changes that cannot be traced to single projections.</li>
+ * </ul>
+ *
+ * <p>Each eviction applies to the stores of one {@link Tier}. The shared tier may be evicted after this instance
+ * evicted its local tier and refilled it from the stale shared copy, so local evictions are repeated once
+ * {@code yas.storefront.projection.local.repeat-eviction-after} later when there is a shared tier.
+ *
+ * <p>Only the pages of the sizes in {@code yas.storefront.projection.page-sizes} up to page
+ * {@code yas.storefront.projection.max-page-no} are kept, other pages are built on each read, so that requests
+ * cannot fill the stores with a projection per page number and size.
+ */
+@Service
+public class StorefrontProjectionService {
+
+    static final String FEATURED_REF = "featured";
+    static final String PRODUCT_DETAILS_REF = "product-details";
+    static final String CATEGORY_PAGES_REF = "category-pages";
+
+    private final List<StorefrontProjectionStore> stores;
+    private final ProductService productService;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final Executor repeatedEvictionExecutor;
+    private final Set<Integer> keptPageSizes;
+    private final int maxKeptPageNo;
+
+    public StorefrontProjectionService(List<StorefrontProjectionStore> stores, ProductService productService,
+                                       CategoryRepository categoryRepository, ObjectMapper objectMapper,
+                                       @Value("${yas.storefront.projection.local.repeat-eviction-after:PT10S}")
+                                       Duration repeatEvictionAfter,
+                                       @Value("${yas.storefront.projection.page-sizes:2,10}")
+                                       Set<Integer> keptPageSizes,
+                                       @Value("${yas.storefront.projection.max-page-no:20}") int maxKeptPageNo) {
+        this.stores = stores;
+        this.productService = productService;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.repeatedEvictionExecutor =
+            CompletableFuture.delayedExecutor(repeatEvictionAfter.toMillis(), TimeUnit.MILLISECONDS);
+        this.keptPageSizes = Set.copyOf(keptPageSizes);
+        this.maxKeptPageNo = maxKeptPageNo;
+    }
+
+    public StorefrontProjection getProductDetail(String slug) {
+        return getOrBuild("product-detail:" + slug, () -> productService.getProductDetail(slug),
+            productDetail -> Set.of(PRODUCT_DETAILS_REF, productRef(productDetail.id())));
+    }
+
+    public StorefrontProjection getFeaturedProducts(int pageNo, int pageSize) {
+        return getOrBuildPage(pageNo, pageSize, "featured-products:" + pageNo + ":" + pageSize,
+            () -> productService.getListFeaturedProducts(pageNo, pageSize),
+            featuredProducts -> Set.of(FEATURED_REF));
+    }
+
+    public StorefrontProjection getProductsFromCategory(int pageNo, int pageSize, String categorySlug) {
+        return getOrBuildPage(pageNo, pageSize, "category-products:" + categorySlug + ":" + pageNo + ":" + pageSize,
+            () -> productService.getProductsFromCategory(pageNo, pageSize, categorySlug),
+            categoryProducts -> {
+                Set<String> refs = new HashSet<>();
+                refs.add(CATEGORY_PAGES_REF);
+                refs.add(categoryRef(categorySlug));
+                categoryProducts.productContent().forEach(product -> refs.add(productRef(product.id())));
+                return refs;
+            });
+    }
+
+    /**
+     * A product row changed: its page, the category pages showing it and, when the change adds it to, removes it
+     * from or changes it on the featured products, all the featured product pages. Stock changes of orders update
+     * the product rows often and leave the featured product pages as they are.
+     */
+    public void evictProduct(Tier tier, Long productId, boolean featuredChanged) {
+        evict(tier, featuredChanged ? List.of(productRef(productId), FEATURED_REF) : List.of(productRef(productId)));
+    }
+
+    public void evictProductImages(Tier tier, Long productId) {
+        evict(tier, List.of(productRef(productId)));
+    }
+
+    /**
+     * A product was added to or removed from a category: the product page lists its categories, and all the pages
+     * of the category shift.
+     */
+    public void evictProductCategory(Tier tier, Long productId, Long categoryId) {
+        List<String> refs = new ArrayList<>();
+        refs.add(productRef(productId));
+        categoryRepository.findById(categoryId).ifPresent(category -> refs.add(categoryRef(category.getSlug())));
+        evict(tier, refs);
+    }
+
+    /**
+     * A category changed: product pages show category names and category pages are found by slug, so both are
+     * rebuilt. Categories change rarely, which keeps this from flushing the projections often.
+     */
+    public void evictCategories(Tier tier) {
+        evict(tier, List.of(PRODUCT_DETAILS_REF, CATEGORY_PAGES_REF));
+    }
+
+    public void evictBrands(Tier tier) {
+        evict(tier, List.of(PRODUCT_DETAILS_REF));
+    }
+
+    private void evict(Tier tier, List<String> refs) {
+        List<StorefrontProjectionStore> tierStores = stores.stream().filter(store -> store.tier() == tier).toList();
+        tierStores.forEach(store -> store.evict(refs));
+        if (tier == Tier.LOCAL && stores.stream().anyMatch(store -> store.tier() == Tier.SHARED)) {
+            CompletableFuture.runAsync(() -> tierStores.forEach(store -> store.evict(refs)), repeatedEvictionExecutor);
+        }
+    }
+
+    private <T> StorefrontProjection getOrBuildPage(int pageNo, int pageSize, String key, Supplier<T> builder,
+                                                    Function<T, Set<String>> refs) {
+        if (pageNo < 0 || pageNo > maxKeptPageNo || !keptPageSizes.contains(pageSize)) {
+            return build(builder, refs);
+        }
+        return getOrBuild(key, builder, refs);
+    }
+
+    private <T> StorefrontProjection getOrBuild(String key, Supplier<T> builder, Function<T, Set<String>> refs) {
+        long[] generations = new long[stores.size()];
+        for (int i = 0; i < stores.size(); i++) {
+            StorefrontProjectionStore store = stores.get(i);
+            generations[i] = store.generation();
+            StorefrontProjection projection = store.get(key);
+            if (projection != null) {
+                put(key, projection, generations, i);
+                return projection;
+            }
+        }
+
+        StorefrontProjection projection = build(builder, refs);
+        put(key, projection, generations, stores.size());
+        return projection;
+    }
+
+    private <T> StorefrontProjection build(Supplier<T> builder, Function<T, Set<String>> refs) {
+        T value = builder.get();
+        return StorefrontProjection.of(toJson(value), refs.apply(value));
+    }
+
+    private void put(String key, StorefrontProjection projection, long[] generations, int storeCount) {
+        for (int i = 0; i < storeCount; i++) {
+            stores.get(i).put(key, projection, generations[i]);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the storefront projection", e);
+        }
+    }
+
+    private static String productRef(long productId) {
+        return "product:" + productId;
+    }
+
+    private static String categoryRef(String categorySlug) {
+        return "category:" + categorySlug;
+    }
+}
@@ -0,0 +1,4 @@
+package com.yas.product.viewmodel.product;
+
+public record ProductEsNameVm(Long productId, String name) {
+}
@@ -0,0 +1,9 @@
+package com.yas.product.viewmodel.product;
+
+/**
+ * Outcome of a stock update for one product. {@code updated} is false when the product does not exist or does
+ * not track stock. {@code shortfall} is the part of the quantity that could not be subtracted because the stock
+ * ran out, 0 when all of it was.
+ */
+public record ProductQuantityResultVm(Long productId, Long quantity, boolean updated, long shortfall) {
+}
@@ -0,0 +1 @@
+create table if not exists processed_order_event (order_id bigint not null, processed_on timestamp(6) with time zone not null default current_timestamp, primary key (order_id));
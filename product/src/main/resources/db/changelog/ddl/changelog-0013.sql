@@ -0,0 +1,5 @@
+-- Deletes from these tables must carry the product and category ids for the storefront projections to be evicted
+alter table if exists product_category replica identity full;
+alter table if exists product_image replica identity full;
+-- Updates of products must carry the old row for the featured product pages to be evicted only when they change
+alter table if exists product replica identity full;
@@ -2,9 +2,12 @@ package com.yas.product.controller;
 
 import com.yas.product.ProductApplication;
 import com.yas.product.model.Product;
+import com.yas.product.model.StorefrontProjection;
 import com.yas.product.model.enumeration.DimensionUnit;
 import com.yas.product.service.ProductDetailService;
 import com.yas.product.service.ProductService;
+import com.yas.product.service.StorefrontProjectionService;
+import com.yas.product.viewmodel.product.ProductExportingDetailVm;
 import com.yas.product.viewmodel.product.ProductListVm;
 import com.yas.product.viewmodel.product.ProductPostVm;
 import com.yas.product.viewmodel.product.ProductPutVm;
@@ -12,6 +15,8 @@ import com.yas.product.viewmodel.product.ProductQuantityPutVm;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -30,8 +35,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -49,6 +58,9 @@ class ProductControllerTest {
     @MockBean
     private ProductDetailService productDetailService;
 
+    @MockBean
+    private StorefrontProjectionService storefrontProjectionService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -59,8 +71,18 @@ class ProductControllerTest {
 
     @Test
     void testExportProductsEndpoint() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/backoffice/export/products"))
-                .andExpect(status().isOk());
+        ProductExportingDetailVm product = new ProductExportingDetailVm(1L, "Laptop", null, null, null,
+                "laptop-sku", null, "laptop", true, true, false, true, false, 10d, 2L, "Brand", null, null, null);
+        when(productService.exportProducts("", "")).thenReturn(Stream.of(product));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/backoffice/export/products"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].brandName").value("Brand"));
     }
 
     @Test
@@ -102,8 +124,13 @@ class ProductControllerTest {
 
     @Test
     void testGetFeaturedProducts() throws Exception {
+        StorefrontProjection projection = StorefrontProjection.of("{\"totalPage\":1}", Set.of());
+        when(storefrontProjectionService.getFeaturedProducts(0, 10)).thenReturn(projection);
+
         mockMvc.perform(MockMvcRequestBuilders.get("/storefront/products/featured"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + projection.etag() + "\""))
+                .andExpect(jsonPath("$.totalPage").value(1));
     }
 
     @Test
@@ -114,8 +141,19 @@ class ProductControllerTest {
 
     @Test
     void testGetProductsByCategory() throws Exception {
+        when(storefrontProjectionService.getProductsFromCategory(0, 2, "sampleCategory"))
+                .thenReturn(StorefrontProjection.of("{\"productContent\":[]}", Set.of()));
+
         mockMvc.perform(MockMvcRequestBuilders.get("/storefront/category/{categorySlug}/products", "sampleCategory"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productContent").isEmpty());
+    }
+
+    @Test
+    void testGetBackofficeProductsByCategory() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/backoffice/category/{categorySlug}/products", "sampleCategory"))
                 .andExpect(status().isOk());
+        verify(productService).getProductsFromCategory(0, 2, "sampleCategory");
     }
 
     @Test
@@ -133,8 +171,25 @@ class ProductControllerTest {
 
     @Test
     void testGetProductDetail() throws Exception {
+        String json = "{\"id\":1,\"name\":\"Sample\"}";
+        when(storefrontProjectionService.getProductDetail("sample-slug"))
+                .thenReturn(StorefrontProjection.of(json, Set.of()));
+
         mockMvc.perform(MockMvcRequestBuilders.get("/storefront/product/{slug}", "sample-slug"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(json));
+    }
+
+    @Test
+    void testGetProductDetail_whenETagMatches_shouldReturnNotModified() throws Exception {
+        StorefrontProjection projection = StorefrontProjection.of("{\"id\":1}", Set.of());
+        when(storefrontProjectionService.getProductDetail("sample-slug")).thenReturn(projection);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/storefront/product/{slug}", "sample-slug")
+                        .header("If-None-Match", "\"" + projection.etag() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
     }
 
     @Test
@@ -173,6 +228,21 @@ class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testGetProductEsDetailsByIds() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/storefront/products-es")
+                        .param("ids", "1", "2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetPublishedProductEsDetails() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/storefront/products-es/published")
+                        .param("afterId", "10")
+                        .param("size", "100"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testGetRelatedProductsBackoffice() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/backoffice/products/related-products/1"))
@@ -212,7 +282,7 @@ class ProductControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.put("/backoffice/products/subtract-quantity")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonBody))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk());
     }
 
     @Test
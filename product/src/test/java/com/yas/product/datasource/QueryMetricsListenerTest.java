@@ -0,0 +1,131 @@
+package com.yas.product.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.yas.product.model.Brand;
+import com.yas.product.repository.BrandRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class QueryMetricsListenerTest {
+
+    private static final String SELECT_BRANDS = "select id from brand";
+
+    private MeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:query-metrics;DB_CLOSE_DELAY=-1");
+        meterRegistry = new SimpleMeterRegistry();
+        QueryMetricsListener queryMetricsListener = new QueryMetricsListener(meterRegistry, Duration.ofSeconds(1));
+        DataSource dataSource = ProxyDataSourceBuilder.create(h2DataSource)
+            .listener(queryMetricsListener)
+            .methodListener(queryMetricsListener)
+            .proxyResultSet()
+            .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table brand (id bigint primary key)");
+        jdbcTemplate.execute("insert into brand values (1), (2), (3)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table brand");
+    }
+
+    @Test
+    void afterQuery_whenRunByRepository_shouldRecordQueryAndRowsByRepositoryMethod() {
+        BrandRepository target = mock(BrandRepository.class);
+        when(target.findAll()).thenAnswer(invocation -> {
+            jdbcTemplate.queryForList(SELECT_BRANDS);
+            return List.<Brand>of();
+        });
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addInterface(BrandRepository.class);
+        proxyFactory.addAspect(new RepositoryMethodAspect());
+        BrandRepository brandRepository = proxyFactory.getProxy();
+
+        brandRepository.findAll();
+
+        assertEquals(1, queryCount("BrandRepository.findAll"));
+        assertEquals(3, rowCount("BrandRepository.findAll"));
+        assertEquals(0, queryCount("select brand"));
+    }
+
+    @Test
+    void afterQuery_whenRunOutsideRepository_shouldRecordQueryByKeywordAndTable() {
+        jdbcTemplate.queryForList(SELECT_BRANDS);
+        jdbcTemplate.update("update brand set id = id + 10 where id = ?", 1L);
+
+        assertEquals(1, queryCount("select brand"));
+        assertEquals(3, rowCount("select brand"));
+        assertEquals(1, queryCount("update brand"));
+        assertEquals(1, rowCount("update brand"));
+    }
+
+    @Test
+    void doFilter_whenRequestRepeatsStatement_shouldRecordItOverBudgetAsOneStatement() throws Exception {
+        QueryBudgetFilter queryBudgetFilter = new QueryBudgetFilter(meterRegistry, 2);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/storefront/brands");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/storefront/brands");
+
+        queryBudgetFilter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            for (long id = 1; id <= 3; id++) {
+                jdbcTemplate.queryForList("select id from brand where id = ?", id);
+            }
+        });
+
+        DistributionSummary summary = meterRegistry.find(QueryBudgetFilter.REQUEST_QUERIES_SUMMARY)
+            .tag("uri", "/storefront/brands")
+            .tag(QueryBudgetFilter.OVER_BUDGET_TAG, "true")
+            .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+    }
+
+    @Test
+    void recordQuery_whenStatementRepeated_shouldCountItAsOneStatement() {
+        QueryContext.startRequest();
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.queryForList("select id from brand where id = ?", id);
+        }
+        QueryContext.RequestQueries requestQueries = QueryContext.endRequest();
+
+        assertEquals(3, requestQueries.count());
+        assertEquals(Map.of(new QueryContext.Statement("select brand", "select id from brand where id = ?"), 3),
+            requestQueries.countByStatement());
+    }
+
+    private long queryCount(String label) {
+        Timer timer = meterRegistry.find(QueryMetricsListener.QUERY_TIMER)
+            .tag(QueryMetricsListener.METHOD_TAG, label).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double rowCount(String label) {
+        Counter counter = meterRegistry.find(QueryMetricsListener.ROWS_COUNTER)
+            .tag(QueryMetricsListener.METHOD_TAG, label).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
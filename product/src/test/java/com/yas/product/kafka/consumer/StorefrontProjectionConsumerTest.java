@@ -0,0 +1,90 @@
+package com.yas.product.kafka.consumer;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.product.kafka.message.StorefrontCdcMessage;
+import com.yas.product.kafka.message.StorefrontCdcRow;
+import com.yas.product.repository.StorefrontProjectionStore.Tier;
+import com.yas.product.service.StorefrontProjectionService;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+
+class StorefrontProjectionConsumerTest {
+
+    private static final String PRODUCT_TOPIC = "dbproduct.public.product";
+
+    private StorefrontProjectionService storefrontProjectionService;
+    private StorefrontProjectionConsumer storefrontProjectionConsumer;
+
+    @BeforeEach
+    void setUp() {
+        storefrontProjectionService = mock(StorefrontProjectionService.class);
+        storefrontProjectionConsumer = new StorefrontProjectionConsumer(storefrontProjectionService, PRODUCT_TOPIC,
+            "dbproduct.public.product_category", "dbproduct.public.product_image", "dbproduct.public.category",
+            "dbproduct.public.brand");
+    }
+
+    @Test
+    void evictLocal_whenFeaturedProductChangesOnlyOtherColumns_shouldNotEvictFeaturedPages() {
+        consume(Operation.UPDATE, buildProductRow(true, "Laptop"), buildProductRow(true, "Laptop"));
+
+        verify(storefrontProjectionService).evictProduct(Tier.LOCAL, 1L, false);
+    }
+
+    @Test
+    void evictLocal_whenFeaturedProductRenamed_shouldEvictFeaturedPages() {
+        consume(Operation.UPDATE, buildProductRow(true, "Laptop"), buildProductRow(true, "Laptop Pro"));
+
+        verify(storefrontProjectionService).evictProduct(Tier.LOCAL, 1L, true);
+    }
+
+    @Test
+    void evictLocal_whenProductNotFeaturedBeforeOrAfter_shouldNotEvictFeaturedPages() {
+        consume(Operation.UPDATE, buildProductRow(false, "Laptop"), buildProductRow(false, "Laptop Pro"));
+
+        verify(storefrontProjectionService).evictProduct(Tier.LOCAL, 1L, false);
+    }
+
+    @Test
+    void evictLocal_whenProductBecomesFeatured_shouldEvictFeaturedPages() {
+        consume(Operation.UPDATE, buildProductRow(false, "Laptop"), buildProductRow(true, "Laptop"));
+
+        verify(storefrontProjectionService).evictProduct(Tier.LOCAL, 1L, true);
+    }
+
+    @Test
+    void evictLocal_whenUpdateHasNoOldRow_shouldEvictFeaturedPages() {
+        consume(Operation.UPDATE, null, buildProductRow(false, "Laptop"));
+
+        verify(storefrontProjectionService).evictProduct(Tier.LOCAL, 1L, true);
+    }
+
+    @Test
+    void evictLocal_whenProductCreatedNotFeatured_shouldNotEvictFeaturedPages() {
+        consume(Operation.CREATE, null, buildProductRow(false, "Laptop"));
+
+        verify(storefrontProjectionService).evictProduct(Tier.LOCAL, 1L, false);
+    }
+
+    private void consume(Operation op, StorefrontCdcRow before, StorefrontCdcRow after) {
+        StorefrontCdcMessage message = StorefrontCdcMessage.builder().op(op).before(before).after(after).build();
+        storefrontProjectionConsumer.evictLocal(message, PRODUCT_TOPIC, new MessageHeaders(Map.of()));
+    }
+
+    private static StorefrontCdcRow buildProductRow(boolean featured, String name) {
+        return StorefrontCdcRow.builder()
+            .id(1L)
+            .isFeatured(featured)
+            .isPublished(true)
+            .isVisibleIndividually(true)
+            .name(name)
+            .slug("laptop")
+            .price(1000.0)
+            .thumbnailMediaId(5L)
+            .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.yas.product.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.yas.product.model.StorefrontProjection;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class LocalStorefrontProjectionStoreTest {
+
+    private final LocalStorefrontProjectionStore localStorefrontProjectionStore =
+        new LocalStorefrontProjectionStore("maximumSize=100");
+
+    @Test
+    void evict_shouldRemoveProjectionsOfTheRefs() {
+        StorefrontProjection projection = StorefrontProjection.of("{}", Set.of("product:1", "featured"));
+        localStorefrontProjectionStore.put("key", projection, localStorefrontProjectionStore.generation());
+
+        localStorefrontProjectionStore.evict(List.of("featured"));
+
+        assertNull(localStorefrontProjectionStore.get("key"));
+    }
+
+    @Test
+    void evict_whenProjectionRebuiltWithoutOtherRef_shouldNotEvictItByThatRef() {
+        localStorefrontProjectionStore.put("key", StorefrontProjection.of("{}", Set.of("product:1", "featured")),
+            localStorefrontProjectionStore.generation());
+        localStorefrontProjectionStore.evict(List.of("product:1"));
+        StorefrontProjection rebuilt = StorefrontProjection.of("{\"id\":2}", Set.of("product:2"));
+        localStorefrontProjectionStore.put("key", rebuilt, localStorefrontProjectionStore.generation());
+
+        localStorefrontProjectionStore.evict(List.of("featured"));
+
+        assertEquals(rebuilt, localStorefrontProjectionStore.get("key"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.yas.product.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.yas.product.config.DatabaseAutoConfig;
+import com.yas.product.model.Product;
+import com.yas.product.viewmodel.product.ProductQuantityPostVm;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:product-stock;NON_KEYWORDS=VALUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductStockRepository.class, DatabaseAutoConfig.class})
+class ProductStockRepositoryTest {
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void setStockQuantity_whenProductsLocked_shouldOverwriteTheirStock() {
+        Product first = saveProduct("first", true, 5L);
+        Product second = saveProduct("second", true, 1L);
+
+        Map<Long, Long> stockQuantities = productStockRepository.lockStockQuantities(
+            List.of(first.getId(), second.getId()));
+        productStockRepository.setStockQuantity(List.of(
+            new ProductQuantityPostVm(first.getId(), stockQuantities.get(first.getId()) - 5L),
+            new ProductQuantityPostVm(second.getId(), 0L)));
+
+        assertEquals(0L, stockQuantity(first));
+        assertEquals(0L, stockQuantity(second));
+    }
+
+    @Test
+    void lockStockQuantities_whenProductDoesNotTrackStock_shouldLeaveItOut() {
+        Product tracked = saveProduct("tracked", true, null);
+        Product untracked = saveProduct("untracked", false, 3L);
+
+        Map<Long, Long> stockQuantities = productStockRepository.lockStockQuantities(
+            List.of(tracked.getId(), untracked.getId(), Long.MAX_VALUE));
+
+        assertEquals(Map.of(tracked.getId(), 0L), stockQuantities);
+    }
+
+    private Product saveProduct(String slug, boolean stockTrackingEnabled, Long stockQuantity) {
+        Product product = productRepository.saveAndFlush(Product.builder()
+            .name(slug)
+            .slug(slug)
+            .stockTrackingEnabled(stockTrackingEnabled)
+            .stockQuantity(stockQuantity)
+            .build());
+        entityManager.clear();
+        return product;
+    }
+
+    private Long stockQuantity(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+}
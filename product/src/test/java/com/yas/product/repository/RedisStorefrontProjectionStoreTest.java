@@ -0,0 +1,90 @@
+package com.yas.product.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.yas.product.model.StorefrontProjection;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+class RedisStorefrontProjectionStoreTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisStorefrontProjectionStore redisStorefrontProjectionStore;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        redisStorefrontProjectionStore = new RedisStorefrontProjectionStore(redisTemplate, Duration.ofHours(1));
+    }
+
+    @Test
+    void testPut_shouldStoreJsonEtagAndRefs() {
+        StorefrontProjection projection = StorefrontProjection.of("{\"id\":1}", Set.of("product:1", "featured"));
+
+        redisStorefrontProjectionStore.put("product-detail:laptop", projection,
+            redisStorefrontProjectionStore.generation());
+
+        assertEquals(projection, redisStorefrontProjectionStore.get("product-detail:laptop"));
+    }
+
+    @Test
+    void testEvict_shouldRemoveProjectionsBuiltFromTheRefsOnly() {
+        long generation = redisStorefrontProjectionStore.generation();
+        redisStorefrontProjectionStore.put("product-detail:laptop",
+            StorefrontProjection.of("{\"id\":1}", Set.of("product:1")), generation);
+        redisStorefrontProjectionStore.put("product-detail:phone",
+            StorefrontProjection.of("{\"id\":2}", Set.of("product:2")), generation);
+
+        redisStorefrontProjectionStore.evict(List.of("product:1"));
+
+        assertNull(redisStorefrontProjectionStore.get("product-detail:laptop"));
+        assertEquals("{\"id\":2}", redisStorefrontProjectionStore.get("product-detail:phone").json());
+    }
+
+    @Test
+    void testPut_whenEvictedSinceGeneration_shouldSkipProjection() {
+        long generation = redisStorefrontProjectionStore.generation();
+        redisStorefrontProjectionStore.evict(List.of("product:1"));
+
+        redisStorefrontProjectionStore.put("product-detail:laptop",
+            StorefrontProjection.of("{\"id\":1}", Set.of("product:1")), generation);
+
+        assertNull(redisStorefrontProjectionStore.get("product-detail:laptop"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.yas.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.commonlibrary.kafka.cdc.message.OrderStockRejectedEvent;
+import com.yas.commonlibrary.kafka.cdc.repository.ProcessedOrderEventRepository;
+import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+class OrderEventServiceTest {
+
+    private static final String STOCK_REJECTED_TOPIC = "order.event.OrderStockRejected";
+
+    private ProcessedOrderEventRepository processedOrderEventRepository;
+    private ProductService productService;
+    private KafkaTemplate<Object, Object> kafkaTemplate;
+    private OrderEventService orderEventService;
+
+    @BeforeEach
+    void setUp() {
+        processedOrderEventRepository = mock(ProcessedOrderEventRepository.class);
+        productService = mock(ProductService.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        orderEventService = new OrderEventService(processedOrderEventRepository, productService, kafkaTemplate,
+            STOCK_REJECTED_TOPIC);
+        when(processedOrderEventRepository.processOnce(eq(10L), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @Test
+    void subtractStockQuantity_whenOrderNotProcessed_shouldSubtractStock() {
+        when(productService.subtractAvailableStockQuantity(any())).thenReturn(List.of(
+            new ProductQuantityResultVm(1L, 2L, true, 0), new ProductQuantityResultVm(2L, 1L, false, 0)));
+
+        orderEventService.subtractStockQuantity(buildEvent());
+
+        verify(productService).subtractAvailableStockQuantity(List.of(
+            new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(2L, 1L)));
+        verify(kafkaTemplate, never()).send(anyString(), any(), any());
+    }
+
+    @Test
+    void subtractStockQuantity_whenStockIsShort_shouldPublishOrderStockRejected() {
+        when(productService.subtractAvailableStockQuantity(any())).thenReturn(List.of(
+            new ProductQuantityResultVm(1L, 2L, true, 1), new ProductQuantityResultVm(2L, 1L, true, 0)));
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        orderEventService.subtractStockQuantity(buildEvent());
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq(STOCK_REJECTED_TOPIC), eq("10"), event.capture());
+        OrderStockRejectedEvent rejectedEvent = (OrderStockRejectedEvent) event.getValue();
+        assertEquals(10L, rejectedEvent.getOrderId());
+        assertEquals(List.of(1L), rejectedEvent.getItems().stream().map(OrderStockRejectedEvent.Item::getProductId)
+            .toList());
+        assertEquals(1L, rejectedEvent.getItems().getFirst().getShortfall());
+    }
+
+    private static OrderCreatedEvent buildEvent() {
+        return OrderCreatedEvent.builder()
+            .orderId(10L)
+            .customerId("customer")
+            .items(List.of(new OrderCreatedEvent.Item(1L, 2), new OrderCreatedEvent.Item(2L, 1)))
+            .build();
+    }
+}
@@ -0,0 +1,267 @@
+package com.yas.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.product.ProductApplication;
+import com.yas.product.model.Brand;
+import com.yas.product.model.Category;
+import com.yas.product.model.Product;
+import com.yas.product.model.ProductCategory;
+import com.yas.product.model.ProductImage;
+import com.yas.product.model.ProductOption;
+import com.yas.product.model.ProductOptionCombination;
+import com.yas.product.model.attribute.ProductAttribute;
+import com.yas.product.model.attribute.ProductAttributeGroup;
+import com.yas.product.model.attribute.ProductAttributeValue;
+import com.yas.product.repository.BrandRepository;
+import com.yas.product.repository.CategoryRepository;
+import com.yas.product.repository.ProductAttributeGroupRepository;
+import com.yas.product.repository.ProductAttributeRepository;
+import com.yas.product.repository.ProductAttributeValueRepository;
+import com.yas.product.repository.ProductCategoryRepository;
+import com.yas.product.repository.ProductImageRepository;
+import com.yas.product.repository.ProductOptionCombinationRepository;
+import com.yas.product.repository.ProductOptionRepository;
+import com.yas.product.repository.ProductRepository;
+import com.yas.product.viewmodel.NoFileMediaVm;
+import com.yas.product.viewmodel.product.ProductDetailGetVm;
+import com.yas.product.viewmodel.product.ProductDetailInfoVm;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+@SpringBootTest(classes = ProductApplication.class, properties = {
+    "spring.datasource.url=jdbc:h2:mem:product-detail;NON_KEYWORDS=VALUE",
+    "spring.jpa.properties.hibernate.generate_statistics=true"})
+class ProductDetailServiceTest {
+
+    private static final int PRODUCT_DETAIL_BY_ID_STATEMENTS = 5;
+    private static final int PRODUCT_DETAIL_BY_SLUG_STATEMENTS = 3;
+
+    @Autowired
+    private ProductDetailService productDetailService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private BrandRepository brandRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductCategoryRepository productCategoryRepository;
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    @Autowired
+    private ProductOptionRepository productOptionRepository;
+    @Autowired
+    private ProductOptionCombinationRepository productOptionCombinationRepository;
+    @Autowired
+    private ProductAttributeGroupRepository productAttributeGroupRepository;
+    @Autowired
+    private ProductAttributeRepository productAttributeRepository;
+    @Autowired
+    private ProductAttributeValueRepository productAttributeValueRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private MediaService mediaService;
+
+    private Statistics statistics;
+    private Brand brand;
+    private Category category;
+    private List<ProductOption> productOptions;
+    private ProductAttribute productAttribute;
+    private long nextMediaId = 1;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(mediaService.getMediaByIds(anyCollection())).thenAnswer(invocation ->
+            invocation.<Collection<Long>>getArgument(0).stream()
+                .map(id -> new NoFileMediaVm(id, "", "", "", "url-" + id))
+                .toList());
+
+        brand = new Brand();
+        brand.setName("brand");
+        brand.setSlug("brand");
+        brand = brandRepository.save(brand);
+
+        Category parentCategory = new Category();
+        parentCategory.setName("parent-category");
+        parentCategory.setSlug("parent-category");
+        parentCategory = categoryRepository.save(parentCategory);
+        category = new Category();
+        category.setName("category");
+        category.setSlug("category");
+        category.setParent(parentCategory);
+        category = categoryRepository.save(category);
+
+        productOptions = new ArrayList<>();
+        for (String name : List.of("color", "size")) {
+            ProductOption productOption = new ProductOption();
+            productOption.setName(name);
+            productOptions.add(productOptionRepository.save(productOption));
+        }
+
+        ProductAttributeGroup productAttributeGroup = new ProductAttributeGroup();
+        productAttributeGroup.setName("group");
+        productAttributeGroup = productAttributeGroupRepository.save(productAttributeGroup);
+        productAttribute = productAttributeRepository.save(ProductAttribute.builder()
+            .name("material")
+            .productAttributeGroup(productAttributeGroup)
+            .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productOptionCombinationRepository.deleteAll();
+        productImageRepository.deleteAll();
+        productAttributeValueRepository.deleteAll();
+        productCategoryRepository.deleteAll();
+        productRepository.deleteAll(productRepository.findAll().stream()
+            .filter(product -> product.getParent() != null)
+            .toList());
+        productRepository.deleteAll();
+        productAttributeRepository.deleteAll();
+        productAttributeGroupRepository.deleteAll();
+        productOptionRepository.deleteAll();
+        categoryRepository.deleteAll(List.of(category));
+        categoryRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void getProductDetailById_whenProductHasOneVariation_shouldRunConstantStatements() {
+        Product product = createProduct("one-variation", 1);
+
+        ProductDetailInfoVm productDetail = countStatements(
+            () -> productDetailService.getProductDetailById(product.getId()), PRODUCT_DETAIL_BY_ID_STATEMENTS);
+
+        assertEquals(1, productDetail.getVariations().size());
+        assertEquals(2, productDetail.getVariations().getFirst().options().size());
+        assertEquals(List.of(category.getId()), productDetail.getCategories().stream().map(Category::getId).toList());
+        assertEquals(1, productDetail.getAttributeValues().size());
+        verify(mediaService).getMediaByIds(anyCollection());
+    }
+
+    @Test
+    void getProductDetailById_whenProductHasThirtyVariations_shouldRunSameStatements() {
+        Product product = createProduct("thirty-variations", 30);
+
+        ProductDetailInfoVm productDetail = countStatements(
+            () -> productDetailService.getProductDetailById(product.getId()), PRODUCT_DETAIL_BY_ID_STATEMENTS);
+
+        assertEquals(30, productDetail.getVariations().size());
+        productDetail.getVariations().forEach(variation -> {
+            assertEquals(2, variation.productImages().size());
+            assertEquals(2, variation.options().size());
+            assertEquals("url-" + variation.thumbnail().id(), variation.thumbnail().url());
+        });
+        assertEquals(2, productDetail.getProductImages().size());
+        verify(mediaService, times(1)).getMediaByIds(anyCollection());
+    }
+
+    @Test
+    void getProductDetailsByIds_whenProductsHaveVariations_shouldRunStatementsOfOneProduct() {
+        Product first = createProduct("first", 2);
+        Product second = createProduct("second", 3);
+        Product unpublished = productRepository.save(Product.builder()
+            .name("unpublished").slug("unpublished").isPublished(false).build());
+
+        List<ProductDetailInfoVm> productDetails = countStatements(
+            () -> productDetailService.getProductDetailsByIds(
+                List.of(second.getId(), first.getId(), unpublished.getId())),
+            PRODUCT_DETAIL_BY_ID_STATEMENTS);
+
+        assertEquals(List.of(first.getId(), second.getId()),
+            productDetails.stream().map(ProductDetailInfoVm::getId).toList());
+        assertEquals(List.of(2, 3), productDetails.stream()
+            .map(productDetail -> productDetail.getVariations().size()).toList());
+        productDetails.forEach(productDetail -> {
+            assertEquals(List.of(category.getId()),
+                productDetail.getCategories().stream().map(Category::getId).toList());
+            assertEquals(1, productDetail.getAttributeValues().size());
+            assertEquals(2, productDetail.getProductImages().size());
+        });
+        verify(mediaService, times(1)).getMediaByIds(anyCollection());
+    }
+
+    @Test
+    void getProductDetail_whenProductHasImagesAndAttributes_shouldRunConstantStatements() {
+        Product product = createProduct("with-attributes", 3);
+
+        ProductDetailGetVm productDetail = countStatements(
+            () -> productService.getProductDetail(product.getSlug()), PRODUCT_DETAIL_BY_SLUG_STATEMENTS);
+
+        assertEquals("brand", productDetail.brandName());
+        assertEquals(List.of("category"), productDetail.productCategories());
+        assertEquals(1, productDetail.productAttributeGroups().size());
+        assertEquals(2, productDetail.productImageMediaUrls().size());
+        verify(mediaService).getMediaByIds(anyCollection());
+    }
+
+    private <T> T countStatements(Supplier<T> reader, int expectedStatements) {
+        statistics.clear();
+        T result = reader.get();
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private Product createProduct(String slug, int variationCount) {
+        Product product = productRepository.save(buildProduct(slug, null));
+        productCategoryRepository.save(ProductCategory.builder().product(product).category(category).build());
+        saveImages(product);
+
+        ProductAttributeValue productAttributeValue = new ProductAttributeValue();
+        productAttributeValue.setProduct(product);
+        productAttributeValue.setProductAttribute(productAttribute);
+        productAttributeValue.setValue("cotton");
+        productAttributeValueRepository.save(productAttributeValue);
+
+        for (int i = 0; i < variationCount; i++) {
+            Product variation = productRepository.save(buildProduct(slug + "-" + i, product));
+            saveImages(variation);
+            for (ProductOption productOption : productOptions) {
+                productOptionCombinationRepository.save(ProductOptionCombination.builder()
+                    .product(variation)
+                    .productOption(productOption)
+                    .value(productOption.getName() + "-" + i)
+                    .build());
+            }
+        }
+        return product;
+    }
+
+    private Product buildProduct(String slug, Product parent) {
+        return Product.builder()
+            .name(slug)
+            .slug(slug)
+            .isPublished(true)
+            .hasOptions(parent == null)
+            .brand(parent == null ? brand : null)
+            .parent(parent)
+            .thumbnailMediaId(nextMediaId++)
+            .build();
+    }
+
+    private void saveImages(Product product) {
+        productImageRepository.saveAll(List.of(
+            ProductImage.builder().product(product).imageId(nextMediaId++).build(),
+            ProductImage.builder().product(product).imageId(nextMediaId++).build()));
+    }
+}
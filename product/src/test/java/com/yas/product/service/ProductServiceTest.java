@@ -0,0 +1,328 @@
+package com.yas.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.yas.commonlibrary.config.ServiceUrlConfig;
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.product.config.CacheConfig;
+import com.yas.product.model.Brand;
+import com.yas.product.model.Product;
+import com.yas.product.repository.BrandRepository;
+import com.yas.product.repository.CategoryRepository;
+import com.yas.product.repository.ProductAttributeValueRepository;
+import com.yas.product.repository.ProductCategoryRepository;
+import com.yas.product.repository.ProductImageRepository;
+import com.yas.product.repository.ProductOptionCombinationRepository;
+import com.yas.product.repository.ProductOptionRepository;
+import com.yas.product.repository.ProductOptionValueRepository;
+import com.yas.product.repository.ProductRelatedRepository;
+import com.yas.product.repository.ProductRepository;
+import com.yas.product.repository.ProductStockRepository;
+import com.yas.product.viewmodel.product.ProductCheckoutListVm;
+import com.yas.product.viewmodel.product.ProductEsDetailVm;
+import com.yas.product.viewmodel.product.ProductExportingDetailVm;
+import com.yas.product.viewmodel.product.ProductEsNameVm;
+import com.yas.product.viewmodel.product.ProductFeatureGetVm;
+import com.yas.product.viewmodel.product.ProductGetCheckoutListVm;
+import com.yas.product.viewmodel.product.ProductQuantityPostVm;
+import com.yas.product.viewmodel.product.ProductQuantityPutVm;
+import com.yas.product.viewmodel.product.ProductQuantityResultVm;
+import com.yas.product.viewmodel.product.ProductThumbnailGetVm;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+class ProductServiceTest {
+
+    private static final String MEDIA_URL = "http://api.yas.local/media";
+    private static final int PAGE_SIZE = 50;
+
+    private MockRestServiceServer mediaServer;
+    private ProductRepository productRepository;
+    private ProductStockRepository productStockRepository;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder restClientBuilder = RestClient.builder();
+        mediaServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        MediaService mediaService = new MediaService(restClientBuilder.build(),
+            new ServiceUrlConfig(MEDIA_URL, null), new CaffeineCacheManager(CacheConfig.MEDIA_CACHE));
+
+        productRepository = mock(ProductRepository.class);
+        productStockRepository = mock(ProductStockRepository.class);
+        productService = new ProductService(productRepository, mediaService,
+            mock(BrandRepository.class), mock(ProductCategoryRepository.class), mock(CategoryRepository.class),
+            mock(ProductImageRepository.class), mock(ProductOptionRepository.class),
+            mock(ProductOptionValueRepository.class), mock(ProductOptionCombinationRepository.class),
+            mock(ProductRelatedRepository.class), productStockRepository,
+            mock(ProductAttributeValueRepository.class));
+    }
+
+    @Test
+    void getProductCheckoutList_whenPageHasManyProducts_shouldCallMediaServiceOnce() {
+        List<Product> products = buildProducts();
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        when(productRepository.findAllPublishedProductsByIds(anyList(), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(products));
+        expectSingleMediaBatchCall();
+
+        ProductGetCheckoutListVm result = productService.getProductCheckoutList(0, PAGE_SIZE, productIds);
+
+        mediaServer.verify();
+        assertEquals(PAGE_SIZE, result.productCheckoutListVms().size());
+        ProductCheckoutListVm first = result.productCheckoutListVms().getFirst();
+        assertEquals(MEDIA_URL + "/medias/101/file/101.png", first.thumbnailUrl());
+    }
+
+    @Test
+    void getListFeaturedProducts_whenPageHasManyProducts_shouldCallMediaServiceOnce() {
+        when(productRepository.getFeaturedProduct(any(Pageable.class)))
+            .thenReturn(new PageImpl<>(buildProducts()));
+        expectSingleMediaBatchCall();
+
+        ProductFeatureGetVm result = productService.getListFeaturedProducts(0, PAGE_SIZE);
+
+        mediaServer.verify();
+        assertEquals(PAGE_SIZE, result.productList().size());
+        ProductThumbnailGetVm last = result.productList().getLast();
+        assertEquals(MEDIA_URL + "/medias/150/file/150.png", last.thumbnailUrl());
+    }
+
+    @Test
+    void getListFeaturedProducts_whenThumbnailsAreCached_shouldNotCallMediaServiceAgain() {
+        when(productRepository.getFeaturedProduct(any(Pageable.class)))
+            .thenReturn(new PageImpl<>(buildProducts()));
+        expectSingleMediaBatchCall();
+
+        productService.getListFeaturedProducts(0, PAGE_SIZE);
+        ProductFeatureGetVm result = productService.getListFeaturedProducts(0, PAGE_SIZE);
+
+        mediaServer.verify();
+        assertEquals(MEDIA_URL + "/medias/150/file/150.png", result.productList().getLast().thumbnailUrl());
+    }
+
+    @Test
+    void getFeaturedProductsById_whenVariationHasNoThumbnail_shouldResolveParentInSameCall() {
+        Product parent = Product.builder().id(1L).name("parent").slug("parent").thumbnailMediaId(101L).build();
+        Product variation = Product.builder().id(2L).name("variation").slug("variation").parent(parent).build();
+        when(productRepository.findAllByIdIn(List.of(2L))).thenReturn(List.of(variation));
+        mediaServer.expect(once(), requestTo(MEDIA_URL + "/medias?ids=101"))
+            .andExpect(method(HttpMethod.GET))
+            .andRespond(withSuccess(toMediaJson(List.of(101L)), MediaType.APPLICATION_JSON));
+
+        List<ProductThumbnailGetVm> result = productService.getFeaturedProductsById(List.of(2L));
+
+        mediaServer.verify();
+        assertEquals(MEDIA_URL + "/medias/101/file/101.png", result.getFirst().thumbnailUrl());
+    }
+
+    @Test
+    void getProductEsDetailsByIds_whenManyIds_shouldLoadNamesInBulk() {
+        List<Product> products = buildProducts();
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        when(productRepository.findAllWithBrandByIdIn(productIds)).thenReturn(products);
+        when(productRepository.findCategoryNamesByProductIdIn(productIds)).thenReturn(List.of(
+            new ProductEsNameVm(1L, "Phone"), new ProductEsNameVm(1L, "Tablet"), new ProductEsNameVm(2L, "Laptop")));
+        when(productRepository.findAttributeNamesByProductIdIn(productIds)).thenReturn(List.of(
+            new ProductEsNameVm(2L, "Color")));
+
+        List<ProductEsDetailVm> result = productService.getProductEsDetailsByIds(productIds);
+
+        assertEquals(PAGE_SIZE, result.size());
+        assertEquals(List.of("Phone", "Tablet"), result.getFirst().categories());
+        assertEquals(List.of(), result.getFirst().attributes());
+        assertEquals(List.of("Laptop"), result.get(1).categories());
+        assertEquals(List.of("Color"), result.get(1).attributes());
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getProductEsDetailsByIds_whenNoProductFound_shouldSkipNameQueries() {
+        when(productRepository.findAllWithBrandByIdIn(List.of(1L))).thenReturn(List.of());
+
+        List<ProductEsDetailVm> result = productService.getProductEsDetailsByIds(List.of(1L, 1L));
+
+        assertEquals(List.of(), result);
+        verify(productRepository, never()).findCategoryNamesByProductIdIn(any());
+        verify(productRepository, never()).findAttributeNamesByProductIdIn(any());
+    }
+
+    @Test
+    void getPublishedProductEsDetails_whenAfterIdGiven_shouldLoadNextChunkOfIds() {
+        List<Product> products = buildProducts();
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+        when(productRepository.findPublishedProductIdsAfter(0L, PageRequest.of(0, PAGE_SIZE))).thenReturn(productIds);
+        when(productRepository.findAllWithBrandByIdIn(productIds)).thenReturn(products);
+
+        List<ProductEsDetailVm> result = productService.getPublishedProductEsDetails(0L, PAGE_SIZE);
+
+        assertEquals(productIds, result.stream().map(ProductEsDetailVm::id).toList());
+    }
+
+    @Test
+    void getProductEsDetailsByIds_whenTooManyIds_shouldThrowBadRequestException() {
+        List<Long> productIds = LongStream.rangeClosed(1, ProductService.MAX_PRODUCT_ES_DETAILS + 1L).boxed().toList();
+
+        assertThrows(BadRequestException.class, () -> productService.getProductEsDetailsByIds(productIds));
+        verify(productRepository, never()).findAllWithBrandByIdIn(any());
+    }
+
+    @Test
+    void getPublishedProductEsDetails_whenSizeIsTooLarge_shouldCapChunkSize() {
+        productService.getPublishedProductEsDetails(0L, Integer.MAX_VALUE);
+
+        verify(productRepository).findPublishedProductIdsAfter(0L,
+            PageRequest.of(0, ProductService.MAX_PRODUCT_ES_DETAILS));
+    }
+
+    @Test
+    void exportProducts_whenMoreProductsThanChunk_shouldReadNextChunkAfterLastId() {
+        PageRequest chunk = PageRequest.of(0, 1000);
+        when(productRepository.getExportingProductsAfter("laptop", "", 0L, chunk))
+            .thenReturn(LongStream.rangeClosed(1, 1000).mapToObj(ProductServiceTest::buildExportingProduct).toList());
+        when(productRepository.getExportingProductsAfter("laptop", "", 1000L, chunk))
+            .thenReturn(List.of(buildExportingProduct(1001L)));
+
+        List<ProductExportingDetailVm> result = productService.exportProducts(" Laptop ", "").toList();
+
+        assertEquals(1001, result.size());
+        assertEquals(1001L, result.getLast().id());
+        verify(productRepository, never()).getExportingProductsAfter("laptop", "", 1001L, chunk);
+    }
+
+    @Test
+    void getPublishedProductIds_whenIdsRepeat_shouldQueryEachIdOnce() {
+        when(productRepository.findPublishedProductIdsIn(Set.of(1L, 2L))).thenReturn(List.of(2L));
+
+        assertEquals(List.of(2L), productService.getPublishedProductIds(List.of(1L, 2L, 1L)));
+        assertEquals(List.of(), productService.getPublishedProductIds(List.of()));
+    }
+
+    @Test
+    void subtractStockQuantity_whenItemsRepeatProduct_shouldLockAllProductsSortedByIdThenSetOneMergedBatch() {
+        when(productStockRepository.lockStockQuantities(List.of(1L, 3L))).thenReturn(Map.of(1L, 8L));
+
+        List<ProductQuantityResultVm> result = productService.subtractStockQuantity(List.of(
+            new ProductQuantityPutVm(3L, 1L), new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(1L, 3L)));
+
+        verify(productStockRepository).lockStockQuantities(List.of(1L, 3L));
+        verify(productStockRepository).setStockQuantity(List.of(new ProductQuantityPostVm(1L, 3L)));
+        verify(productRepository, never()).saveAll(any());
+        assertEquals(List.of(new ProductQuantityResultVm(1L, 5L, true, 0),
+            new ProductQuantityResultVm(3L, 1L, false, 0)), result);
+    }
+
+    @Test
+    void subtractStockQuantity_whenStockIsShort_shouldSubtractWhatIsLeftAndReportShortfall() {
+        List<ProductQuantityPutVm> items = List.of(
+            new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(2L, 5L), new ProductQuantityPutVm(3L, 4L));
+        when(productStockRepository.lockStockQuantities(List.of(1L, 2L, 3L)))
+            .thenReturn(Map.of(1L, 2L, 2L, 3L, 3L, 6L));
+
+        List<ProductQuantityResultVm> result = productService.subtractStockQuantity(items);
+
+        verify(productStockRepository).setStockQuantity(List.of(new ProductQuantityPostVm(1L, 0L),
+            new ProductQuantityPostVm(2L, 0L), new ProductQuantityPostVm(3L, 2L)));
+        assertEquals(List.of(new ProductQuantityResultVm(1L, 2L, true, 0),
+            new ProductQuantityResultVm(2L, 5L, true, 2), new ProductQuantityResultVm(3L, 4L, true, 0)), result);
+    }
+
+    @Test
+    void subtractAvailableStockQuantity_whenStockIsShort_shouldSubtractNothingAndReportShortfall() {
+        when(productStockRepository.lockStockQuantities(List.of(1L, 2L))).thenReturn(Map.of(1L, 2L, 2L, 3L));
+
+        List<ProductQuantityResultVm> result = productService.subtractAvailableStockQuantity(List.of(
+            new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(2L, 5L)));
+
+        verify(productStockRepository, never()).setStockQuantity(any());
+        assertEquals(List.of(new ProductQuantityResultVm(1L, 2L, true, 0),
+            new ProductQuantityResultVm(2L, 5L, true, 2)), result);
+    }
+
+    @Test
+    void subtractAvailableStockQuantity_whenStockIsEnough_shouldSubtractIt() {
+        when(productStockRepository.lockStockQuantities(List.of(1L, 2L))).thenReturn(Map.of(1L, 2L, 2L, 6L));
+
+        productService.subtractAvailableStockQuantity(List.of(
+            new ProductQuantityPutVm(1L, 2L), new ProductQuantityPutVm(2L, 5L)));
+
+        verify(productStockRepository).setStockQuantity(List.of(new ProductQuantityPostVm(1L, 0L),
+            new ProductQuantityPostVm(2L, 1L)));
+    }
+
+    @Test
+    void restoreStockQuantity_whenNoItems_shouldNotHitDatabase() {
+        assertEquals(List.of(), productService.restoreStockQuantity(List.of()));
+        verify(productStockRepository, never()).restoreStockQuantity(any());
+    }
+
+    @Test
+    void updateProductQuantity_whenProductRepeated_shouldKeepFirstQuantityInOneBatch() {
+        productService.updateProductQuantity(List.of(
+            new ProductQuantityPostVm(1L, 10L), new ProductQuantityPostVm(2L, 20L), new ProductQuantityPostVm(1L, 5L)));
+
+        verify(productStockRepository).setStockQuantity(List.of(
+            new ProductQuantityPostVm(1L, 10L), new ProductQuantityPostVm(2L, 20L)));
+        verify(productRepository, never()).saveAll(any());
+    }
+
+    private List<Product> buildProducts() {
+        Brand brand = new Brand();
+        brand.setId(1L);
+        return LongStream.rangeClosed(1, PAGE_SIZE)
+            .mapToObj(id -> Product.builder()
+                .id(id)
+                .name("product" + id)
+                .slug("product-" + id)
+                .price(1.0)
+                .brand(brand)
+                .thumbnailMediaId(100 + id)
+                .build())
+            .toList();
+    }
+
+    private static ProductExportingDetailVm buildExportingProduct(long id) {
+        return new ProductExportingDetailVm(id, "laptop" + id, null, null, null, null, null, "laptop-" + id,
+            true, true, false, true, false, 1.0, 1L, "brand", null, null, null);
+    }
+
+    private void expectSingleMediaBatchCall() {
+        List<Long> mediaIds = LongStream.rangeClosed(101, 100 + PAGE_SIZE).boxed().toList();
+        mediaServer.expect(once(), request -> {
+            assertEquals(HttpMethod.GET, request.getMethod());
+            assertEquals("/media/medias", request.getURI().getPath());
+        }).andRespond(withSuccess(toMediaJson(mediaIds), MediaType.APPLICATION_JSON));
+    }
+
+    private static String toMediaJson(List<Long> mediaIds) {
+        return mediaIds.stream()
+            .map(id -> String.format(
+                "{\"id\":%1$d,\"caption\":\"\",\"fileName\":\"%1$d.png\",\"mediaType\":\"image/png\","
+                    + "\"url\":\"%2$s/medias/%1$d/file/%1$d.png\"}", id, MEDIA_URL))
+            .collect(Collectors.joining(",", "[", "]"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.yas.product.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yas.product.model.Category;
+import com.yas.product.model.StorefrontProjection;
+import com.yas.product.repository.CategoryRepository;
+import com.yas.product.repository.LocalStorefrontProjectionStore;
+import com.yas.product.repository.StorefrontProjectionStore;
+import com.yas.product.repository.StorefrontProjectionStore.Tier;
+import com.yas.product.viewmodel.product.ProductDetailGetVm;
+import com.yas.product.viewmodel.product.ProductFeatureGetVm;
+import com.yas.product.viewmodel.product.ProductListGetFromCategoryVm;
+import com.yas.product.viewmodel.product.ProductThumbnailVm;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StorefrontProjectionServiceTest {
+
+    private static final String SLUG = "laptop";
+    private static final String CATEGORY_SLUG = "computers";
+
+    private ProductService productService;
+    private CategoryRepository categoryRepository;
+    private StorefrontProjectionService storefrontProjectionService;
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        categoryRepository = mock(CategoryRepository.class);
+        storefrontProjectionService = createService(List.of(new LocalStorefrontProjectionStore("maximumSize=100")));
+    }
+
+    @Test
+    void getProductDetail_whenReadTwice_shouldBuildOnce() {
+        when(productService.getProductDetail(SLUG)).thenReturn(buildProductDetail("Laptop"));
+
+        StorefrontProjection first = storefrontProjectionService.getProductDetail(SLUG);
+        StorefrontProjection second = storefrontProjectionService.getProductDetail(SLUG);
+
+        verify(productService).getProductDetail(SLUG);
+        assertEquals(first.etag(), second.etag());
+        assertEquals(first.json(), second.json());
+    }
+
+    @Test
+    void evictProduct_shouldRebuildProductPageFeaturedAndCategoryPagesShowingIt() {
+        when(productService.getProductDetail(SLUG))
+            .thenReturn(buildProductDetail("Laptop"), buildProductDetail("Laptop Pro"));
+        when(productService.getListFeaturedProducts(0, 10)).thenReturn(new ProductFeatureGetVm(List.of(), 1));
+        when(productService.getProductsFromCategory(0, 2, CATEGORY_SLUG)).thenReturn(buildCategoryProducts(1L));
+        when(productService.getProductsFromCategory(0, 2, "phones")).thenReturn(buildCategoryProducts(2L));
+        StorefrontProjection before = storefrontProjectionService.getProductDetail(SLUG);
+        readAllPages();
+
+        storefrontProjectionService.evictProduct(Tier.LOCAL, 1L, true);
+        StorefrontProjection after = storefrontProjectionService.getProductDetail(SLUG);
+        readAllPages();
+
+        assertNotEquals(before.etag(), after.etag());
+        verify(productService, times(2)).getListFeaturedProducts(0, 10);
+        verify(productService, times(2)).getProductsFromCategory(0, 2, CATEGORY_SLUG);
+        verify(productService).getProductsFromCategory(0, 2, "phones");
+    }
+
+    @Test
+    void evictProduct_whenFeaturedNotChanged_shouldNotRebuildFeaturedPages() {
+        when(productService.getListFeaturedProducts(0, 10)).thenReturn(new ProductFeatureGetVm(List.of(), 1));
+        when(productService.getProductsFromCategory(0, 2, CATEGORY_SLUG)).thenReturn(buildCategoryProducts(1L));
+        when(productService.getProductsFromCategory(0, 2, "phones")).thenReturn(buildCategoryProducts(2L));
+        readAllPages();
+
+        storefrontProjectionService.evictProduct(Tier.LOCAL, 1L, false);
+        readAllPages();
+
+        verify(productService).getListFeaturedProducts(0, 10);
+        verify(productService, times(2)).getProductsFromCategory(0, 2, CATEGORY_SLUG);
+    }
+
+    @Test
+    void getFeaturedProducts_whenPageIsNotKept_shouldBuildOnEachRead() {
+        when(productService.getListFeaturedProducts(0, 7)).thenReturn(new ProductFeatureGetVm(List.of(), 1));
+        when(productService.getListFeaturedProducts(21, 10)).thenReturn(new ProductFeatureGetVm(List.of(), 1));
+
+        storefrontProjectionService.getFeaturedProducts(0, 7);
+        storefrontProjectionService.getFeaturedProducts(0, 7);
+        storefrontProjectionService.getFeaturedProducts(21, 10);
+        storefrontProjectionService.getFeaturedProducts(21, 10);
+
+        verify(productService, times(2)).getListFeaturedProducts(0, 7);
+        verify(productService, times(2)).getListFeaturedProducts(21, 10);
+    }
+
+    @Test
+    void evictProductCategory_shouldRebuildPagesOfTheCategory() {
+        Category category = new Category();
+        category.setSlug(CATEGORY_SLUG);
+        when(categoryRepository.findById(5L)).thenReturn(Optional.of(category));
+        when(productService.getProductsFromCategory(0, 2, CATEGORY_SLUG)).thenReturn(buildCategoryProducts(1L));
+        when(productService.getProductsFromCategory(1, 2, CATEGORY_SLUG)).thenReturn(buildCategoryProducts(3L));
+        storefrontProjectionService.getProductsFromCategory(1, 2, CATEGORY_SLUG);
+
+        storefrontProjectionService.evictProductCategory(Tier.LOCAL, 2L, 5L);
+        storefrontProjectionService.getProductsFromCategory(1, 2, CATEGORY_SLUG);
+
+        verify(productService, times(2)).getProductsFromCategory(1, 2, CATEGORY_SLUG);
+    }
+
+    @Test
+    void getProductDetail_whenEvictedWhileBuilding_shouldNotKeepProjection() {
+        when(productService.getProductDetail(SLUG)).thenAnswer(invocation -> {
+            storefrontProjectionService.evictBrands(Tier.LOCAL);
+            return buildProductDetail("Laptop");
+        });
+
+        storefrontProjectionService.getProductDetail(SLUG);
+        storefrontProjectionService.getProductDetail(SLUG);
+
+        verify(productService, times(2)).getProductDetail(SLUG);
+    }
+
+    @Test
+    void getProductDetail_whenFoundInLowerStore_shouldFillUpperStore() {
+        LocalStorefrontProjectionStore localStore = new LocalStorefrontProjectionStore("maximumSize=100");
+        StorefrontProjectionStore sharedStore = mock(StorefrontProjectionStore.class);
+        StorefrontProjection projection = StorefrontProjection.of("{\"id\":1}", Set.of("product:1"));
+        when(sharedStore.get("product-detail:" + SLUG)).thenReturn(projection);
+        storefrontProjectionService = createService(List.of(localStore, sharedStore));
+
+        StorefrontProjection result = storefrontProjectionService.getProductDetail(SLUG);
+
+        assertEquals(projection, result);
+        assertEquals(projection, localStore.get("product-detail:" + SLUG));
+        verify(productService, times(0)).getProductDetail(SLUG);
+    }
+
+    @Test
+    void evictProduct_whenSharedTierExists_shouldEvictOnlyStoresOfTheTierAndRepeatLocalEviction() {
+        StorefrontProjectionStore localStore = mock(StorefrontProjectionStore.class);
+        StorefrontProjectionStore sharedStore = mock(StorefrontProjectionStore.class);
+        when(localStore.tier()).thenReturn(Tier.LOCAL);
+        when(sharedStore.tier()).thenReturn(Tier.SHARED);
+        storefrontProjectionService = createService(List.of(localStore, sharedStore));
+
+        storefrontProjectionService.evictProduct(Tier.LOCAL, 1L, true);
+
+        List<String> refs = List.of("product:1", StorefrontProjectionService.FEATURED_REF);
+        verify(localStore, timeout(1000).times(2)).evict(refs);
+        verify(sharedStore, never()).evict(refs);
+
+        storefrontProjectionService.evictProduct(Tier.SHARED, 1L, true);
+
+        verify(sharedStore).evict(refs);
+    }
+
+    private StorefrontProjectionService createService(List<StorefrontProjectionStore> stores) {
+        return new StorefrontProjectionService(stores, productService, categoryRepository, new ObjectMapper(),
+            Duration.ofMillis(50), Set.of(2, 10), 20);
+    }
+
+    private void readAllPages() {
+        storefrontProjectionService.getFeaturedProducts(0, 10);
+        storefrontProjectionService.getProductsFromCategory(0, 2, CATEGORY_SLUG);
+        storefrontProjectionService.getProductsFromCategory(0, 2, "phones");
+    }
+
+    private static ProductDetailGetVm buildProductDetail(String name) {
+        return new ProductDetailGetVm(1L, name, "Brand", List.of("Computers"), List.of(), null, null, null,
+            true, true, false, false, 1000.0, "thumbnail", List.of());
+    }
+
+    private static ProductListGetFromCategoryVm buildCategoryProducts(Long productId) {
+        return new ProductListGetFromCategoryVm(
+            List.of(new ProductThumbnailVm(productId, "Product", "product", "thumbnail")), 0, 2, 1, 1, true);
+    }
+}
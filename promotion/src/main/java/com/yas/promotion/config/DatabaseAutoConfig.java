@@ -11,8 +11,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Configuration
-@EnableJpaRepositories("com.yas.promotion.repository")
-@EntityScan("com.yas.promotion.model")
+@EnableJpaRepositories({"com.yas.promotion.repository", "com.yas.commonlibrary.kafka.cdc.repository"})
+@EntityScan({"com.yas.promotion.model", "com.yas.commonlibrary.kafka.cdc.model"})
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
 public class DatabaseAutoConfig {
     @Bean
@@ -0,0 +1,46 @@
+package com.yas.promotion.kafka.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.config.OrderEventKafkaListenerConfig.ORDER_EVENT_LISTENER_CONTAINER_FACTORY;
+
+import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.config.OrderEventKafkaListenerConfig;
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.promotion.service.OrderEventService;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records the usage of the coupon of an order when the order is created.
+ */
+@Service
+@Import(OrderEventKafkaListenerConfig.class)
+public class OrderEventConsumer extends BaseCdcConsumer<String, OrderCreatedEvent> {
+
+    private final OrderEventService orderEventService;
+
+    public OrderEventConsumer(OrderEventService orderEventService) {
+        this.orderEventService = orderEventService;
+    }
+
+    @KafkaListener(
+        id = "order-created-promotion-usage",
+        groupId = "order-created-promotion",
+        topics = "${order.events.order-created.topic.name}",
+        containerFactory = ORDER_EVENT_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "${order.events.consumer.enabled:true}"
+    )
+    public void processOrderCreated(
+        @Header(KafkaHeaders.RECEIVED_KEY) String key,
+        @Payload OrderCreatedEvent orderCreatedEvent,
+        @Headers MessageHeaders headers
+    ) {
+        processMessage(key, orderCreatedEvent, headers,
+            (orderId, event) -> orderEventService.updateUsagePromotion(event));
+    }
+}
@@ -0,0 +1,38 @@
+package com.yas.promotion.service;
+
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.commonlibrary.kafka.cdc.repository.ProcessedOrderEventRepository;
+import com.yas.promotion.viewmodel.PromotionUsageVm;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderEventService {
+    private final ProcessedOrderEventRepository processedOrderEventRepository;
+    private final PromotionService promotionService;
+
+    /**
+     * Records the usage of the order coupon for every ordered product, once per order.
+     *
+     * @param event the order created event.
+     */
+    @Transactional
+    public void updateUsagePromotion(OrderCreatedEvent event) {
+        if (!StringUtils.hasText(event.getCouponCode())) {
+            return;
+        }
+        boolean recorded = processedOrderEventRepository.processOnce(event.getOrderId(),
+            () -> promotionService.updateUsagePromotion(event.getItems().stream()
+                .map(item -> new PromotionUsageVm(event.getCouponCode(), item.getProductId(), event.getCustomerId(),
+                    event.getOrderId()))
+                .toList()));
+        if (!recorded) {
+            log.debug("Promotion usage of order {} was already recorded", event.getOrderId());
+        }
+    }
+}
@@ -286,7 +286,8 @@ public class PromotionService {
 
             PromotionUsage promotionUsage = PromotionUsage.builder()
                     .promotion(promotion.get())
-                    .userId(AuthenticationUtils.extractUserId())
+                    .userId(Optional.ofNullable(promotionUsageVm.userId())
+                            .orElseGet(AuthenticationUtils::extractUserId))
                     .productId(promotionUsageVm.productId())
                     .orderId(promotionUsageVm.orderId())
                     .build();
@@ -0,0 +1,60 @@
+package com.yas.promotion.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.kafka.cdc.message.OrderCreatedEvent;
+import com.yas.commonlibrary.kafka.cdc.repository.ProcessedOrderEventRepository;
+import com.yas.promotion.viewmodel.PromotionUsageVm;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OrderEventServiceTest {
+
+    private ProcessedOrderEventRepository processedOrderEventRepository;
+    private PromotionService promotionService;
+    private OrderEventService orderEventService;
+
+    @BeforeEach
+    void setUp() {
+        processedOrderEventRepository = mock(ProcessedOrderEventRepository.class);
+        promotionService = mock(PromotionService.class);
+        orderEventService = new OrderEventService(processedOrderEventRepository, promotionService);
+    }
+
+    @Test
+    void testUpdateUsagePromotion_whenOrderHasCoupon_shouldRecordUsageOfEveryItemForCustomer() {
+        when(processedOrderEventRepository.processOnce(eq(10L), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+
+        orderEventService.updateUsagePromotion(buildEvent("SALE"));
+
+        verify(promotionService).updateUsagePromotion(List.of(
+            new PromotionUsageVm("SALE", 1L, "customer", 10L), new PromotionUsageVm("SALE", 2L, "customer", 10L)));
+    }
+
+    @Test
+    void testUpdateUsagePromotion_whenOrderHasNoCoupon_shouldDoNothing() {
+        orderEventService.updateUsagePromotion(buildEvent(null));
+
+        verify(processedOrderEventRepository, never()).processOnce(anyLong(), any());
+        verify(promotionService, never()).updateUsagePromotion(any());
+    }
+
+    private static OrderCreatedEvent buildEvent(String couponCode) {
+        return OrderCreatedEvent.builder()
+            .orderId(10L)
+            .customerId("customer")
+            .couponCode(couponCode)
+            .items(List.of(new OrderCreatedEvent.Item(1L, 2), new OrderCreatedEvent.Item(2L, 1)))
+            .build();
+    }
+}
@@ -9,8 +9,11 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mockito;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -66,4 +69,18 @@ class EmbeddingQueryControllerTest {
                 .andExpect(status().isOk())  // Expect HTTP 200 OK status
                 .andExpect(jsonPath("$", hasSize(0)));  // Expect empty JSON array
     }
+
+    @Test
+    void shouldSearchWithFilter_whenCategoryOrPriceProvided() throws Exception {
+        Mockito.when(relatedProductSearch.similaritySearch(eq(1L), any(Filter.Expression.class), eq(100)))
+                .thenReturn(List.of(new RelatedProductVm()));
+
+        mockMvc.perform(get("/embedding/product/1/similarity")
+                        .param("categoryId", "3")
+                        .param("minPrice", "10")
+                        .param("efSearch", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        Mockito.verify(relatedProductSearch, Mockito.never()).similaritySearch(anyLong());
+    }
 }
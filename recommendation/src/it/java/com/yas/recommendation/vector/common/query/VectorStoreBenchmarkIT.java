@@ -0,0 +1,154 @@
+package com.yas.recommendation.vector.common.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import com.yas.recommendation.configuration.KafkaConfiguration;
+import com.yas.recommendation.service.ProductService;
+import com.yas.recommendation.vector.product.document.ProductDocument;
+import com.yas.recommendation.vector.product.store.ProductVectorRepository;
+import com.yas.recommendation.viewmodel.CategoryVm;
+import com.yas.recommendation.viewmodel.ProductDetailVm;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Loads synthetic products through {@link ProductVectorRepository} with the local embedding model, and reports
+ * the ingest throughput and the p50/p99 latency of {@link JdbcVectorService#searchSimilarProduct} at each catalog
+ * size, to size the pgvector HNSW parameters. The KNN query is measured directly, without the precomputed
+ * neighbour lists.
+ *
+ * <p>Run with {@code mvn verify -Drecommendation.benchmark=true}; it is skipped otherwise. Sizes default to
+ * 10k, 100k and 1M vectors and can be changed with {@code -Drecommendation.benchmark.sizes=10000,50000}.
+ */
+@Import(KafkaConfiguration.class)
+@PropertySource("classpath:application.properties")
+@SpringBootTest
+@TestPropertySource(properties = {
+    "yas.recommendation.embedding.local.enabled=true",
+    "spring.kafka.listener.auto-startup=false"
+})
+@EnabledIfSystemProperty(named = "recommendation.benchmark", matches = "true")
+class VectorStoreBenchmarkIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VectorStoreBenchmarkIT.class);
+
+    private static final int INGEST_CHUNK_SIZE = 500;
+    private static final int QUERY_COUNT = 500;
+    private static final int WARMUP_COUNT = 50;
+
+    private static final List<String> WORDS = List.of("apple", "samsung", "xiaomi", "macbook", "galaxy",
+        "iphone", "ultra", "professional", "wireless", "headphone", "keyboard", "monitor", "charger", "tablet",
+        "notebook", "gaming", "mechanical", "bluetooth", "speaker", "camera", "mirrorless", "portable", "smart",
+        "watch", "television", "refrigerator", "conditioner", "vacuum", "cleaner", "espresso", "leather", "cotton",
+        "running", "shoes", "jacket", "backpack", "stainless", "ceramic", "organic", "coffee");
+
+    @MockBean
+    private ProductService productService;
+
+    @Autowired
+    private ProductVectorRepository productVectorRepository;
+
+    @Autowired
+    private JdbcVectorService jdbcVectorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE vector_store, vector_store_related");
+    }
+
+    @Test
+    void measureIngestAndSimilaritySearch() {
+        when(productService.getProductDetail(anyLong()))
+            .thenAnswer(invocation -> syntheticProduct(invocation.getArgument(0)));
+
+        List<String> report = new ArrayList<>();
+        long loaded = 0;
+        for (long size : sizes()) {
+            long start = System.nanoTime();
+            for (long from = loaded + 1; from <= size; from += INGEST_CHUNK_SIZE) {
+                List<Long> ids = LongStream.range(from, Math.min(from + INGEST_CHUNK_SIZE, size + 1)).boxed().toList();
+                assertThat(productVectorRepository.upsert(ids)).isEmpty();
+            }
+            double ingestSeconds = (System.nanoTime() - start) / 1_000_000_000d;
+            long ingested = size - loaded;
+            loaded = size;
+
+            double[] latencies = similarityLatenciesMs(size);
+            report.add("%,12d  %,14.0f  %10.2f  %10.2f".formatted(size, ingested / ingestSeconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99)));
+        }
+
+        LOG.info("""
+
+                Vector store benchmark (local embedding model, p50/p99 over {} queries)
+                     vectors    ingest docs/s     p50 (ms)    p99 (ms)
+                {}""", QUERY_COUNT, String.join("\n", report));
+    }
+
+    private double[] similarityLatenciesMs(long size) {
+        Random random = new Random(size);
+        for (int i = 0; i < WARMUP_COUNT; i++) {
+            jdbcVectorService.searchSimilarProduct(1 + random.nextLong(size), ProductDocument.class);
+        }
+        double[] latencies = new double[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            long productId = 1 + random.nextLong(size);
+            long start = System.nanoTime();
+            jdbcVectorService.searchSimilarProduct(productId, ProductDocument.class);
+            latencies[i] = (System.nanoTime() - start) / 1_000_000d;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static double percentile(double[] sortedValues, double percentile) {
+        return sortedValues[(int) Math.ceil(sortedValues.length * percentile) - 1];
+    }
+
+    private static long[] sizes() {
+        return Arrays.stream(System.getProperty("recommendation.benchmark.sizes", "10000,100000,1000000").split(","))
+            .mapToLong(size -> Long.parseLong(size.trim()))
+            .sorted()
+            .toArray();
+    }
+
+    private static ProductDetailVm syntheticProduct(long productId) {
+        Random random = new Random(productId);
+        String name = randomWords(random, 3 + random.nextInt(3)) + " " + productId;
+        String brand = WORDS.get(random.nextInt(5));
+        CategoryVm category = new CategoryVm((long) random.nextInt(20), WORDS.get(random.nextInt(WORDS.size())),
+            null, null, null, null, null, true);
+        return new ProductDetailVm(productId, name, randomWords(random, 8), randomWords(random, 20),
+            randomWords(random, 10), "SKU-" + productId, null, "product-" + productId, true, true, false, true,
+            false, 10.0 + random.nextInt(1_000), (long) brand.length(), List.of(category), name,
+            randomWords(random, 4), randomWords(random, 12), null, brand, List.of(), List.of(), null, List.of());
+    }
+
+    private static String randomWords(Random random, int count) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            words.add(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return String.join(" ", words);
+    }
+}
@@ -1,12 +1,13 @@
 package com.yas.recommendation;
 
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.RelatedDocumentConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(EmbeddingSearchConfiguration.class)
+@EnableConfigurationProperties({EmbeddingSearchConfiguration.class, RelatedDocumentConfiguration.class})
 public class RecommendationApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,27 @@
+package com.yas.recommendation.configuration;
+
+import com.yas.recommendation.vector.common.embedding.HashingEmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Replaces the Azure OpenAI embedding model with {@link HashingEmbeddingModel} when
+ * {@code yas.recommendation.embedding.local.enabled} is set, e.g. for CI, load tests and benchmarks. The Azure
+ * OpenAI auto-configuration is then excluded by {@link LocalEmbeddingEnvironmentPostProcessor}.
+ */
+@Configuration
+@ConditionalOnProperty(name = LocalEmbeddingEnvironmentPostProcessor.LOCAL_EMBEDDING_ENABLED, havingValue = "true")
+public class LocalEmbeddingConfiguration {
+
+    @Bean
+    @Primary
+    public EmbeddingModel localEmbeddingModel(
+        @Value("${spring.ai.vectorstore.pgvector.dimensions}") int dimensions
+    ) {
+        return new HashingEmbeddingModel(dimensions);
+    }
+}
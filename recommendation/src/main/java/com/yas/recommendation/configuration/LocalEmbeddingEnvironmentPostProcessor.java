@@ -0,0 +1,38 @@
+package com.yas.recommendation.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Excludes the Azure OpenAI auto-configuration when {@code yas.recommendation.embedding.local.enabled} is set, so
+ * the service starts with {@link LocalEmbeddingConfiguration} alone, without Azure OpenAI settings. The exclusion
+ * is added to the ones of {@code spring.autoconfigure.exclude}.
+ */
+public class LocalEmbeddingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    public static final String LOCAL_EMBEDDING_ENABLED = "yas.recommendation.embedding.local.enabled";
+
+    private static final String AUTOCONFIGURE_EXCLUDE = "spring.autoconfigure.exclude";
+    private static final String AZURE_OPENAI_AUTO_CONFIGURATION =
+        "org.springframework.ai.autoconfigure.azure.openai.AzureOpenAiAutoConfiguration";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty(LOCAL_EMBEDDING_ENABLED, Boolean.class, false)) {
+            return;
+        }
+        List<String> exclusions = new ArrayList<>(Binder.get(environment)
+            .bind(AUTOCONFIGURE_EXCLUDE, Bindable.listOf(String.class))
+            .orElse(List.of()));
+        exclusions.add(AZURE_OPENAI_AUTO_CONFIGURATION);
+        environment.getPropertySources().addFirst(new MapPropertySource("localEmbedding",
+            Map.of(AUTOCONFIGURE_EXCLUDE, String.join(",", exclusions))));
+    }
+}
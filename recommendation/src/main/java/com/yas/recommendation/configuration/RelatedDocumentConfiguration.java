@@ -0,0 +1,6 @@
+package com.yas.recommendation.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "yas.recommendation.related-documents")
+public record RelatedDocumentConfiguration(int refreshChunkSize, int refreshParallelism) {}
@@ -2,11 +2,16 @@ package com.yas.recommendation.controller;
 
 import com.yas.recommendation.vector.common.query.VectorQuery;
 import com.yas.recommendation.vector.product.document.ProductDocument;
+import com.yas.recommendation.vector.product.query.RelatedProductFilter;
 import com.yas.recommendation.viewmodel.RelatedProductVm;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.util.List;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -23,7 +28,16 @@ public class EmbeddingQueryController {
     }
 
     @GetMapping("/product/{id}/similarity")
-    public List<RelatedProductVm> searchProduct(@PathVariable("id") Long productId) {
-        return relatedProductSearch.similaritySearch(productId);
+    public List<RelatedProductVm> searchProduct(@PathVariable("id") Long productId,
+                                                @RequestParam(required = false) Long categoryId,
+                                                @RequestParam(required = false) Double minPrice,
+                                                @RequestParam(required = false) Double maxPrice,
+                                                @RequestParam(required = false) @Min(1) @Max(1000)
+                                                Integer efSearch) {
+        Filter.Expression filterExpression = RelatedProductFilter.of(categoryId, minPrice, maxPrice);
+        if (filterExpression == null && efSearch == null) {
+            return relatedProductSearch.similaritySearch(productId);
+        }
+        return relatedProductSearch.similaritySearch(productId, filterExpression, efSearch);
     }
 }
@@ -3,11 +3,16 @@ package com.yas.recommendation.kafka.config.consumer;
 import com.yas.commonlibrary.kafka.cdc.config.BaseKafkaListenerConfig;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 /**
  * Product CDC kafka listener, support convert product cdc message to java object.
@@ -18,6 +23,17 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
 
     public static final String PRODUCT_CDC_LISTENER_CONTAINER_FACTORY = "productCdcListenerContainerFactory";
 
+    public static final String PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY
+        = "productCdcBatchListenerContainerFactory";
+
+    /**
+     * Suffix of the dead letter topic created by {@link com.yas.commonlibrary.kafka.cdc.RetrySupportDql}.
+     */
+    public static final String DLT_SUFFIX = "-dlt";
+
+    private static final long BATCH_RETRY_INTERVAL_MS = 6000L;
+    private static final long BATCH_RETRY_ATTEMPTS = 3L;
+
     public ProductCdcKafkaListenerConfig(KafkaProperties kafkaProperties) {
         super(ProductMsgKey.class, ProductCdcMessage.class, kafkaProperties);
     }
@@ -28,4 +44,28 @@ public class ProductCdcKafkaListenerConfig extends BaseKafkaListenerConfig<Produ
         return super.kafkaListenerContainerFactory();
     }
 
+    /**
+     * Batch listener factory. A batch that fails as a whole, e.g. when the embedding model is rate limited, is
+     * retried with the same budget as {@link com.yas.commonlibrary.kafka.cdc.RetrySupportDql} (4 attempts, 6s
+     * apart) before its records are published to the dead letter topic.
+     */
+    @Bean(name = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<ProductMsgKey, ProductCdcMessage> batchListenerContainerFactory(
+        DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer
+    ) {
+        var errorHandler = new DefaultErrorHandler(
+            productCdcDeadLetterRecoverer,
+            new FixedBackOff(BATCH_RETRY_INTERVAL_MS, BATCH_RETRY_ATTEMPTS)
+        );
+        return super.batchKafkaListenerContainerFactory(errorHandler);
+    }
+
+    @Bean
+    public DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer(KafkaTemplate<?, ?> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(
+            kafkaTemplate,
+            (consumerRecord, exception) -> new TopicPartition(consumerRecord.topic() + DLT_SUFFIX, -1)
+        );
+    }
+
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.yas.recommendation.kafka.consumer;
 
+import static com.yas.recommendation.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY;
 import static com.yas.recommendation.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_LISTENER_CONTAINER_FACTORY;
 
 import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
@@ -7,6 +8,8 @@ import com.yas.commonlibrary.kafka.cdc.RetrySupportDql;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
 import jakarta.validation.Valid;
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.MessageHeaders;
@@ -17,6 +20,9 @@ import org.springframework.stereotype.Component;
 
 /**
  * Product synchronize data consumer for pgvector.
+ * Runs either record by record or, when {@code product.sync.batch.enabled} is set, in batch mode where every
+ * poll is collapsed per product and embedded with a single embedding model call.
+ * Records that are not newer than the last change applied for their product are skipped in both modes.
  */
 @Component
 public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
@@ -31,7 +37,8 @@ public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, Prod
         id = "product-sync-recommendation",
         groupId = "product-sync",
         topics = "${product.topic.name}",
-        containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY
+        containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "#{!${product.sync.batch.enabled:false}}"
     )
     @RetrySupportDql(listenerContainerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY)
     public void processMessage(
@@ -41,4 +48,15 @@ public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, Prod
     ) {
         processMessage(key, productCdcMessage, headers, productSyncService::sync);
     }
+
+    @KafkaListener(
+        id = "product-sync-recommendation-batch",
+        groupId = "product-sync",
+        topics = "${product.topic.name}",
+        containerFactory = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "${product.sync.batch.enabled:false}"
+    )
+    public void processMessages(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        markApplied(productSyncService.syncBatch(dropStaleRecords(records)));
+    }
 }
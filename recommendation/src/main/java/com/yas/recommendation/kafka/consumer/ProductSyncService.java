@@ -5,7 +5,15 @@ import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
 import com.yas.recommendation.vector.product.service.ProductVectorSyncService;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.stereotype.Service;
 
 /**
@@ -16,9 +24,12 @@ import org.springframework.stereotype.Service;
 public class ProductSyncService {
 
     private final ProductVectorSyncService productVectorSyncService;
+    private final DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer;
 
-    public ProductSyncService(ProductVectorSyncService productVectorSyncService) {
+    public ProductSyncService(ProductVectorSyncService productVectorSyncService,
+                              DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer) {
         this.productVectorSyncService = productVectorSyncService;
+        this.productCdcDeadLetterRecoverer = productCdcDeadLetterRecoverer;
     }
 
     /**
@@ -42,4 +53,52 @@ public class ProductSyncService {
         }
     }
 
+    /**
+     * Synchronize a batch of Product CDC messages to VectorDb. The records are collapsed by product id, keeping
+     * the latest one, so a product changed several times in the batch is embedded once. Products that fail
+     * individually are published to the dead letter topic with their record.
+     *
+     * @param records CDC records of one poll.
+     * @return the records that were applied, one per product.
+     */
+    public Collection<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> syncBatch(
+        List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        Map<Long, ConsumerRecord<ProductMsgKey, ProductCdcMessage>> latestRecordByProductId = new LinkedHashMap<>();
+        for (ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord : records) {
+            ProductMsgKey key = consumerRecord.key();
+            if (key == null || key.getId() == null) {
+                productCdcDeadLetterRecoverer.accept(consumerRecord,
+                    new IllegalArgumentException("Product record has no product id"));
+                continue;
+            }
+            latestRecordByProductId.put(key.getId(), consumerRecord);
+        }
+
+        Set<Long> deletedProductIds = new LinkedHashSet<>();
+        Set<Long> upsertedProductIds = new LinkedHashSet<>();
+        latestRecordByProductId.forEach((productId, consumerRecord) -> {
+            ProductCdcMessage productCdcMessage = consumerRecord.value();
+            if (productCdcMessage == null || DELETE.equals(productCdcMessage.getOp())) {
+                deletedProductIds.add(productId);
+            } else if (productCdcMessage.getAfter() != null) {
+                switch (productCdcMessage.getOp()) {
+                    case CREATE, READ, UPDATE -> (productCdcMessage.getAfter().isPublished()
+                        ? upsertedProductIds : deletedProductIds).add(productId);
+                    default -> log.warn("Unsupported operation '{}' for product: '{}'",
+                        productCdcMessage.getOp(), productId);
+                }
+            }
+        });
+
+        productVectorSyncService.deleteProductVectors(deletedProductIds);
+        if (!upsertedProductIds.isEmpty()) {
+            productVectorSyncService.upsertProductVectors(upsertedProductIds).forEach((productId, exception) -> {
+                log.error("Failed to sync product '{}', sending record to dead letter topic", productId, exception);
+                productCdcDeadLetterRecoverer.accept(latestRecordByProductId.remove(productId), exception);
+            });
+        }
+        log.debug("## Batch processed - deleted: {} | upserted: {}", deletedProductIds.size(),
+            upsertedProductIds.size());
+        return latestRecordByProductId.values();
+    }
 }
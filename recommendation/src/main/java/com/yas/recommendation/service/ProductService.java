@@ -3,6 +3,8 @@ package com.yas.recommendation.service;
 import com.yas.recommendation.configuration.RecommendationConfig;
 import com.yas.recommendation.viewmodel.ProductDetailVm;
 import java.net.URI;
+import java.util.Collection;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
@@ -38,4 +40,27 @@ public class ProductService {
                 })
                 .getBody();
     }
+
+    /**
+     * Retrieves detailed information about several products with one call to the external API. Products that do
+     * not exist or are not published are left out of the result.
+     *
+     * @param productIds the unique identifiers of the products to fetch details for
+     * @return the {@link ProductDetailVm} of the published products
+     */
+    public List<ProductDetailVm> getProductDetails(Collection<Long> productIds) {
+        final URI url = UriComponentsBuilder
+                .fromHttpUrl(config.getApiUrl())
+                .path("/storefront/products/details")
+                .queryParam("ids", productIds)
+                .buildAndExpand()
+                .toUri();
+
+        return restClient.get()
+                .uri(url)
+                .retrieve()
+                .toEntity(new ParameterizedTypeReference<List<ProductDetailVm>>() {
+                })
+                .getBody();
+    }
 }
@@ -1,5 +1,6 @@
 package com.yas.recommendation.vector.common.document;
 
+import java.util.List;
 import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,14 +17,22 @@ import org.springframework.util.Assert;
 @Setter
 public abstract class BaseDocument {
 
+    public static final String CONTENT_HASH_METADATA = "contentHash";
+
     private Long entityId;
     private String content;
     private Map<String, Object> metadata;
     private ContentFormatter contentFormatter;
 
+    /*
+     * The content hash only tells whether a document changed, it must not end up in the embedded or inference text.
+     * The key lists copied from the default config are unmodifiable and empty, so they are replaced, not appended to.
+     */
     public static final ContentFormatter DEFAULT_CONTENT_FORMATTER = DefaultContentFormatter.builder()
         .from(DefaultContentFormatter.defaultConfig())
         .withTextTemplate(DocumentMetadata.DEFAULT_CONTENT_FORMATTER)
+        .withExcludedEmbedMetadataKeys(List.of(CONTENT_HASH_METADATA))
+        .withExcludedInferenceMetadataKeys(List.of(CONTENT_HASH_METADATA))
         .build();
 
     /**
@@ -0,0 +1,93 @@
+package com.yas.recommendation.vector.common.embedding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.util.Assert;
+
+/**
+ * Local {@link EmbeddingModel} using the hashing trick over a bag of words: every lower-cased token is hashed
+ * to one of the {@code dimensions} buckets with a hashed sign, and the vector is L2-normalized so cosine distance
+ * reflects the shared vocabulary of two products.
+ *
+ * <p>It needs no network access nor API key, and is deterministic, so it stands in for the Azure OpenAI model in
+ * CI, load tests and benchmarks. It has no notion of semantics and must not be used to serve recommendations.
+ */
+public class HashingEmbeddingModel implements EmbeddingModel {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int dimensions;
+
+    public HashingEmbeddingModel(int dimensions) {
+        Assert.isTrue(dimensions > 0, "Embedding dimensions must be positive");
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(embed(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getFormattedContent(MetadataMode.EMBED));
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            int hash = mix(token.hashCode());
+            vector[Math.floorMod(hash, dimensions)] += (hash & Integer.MIN_VALUE) == 0 ? 1f : -1f;
+        }
+        return normalize(vector);
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Spreads {@link String#hashCode()}, whose low bits are poorly distributed for short tokens (murmur3 finalizer).
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
@@ -1,23 +1,34 @@
 package com.yas.recommendation.vector.common.query;
 
+import static com.yas.recommendation.vector.common.store.SimpleVectorRepository.TYPE_METADATA;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
 import com.yas.recommendation.vector.common.document.BaseDocument;
 import com.yas.recommendation.vector.common.document.DocumentMetadata;
+import com.yas.recommendation.vector.common.store.HnswSearchSettings;
+import com.yas.recommendation.vector.common.store.RelatedDocumentStore;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.PgVectorFilterExpressionConverter;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Jdbc Vector service support native query vector search for document.
+ * Similar documents are read from the neighbour lists precomputed by {@link RelatedDocumentStore}, filtered
+ * searches run an approximate nearest neighbour query on the HNSW index.
  */
 @Service
+@Transactional
 class JdbcVectorService {
 
     public static final String DEFAULT_DOCID_PREFIX = "PRODUCT";
@@ -29,22 +40,91 @@ class JdbcVectorService {
     private final JdbcTemplate jdbcClient;
     private final DocumentRowMapper documentRowMapper;
     private final EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private final RelatedDocumentStore relatedDocumentStore;
+    private final HnswSearchSettings hnswSearchSettings;
+    private final PgVectorFilterExpressionConverter filterExpressionConverter = new PgVectorFilterExpressionConverter();
 
     public JdbcVectorService(
             JdbcTemplate jdbcClient,
             ObjectMapper objectMapper,
-            EmbeddingSearchConfiguration embeddingSearchConfiguration
+            EmbeddingSearchConfiguration embeddingSearchConfiguration,
+            RelatedDocumentStore relatedDocumentStore,
+            HnswSearchSettings hnswSearchSettings
     ) {
         this.jdbcClient = jdbcClient;
         this.documentRowMapper = new DocumentRowMapper(objectMapper);
         this.embeddingSearchConfiguration = embeddingSearchConfiguration;
+        this.relatedDocumentStore = relatedDocumentStore;
+        this.hnswSearchSettings = hnswSearchSettings;
     }
 
+    /**
+     * Returns the documents related to the given one, nearest first. The neighbour list is computed and stored
+     * on the first read when it is not precomputed yet.
+     */
     public <D extends BaseDocument> List<Document> similarityProduct(Long id, Class<D> docType) {
         String docIdPrefix = getDocIdPrefix(docType);
         UUID idStr = generateUuid(docIdPrefix, id);
 
-        return jdbcClient.query(getFormattedQuery(), getPreparedStatementSetter(idStr), documentRowMapper);
+        List<Document> documents = findRelatedDocuments(idStr);
+        if (documents.isEmpty() && relatedDocumentStore.computeIfAbsent(idStr)) {
+            documents = findRelatedDocuments(idStr);
+        }
+        return documents;
+    }
+
+    /**
+     * Runs the nearest neighbour query against the vector store directly, without the precomputed neighbour lists.
+     */
+    public <D extends BaseDocument> List<Document> searchSimilarProduct(Long id, Class<D> docType) {
+        return searchSimilarProduct(id, docType, null, null);
+    }
+
+    /**
+     * Runs the nearest neighbour query against the vector store directly, restricted to documents of the same
+     * type whose metadata matches the filter.
+     *
+     * @param id               the ID of the entity to search similar documents for.
+     * @param docType          the document type, only documents with the same type are returned.
+     * @param filterExpression metadata filter, or {@code null} for none.
+     * @param efSearch         HNSW candidate list size for this search, or {@code null} for the configured one.
+     *                         Larger values trade latency for recall.
+     * @return the nearest matching documents, nearest first.
+     */
+    public <D extends BaseDocument> List<Document> searchSimilarProduct(Long id, Class<D> docType,
+                                                                      Filter.Expression filterExpression,
+                                                                      Integer efSearch) {
+        String docIdPrefix = getDocIdPrefix(docType);
+        UUID idStr = generateUuid(docIdPrefix, id);
+
+        List<String> embeddings = jdbcClient.queryForList(
+                "SELECT embedding::text FROM %s WHERE id = ?".formatted(vectorTableName), String.class, idStr);
+        if (embeddings.isEmpty()) {
+            return List.of();
+        }
+        hnswSearchSettings.apply(efSearch);
+        return jdbcClient.query(getSimilarProductQuery(),
+                getSimilarProductStatementSetter(embeddings.getFirst(), idStr,
+                        toJsonPath(docIdPrefix, filterExpression)),
+                documentRowMapper);
+    }
+
+    private List<Document> findRelatedDocuments(UUID idStr) {
+        return jdbcClient.query("""
+                SELECT
+                    vs.id,
+                    vs.content,
+                    vs.metadata
+                FROM
+                    %s r
+                CROSS JOIN
+                    unnest(r.related_ids) WITH ORDINALITY AS related(id, position)
+                JOIN
+                    %s vs ON vs.id = related.id
+                WHERE r.id = ?
+                ORDER BY
+                    related.position
+                """.formatted(relatedDocumentStore.getTableName(), vectorTableName), documentRowMapper, idStr);
     }
 
     private String getDocIdPrefix(Class<?> docType) {
@@ -58,44 +138,55 @@ class JdbcVectorService {
         return UUID.nameUUIDFromBytes("%s-%s".formatted(docIdPrefix, id).getBytes());
     }
 
-    private PreparedStatementSetter getPreparedStatementSetter(UUID idStr) {
+    String toJsonPath(String docIdPrefix, Filter.Expression filterExpression) {
+        FilterExpressionBuilder b = new FilterExpressionBuilder();
+        Filter.Expression typeExpression = b.eq(TYPE_METADATA, docIdPrefix).build();
+        return filterExpressionConverter.convertExpression(filterExpression == null
+                ? typeExpression
+                : new Filter.Expression(Filter.ExpressionType.AND, typeExpression, filterExpression));
+    }
+
+    PreparedStatementSetter getSimilarProductStatementSetter(String embedding, UUID idStr, String jsonPath) {
         return ps -> {
-            StatementCreatorUtils.setParameterValue(ps, 1, Integer.MIN_VALUE, idStr);
-            StatementCreatorUtils.setParameterValue(ps, 2, Integer.MIN_VALUE, idStr);
+            StatementCreatorUtils.setParameterValue(ps, 1, Integer.MIN_VALUE, embedding);
+            StatementCreatorUtils.setParameterValue(ps, 2, Integer.MIN_VALUE, jsonPath);
             StatementCreatorUtils.setParameterValue(ps, 3, Integer.MIN_VALUE,
+                    embeddingSearchConfiguration.topK() + 1);
+            StatementCreatorUtils.setParameterValue(ps, 4, Integer.MIN_VALUE, idStr);
+            StatementCreatorUtils.setParameterValue(ps, 5, Integer.MIN_VALUE,
                     embeddingSearchConfiguration.similarityThreshold());
-            StatementCreatorUtils.setParameterValue(ps, 4, Integer.MIN_VALUE,
-                    embeddingSearchConfiguration.topK());
         };
     }
 
-    private String getFormattedQuery() {
+    /**
+     * The inner query orders by the cosine distance to a constant vector and limits, which is what the HNSW index
+     * can serve. Excluding the entity itself and the similarity threshold, compared with the cosine similarity
+     * {@code 1 - distance}, are applied to those candidates afterwards, and the outer sort restores the exact
+     * order when the index scan returns them in relaxed order.
+     */
+    String getSimilarProductQuery() {
         return """
-                WITH entity AS (
+                SELECT
+                    nearest.id,
+                    nearest.content,
+                    nearest.metadata,
+                    nearest.distance
+                FROM (
                     SELECT
-                        id,
-                        content,
-                        metadata,
-                        embedding
+                        vs.id,
+                        vs.content,
+                        vs.metadata,
+                        vs.embedding <=> ?::vector AS distance
                     FROM
-                        %s
-                    WHERE
-                        id = ?
-                )
-                SELECT
-                    vs.id,
-                    vs.content,
-                    vs.metadata,
-                    (vs.embedding <=> entity.embedding) AS similarity
-                FROM
-                    vector_store vs
-                JOIN
-                    entity ON true
-                WHERE vs.id <> ? AND (vs.embedding <=> entity.embedding) > ?
+                        %s vs
+                    WHERE vs.metadata::jsonb @@ ?::jsonpath
+                    ORDER BY
+                        distance
+                    LIMIT ?
+                ) nearest
+                WHERE nearest.id <> ? AND 1 - nearest.distance >= ?
                 ORDER BY
-                    similarity
-                LIMIT ?
+                    nearest.distance
                 """.formatted(vectorTableName);
     }
 }
-
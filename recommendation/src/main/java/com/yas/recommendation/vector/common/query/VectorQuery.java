@@ -7,6 +7,7 @@ import java.util.List;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -50,6 +51,20 @@ public abstract class VectorQuery<D extends BaseDocument, P> {
         return toResult(jdbcVectorService.similarityProduct(id, this.getDocType()));
     }
 
+    /**
+     * Performs an approximate nearest neighbour search for a product ID stored in db, restricted to documents
+     * whose metadata matches the filter.
+     *
+     * @param id               the ID of the product for which to perform the similarity search.
+     * @param filterExpression metadata filter, or {@code null} for none.
+     * @param efSearch         HNSW candidate list size, or {@code null} for the configured one.
+     * @return a list of product results that are similar to the specified product in db and match the filter,
+     *      result will not include specified product.
+     */
+    public List<P> similaritySearch(Long id, Filter.Expression filterExpression, Integer efSearch) {
+        return toResult(jdbcVectorService.searchSimilarProduct(id, this.getDocType(), filterExpression, efSearch));
+    }
+
     /**
      * Converts a list of documents to a list of product results.
      *
@@ -0,0 +1,41 @@
+package com.yas.recommendation.vector.common.store;
+
+import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Applies the configured HNSW search settings to the nearest neighbour queries of the current transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class HnswSearchSettings {
+
+    /* Using JdbcTemplate to keep consistency with Spring AI implementation, instead of using JPA, JdbcClient */
+    private final JdbcTemplate jdbcClient;
+    private final EmbeddingSearchConfiguration embeddingSearchConfiguration;
+
+    /**
+     * Sets {@code hnsw.ef_search} and {@code hnsw.iterative_scan} for the current transaction. Outside a
+     * transaction the settings only last for this statement, so callers must run in one.
+     *
+     * @param efSearch HNSW candidate list size, or {@code null} for the configured one.
+     */
+    public void apply(Integer efSearch) {
+        // set_config(..., true) only lasts for the current transaction, so pooled connections keep their defaults
+        Integer candidates = Optional.ofNullable(efSearch).orElse(embeddingSearchConfiguration.hnswEfSearch());
+        if (candidates != null) {
+            // The index never returns more rows than ef_search, keep room for the topK results and the entity itself
+            int effectiveCandidates = Math.max(candidates, embeddingSearchConfiguration.topK() + 1);
+            jdbcClient.queryForObject("SELECT set_config('hnsw.ef_search', ?, true)", String.class,
+                String.valueOf(effectiveCandidates));
+        }
+        if (StringUtils.hasText(embeddingSearchConfiguration.hnswIterativeScan())) {
+            jdbcClient.queryForObject("SELECT set_config('hnsw.iterative_scan', ?, true)", String.class,
+                embeddingSearchConfiguration.hnswIterativeScan());
+        }
+    }
+}
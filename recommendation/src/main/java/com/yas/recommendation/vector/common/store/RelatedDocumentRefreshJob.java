@@ -0,0 +1,56 @@
+package com.yas.recommendation.vector.common.store;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes every related document list periodically, catching up with the neighbours that incremental
+ * refresh does not see.
+ *
+ * <p>The job fires on every instance, a session level advisory lock keyed by the neighbour table name lets only
+ * one of them refresh. The lock is held on its own pooled connection for the whole refresh and released when the
+ * connection closes if the instance dies.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RelatedDocumentRefreshJob {
+    private final RelatedDocumentStore relatedDocumentStore;
+    private final JdbcTemplate jdbcClient;
+
+    @Scheduled(cron = "${yas.recommendation.related-documents.full-refresh-cron:0 0 3 * * *}")
+    public void refreshAll() {
+        Boolean refreshed = jdbcClient.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!callAdvisoryLock(connection, "pg_try_advisory_lock")) {
+                return false;
+            }
+            try {
+                relatedDocumentStore.refreshAll();
+                return true;
+            } finally {
+                callAdvisoryLock(connection, "pg_advisory_unlock");
+            }
+        });
+        if (!Boolean.TRUE.equals(refreshed)) {
+            log.info("Skipped related document refresh, another instance is running it");
+        }
+    }
+
+    private boolean callAdvisoryLock(Connection connection, String lockFunction) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT %s(hashtext(?))".formatted(lockFunction))) {
+            statement.setString(1, relatedDocumentStore.getTableName());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.yas.recommendation.vector.common.store;
+
+import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
+import com.yas.recommendation.configuration.RelatedDocumentConfiguration;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the top-K nearest neighbours of every document of the vector store in a table next to it, so reading
+ * related documents is a primary key lookup instead of a KNN query.
+ *
+ * <p>The neighbour lists are refreshed incrementally when documents are written or deleted, and recomputed for
+ * the whole store by {@link #refreshAll()}. Incremental refresh recomputes the changed documents, the lists that
+ * contained them and the lists of their new neighbours; a document that moved closer to another one outside those
+ * lists only shows up there after the next full refresh.
+ */
+@Slf4j
+@Component
+public class RelatedDocumentStore implements InitializingBean {
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String vectorTableName;
+
+    @Value("${spring.ai.vectorstore.pgvector.initialize-schema:false}")
+    private boolean initializeSchema;
+
+    /* Using JdbcTemplate to keep consistency with Spring AI implementation, instead of using JPA, JdbcClient */
+    private final JdbcTemplate jdbcClient;
+    private final EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private final RelatedDocumentConfiguration relatedDocumentConfiguration;
+    private final HnswSearchSettings hnswSearchSettings;
+    private final TransactionTemplate transactionTemplate;
+
+    public RelatedDocumentStore(JdbcTemplate jdbcClient,
+                                EmbeddingSearchConfiguration embeddingSearchConfiguration,
+                                RelatedDocumentConfiguration relatedDocumentConfiguration,
+                                HnswSearchSettings hnswSearchSettings,
+                                TransactionTemplate transactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.embeddingSearchConfiguration = embeddingSearchConfiguration;
+        this.relatedDocumentConfiguration = relatedDocumentConfiguration;
+        this.hnswSearchSettings = hnswSearchSettings;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!initializeSchema) {
+            return;
+        }
+        jdbcClient.execute("""
+            CREATE TABLE IF NOT EXISTS %s (
+                id uuid PRIMARY KEY,
+                related_ids uuid[] NOT NULL,
+                refreshed_at timestamptz NOT NULL
+            )""".formatted(getTableName()));
+        jdbcClient.execute("CREATE INDEX IF NOT EXISTS %1$s_related_ids_idx ON %1$s USING GIN (related_ids)"
+            .formatted(getTableName()));
+    }
+
+    /**
+     * Name of the neighbour table, the ids in {@code related_ids} are ordered from the nearest document.
+     */
+    public String getTableName() {
+        return vectorTableName + "_related";
+    }
+
+    /**
+     * Computes the neighbour list of a document that has none yet.
+     *
+     * @param docId id of the document in the vector store.
+     * @return whether a neighbour list was computed.
+     */
+    public boolean computeIfAbsent(UUID docId) {
+        return !recompute(List.of(docId), true).isEmpty();
+    }
+
+    /**
+     * Refreshes the neighbour lists affected by documents that were added or whose embedding changed.
+     * A failure is only logged, the documents themselves are already written and the next full refresh
+     * catches up.
+     *
+     * @param docIds ids of the written documents.
+     */
+    public void refresh(Collection<String> docIds) {
+        if (docIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<UUID> changedIds = toUuids(docIds);
+            Set<UUID> affectedIds = findListsContaining(changedIds);
+            recompute(changedIds, false);
+            affectedIds.addAll(findRelatedIds(changedIds));
+            changedIds.forEach(affectedIds::remove);
+            recompute(affectedIds, false);
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh related documents of {}", docIds, e);
+        }
+    }
+
+    /**
+     * Removes the neighbour lists of deleted documents and recomputes the lists that contained them.
+     * A failure is only logged, reads skip neighbours that no longer exist.
+     *
+     * @param docIds ids of the deleted documents.
+     */
+    public void remove(Collection<String> docIds) {
+        if (docIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<UUID> deletedIds = toUuids(docIds);
+            jdbcClient.update("DELETE FROM %s WHERE id = ANY(?)".formatted(getTableName()),
+                ps -> ps.setArray(1, toSqlArray(ps.getConnection(), deletedIds)));
+            recompute(findListsContaining(deletedIds), false);
+        } catch (DataAccessException e) {
+            log.warn("Failed to remove related documents of {}", docIds, e);
+        }
+    }
+
+    /**
+     * Recomputes the neighbour list of every document, in chunks of
+     * {@code yas.recommendation.related-documents.refresh-chunk-size} ids processed by
+     * {@code yas.recommendation.related-documents.refresh-parallelism} threads, then drops the lists of documents
+     * that no longer exist.
+     *
+     * @return the number of neighbour lists written.
+     */
+    public int refreshAll() {
+        AtomicInteger refreshedCount = new AtomicInteger();
+        AtomicInteger failedChunks = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(
+            relatedDocumentConfiguration.refreshParallelism())) {
+            List<UUID> chunk = findIdsAfter(null);
+            while (!chunk.isEmpty()) {
+                List<UUID> chunkIds = chunk;
+                executor.execute(() -> {
+                    try {
+                        refreshedCount.addAndGet(recompute(chunkIds, false).size());
+                    } catch (RuntimeException e) {
+                        failedChunks.incrementAndGet();
+                        log.error("Failed to refresh related documents from id {}", chunkIds.getFirst(), e);
+                    }
+                });
+                chunk = findIdsAfter(chunk.getLast());
+            }
+        }
+        int removedCount = jdbcClient.update(
+            "DELETE FROM %s r WHERE NOT EXISTS (SELECT 1 FROM %s vs WHERE vs.id = r.id)"
+                .formatted(getTableName(), vectorTableName));
+        log.info("Refreshed {} related document lists, removed {}, {} chunks failed", refreshedCount.get(),
+            removedCount, failedChunks.get());
+        return refreshedCount.get();
+    }
+
+    private List<UUID> recompute(Collection<UUID> docIds, boolean onlyMissing) {
+        if (docIds.isEmpty()) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> {
+            hnswSearchSettings.apply(null);
+            return jdbcClient.query(getRecomputeQuery(onlyMissing), ps -> {
+                StatementCreatorUtils.setParameterValue(ps, 1, Integer.MIN_VALUE,
+                    embeddingSearchConfiguration.topK() + 1);
+                StatementCreatorUtils.setParameterValue(ps, 2, Integer.MIN_VALUE,
+                    embeddingSearchConfiguration.similarityThreshold());
+                StatementCreatorUtils.setParameterValue(ps, 3, Integer.MIN_VALUE, embeddingSearchConfiguration.topK());
+                ps.setArray(4, toSqlArray(ps.getConnection(), docIds));
+            }, (rs, rowNum) -> rs.getObject("id", UUID.class));
+        });
+    }
+
+    /**
+     * The correlated subquery passes each source embedding as a parameter and only orders by the distance to it
+     * and limits, restricted to documents of the same type, so it can use the HNSW index. Excluding the source
+     * document and the similarity threshold are applied to those candidates afterwards, as in the filtered search.
+     */
+    private String getRecomputeQuery(boolean onlyMissing) {
+        return """
+            INSERT INTO %1$s (id, related_ids, refreshed_at)
+            SELECT
+                src.id,
+                ARRAY(
+                    SELECT nearest.id
+                    FROM (
+                        SELECT
+                            vs.id,
+                            vs.embedding <=> src.embedding AS distance
+                        FROM %2$s vs
+                        WHERE vs.metadata::jsonb ->> '%3$s' = src.metadata::jsonb ->> '%3$s'
+                        ORDER BY distance
+                        LIMIT ?
+                    ) nearest
+                    WHERE nearest.id <> src.id AND 1 - nearest.distance >= ?
+                    ORDER BY nearest.distance
+                    LIMIT ?
+                ),
+                now()
+            FROM %2$s src
+            WHERE src.id = ANY(?) %4$s
+            ON CONFLICT (id) DO UPDATE
+            SET related_ids = EXCLUDED.related_ids, refreshed_at = EXCLUDED.refreshed_at
+            RETURNING id
+            """.formatted(getTableName(), vectorTableName, SimpleVectorRepository.TYPE_METADATA,
+            onlyMissing ? "AND NOT EXISTS (SELECT 1 FROM %s r WHERE r.id = src.id)".formatted(getTableName()) : "");
+    }
+
+    private Set<UUID> findListsContaining(Collection<UUID> docIds) {
+        return new LinkedHashSet<>(jdbcClient.query(
+            "SELECT id FROM %s WHERE related_ids && ?".formatted(getTableName()),
+            ps -> ps.setArray(1, toSqlArray(ps.getConnection(), docIds)),
+            (rs, rowNum) -> rs.getObject("id", UUID.class)));
+    }
+
+    private List<UUID> findRelatedIds(Collection<UUID> docIds) {
+        return jdbcClient.query(
+            "SELECT DISTINCT unnest(related_ids) AS related_id FROM %s WHERE id = ANY(?)".formatted(getTableName()),
+            ps -> ps.setArray(1, toSqlArray(ps.getConnection(), docIds)),
+            (rs, rowNum) -> rs.getObject("related_id", UUID.class));
+    }
+
+    private List<UUID> findIdsAfter(UUID lastId) {
+        int chunkSize = relatedDocumentConfiguration.refreshChunkSize();
+        if (lastId == null) {
+            return jdbcClient.query("SELECT id FROM %s ORDER BY id LIMIT ?".formatted(vectorTableName),
+                (rs, rowNum) -> rs.getObject("id", UUID.class), chunkSize);
+        }
+        return jdbcClient.query("SELECT id FROM %s WHERE id > ? ORDER BY id LIMIT ?".formatted(vectorTableName),
+            (rs, rowNum) -> rs.getObject("id", UUID.class), lastId, chunkSize);
+    }
+
+    private static List<UUID> toUuids(Collection<String> docIds) {
+        List<UUID> uuids = new ArrayList<>(docIds.size());
+        docIds.forEach(docId -> uuids.add(UUID.fromString(docId)));
+        return uuids;
+    }
+
+    private static Array toSqlArray(Connection connection, Collection<UUID> docIds) throws SQLException {
+        return connection.createArrayOf("uuid", docIds.toArray());
+    }
+}
@@ -1,11 +1,20 @@
 package com.yas.recommendation.vector.common.store;
 
+import static com.yas.recommendation.vector.common.document.BaseDocument.CONTENT_HASH_METADATA;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
 import com.yas.recommendation.vector.common.document.BaseDocument;
 import com.yas.recommendation.vector.common.document.DefaultIdGenerator;
 import com.yas.recommendation.vector.common.document.DocumentMetadata;
 import com.yas.recommendation.vector.common.formatter.DocumentFormatter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.SneakyThrows;
@@ -33,6 +42,8 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
 
     private ObjectMapper objectMapper;
     private EmbeddingSearchConfiguration embeddingSearchConfiguration;
+    private VectorStoreBatchWriter vectorStoreBatchWriter;
+    private RelatedDocumentStore relatedDocumentStore;
 
     private final Class<D> docType;
     private final VectorStore vectorStore;
@@ -63,19 +74,57 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
      *
      * @param entityId the ID of the entity to fetch and add to the vector database
      */
-    @lombok.SneakyThrows
     public void add(Long entityId) {
-        final var entity = getEntity(entityId);
-        final var entityContentMap = objectMapper.convertValue(entity, Map.class);
-
-        D document = docType.getDeclaredConstructor().newInstance();
-        document.setContent(documentFormatter.format(entityContentMap, documentMetadata.contentFormat(), objectMapper));
-
-        entityContentMap.put(TYPE_METADATA, documentMetadata.docIdPrefix());
-        document.setMetadata(entityContentMap);
-
         final IdGenerator idGenerator = getIdGenerator(entityId);
-        vectorStore.add(List.of(document.toDocument(idGenerator)));
+        Document document = buildDocument(getEntity(entityId)).toDocument(idGenerator);
+        vectorStore.add(List.of(document));
+        relatedDocumentStore.refresh(List.of(document.getId()));
+    }
+
+    /**
+     * Adds or replaces the records of the given entities in the vector database. The entities are fetched with
+     * {@link #getEntities(Collection)} in one call. Entities whose formatted content has the same hash as the
+     * stored record are skipped, the others are embedded with a single call to the embedding model. The related
+     * document lists affected by the changed records are refreshed.
+     *
+     * @param entityIds the IDs of the entities to fetch and write to the vector database
+     * @return the entities that could not be fetched, with the cause
+     */
+    public Map<Long, Exception> upsert(Collection<Long> entityIds) {
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        Map<Long, E> entities;
+        try {
+            entities = entityIds.isEmpty() ? Map.of() : getEntities(entityIds);
+        } catch (Exception e) {
+            entityIds.forEach(entityId -> failures.put(entityId, e));
+            return failures;
+        }
+
+        Map<String, Document> documentsById = new LinkedHashMap<>();
+        for (Long entityId : entityIds) {
+            E entity = entities.get(entityId);
+            if (entity == null) {
+                failures.put(entityId, new IllegalStateException("Entity %d was not found".formatted(entityId)));
+                continue;
+            }
+            try {
+                D document = buildDocument(entity);
+                document.getMetadata().put(CONTENT_HASH_METADATA, hash(document.getContent()));
+                Document vectorDocument = document.toDocument(getIdGenerator(entityId));
+                documentsById.put(vectorDocument.getId(), vectorDocument);
+            } catch (Exception e) {
+                failures.put(entityId, e);
+            }
+        }
+
+        Map<String, String> storedContentHashes = vectorStoreBatchWriter.findContentHashes(documentsById.keySet());
+        List<Document> changedDocuments = documentsById.values().stream()
+                .filter(document -> !document.getMetadata().get(CONTENT_HASH_METADATA)
+                        .equals(storedContentHashes.get(document.getId())))
+                .toList();
+        vectorStoreBatchWriter.upsert(changedDocuments);
+        relatedDocumentStore.refresh(changedDocuments.stream().map(Document::getId).toList());
+        return failures;
     }
 
     /**
@@ -87,18 +136,35 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
         IdGenerator idGenerator = getIdGenerator(entityId);
         var docId = idGenerator.generateId();
         vectorStore.delete(List.of(docId));
+        relatedDocumentStore.remove(List.of(docId));
+    }
+
+    /**
+     * Deletes the records of the given entities from the vector store.
+     *
+     * @param entityIds the IDs of the entities to be deleted from the vector store
+     */
+    public void deleteAll(Collection<Long> entityIds) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        List<String> docIds = entityIds.stream().map(entityId -> getIdGenerator(entityId).generateId()).toList();
+        vectorStore.delete(docIds);
+        relatedDocumentStore.remove(docIds);
     }
 
     /**
      * Updates a record in the vector store for the given entity ID.
-     * The method first deletes the existing record by invoking {@link #delete(Long)}
-     * and then adds a new record using {@link #add(Long)}.
+     * The record is replaced in place, and is not embedded again when its formatted content did not change.
      *
      * @param entityId the ID of the entity to be updated in the vector store
      */
+    @SneakyThrows
     public void update(Long entityId) {
-        delete(entityId);
-        add(entityId);
+        Map<Long, Exception> failures = upsert(List.of(entityId));
+        if (!failures.isEmpty()) {
+            throw failures.get(entityId);
+        }
     }
 
     /**
@@ -133,6 +199,26 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
         return b.ne(FIELD_ID, id).build();
     }
 
+    /* The formatter flattens nested values such as categories into text, the metadata keeps them structured for
+     * the metadata filters, e.g. categories[*].id */
+    @SneakyThrows
+    private D buildDocument(E entity) {
+        final var entityContentMap = objectMapper.convertValue(entity, Map.class);
+
+        D document = docType.getDeclaredConstructor().newInstance();
+        document.setContent(documentFormatter.format(new HashMap<>(entityContentMap), documentMetadata.contentFormat(),
+                objectMapper));
+
+        entityContentMap.put(TYPE_METADATA, documentMetadata.docIdPrefix());
+        document.setMetadata(entityContentMap);
+        return document;
+    }
+
+    private static String hash(String content) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @SneakyThrows
     protected D toBaseDocument(Document document) {
         D baseDocument = docType.getDeclaredConstructor().newInstance();
@@ -146,6 +232,16 @@ public abstract class SimpleVectorRepository<D extends BaseDocument, E> implemen
         this.objectMapper = objectMapper;
     }
 
+    @Autowired
+    private void setVectorStoreBatchWriter(VectorStoreBatchWriter vectorStoreBatchWriter) {
+        this.vectorStoreBatchWriter = vectorStoreBatchWriter;
+    }
+
+    @Autowired
+    private void setRelatedDocumentStore(RelatedDocumentStore relatedDocumentStore) {
+        this.relatedDocumentStore = relatedDocumentStore;
+    }
+
     @Autowired
     private void setEmbeddingSearchConfiguration(EmbeddingSearchConfiguration embeddingSearchConfiguration) {
         this.embeddingSearchConfiguration = embeddingSearchConfiguration;
@@ -0,0 +1,106 @@
+package com.yas.recommendation.vector.common.store;
+
+import static com.yas.recommendation.vector.common.document.BaseDocument.CONTENT_HASH_METADATA;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes documents to the pgvector table with a single embedding model call per batch.
+ * The pgvector store embeds documents one by one when adding them, which costs one embedding request per
+ * product during catalog imports.
+ */
+@Component
+public class VectorStoreBatchWriter {
+
+    @Value("${spring.ai.vectorstore.pgvector.table-name:vector_store}")
+    private String vectorTableName;
+
+    /* Using JdbcTemplate to keep consistency with Spring AI implementation, instead of using JPA, JdbcClient */
+    private final JdbcTemplate jdbcClient;
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+
+    public VectorStoreBatchWriter(JdbcTemplate jdbcClient, EmbeddingModel embeddingModel, ObjectMapper objectMapper) {
+        this.jdbcClient = jdbcClient;
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the content hash stored with each of the given documents, documents without a hash are omitted.
+     *
+     * @param docIds ids of the documents to look up.
+     * @return content hash by document id.
+     */
+    public Map<String, String> findContentHashes(Collection<String> docIds) {
+        Map<String, String> contentHashes = new HashMap<>();
+        if (docIds.isEmpty()) {
+            return contentHashes;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(docIds.size(), "?"));
+        jdbcClient.query(
+            "SELECT id, metadata->>'%s' AS content_hash FROM %s WHERE id IN (%s)"
+                .formatted(CONTENT_HASH_METADATA, vectorTableName, placeholders),
+            rs -> {
+                String contentHash = rs.getString("content_hash");
+                if (contentHash != null) {
+                    contentHashes.put(rs.getString("id"), contentHash);
+                }
+            },
+            docIds.stream().map(UUID::fromString).toArray()
+        );
+        return contentHashes;
+    }
+
+    /**
+     * Embeds the documents with one call to the embedding model, then inserts or replaces them in one JDBC batch.
+     *
+     * @param documents documents to write.
+     */
+    public void upsert(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<float[]> embeddings = embeddingModel.embed(documents.stream()
+            .map(document -> document.getFormattedContent(MetadataMode.EMBED))
+            .toList());
+
+        List<Object[]> batchArgs = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            Document document = documents.get(i);
+            PGvector embedding = new PGvector(embeddings.get(i));
+            String metadata = toJson(document.getMetadata());
+            batchArgs.add(new Object[] {
+                UUID.fromString(document.getId()), document.getContent(), metadata, embedding,
+                document.getContent(), metadata, embedding
+            });
+        }
+        jdbcClient.batchUpdate("""
+            INSERT INTO %s (id, content, metadata, embedding) VALUES (?, ?, ?::jsonb, ?)
+            ON CONFLICT (id) DO UPDATE SET content = ?, metadata = ?::jsonb, embedding = ?
+            """.formatted(vectorTableName), batchArgs);
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Document metadata cannot be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.yas.recommendation.vector.product.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+/**
+ * Builds metadata filters over the product details stored with each product document.
+ */
+public final class RelatedProductFilter {
+
+    static final String CATEGORY_ID = "categories[*].id";
+    static final String PRICE = "price";
+    static final String PUBLISHED = "isPublished";
+
+    private RelatedProductFilter() {
+    }
+
+    /**
+     * Combines the given criteria, each one is ignored when {@code null}.
+     *
+     * @param categoryId only products in this category.
+     * @param minPrice   only products priced at least this amount.
+     * @param maxPrice   only products priced at most this amount.
+     * @return the filter expression, or {@code null} when no criteria is given.
+     */
+    public static Filter.Expression of(Long categoryId, Double minPrice, Double maxPrice) {
+        FilterExpressionBuilder b = new FilterExpressionBuilder();
+        List<FilterExpressionBuilder.Op> criteria = new ArrayList<>();
+        if (categoryId != null) {
+            criteria.add(b.eq(CATEGORY_ID, categoryId));
+        }
+        if (minPrice != null) {
+            criteria.add(b.gte(PRICE, minPrice));
+        }
+        if (maxPrice != null) {
+            criteria.add(b.lte(PRICE, maxPrice));
+        }
+        if (criteria.isEmpty()) {
+            return null;
+        }
+        // Unpublished products are removed from the vector store, this also guards against a delayed sync
+        criteria.add(b.eq(PUBLISHED, true));
+        return criteria.stream().reduce(b::and).map(FilterExpressionBuilder.Op::build).orElseThrow();
+    }
+}
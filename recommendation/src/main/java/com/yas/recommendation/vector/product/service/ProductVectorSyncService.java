@@ -2,6 +2,8 @@ package com.yas.recommendation.vector.product.service;
 
 import com.yas.commonlibrary.kafka.cdc.message.Product;
 import com.yas.recommendation.vector.product.store.ProductVectorRepository;
+import java.util.Collection;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -48,4 +50,23 @@ public class ProductVectorSyncService {
         productVectorRepository.delete(productId);
     }
 
+    /**
+     * Creates or replaces the vectors of the given products, embedding the changed ones in a single call.
+     *
+     * @param productIds The unique identifiers of the published products to be synchronized.
+     * @return the products that could not be synchronized, with the cause.
+     */
+    public Map<Long, Exception> upsertProductVectors(Collection<Long> productIds) {
+        return productVectorRepository.upsert(productIds);
+    }
+
+    /**
+     * Deletes the product vectors for the specified products.
+     *
+     * @param productIds The unique identifiers of the products whose vectors are to be deleted.
+     */
+    public void deleteProductVectors(Collection<Long> productIds) {
+        productVectorRepository.deleteAll(productIds);
+    }
+
 }
@@ -4,6 +4,10 @@ import com.yas.recommendation.service.ProductService;
 import com.yas.recommendation.vector.common.store.SimpleVectorRepository;
 import com.yas.recommendation.vector.product.document.ProductDocument;
 import com.yas.recommendation.viewmodel.ProductDetailVm;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.stereotype.Component;
 
@@ -24,4 +28,10 @@ public class ProductVectorRepository extends SimpleVectorRepository<ProductDocum
     public ProductDetailVm getEntity(Long id) {
         return productService.getProductDetail(id);
     }
+
+    @Override
+    public Map<Long, ProductDetailVm> getEntities(Collection<Long> ids) {
+        return productService.getProductDetails(ids).stream()
+            .collect(Collectors.toMap(ProductDetailVm::id, Function.identity()));
+    }
 }
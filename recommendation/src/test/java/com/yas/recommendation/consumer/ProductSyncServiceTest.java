@@ -0,0 +1,90 @@
+package com.yas.recommendation.consumer;
+
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
+import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
+import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.recommendation.kafka.consumer.ProductSyncService;
+import com.yas.recommendation.vector.product.service.ProductVectorSyncService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+
+class ProductSyncServiceTest {
+
+    private ProductVectorSyncService productVectorSyncService;
+    private DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer;
+    private ProductSyncService productSyncService;
+
+    @BeforeEach
+    void setUp() {
+        productVectorSyncService = mock(ProductVectorSyncService.class);
+        productCdcDeadLetterRecoverer = mock(DeadLetterPublishingRecoverer.class);
+        productSyncService = new ProductSyncService(productVectorSyncService, productCdcDeadLetterRecoverer);
+    }
+
+    @Test
+    void testSyncBatch_whenProductChangedSeveralTimes_embedItOnce() {
+        // Given
+        var records = List.of(
+            productRecord(0, 1L, CREATE, true),
+            productRecord(1, 1L, UPDATE, true),
+            productRecord(2, 1L, UPDATE, true),
+            productRecord(3, 2L, UPDATE, false),
+            productRecord(4, 3L, DELETE, true)
+        );
+        when(productVectorSyncService.upsertProductVectors(Set.of(1L))).thenReturn(Map.of());
+
+        // When
+        productSyncService.syncBatch(records);
+
+        // Then
+        verify(productVectorSyncService, times(1)).upsertProductVectors(Set.of(1L));
+        verify(productVectorSyncService, times(1)).deleteProductVectors(Set.of(2L, 3L));
+        verify(productCdcDeadLetterRecoverer, never()).accept(any(), any());
+    }
+
+    @Test
+    void testSyncBatch_whenProductFailsToSync_sendRecordToDeadLetterTopic() {
+        // Given
+        var failedRecord = productRecord(1, 2L, UPDATE, true);
+        var exception = new IllegalStateException("failed");
+        when(productVectorSyncService.upsertProductVectors(Set.of(1L, 2L))).thenReturn(Map.of(2L, exception));
+
+        // When
+        productSyncService.syncBatch(List.of(productRecord(0, 1L, CREATE, true), failedRecord));
+
+        // Then
+        verify(productCdcDeadLetterRecoverer, times(1)).accept(eq(failedRecord), eq(exception));
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> productRecord(
+        long offset, long productId, Operation operation, boolean published
+    ) {
+        return new ConsumerRecord<>(
+            "dbproduct.public.product",
+            0,
+            offset,
+            ProductMsgKey.builder().id(productId).build(),
+            ProductCdcMessage.builder()
+                .after(Product.builder().id(productId).isPublished(published).build())
+                .op(operation)
+                .build()
+        );
+    }
+}
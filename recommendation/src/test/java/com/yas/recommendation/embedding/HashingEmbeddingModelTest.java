@@ -0,0 +1,62 @@
+package com.yas.recommendation.embedding;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.yas.recommendation.vector.common.embedding.HashingEmbeddingModel;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class HashingEmbeddingModelTest {
+
+    private final HashingEmbeddingModel embeddingModel = new HashingEmbeddingModel(256);
+
+    @Test
+    void testEmbed_whenSameText_returnSameNormalizedVector() {
+        float[] first = embeddingModel.embed("IPhone 14 Pro| Apple| [Phone]");
+        float[] second = embeddingModel.embed("iphone 14 PRO| apple| [phone]");
+
+        assertArrayEquals(first, second);
+        assertEquals(256, first.length);
+        assertEquals(1.0, dot(first, first), 1e-5);
+    }
+
+    @Test
+    void testEmbed_whenDefaultLocaleIsTurkish_returnSameVectorAsRootLocale() {
+        float[] expected = embeddingModel.embed("IPhone INFINITY");
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertArrayEquals(expected, embeddingModel.embed("IPhone INFINITY"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void testEmbed_whenTextsShareWords_areMoreSimilarThanUnrelatedText() {
+        float[] phone = embeddingModel.embed("IPhone 14 Pro smartphone Apple");
+        float[] otherPhone = embeddingModel.embed("IPhone 15 Pro Max smartphone Apple");
+        float[] coffee = embeddingModel.embed("Organic espresso coffee beans");
+
+        assertTrue(dot(phone, otherPhone) > dot(phone, coffee));
+    }
+
+    @Test
+    void testEmbed_whenBatch_returnOneVectorPerText() {
+        List<float[]> embeddings = embeddingModel.embed(List.of("first product", "second product"));
+
+        assertEquals(2, embeddings.size());
+        assertArrayEquals(embeddingModel.embed("second product"), embeddings.get(1));
+    }
+
+    private static double dot(float[] left, float[] right) {
+        double sum = 0;
+        for (int i = 0; i < left.length; i++) {
+            sum += left[i] * right[i];
+        }
+        return sum;
+    }
+}
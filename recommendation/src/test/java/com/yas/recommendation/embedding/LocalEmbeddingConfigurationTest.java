@@ -0,0 +1,42 @@
+package com.yas.recommendation.embedding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yas.recommendation.configuration.LocalEmbeddingConfiguration;
+import com.yas.recommendation.vector.common.embedding.HashingEmbeddingModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.autoconfigure.azure.openai.AzureOpenAiAutoConfiguration;
+import org.springframework.ai.autoconfigure.vectorstore.pgvector.PgVectorStoreAutoConfiguration;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+class LocalEmbeddingConfigurationTest {
+
+    @Test
+    void testContext_whenLocalEmbeddingEnabledWithoutAzureSettings_startWithLocalEmbeddingModel() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EmbeddingConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "yas.recommendation.embedding.local.enabled=true",
+                "spring.ai.vectorstore.pgvector.dimensions=8")
+            .run()) {
+
+            assertThat(context.getBean(EmbeddingModel.class)).isInstanceOf(HashingEmbeddingModel.class);
+            assertThat(context.getBeanNamesForType(AzureOpenAiAutoConfiguration.class)).isEmpty();
+            assertThat(context.getEnvironment().getProperty("spring.autoconfigure.exclude"))
+                .contains(AzureOpenAiAutoConfiguration.class.getName());
+        }
+    }
+
+    @Configuration
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, PgVectorStoreAutoConfiguration.class})
+    @Import(LocalEmbeddingConfiguration.class)
+    static class EmbeddingConfiguration {
+    }
+}
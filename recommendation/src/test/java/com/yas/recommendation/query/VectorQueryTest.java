@@ -1,5 +1,6 @@
 package com.yas.recommendation.query;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -14,6 +15,7 @@ import com.yas.recommendation.viewmodel.RelatedProductVm;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -58,6 +60,7 @@ public class VectorQueryTest {
     @AfterEach
     public void tearDown() {
         jdbcClient.execute("DELETE FROM vector_store;");
+        jdbcClient.execute("DELETE FROM vector_store_related;");
     }
 
     @Test
@@ -82,6 +85,29 @@ public class VectorQueryTest {
         assertFalse(relatedProductVms.isEmpty());
     }
 
+    @Test
+    public void testSimilaritySearch_whenRelatedProductDeleted_shouldRefreshRelatedProducts() {
+        // Given
+        when(embeddingSearchConfiguration.topK()).thenReturn(10);
+        when(embeddingSearchConfiguration.similarityThreshold()).thenReturn(-1D);
+        when(embeddingModel.embed(any(Document.class))).thenReturn(randomEmbed());
+        for (long productId = -1; productId >= -3; productId--) {
+            when(productService.getProductDetail(productId)).thenReturn(getProductDetailVm(productId));
+            productVectorRepository.add(productId);
+        }
+
+        // When
+        List<Long> relatedBeforeDelete = relatedProductQuery.similaritySearch(-2L).stream()
+            .map(RelatedProductVm::getProductId).toList();
+        productVectorRepository.delete(-3L);
+        List<Long> relatedAfterDelete = relatedProductQuery.similaritySearch(-2L).stream()
+            .map(RelatedProductVm::getProductId).toList();
+
+        // Then
+        assertEquals(Set.of(-1L, -3L), Set.copyOf(relatedBeforeDelete));
+        assertEquals(List.of(-1L), relatedAfterDelete);
+    }
+
     private static float @NotNull [] randomEmbed() {
         int size = 1536;
         float[] floatArray = new float[size];
@@ -63,6 +63,7 @@ public class BaseVectorRepositoryTest<D extends BaseDocument, E> {
         var expectedMetadata = objectMapper.convertValue(entity, Map.class);
         expectedMetadata.put(TYPE_METADATA, documentMetadata.docIdPrefix());
         assertEquals(expectedMetadata.keySet(), createdDoc.getMetadata().keySet());
+        assertEquals(expectedMetadata, createdDoc.getMetadata(), "Document's metadata must keep the entity values");
     }
 
     public void assertSearchRequest(SearchRequest searchRequest, E entity) {
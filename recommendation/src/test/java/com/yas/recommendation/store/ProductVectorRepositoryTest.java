@@ -4,8 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,6 +16,8 @@ import com.azure.ai.openai.OpenAIClient;
 import com.yas.recommendation.config.KafkaIntegrationTestConfiguration;
 import com.yas.recommendation.configuration.EmbeddingSearchConfiguration;
 import com.yas.recommendation.service.ProductService;
+import com.yas.recommendation.vector.common.store.RelatedDocumentStore;
+import com.yas.recommendation.vector.common.store.VectorStoreBatchWriter;
 import com.yas.recommendation.vector.product.document.ProductDocument;
 import com.yas.recommendation.vector.product.store.ProductVectorRepository;
 import com.yas.recommendation.viewmodel.ProductDetailVm;
@@ -21,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -51,6 +56,12 @@ public class ProductVectorRepositoryTest extends BaseVectorRepositoryTest<Produc
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private RelatedDocumentStore relatedDocumentStore;
+
+    @MockBean
+    private VectorStoreBatchWriter vectorStoreBatchWriter;
+
     @Autowired
     private ProductVectorRepository productVectorRepository;
 
@@ -142,6 +153,25 @@ public class ProductVectorRepositoryTest extends BaseVectorRepositoryTest<Produc
         assertDocumentData(createdDoc, productDetailVm);
     }
 
+    @DisplayName("When upserting documents, products must be fetched with one call and missing ones reported")
+    @Test
+    public void testUpsertDocuments() {
+        // Given
+        ProductDetailVm productDetailVm = getProductDetailVm(1L);
+
+        // When
+        when(productService.getProductDetails(List.of(1L, 2L))).thenReturn(List.of(productDetailVm));
+        Map<Long, Exception> failures = productVectorRepository.upsert(List.of(1L, 2L));
+
+        // Then
+        assertEquals(Set.of(2L), failures.keySet());
+        verify(productService, never()).getProductDetail(anyLong());
+        ArgumentCaptor<List<Document>> docsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(vectorStoreBatchWriter).upsert(docsCaptor.capture());
+        assertEquals(List.of(productVectorRepository.getIdGenerator(1L).generateId()),
+            docsCaptor.getValue().stream().map(Document::getId).toList());
+    }
+
     private static @NotNull ProductDetailVm getProductDetailVm(long productId) {
         return new ProductDetailVm(
             productId,
@@ -0,0 +1,36 @@
+package com.yas.recommendation.vector.common.document;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.yas.recommendation.vector.product.document.ProductDocument;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.DefaultContentFormatter;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+
+class BaseDocumentTest {
+
+    private static final String CONTENT_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Test
+    void toDocument_whenMetadataHasContentHash_shouldLeaveItOutOfEmbeddedContent() {
+        ProductDocument productDocument = new ProductDocument();
+        productDocument.setContent("Dell XPS");
+        productDocument.setMetadata(new HashMap<>(Map.of(
+            "name", "Dell XPS", BaseDocument.CONTENT_HASH_METADATA, CONTENT_HASH)));
+        productDocument.setContentFormatter(DefaultContentFormatter.builder()
+            .from((DefaultContentFormatter) BaseDocument.DEFAULT_CONTENT_FORMATTER)
+            .withTextTemplate("{metadata_string}\n\n{content}")
+            .build());
+
+        Document document = productDocument.toDocument(contents -> "1");
+
+        String embeddedContent = document.getFormattedContent(MetadataMode.EMBED);
+        assertTrue(embeddedContent.contains("Dell XPS"));
+        assertFalse(embeddedContent.contains(CONTENT_HASH));
+        assertFalse(document.getFormattedContent(MetadataMode.INFERENCE).contains(CONTENT_HASH));
+    }
+}
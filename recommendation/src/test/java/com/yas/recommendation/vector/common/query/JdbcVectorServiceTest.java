@@ -0,0 +1,164 @@
+package com.yas.recommendation.vector.common.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.yas.recommendation.config.KafkaIntegrationTestConfiguration;
+import com.yas.recommendation.service.ProductService;
+import com.yas.recommendation.vector.product.document.ProductDocument;
+import com.yas.recommendation.vector.product.query.RelatedProductFilter;
+import com.yas.recommendation.vector.product.store.ProductVectorRepository;
+import com.yas.recommendation.viewmodel.CategoryVm;
+import com.yas.recommendation.viewmodel.ProductDetailVm;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@SpringBootTest
+@Import(KafkaIntegrationTestConfiguration.class)
+@TestPropertySource("classpath:application-test.properties")
+class JdbcVectorServiceTest {
+
+    private static final long PHONE_CATEGORY_ID = 1L;
+    private static final long LAPTOP_CATEGORY_ID = 2L;
+
+    @Autowired
+    private JdbcTemplate jdbcClient;
+
+    @Autowired
+    private JdbcVectorService jdbcVectorService;
+
+    @Autowired
+    private ProductVectorRepository productVectorRepository;
+
+    @MockBean
+    private EmbeddingModel embeddingModel;
+
+    @MockBean
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        when(embeddingModel.embed(any(Document.class))).thenAnswer(invocation -> randomEmbed(random));
+        for (long productId = 1; productId <= 6; productId++) {
+            long categoryId = productId % 2 == 0 ? LAPTOP_CATEGORY_ID : PHONE_CATEGORY_ID;
+            when(productService.getProductDetail(productId))
+                .thenReturn(getProductDetailVm(productId, categoryId, productId * 100.0));
+            productVectorRepository.add(productId);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcClient.execute("DELETE FROM vector_store;");
+        jdbcClient.execute("DELETE FROM vector_store_related;");
+    }
+
+    @Test
+    void testSearchSimilarProduct_whenFiltered_returnOnlyMatchingProducts() {
+        Filter.Expression filter = RelatedProductFilter.of(LAPTOP_CATEGORY_ID, null, 500.0);
+
+        List<Document> documents = jdbcVectorService.searchSimilarProduct(1L, ProductDocument.class, filter, 100);
+
+        assertThat(documents).extracting(document -> ((Number) document.getMetadata().get("id")).longValue())
+            .containsExactlyInAnyOrder(2L, 4L);
+    }
+
+    @Test
+    void testSearchSimilarProduct_whenNotFiltered_excludeProductItself() {
+        List<Document> documents = jdbcVectorService.searchSimilarProduct(1L, ProductDocument.class);
+
+        assertThat(documents).extracting(document -> ((Number) document.getMetadata().get("id")).longValue())
+            .containsExactlyInAnyOrder(2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void testSimilarityProduct_whenPrecomputed_excludeProductItself() {
+        List<Document> documents = jdbcVectorService.similarityProduct(1L, ProductDocument.class);
+
+        assertThat(documents).extracting(document -> ((Number) document.getMetadata().get("id")).longValue())
+            .containsExactlyInAnyOrder(2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void testSimilarProductQuery_whenExplained_useHnswIndexOrdering() {
+        String plan = explainSimilarProductQuery(null);
+
+        assertThat(plan).contains("Index Scan using spring_ai_vector_index").contains("Limit");
+    }
+
+    @Test
+    void testSimilarProductQuery_whenFilteredAndExplained_filterOnHnswIndexScan() {
+        String plan = explainSimilarProductQuery(RelatedProductFilter.of(PHONE_CATEGORY_ID, 100.0, 300.0));
+
+        assertThat(plan).contains("Index Scan using spring_ai_vector_index").contains("jsonpath");
+    }
+
+    /**
+     * Sequential scans are disabled so that the plan shows whether the query can use the HNSW index at all,
+     * the planner would rather scan a table this small.
+     */
+    private String explainSimilarProductQuery(Filter.Expression filterExpression) {
+        UUID docId = UUID.fromString(productVectorRepository.getIdGenerator(1L).generateId());
+        String embedding = jdbcClient.queryForObject("SELECT embedding::text FROM vector_store WHERE id = ?",
+            String.class, docId);
+        String jsonPath = jdbcVectorService.toJsonPath(ProductDocument.PREFIX_PRODUCT, filterExpression);
+        return jdbcClient.execute((ConnectionCallback<String>) connection -> {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement();
+                 PreparedStatement explain = connection.prepareStatement(
+                     "EXPLAIN " + jdbcVectorService.getSimilarProductQuery())) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+                jdbcVectorService.getSimilarProductStatementSetter(embedding, docId, jsonPath).setValues(explain);
+                List<String> planLines = new ArrayList<>();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        planLines.add(resultSet.getString(1));
+                    }
+                }
+                return String.join("\n", planLines);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    private static float[] randomEmbed(Random random) {
+        float[] floatArray = new float[1536];
+        for (int i = 0; i < floatArray.length; i++) {
+            floatArray[i] = random.nextFloat();
+        }
+        return floatArray;
+    }
+
+    private static ProductDetailVm getProductDetailVm(long productId, long categoryId, double price) {
+        CategoryVm category = new CategoryVm(categoryId, "category-" + categoryId, null, null, null, null, null,
+            true);
+        return new ProductDetailVm(productId, "Product " + productId, null, null, null, "SKU" + productId, null,
+            "product-" + productId, true, true, false, true, false, price, 1L, List.of(category), null, null, null,
+            null, "Brand", Collections.emptyList(), Collections.emptyList(), null, Collections.emptyList());
+    }
+}
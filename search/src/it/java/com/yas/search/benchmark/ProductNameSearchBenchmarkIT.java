@@ -0,0 +1,211 @@
+package com.yas.search.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import com.yas.search.config.SearchTestConfig;
+import com.yas.search.constant.ProductField;
+import com.yas.search.model.Product;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import org.elasticsearch.common.unit.Fuzziness;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+
+/**
+ * Compares the previous product name mapping (one edge-ngram 1-50 field used for everything) with the current
+ * one (standard field plus a bounded edge-ngram autocomplete subfield). Reports the index size and the p99
+ * latency of autocomplete and catalog search on each.
+ *
+ * <p>Run with {@code mvn verify -Dsearch.benchmark=true}; it is skipped otherwise.
+ */
+@Import(SearchTestConfig.class)
+@SpringBootTest
+@PropertySource("classpath:application.properties")
+@EnabledIfSystemProperty(named = "search.benchmark", matches = "true")
+class ProductNameSearchBenchmarkIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductNameSearchBenchmarkIT.class);
+
+    private static final String LEGACY_INDEX = "product-benchmark-legacy";
+    private static final String CURRENT_INDEX = "product-benchmark-current";
+    private static final int PRODUCT_COUNT = 20_000;
+    private static final int QUERY_COUNT = 1_000;
+    private static final int WARMUP_COUNT = 100;
+
+    private static final String LEGACY_SETTINGS = """
+        {"analysis": {
+          "filter": {"autocomplete_filter": {"type": "edge_ngram", "min_gram": 1, "max_gram": 50}},
+          "analyzer": {
+            "autocomplete_search": {"type": "custom", "tokenizer": "standard", "filter": ["lowercase"]},
+            "autocomplete_index": {"type": "custom", "tokenizer": "standard",
+              "filter": ["lowercase", "autocomplete_filter"]}
+          }
+        }}""";
+    private static final String LEGACY_NAME_MAPPING = """
+        {"type": "text", "analyzer": "autocomplete_index", "search_analyzer": "autocomplete_search"}""";
+
+    private static final List<String> WORDS = List.of("apple", "samsung", "xiaomi", "macbook", "galaxy",
+        "iphone", "ultra", "professional", "wireless", "headphone", "keyboard", "monitor", "charger", "tablet",
+        "notebook", "gaming", "mechanical", "bluetooth", "speaker", "camera", "mirrorless", "portable", "smart",
+        "watch", "television", "refrigerator", "conditioner", "vacuum", "cleaner", "espresso");
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @AfterEach
+    void tearDown() {
+        elasticsearchOperations.indexOps(IndexCoordinates.of(LEGACY_INDEX)).delete();
+        elasticsearchOperations.indexOps(IndexCoordinates.of(CURRENT_INDEX)).delete();
+    }
+
+    @Test
+    void compareLegacyAndCurrentNameMapping() throws IOException {
+        createLegacyIndex();
+        createCurrentIndex();
+        List<IndexQuery> products = buildProducts();
+        IndexCoordinates legacyIndex = IndexCoordinates.of(LEGACY_INDEX);
+        IndexCoordinates currentIndex = IndexCoordinates.of(CURRENT_INDEX);
+        loadProducts(products, legacyIndex);
+        loadProducts(products, currentIndex);
+
+        List<String> prefixes = randomKeywords(word -> word.substring(0, 1 + new Random(word.hashCode())
+            .nextInt(word.length())));
+        List<String> keywords = randomKeywords(Function.identity());
+
+        double legacyAutocomplete = p99(prefixes, prefix -> NativeQuery.builder()
+            .withQuery(q -> q.matchPhrasePrefix(m -> m.field(ProductField.NAME).query(prefix)))
+            .build(), legacyIndex);
+        double currentAutocomplete = p99(prefixes, prefix -> NativeQuery.builder()
+            .withQuery(q -> q.match(m -> m.field(ProductField.NAME_AUTOCOMPLETE).query(prefix)
+                .operator(Operator.And)))
+            .withPageable(PageRequest.of(0, 10))
+            .build(), currentIndex);
+        double legacySearch = p99(keywords, this::catalogSearch, legacyIndex);
+        double currentSearch = p99(keywords, this::catalogSearch, currentIndex);
+
+        LOG.info("""
+
+                Product name mapping benchmark ({} products, p99 over {} queries)
+                                   legacy      current
+                index size (KB)    {}    {}
+                autocomplete (ms)  {}    {}
+                search (ms)        {}    {}""",
+            PRODUCT_COUNT, QUERY_COUNT,
+            indexSizeKb(LEGACY_INDEX), indexSizeKb(CURRENT_INDEX),
+            legacyAutocomplete, currentAutocomplete,
+            legacySearch, currentSearch);
+        assertThat(indexSizeKb(CURRENT_INDEX)).isLessThan(indexSizeKb(LEGACY_INDEX));
+    }
+
+    private void createLegacyIndex() {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(LEGACY_INDEX));
+        Document mapping = indexOperations.createMapping(Product.class);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> properties = (Map<String, Object>) mapping.get("properties");
+        properties.put(ProductField.NAME, Document.parse(LEGACY_NAME_MAPPING));
+        indexOperations.create(Settings.parse(LEGACY_SETTINGS), mapping);
+    }
+
+    private void createCurrentIndex() {
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(CURRENT_INDEX));
+        indexOperations.create(indexOperations.createSettings(Product.class),
+            indexOperations.createMapping(Product.class));
+    }
+
+    private void loadProducts(List<IndexQuery> products, IndexCoordinates index) throws IOException {
+        for (int from = 0; from < products.size(); from += 1_000) {
+            elasticsearchOperations.bulkIndex(products.subList(from, Math.min(from + 1_000, products.size())), index);
+        }
+        elasticsearchOperations.indexOps(index).refresh();
+        elasticsearchClient.indices().forcemerge(f -> f.index(index.getIndexName()).maxNumSegments(1L));
+    }
+
+    private NativeQuery catalogSearch(String keyword) {
+        return NativeQuery.builder()
+            .withQuery(q -> q.multiMatch(m -> m
+                .fields(ProductField.NAME, ProductField.BRAND, ProductField.CATEGORIES)
+                .query(keyword)
+                .fuzziness(Fuzziness.ONE.asString())))
+            .withPageable(PageRequest.of(0, 12))
+            .build();
+    }
+
+    private double p99(List<String> keywords, Function<String, NativeQuery> queryFactory, IndexCoordinates index) {
+        keywords.stream().limit(WARMUP_COUNT)
+            .forEach(keyword -> elasticsearchOperations.search(queryFactory.apply(keyword), Product.class, index));
+        long[] latencies = new long[keywords.size()];
+        for (int i = 0; i < keywords.size(); i++) {
+            NativeQuery query = queryFactory.apply(keywords.get(i));
+            long start = System.nanoTime();
+            elasticsearchOperations.search(query, Product.class, index);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000d;
+    }
+
+    private long indexSizeKb(String indexName) throws IOException {
+        return elasticsearchClient.indices().stats(s -> s.index(indexName))
+            .indices().get(indexName).primaries().store().sizeInBytes() / 1024;
+    }
+
+    private static List<IndexQuery> buildProducts() {
+        Random random = new Random(42);
+        return LongStream.rangeClosed(1, PRODUCT_COUNT)
+            .mapToObj(id -> Product.builder()
+                .id(id)
+                .name(randomName(random))
+                .brand(WORDS.get(random.nextInt(3)))
+                .categories(List.of(WORDS.get(random.nextInt(WORDS.size()))))
+                .isPublished(true)
+                .build())
+            .map(product -> new IndexQueryBuilder()
+                .withId(String.valueOf(product.getId()))
+                .withObject(product)
+                .build())
+            .toList();
+    }
+
+    private static String randomName(Random random) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 3 + random.nextInt(4); i++) {
+            words.add(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return String.join(" ", words) + " " + random.nextInt(1_000);
+    }
+
+    private static List<String> randomKeywords(Function<String, String> wordMapper) {
+        Random random = new Random(7);
+        return random.ints(QUERY_COUNT, 0, WORDS.size())
+            .mapToObj(WORDS::get)
+            .map(wordMapper)
+            .toList();
+    }
+}
@@ -100,4 +100,32 @@ public class ProductControllerIT extends AbstractControllerIT {
             .log()
             .ifValidationFails();
     }
+
+    @Test
+    public void test_productSearchAutoComplete_whenFirstKeystroke_shouldReturnProduct() {
+        given(getRequestSpecification())
+            .auth().oauth2(getAccessToken("admin", "admin"))
+            .contentType(ContentType.JSON)
+            .queryParam("keyword", "m")
+            .get("/search/storefront/search_suggest")
+            .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("productNames", hasSize(1))
+            .log()
+            .ifValidationFails();
+    }
+
+    @Test
+    public void test_productSearchAutoComplete_whenLastWordHasOneCharacter_shouldReturnProduct() {
+        given(getRequestSpecification())
+            .auth().oauth2(getAccessToken("admin", "admin"))
+            .contentType(ContentType.JSON)
+            .queryParam("keyword", "Macbook M")
+            .get("/search/storefront/search_suggest")
+            .then()
+            .statusCode(HttpStatus.OK.value())
+            .body("productNames", hasSize(1))
+            .log()
+            .ifValidationFails();
+    }
 }
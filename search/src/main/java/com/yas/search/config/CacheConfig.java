@@ -0,0 +1,16 @@
+package com.yas.search.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Normalized {@link com.yas.search.model.ProductCriteriaDto} to
+     * {@link com.yas.search.viewmodel.ProductListGetVm} mappings, stored with the time their search took. Size, TTL
+     * and stats recording are configured through {@code spring.cache.caffeine.spec}.
+     */
+    public static final String PRODUCT_SEARCH_CACHE = "product-search";
+}
@@ -0,0 +1,8 @@
+package com.yas.search.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "product.reindex")
+public record ProductReindexConfig(int pageSize, int concurrency, Duration dualWriteDelay) {
+}
@@ -5,4 +5,6 @@ public final class MessageCode {
     private MessageCode() {}
 
     public static final String PRODUCT_NOT_FOUND = "PRODUCT_NOT_FOUND";
+    public static final String PRODUCT_INDEXING_FAILED = "PRODUCT_INDEXING_FAILED";
+    public static final String REINDEX_ALREADY_RUNNING = "REINDEX_ALREADY_RUNNING";
 }
@@ -2,6 +2,7 @@ package com.yas.search.constant;
 
 public class ProductField {
     public static final String NAME = "name";
+    public static final String NAME_AUTOCOMPLETE = "name.autocomplete";
     public static final String BRAND = "brand";
     public static final String PRICE = "price";
     public static final String IS_PUBLISHED = "isPublished";
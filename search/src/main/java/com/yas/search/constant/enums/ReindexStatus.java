@@ -0,0 +1,5 @@
+package com.yas.search.constant.enums;
+
+public enum ReindexStatus {
+    IDLE, RUNNING, COMPLETED, FAILED
+}
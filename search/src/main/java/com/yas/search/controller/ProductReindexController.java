@@ -0,0 +1,28 @@
+package com.yas.search.controller;
+
+import com.yas.search.service.ProductReindexService;
+import com.yas.search.viewmodel.ReindexStatusVm;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ProductReindexController {
+    private final ProductReindexService productReindexService;
+
+    public ProductReindexController(ProductReindexService productReindexService) {
+        this.productReindexService = productReindexService;
+    }
+
+    @PostMapping("/backoffice/products/reindex")
+    public ResponseEntity<ReindexStatusVm> startReindex() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(productReindexService.startReindex());
+    }
+
+    @GetMapping("/backoffice/products/reindex")
+    public ResponseEntity<ReindexStatusVm> getReindexStatus() {
+        return ResponseEntity.ok(productReindexService.getStatus());
+    }
+}
@@ -1,16 +1,27 @@
 package com.yas.search.kafka.consumer;
 
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
+import static com.yas.search.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY;
+import static com.yas.search.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_KEY_ORDERED_LISTENER_CONTAINER_FACTORY;
 import static com.yas.search.kafka.config.consumer.ProductCdcKafkaListenerConfig.PRODUCT_CDC_LISTENER_CONTAINER_FACTORY;
 
 import com.yas.commonlibrary.kafka.cdc.BaseCdcConsumer;
+import com.yas.commonlibrary.kafka.cdc.KeyOrderedExecutor;
 import com.yas.commonlibrary.kafka.cdc.RetrySupportDql;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
+import com.yas.search.service.ProductService;
 import com.yas.search.service.ProductSyncDataService;
 import jakarta.validation.Valid;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.handler.annotation.Header;
@@ -20,22 +31,38 @@ import org.springframework.stereotype.Service;
 
 /**
  * Product synchronize data consumer for elasticsearch.
+ * Runs either record by record (default) or, when {@code product.sync.batch.enabled} is set, in batch mode
+ * where every poll is collapsed per product and written with a single bulk request. When
+ * {@code product.sync.key-ordered.enabled} is set instead, the records of a poll are synced one by one, in parallel
+ * across products and in order for each product.
+ * Every consumed change invalidates the storefront search result cache. Records that are not newer than the last
+ * change applied for their product are skipped in both modes.
  */
 @Slf4j
 @Service
 public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, ProductCdcMessage> {
 
     private final ProductSyncDataService productSyncDataService;
+    private final ProductService productService;
+    private final DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer;
+    private final KeyOrderedExecutor productCdcKeyOrderedExecutor;
 
-    public ProductSyncDataConsumer(ProductSyncDataService productSyncDataService) {
+    public ProductSyncDataConsumer(ProductSyncDataService productSyncDataService,
+                                   ProductService productService,
+                                   DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer,
+                                   KeyOrderedExecutor productCdcKeyOrderedExecutor) {
         this.productSyncDataService = productSyncDataService;
+        this.productService = productService;
+        this.productCdcDeadLetterRecoverer = productCdcDeadLetterRecoverer;
+        this.productCdcKeyOrderedExecutor = productCdcKeyOrderedExecutor;
     }
 
     @KafkaListener(
         id = "product-sync-es",
         groupId = "product-sync-search",
         topics = "${product.topic.name}",
-        containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY
+        containerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "#{!${product.sync.batch.enabled:false} && !${product.sync.key-ordered.enabled:false}}"
     )
     @RetrySupportDql(listenerContainerFactory = PRODUCT_CDC_LISTENER_CONTAINER_FACTORY)
     public void processMessage(
@@ -46,6 +73,30 @@ public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, Prod
         processMessage(key, productCdcMessage, headers, this::sync);
     }
 
+    @KafkaListener(
+        id = "product-sync-es-batch",
+        groupId = "product-sync-search",
+        topics = "${product.topic.name}",
+        containerFactory = PRODUCT_CDC_BATCH_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "${product.sync.batch.enabled:false}"
+    )
+    public void processMessages(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        log.debug("## Received batch of {} product records", records.size());
+        syncBatch(records);
+    }
+
+    @KafkaListener(
+        id = "product-sync-es-key-ordered",
+        groupId = "product-sync-search",
+        topics = "${product.topic.name}",
+        containerFactory = PRODUCT_CDC_KEY_ORDERED_LISTENER_CONTAINER_FACTORY,
+        autoStartup = "#{${product.sync.key-ordered.enabled:false} && !${product.sync.batch.enabled:false}}"
+    )
+    public void processKeyOrderedMessages(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        log.debug("## Received {} product records for key ordered processing", records.size());
+        processMessagesByKey(records, productCdcKeyOrderedExecutor, this::sync);
+    }
+
     public void sync(ProductMsgKey key, ProductCdcMessage productCdcMessage) {
         boolean isHardDeleteEvent = productCdcMessage == null || DELETE.equals(productCdcMessage.getOp());
         if (isHardDeleteEvent) {
@@ -60,5 +111,55 @@ public class ProductSyncDataConsumer extends BaseCdcConsumer<ProductMsgKey, Prod
                 default -> log.warn("Unsupported operation '{}' for product: '{}'", operation, productId);
             }
         }
+        productService.evictProductSearchCache();
+    }
+
+    /**
+     * Drops the stale records, collapses the others by product id, keeping the latest one, then deletes and
+     * re-indexes the products in bulk. Products that fail individually are published to the dead letter topic
+     * with their record.
+     */
+    public void syncBatch(List<ConsumerRecord<ProductMsgKey, ProductCdcMessage>> records) {
+        Map<Long, ConsumerRecord<ProductMsgKey, ProductCdcMessage>> latestRecordByProductId = new LinkedHashMap<>();
+        for (ConsumerRecord<ProductMsgKey, ProductCdcMessage> consumerRecord : dropStaleRecords(records)) {
+            ProductMsgKey key = consumerRecord.key();
+            if (key == null || key.getId() == null) {
+                productCdcDeadLetterRecoverer.accept(consumerRecord,
+                    new IllegalArgumentException("Product record has no product id"));
+                continue;
+            }
+            latestRecordByProductId.put(key.getId(), consumerRecord);
+        }
+
+        Set<Long> deletedProductIds = new LinkedHashSet<>();
+        Set<Long> upsertedProductIds = new LinkedHashSet<>();
+        latestRecordByProductId.forEach((productId, consumerRecord) -> {
+            ProductCdcMessage productCdcMessage = consumerRecord.value();
+            if (productCdcMessage == null || DELETE.equals(productCdcMessage.getOp())) {
+                deletedProductIds.add(productId);
+                return;
+            }
+            switch (productCdcMessage.getOp()) {
+                case CREATE, READ, UPDATE -> upsertedProductIds.add(productId);
+                default -> log.warn("Unsupported operation '{}' for product: '{}'",
+                    productCdcMessage.getOp(), productId);
+            }
+        });
+
+        if (!deletedProductIds.isEmpty()) {
+            productSyncDataService.deleteProducts(deletedProductIds);
+        }
+        if (!upsertedProductIds.isEmpty()) {
+            productSyncDataService.upsertProducts(upsertedProductIds).forEach((productId, exception) -> {
+                log.error("Failed to sync product '{}', sending record to dead letter topic", productId, exception);
+                productCdcDeadLetterRecoverer.accept(latestRecordByProductId.remove(productId), exception);
+            });
+        }
+        markApplied(latestRecordByProductId.values());
+        if (!deletedProductIds.isEmpty() || !upsertedProductIds.isEmpty()) {
+            productService.evictProductSearchCache();
+        }
+        log.debug("## Batch processed - deleted: {} | upserted: {}", deletedProductIds.size(),
+            upsertedProductIds.size());
     }
 }
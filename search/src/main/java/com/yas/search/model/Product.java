@@ -11,6 +11,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
 import org.springframework.data.elasticsearch.annotations.Setting;
 
 @Document(indexName = "product")
@@ -23,7 +25,11 @@ import org.springframework.data.elasticsearch.annotations.Setting;
 public class Product {
     @Id
     private Long id;
-    @Field(type = FieldType.Text, analyzer = "autocomplete_index", searchAnalyzer = "autocomplete_search")
+    @MultiField(
+        mainField = @Field(type = FieldType.Text),
+        otherFields = @InnerField(suffix = "autocomplete", type = FieldType.Text,
+            analyzer = "autocomplete_index", searchAnalyzer = "autocomplete_search")
+    )
     private String name;
     private String slug;
     @Field(type = FieldType.Double)
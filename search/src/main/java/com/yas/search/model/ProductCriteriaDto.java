@@ -1,6 +1,10 @@
 package com.yas.search.model;
 
 import com.yas.search.constant.enums.SortType;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 
 public record ProductCriteriaDto(String keyword,
                                  Integer page,
@@ -11,4 +15,37 @@ public record ProductCriteriaDto(String keyword,
                                  Double minPrice,
                                  Double maxPrice,
                                  SortType sortType) {
+
+    /**
+     * Returns equivalent criteria in a canonical form, so that requests returning the same result share a
+     * cache entry: the keyword is trimmed, and the case-insensitive term filters are trimmed, lower-cased,
+     * de-duplicated and sorted.
+     */
+    public ProductCriteriaDto normalize() {
+        return new ProductCriteriaDto(
+            StringUtils.trimToEmpty(keyword),
+            page,
+            size,
+            normalizeTerms(brand),
+            normalizeTerms(category),
+            normalizeTerms(attribute),
+            minPrice,
+            maxPrice,
+            sortType == null ? SortType.DEFAULT : sortType
+        );
+    }
+
+    private static String normalizeTerms(String terms) {
+        if (StringUtils.isBlank(terms)) {
+            return null;
+        }
+        String normalizedTerms = Arrays.stream(terms.split(","))
+            .map(String::trim)
+            .filter(StringUtils::isNotEmpty)
+            .map(term -> term.toLowerCase(Locale.ROOT))
+            .distinct()
+            .sorted()
+            .collect(Collectors.joining(","));
+        return normalizedTerms.isEmpty() ? null : normalizedTerms;
+    }
 }
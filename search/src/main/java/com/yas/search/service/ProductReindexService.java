@@ -0,0 +1,308 @@
+package com.yas.search.service;
+
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.search.config.ProductReindexConfig;
+import com.yas.search.constant.MessageCode;
+import com.yas.search.constant.enums.ReindexStatus;
+import com.yas.search.model.Product;
+import com.yas.search.viewmodel.ProductEsDetailVm;
+import com.yas.search.viewmodel.ReindexStatusVm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rebuilds the product index from the product service without interrupting searches.
+ *
+ * <p>Published products are streamed in keyset-paginated chunks into a fresh versioned index, with at most
+ * {@code product.reindex.concurrency} bulk requests in flight. Once every chunk has been written, the alias that
+ * {@link Product} reads from is moved to the new index and the previous index is dropped in a single atomic
+ * alias request. If any document fails, the new index is deleted and the alias is left untouched.
+ *
+ * <p>While it is rebuilt, the new index is also behind the {@code product-rebuild} alias, and the product changes
+ * synced meanwhile are written by {@link ProductSyncDataService} to both indices. The copy starts once every
+ * instance has seen that alias and only creates documents, so it doesn't overwrite a newer synced change. A product
+ * deleted between the read and the write of its chunk is restored by the copy until its next change.
+ *
+ * <p>The alias is the reindex state shared by the search instances: a reindex is refused while another instance
+ * runs one, and its status is reported without the counts, which only the instance running it keeps. The alias of
+ * an instance that stopped mid-rebuild is dropped with its index when a reindex is started
+ * {@value #ABANDONED_REBUILD_HOURS} hours later.
+ */
+@Service
+public class ProductReindexService {
+
+    static final String PRODUCT_ALIAS = "product";
+
+    static final long ABANDONED_REBUILD_HOURS = 12;
+
+    private static final int VERSION_CONFLICT_STATUS = 409;
+
+    private final Logger log = LoggerFactory.getLogger(ProductReindexService.class);
+
+    private final ProductSyncDataService productSyncDataService;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductReindexConfig productReindexConfig;
+    private final Counter indexedCounter;
+    private final Counter failedCounter;
+    private final AtomicReference<ReindexJob> currentJob = new AtomicReference<>();
+
+    public ProductReindexService(ProductSyncDataService productSyncDataService,
+                                 ElasticsearchOperations elasticsearchOperations,
+                                 ProductReindexConfig productReindexConfig,
+                                 MeterRegistry meterRegistry) {
+        this.productSyncDataService = productSyncDataService;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.productReindexConfig = productReindexConfig;
+        this.indexedCounter = Counter.builder("search.reindex.documents")
+                .description("Documents written by the full product reindex")
+                .tag("outcome", "indexed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("search.reindex.documents")
+                .description("Documents written by the full product reindex")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        Gauge.builder("search.reindex.throughput", this, service -> service.getLocalStatus().docsPerSecond())
+                .description("Documents indexed per second by the current or last product reindex")
+                .baseUnit("documents")
+                .register(meterRegistry);
+        Gauge.builder("search.reindex.running", this,
+                        service -> service.getLocalStatus().status() == ReindexStatus.RUNNING ? 1 : 0)
+                .description("Whether this instance runs a full product reindex")
+                .register(meterRegistry);
+    }
+
+    public ReindexStatusVm startReindex() {
+        ReindexJob job = new ReindexJob(PRODUCT_ALIAS + "-" + System.currentTimeMillis());
+        ReindexJob previousJob = currentJob.get();
+        if (previousJob != null && previousJob.status == ReindexStatus.RUNNING) {
+            throw new BadRequestException(MessageCode.REINDEX_ALREADY_RUNNING, previousJob.indexName);
+        }
+        String rebuildIndexName = getRebuildIndexName();
+        if (rebuildIndexName != null) {
+            if (startedOn(rebuildIndexName).isAfter(ZonedDateTime.now().minusHours(ABANDONED_REBUILD_HOURS))) {
+                throw new BadRequestException(MessageCode.REINDEX_ALREADY_RUNNING, rebuildIndexName);
+            }
+            log.warn("Dropping the product index {} of an abandoned reindex", rebuildIndexName);
+            deleteQuietly(elasticsearchOperations.indexOps(IndexCoordinates.of(rebuildIndexName)));
+        }
+        if (!currentJob.compareAndSet(previousJob, job)) {
+            throw new BadRequestException(MessageCode.REINDEX_ALREADY_RUNNING, currentJob.get().indexName);
+        }
+        Thread.ofVirtual().name("product-reindex").start(() -> reindex(job));
+        return job.toStatusVm();
+    }
+
+    public ReindexStatusVm getStatus() {
+        ReindexJob job = currentJob.get();
+        if (job != null && job.status == ReindexStatus.RUNNING) {
+            return job.toStatusVm();
+        }
+        String rebuildIndexName = getRebuildIndexName();
+        if (rebuildIndexName != null) {
+            return new ReindexStatusVm(ReindexStatus.RUNNING, rebuildIndexName, startedOn(rebuildIndexName), null,
+                    0, 0, 0, null);
+        }
+        return getLocalStatus();
+    }
+
+    private ReindexStatusVm getLocalStatus() {
+        ReindexJob job = currentJob.get();
+        if (job == null) {
+            return new ReindexStatusVm(ReindexStatus.IDLE, null, null, null, 0, 0, 0, null);
+        }
+        return job.toStatusVm();
+    }
+
+    void reindex(ReindexJob job) {
+        IndexOperations newIndexOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(job.indexName));
+        try {
+            newIndexOperations.create(newIndexOperations.createSettings(Product.class),
+                    newIndexOperations.createMapping(Product.class));
+            newIndexOperations.alias(new AliasActions(new AliasAction.Add(AliasActionParameters.builder()
+                    .withIndices(job.indexName)
+                    .withAliases(ProductSyncDataService.REBUILD_ALIAS)
+                    .build())));
+            Thread.sleep(productReindexConfig.dualWriteDelay());
+            writeAllProducts(job);
+            if (job.failedCount.get() > 0) {
+                newIndexOperations.delete();
+                job.finish(ReindexStatus.FAILED, job.failedCount.get() + " documents could not be indexed");
+                return;
+            }
+            newIndexOperations.refresh();
+            swapAlias(job.indexName);
+            job.finish(ReindexStatus.COMPLETED, null);
+            log.info("Reindexed {} products into {} at {} docs/s",
+                    job.indexedCount.get(), job.indexName, job.docsPerSecond());
+        } catch (Exception e) {
+            log.error("Product reindex into {} failed", job.indexName, e);
+            job.finish(ReindexStatus.FAILED, e.getMessage());
+            deleteQuietly(newIndexOperations);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeAllProducts(ReindexJob job) throws InterruptedException {
+        IndexCoordinates index = IndexCoordinates.of(job.indexName);
+        Semaphore inFlightBulkRequests = new Semaphore(productReindexConfig.concurrency());
+        try (ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long afterId = 0;
+            while (true) {
+                // the product service caps the chunk size, so only an empty chunk marks the end of the catalog
+                List<ProductEsDetailVm> chunk =
+                    productSyncDataService.getPublishedProductEsDetails(afterId, productReindexConfig.pageSize());
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.getLast().id();
+                List<Product> products = chunk.stream().map(ProductSyncDataService::toProduct).toList();
+                inFlightBulkRequests.acquire();
+                writers.execute(() -> {
+                    try {
+                        writeChunk(job, index, products);
+                    } finally {
+                        inFlightBulkRequests.release();
+                    }
+                });
+            }
+        }
+    }
+
+    /* A document that already exists was written by the sync of a change newer than the chunk */
+    private void writeChunk(ReindexJob job, IndexCoordinates index, List<Product> products) {
+        List<IndexQuery> indexQueries = ProductSyncDataService.toIndexQueries(products);
+        indexQueries.forEach(indexQuery -> indexQuery.setOpType(IndexQuery.OpType.CREATE));
+        int failed;
+        try {
+            elasticsearchOperations.bulkIndex(indexQueries, index);
+            failed = 0;
+        } catch (BulkFailureException e) {
+            Map<String, BulkFailureException.FailureDetails> failedDocuments = e.getFailedDocuments().entrySet()
+                    .stream()
+                    .filter(failedDocument -> failedDocument.getValue().status() != VERSION_CONFLICT_STATUS)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            if (!failedDocuments.isEmpty()) {
+                log.warn("{} products could not be indexed into {}: {}",
+                        failedDocuments.size(), index.getIndexName(), failedDocuments);
+            }
+            failed = failedDocuments.size();
+        } catch (RuntimeException e) {
+            log.warn("Bulk request of {} products into {} failed", products.size(), index.getIndexName(), e);
+            failed = products.size();
+        }
+        job.indexedCount.addAndGet(products.size() - (long) failed);
+        job.failedCount.addAndGet(failed);
+        indexedCounter.increment(products.size() - (double) failed);
+        failedCounter.increment(failed);
+    }
+
+    private void swapAlias(String newIndexName) {
+        IndexOperations aliasOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(PRODUCT_ALIAS));
+        // Resolves to the indices behind the alias, or to the index itself when "product" is still a plain index
+        Set<String> previousIndexNames = aliasOperations.exists()
+                ? aliasOperations.getAliasesForIndex(PRODUCT_ALIAS).keySet()
+                : Set.of();
+
+        AliasActions aliasActions = new AliasActions(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(newIndexName)
+                .withAliases(PRODUCT_ALIAS)
+                .withIsWriteIndex(true)
+                .build()));
+        aliasActions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                .withIndices(newIndexName)
+                .withAliases(ProductSyncDataService.REBUILD_ALIAS)
+                .build()));
+        if (!previousIndexNames.isEmpty()) {
+            aliasActions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                    .withIndices(previousIndexNames.toArray(String[]::new))
+                    .build()));
+        }
+        aliasOperations.alias(aliasActions);
+    }
+
+    private String getRebuildIndexName() {
+        IndexOperations rebuildAliasOperations =
+                elasticsearchOperations.indexOps(IndexCoordinates.of(ProductSyncDataService.REBUILD_ALIAS));
+        if (!rebuildAliasOperations.exists()) {
+            return null;
+        }
+        return rebuildAliasOperations.getAliasesForIndex(ProductSyncDataService.REBUILD_ALIAS).keySet().stream()
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    /* Index names end with the epoch millis the reindex started at */
+    private static ZonedDateTime startedOn(String indexName) {
+        long startedOnMillis = Long.parseLong(indexName.substring(indexName.lastIndexOf('-') + 1));
+        return Instant.ofEpochMilli(startedOnMillis).atZone(ZoneId.systemDefault());
+    }
+
+    private void deleteQuietly(IndexOperations indexOperations) {
+        try {
+            if (indexOperations.exists()) {
+                indexOperations.delete();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not delete the unfinished product index", e);
+        }
+    }
+
+    static final class ReindexJob {
+        private final String indexName;
+        private final ZonedDateTime startedOn = ZonedDateTime.now();
+        private final AtomicLong indexedCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+        private volatile ReindexStatus status = ReindexStatus.RUNNING;
+        private volatile ZonedDateTime finishedOn;
+        private volatile String error;
+
+        ReindexJob(String indexName) {
+            this.indexName = indexName;
+        }
+
+        private void finish(ReindexStatus finalStatus, String finalError) {
+            this.error = finalError;
+            this.finishedOn = ZonedDateTime.now();
+            this.status = finalStatus;
+        }
+
+        private double docsPerSecond() {
+            ZonedDateTime end = finishedOn == null ? ZonedDateTime.now() : finishedOn;
+            long elapsedMillis = Math.max(Duration.between(startedOn, end).toMillis(), 1);
+            return indexedCount.get() * 1000d / elapsedMillis;
+        }
+
+        ReindexStatusVm toStatusVm() {
+            return new ReindexStatusVm(status, indexName, startedOn, finishedOn,
+                    indexedCount.get(), failedCount.get(), docsPerSecond(), error);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
 import co.elastic.clients.elasticsearch._types.aggregations.StringTermsAggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.yas.search.config.CacheConfig;
 import com.yas.search.constant.ProductField;
 import com.yas.search.constant.enums.SortType;
 import com.yas.search.model.Product;
@@ -13,12 +15,22 @@ import com.yas.search.viewmodel.ProductGetVm;
 import com.yas.search.viewmodel.ProductListGetVm;
 import com.yas.search.viewmodel.ProductNameGetVm;
 import com.yas.search.viewmodel.ProductNameListVm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.common.unit.Fuzziness;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
@@ -34,13 +46,88 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class ProductService {
+    static final int AUTOCOMPLETE_MAX_RESULTS = 10;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
     private final ElasticsearchOperations elasticsearchOperations;
+    private final CacheManager cacheManager;
+    private final Timer searchTimer;
+    private final Counter savedSearchTimeCounter;
+    private final long cacheInvalidationIntervalNanos;
+    private final AtomicBoolean cacheClearPending = new AtomicBoolean();
+    private final AtomicLong lastCacheClearNanos;
 
-    public ProductService(ElasticsearchOperations elasticsearchOperations) {
+    public ProductService(ElasticsearchOperations elasticsearchOperations, CacheManager cacheManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${product.search.cache.invalidation-interval:2s}")
+                          Duration cacheInvalidationInterval) {
         this.elasticsearchOperations = elasticsearchOperations;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationIntervalNanos = cacheInvalidationInterval.toNanos();
+        this.lastCacheClearNanos = new AtomicLong(System.nanoTime() - cacheInvalidationIntervalNanos);
+        this.searchTimer = Timer.builder("search.product.query")
+                .description("Elasticsearch time spent on storefront searches that missed the result cache")
+                .register(meterRegistry);
+        this.savedSearchTimeCounter = Counter.builder("search.product.cache.saved")
+                .description("Elasticsearch time saved by storefront searches served from the result cache")
+                .baseUnit("seconds")
+                .register(meterRegistry);
     }
 
+    /**
+     * Searches products with their category, attribute and brand facets. Results are cached per normalized
+     * criteria for a short time, with the time their search took, which a cache hit adds to the saved time.
+     */
     public ProductListGetVm findProductAdvance(ProductCriteriaDto productCriteria) {
+        ProductCriteriaDto normalizedCriteria = productCriteria.normalize();
+        clearProductSearchCacheIfDue();
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_SEARCH_CACHE);
+        CachedSearchResult cachedResult = cache == null ? null
+                : cache.get(normalizedCriteria, CachedSearchResult.class);
+        if (cachedResult != null) {
+            savedSearchTimeCounter.increment(cachedResult.searchNanos() / NANOS_PER_SECOND);
+            return cachedResult.result();
+        }
+
+        long startNanos = System.nanoTime();
+        ProductListGetVm result = searchProducts(normalizedCriteria);
+        long searchNanos = System.nanoTime() - startNanos;
+        searchTimer.record(searchNanos, TimeUnit.NANOSECONDS);
+        if (cache != null) {
+            cache.put(normalizedCriteria, new CachedSearchResult(result, searchNanos));
+        }
+        return result;
+    }
+
+    /**
+     * Any search result may change with a product, so the whole cache is cleared, but at most once per
+     * invalidation interval. A change consumed within the interval of the last clear is cleared by the first
+     * search or change after it.
+     */
+    public void evictProductSearchCache() {
+        cacheClearPending.set(true);
+        clearProductSearchCacheIfDue();
+    }
+
+    private void clearProductSearchCacheIfDue() {
+        if (!cacheClearPending.get()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long lastClear = lastCacheClearNanos.get();
+        if (now - lastClear < cacheInvalidationIntervalNanos || !lastCacheClearNanos.compareAndSet(lastClear, now)) {
+            return;
+        }
+        // reset before clearing, a change consumed meanwhile is already searchable and cleared below
+        cacheClearPending.set(false);
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_SEARCH_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private ProductListGetVm searchProducts(ProductCriteriaDto productCriteria) {
         NativeQueryBuilder nativeQuery = NativeQuery.builder()
                 .withAggregation("categories", Aggregation.of(a -> a
                         .terms(ta -> ta.field(ProductField.CATEGORIES))))
@@ -149,21 +236,31 @@ public class ProductService {
         return aggregationsMap;
     }
 
+    /**
+     * Suggests at most {@value #AUTOCOMPLETE_MAX_RESULTS} product names whose words start with the keyword words,
+     * using the bounded edge-ngram {@code name.autocomplete} subfield.
+     */
     public ProductNameListVm autoCompleteProductName(final String keyword) {
         NativeQuery matchQuery = NativeQuery.builder()
                 .withQuery(
-                        q -> q.matchPhrasePrefix(
-                                matchPhrasePrefix -> matchPhrasePrefix.field("name").query(keyword)
+                        q -> q.match(
+                                match -> match.field(ProductField.NAME_AUTOCOMPLETE)
+                                        .query(keyword)
+                                        .operator(Operator.And)
                         )
                 )
                 .withSourceFilter(new FetchSourceFilter(
-                        new String[]{"name"},
+                        new String[]{ProductField.NAME},
                         null)
                 )
+                .withPageable(PageRequest.of(0, AUTOCOMPLETE_MAX_RESULTS))
                 .build();
         SearchHits<Product> result = elasticsearchOperations.search(matchQuery, Product.class);
         List<Product> products = result.stream().map(SearchHit::getContent).toList();
 
         return new ProductNameListVm(products.stream().map(ProductNameGetVm::fromModel).toList());
     }
+
+    private record CachedSearchResult(ProductListGetVm result, long searchNanos) {
+    }
 }
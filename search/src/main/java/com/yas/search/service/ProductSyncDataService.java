@@ -1,5 +1,6 @@
 package com.yas.search.service;
 
+import com.yas.commonlibrary.exception.InternalServerErrorException;
 import com.yas.commonlibrary.exception.NotFoundException;
 import com.yas.search.config.ServiceUrlConfig;
 import com.yas.search.constant.MessageCode;
@@ -7,9 +8,24 @@ import com.yas.search.model.Product;
 import com.yas.search.repository.ProductRepository;
 import com.yas.search.viewmodel.ProductEsDetailVm;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -18,11 +34,26 @@ import org.springframework.web.util.UriComponentsBuilder;
 @RequiredArgsConstructor
 public class ProductSyncDataService {
 
+    static final int MAX_IDS_PER_CALL = 500;
+
+    /**
+     * Alias of the index a full reindex is rebuilding, shared by every search instance through Elasticsearch.
+     */
+    static final String REBUILD_ALIAS = "product-rebuild";
+
+    /**
+     * How long the indices behind {@link #REBUILD_ALIAS} are cached. A reindex waits longer than this before
+     * copying the catalog, so every change it doesn't copy is also written to the index it rebuilds.
+     */
+    static final Duration REBUILD_INDICES_LOOKUP_INTERVAL = Duration.ofSeconds(5);
+
     private final Logger log = LoggerFactory.getLogger(ProductSyncDataService.class);
 
     private final RestClient restClient;
     private final ServiceUrlConfig serviceUrlConfig;
     private final ProductRepository productRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private volatile RebuildIndices rebuildIndices;
 
     public ProductEsDetailVm getProductEsDetailById(Long id) {
         final URI url = UriComponentsBuilder.fromHttpUrl(
@@ -33,16 +64,56 @@ public class ProductSyncDataService {
                 .body(ProductEsDetailVm.class);
     }
 
+    /**
+     * Loads the given products from the product service, in calls of at most {@value #MAX_IDS_PER_CALL} ids,
+     * the most the product service accepts at once.
+     */
+    public List<ProductEsDetailVm> getProductEsDetailsByIds(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        List<ProductEsDetailVm> productEsDetailVms = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += MAX_IDS_PER_CALL) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + MAX_IDS_PER_CALL, distinctIds.size()));
+            final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.product())
+                    .path("/storefront/products-es").queryParam("ids", chunk).build().toUri();
+            List<ProductEsDetailVm> chunkEsDetailVms = restClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<List<ProductEsDetailVm>>() {
+                    });
+            if (chunkEsDetailVms != null) {
+                productEsDetailVms.addAll(chunkEsDetailVms);
+            }
+        }
+        return productEsDetailVms;
+    }
+
+    public List<ProductEsDetailVm> getPublishedProductEsDetails(Long afterId, int size) {
+        final URI url = UriComponentsBuilder.fromHttpUrl(serviceUrlConfig.product())
+                .path("/storefront/products-es/published")
+                .queryParam("afterId", afterId)
+                .queryParam("size", size)
+                .build().toUri();
+        List<ProductEsDetailVm> productEsDetailVms = restClient.get()
+                .uri(url)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {
+                });
+        return productEsDetailVms == null ? List.of() : productEsDetailVms;
+    }
+
+    /**
+     * Re-indexes the product, indexing it when it is not in the index yet, for instance after it was unpublished.
+     * A product that is no longer published is removed from the index instead, as {@link #upsertProducts} does.
+     */
     public void updateProduct(Long id) {
         ProductEsDetailVm productEsDetailVm = getProductEsDetailById(id);
-        Product product = productRepository.findById(id).orElseThrow(()
-                -> new NotFoundException(MessageCode.PRODUCT_NOT_FOUND, id));
-
         if (!productEsDetailVm.isPublished()) {
             productRepository.deleteById(id);
+            deleteFromRebuildIndices(List.of(id));
             return;
         }
 
+        Product product = productRepository.findById(id).orElseGet(() -> toProduct(productEsDetailVm));
         product.setName(productEsDetailVm.name());
         product.setSlug(productEsDetailVm.slug());
         product.setPrice(productEsDetailVm.price());
@@ -55,13 +126,137 @@ public class ProductSyncDataService {
         product.setCategories(productEsDetailVm.categories());
         product.setAttributes(productEsDetailVm.attributes());
         productRepository.save(product);
+        saveToRebuildIndices(product);
     }
 
+    /**
+     * Indexes the product when it is published. An unpublished product is removed from the index, in case an
+     * earlier snapshot indexed it.
+     */
     public void createProduct(Long id) {
         ProductEsDetailVm productEsDetailVm = getProductEsDetailById(id);
+        if (!productEsDetailVm.isPublished()) {
+            productRepository.deleteById(id);
+            deleteFromRebuildIndices(List.of(id));
+            return;
+        }
+        Product product = toProduct(productEsDetailVm);
+        productRepository.save(product);
+        saveToRebuildIndices(product);
+    }
+
+    public void deleteProduct(Long id) {
+        final boolean isProductExisted = productRepository.existsById(id);
+        if (isProductExisted) {
+            productRepository.deleteById(id);
+        } else {
+            log.warn("Product {} doesn't exist in Elasticsearch.", id);
+        }
+        deleteFromRebuildIndices(List.of(id));
+    }
+
+    /**
+     * Re-indexes the given products with one call to the product service and one Elasticsearch bulk request.
+     * Products that are no longer published are removed from the index instead.
+     *
+     * @param ids the product ids to synchronize.
+     * @return the failure of every product that could not be indexed, empty when all of them were synced.
+     */
+    public Map<Long, Exception> upsertProducts(Collection<Long> ids) {
+        Map<Long, ProductEsDetailVm> productEsDetailVmsById = getProductEsDetailsByIds(ids).stream()
+                .collect(Collectors.toMap(ProductEsDetailVm::id, Function.identity(), (first, second) -> second));
+
+        Map<Long, Exception> failures = new HashMap<>();
+        List<Product> publishedProducts = new ArrayList<>();
+        List<Long> unpublishedProductIds = new ArrayList<>();
+        for (Long id : ids) {
+            ProductEsDetailVm productEsDetailVm = productEsDetailVmsById.get(id);
+            if (productEsDetailVm == null) {
+                failures.put(id, new NotFoundException(MessageCode.PRODUCT_NOT_FOUND, id));
+            } else if (productEsDetailVm.isPublished()) {
+                publishedProducts.add(toProduct(productEsDetailVm));
+            } else {
+                unpublishedProductIds.add(id);
+            }
+        }
 
-        Product product = Product.builder()
-                .id(id)
+        if (!unpublishedProductIds.isEmpty()) {
+            productRepository.deleteAllById(unpublishedProductIds);
+            deleteFromRebuildIndices(unpublishedProductIds);
+        }
+        if (!publishedProducts.isEmpty()) {
+            failures.putAll(bulkIndex(publishedProducts));
+        }
+        return failures;
+    }
+
+    public void deleteProducts(Collection<Long> ids) {
+        productRepository.deleteAllById(ids);
+        deleteFromRebuildIndices(ids);
+    }
+
+    /**
+     * Indices a running reindex is rebuilding, usually none and at most one unless two reindexes were started at
+     * once. Looked up at most every {@link #REBUILD_INDICES_LOOKUP_INTERVAL}.
+     */
+    List<IndexCoordinates> getRebuildIndices() {
+        RebuildIndices cached = rebuildIndices;
+        long now = System.nanoTime();
+        if (cached != null && now - cached.lookedUpAt() < REBUILD_INDICES_LOOKUP_INTERVAL.toNanos()) {
+            return cached.indices();
+        }
+        IndexOperations rebuildAliasOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(REBUILD_ALIAS));
+        List<IndexCoordinates> indices = rebuildAliasOperations.exists()
+                ? rebuildAliasOperations.getAliasesForIndex(REBUILD_ALIAS).keySet().stream()
+                    .map(IndexCoordinates::of).toList()
+                : List.of();
+        rebuildIndices = new RebuildIndices(indices, now);
+        return indices;
+    }
+
+    private void saveToRebuildIndices(Product product) {
+        getRebuildIndices().forEach(index -> elasticsearchOperations.save(product, index));
+    }
+
+    private void deleteFromRebuildIndices(Collection<Long> ids) {
+        getRebuildIndices().forEach(index -> ids.forEach(id -> elasticsearchOperations.delete(String.valueOf(id),
+                index)));
+    }
+
+    private Map<Long, Exception> bulkIndex(List<Product> products) {
+        List<IndexQuery> indexQueries = toIndexQueries(products);
+        Map<Long, Exception> failures = new HashMap<>(
+                indexingFailures(() -> elasticsearchOperations.bulkIndex(indexQueries, Product.class)));
+        getRebuildIndices().forEach(index -> failures.putAll(
+                indexingFailures(() -> elasticsearchOperations.bulkIndex(indexQueries, index))));
+        return failures;
+    }
+
+    private static Map<Long, Exception> indexingFailures(Runnable bulkRequest) {
+        try {
+            bulkRequest.run();
+            return Map.of();
+        } catch (BulkFailureException e) {
+            Map<Long, Exception> failures = new HashMap<>();
+            e.getFailedDocuments().forEach((id, failureDetails) -> failures.put(Long.valueOf(id),
+                    new InternalServerErrorException(MessageCode.PRODUCT_INDEXING_FAILED, id,
+                            failureDetails.errorMessage())));
+            return failures;
+        }
+    }
+
+    static List<IndexQuery> toIndexQueries(List<Product> products) {
+        return products.stream()
+                .map(product -> new IndexQueryBuilder()
+                        .withId(String.valueOf(product.getId()))
+                        .withObject(product)
+                        .build())
+                .toList();
+    }
+
+    static Product toProduct(ProductEsDetailVm productEsDetailVm) {
+        return Product.builder()
+                .id(productEsDetailVm.id())
                 .name(productEsDetailVm.name())
                 .slug(productEsDetailVm.slug())
                 .price(productEsDetailVm.price())
@@ -74,16 +269,8 @@ public class ProductSyncDataService {
                 .categories(productEsDetailVm.categories())
                 .attributes(productEsDetailVm.attributes())
                 .build();
-
-        productRepository.save(product);
     }
 
-    public void deleteProduct(Long id) {
-        final boolean isProductExisted = productRepository.existsById(id);
-        if (isProductExisted) {
-            productRepository.deleteById(id);
-        } else {
-            log.warn("Product {} doesn't exist in Elasticsearch.", id);
-        }
+    private record RebuildIndices(List<IndexCoordinates> indices, long lookedUpAt) {
     }
 }
@@ -0,0 +1,15 @@
+package com.yas.search.viewmodel;
+
+import com.yas.search.constant.enums.ReindexStatus;
+import java.time.ZonedDateTime;
+
+public record ReindexStatusVm(
+        ReindexStatus status,
+        String indexName,
+        ZonedDateTime startedOn,
+        ZonedDateTime finishedOn,
+        long indexedCount,
+        long failedCount,
+        double docsPerSecond,
+        String error) {
+}
@@ -3,20 +3,36 @@ package com.yas.search.consumer;
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.CREATE;
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.DELETE;
 import static com.yas.commonlibrary.kafka.cdc.message.Operation.UPDATE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.yas.commonlibrary.kafka.cdc.KeyOrderedExecutor;
+import com.yas.commonlibrary.kafka.cdc.message.CdcSource;
+import com.yas.commonlibrary.kafka.cdc.message.Operation;
 import com.yas.commonlibrary.kafka.cdc.message.ProductCdcMessage;
 import com.yas.commonlibrary.kafka.cdc.message.ProductMsgKey;
 import com.yas.search.kafka.consumer.ProductSyncDataConsumer;
 import com.yas.commonlibrary.kafka.cdc.message.Product;
+import com.yas.search.service.ProductService;
 import com.yas.search.service.ProductSyncDataService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.messaging.MessageHeaders;
 
 class ProductSyncDataConsumerTest {
 
@@ -26,6 +42,12 @@ class ProductSyncDataConsumerTest {
     @Mock
     private ProductSyncDataService productSyncDataService;
 
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private DeadLetterPublishingRecoverer productCdcDeadLetterRecoverer;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -45,6 +67,7 @@ class ProductSyncDataConsumerTest {
 
         // Then
         verify(productSyncDataService, times(1)).createProduct(productId);
+        verify(productService, times(1)).evictProductSearchCache();
     }
 
     @Test
@@ -79,4 +102,116 @@ class ProductSyncDataConsumerTest {
         // Then
         verify(productSyncDataService, times(1)).deleteProduct(productId);
     }
+
+    @Test
+    void testSyncBatch_whenSameProductHasSeveralEvents_keepLatestEventOnly() {
+        // Given
+        var records = List.of(
+            productRecord(0, 1L, CREATE),
+            productRecord(1, 2L, UPDATE),
+            productRecord(2, 1L, UPDATE),
+            productRecord(3, 2L, DELETE)
+        );
+        when(productSyncDataService.upsertProducts(Set.of(1L))).thenReturn(Map.of());
+
+        // When
+        productSyncDataConsumer.syncBatch(records);
+
+        // Then
+        verify(productSyncDataService).deleteProducts(Set.of(2L));
+        verify(productSyncDataService).upsertProducts(Set.of(1L));
+        verify(productCdcDeadLetterRecoverer, never()).accept(any(), any());
+        verify(productService, times(1)).evictProductSearchCache();
+    }
+
+    @Test
+    void testSyncBatch_whenProductFailsToSync_sendRecordToDeadLetterTopic() {
+        // Given
+        var failedRecord = productRecord(1, 2L, UPDATE);
+        var exception = new IllegalStateException("failed");
+        when(productSyncDataService.upsertProducts(Set.of(1L, 2L))).thenReturn(Map.of(2L, exception));
+
+        // When
+        productSyncDataConsumer.syncBatch(List.of(productRecord(0, 1L, CREATE), failedRecord));
+
+        // Then
+        verify(productCdcDeadLetterRecoverer, times(1)).accept(eq(failedRecord), eq(exception));
+    }
+
+    @Test
+    void testSyncBatch_whenRecordIsNotNewerThanAppliedOne_skipRecord() {
+        // Given
+        when(productSyncDataService.upsertProducts(Set.of(1L))).thenReturn(Map.of());
+        productSyncDataConsumer.syncBatch(List.of(productRecord(0, 1L, UPDATE, 200L)));
+
+        // When
+        productSyncDataConsumer.syncBatch(List.of(
+            productRecord(1, 1L, UPDATE, 100L),
+            productRecord(2, 1L, UPDATE, 200L)
+        ));
+
+        // Then
+        verify(productSyncDataService, times(1)).upsertProducts(Set.of(1L));
+        verify(productService, times(1)).evictProductSearchCache();
+    }
+
+    @Test
+    void testProcessMessage_whenRetriedEventIsOlderThanAppliedOne_skipSync() {
+        // Given
+        var key = ProductMsgKey.builder().id(1L).build();
+        var headers = new MessageHeaders(Map.of());
+
+        // When
+        productSyncDataConsumer.processMessage(key, productRecord(0, 1L, UPDATE, 200L).value(), headers);
+        productSyncDataConsumer.processMessage(key, productRecord(1, 1L, UPDATE, 100L).value(), headers);
+        productSyncDataConsumer.processMessage(key, productRecord(2, 1L, UPDATE, 300L).value(), headers);
+
+        // Then
+        verify(productSyncDataService, times(2)).updateProduct(1L);
+    }
+
+    @Test
+    void testProcessKeyOrderedMessages_whenProductHasSeveralEvents_syncEachNewerEventInOrder() {
+        // Given
+        var consumer = new ProductSyncDataConsumer(productSyncDataService, productService,
+            productCdcDeadLetterRecoverer, new KeyOrderedExecutor(4));
+        var records = List.of(
+            productRecord(0, 1L, CREATE, 100L),
+            productRecord(1, 2L, CREATE, 110L),
+            productRecord(2, 1L, UPDATE, 120L),
+            productRecord(3, 1L, UPDATE, 120L)
+        );
+
+        // When
+        consumer.processKeyOrderedMessages(records);
+
+        // Then
+        InOrder inOrder = inOrder(productSyncDataService);
+        inOrder.verify(productSyncDataService).createProduct(1L);
+        inOrder.verify(productSyncDataService).updateProduct(1L);
+        verify(productSyncDataService, times(1)).updateProduct(1L);
+        verify(productSyncDataService).createProduct(2L);
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> productRecord(
+        long offset, long productId, Operation operation
+    ) {
+        return productRecord(offset, productId, operation, null);
+    }
+
+    private static ConsumerRecord<ProductMsgKey, ProductCdcMessage> productRecord(
+        long offset, long productId, Operation operation, Long lsn
+    ) {
+        return new ConsumerRecord<>(
+            "dbproduct.public.product",
+            0,
+            offset,
+            ProductMsgKey.builder().id(productId).build(),
+            ProductCdcMessage.builder()
+                .after(Product.builder().id(productId).build())
+                .op(operation)
+                .source(lsn == null ? null : CdcSource.builder().lsn(lsn).build())
+                .build()
+        );
+    }
 }
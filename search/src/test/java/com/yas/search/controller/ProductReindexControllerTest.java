@@ -0,0 +1,68 @@
+package com.yas.search.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.search.ElasticsearchApplication;
+import com.yas.search.constant.MessageCode;
+import com.yas.search.constant.enums.ReindexStatus;
+import com.yas.search.service.ProductReindexService;
+import com.yas.search.viewmodel.ReindexStatusVm;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = ProductReindexController.class)
+@ContextConfiguration(classes = ElasticsearchApplication.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ProductReindexControllerTest {
+
+    @MockBean
+    private ProductReindexService productReindexService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testStartReindex_whenNoReindexIsRunning_thenReturnAccepted() throws Exception {
+        when(productReindexService.startReindex()).thenReturn(new ReindexStatusVm(ReindexStatus.RUNNING,
+            "product-1", ZonedDateTime.now(), null, 0, 0, 0, null));
+
+        mockMvc.perform(post("/backoffice/products/reindex"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.status").value("RUNNING"))
+            .andExpect(jsonPath("$.indexName").value("product-1"));
+    }
+
+    @Test
+    void testStartReindex_whenReindexIsRunning_thenReturnBadRequest() throws Exception {
+        when(productReindexService.startReindex())
+            .thenThrow(new BadRequestException(MessageCode.REINDEX_ALREADY_RUNNING, "product-1"));
+
+        mockMvc.perform(post("/backoffice/products/reindex"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetReindexStatus_thenReturnProgress() throws Exception {
+        when(productReindexService.getStatus()).thenReturn(new ReindexStatusVm(ReindexStatus.COMPLETED,
+            "product-1", ZonedDateTime.now(), ZonedDateTime.now(), 1200, 0, 600, null));
+
+        mockMvc.perform(get("/backoffice/products/reindex"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.indexedCount").value(1200))
+            .andExpect(jsonPath("$.docsPerSecond").value(600.0));
+    }
+}
@@ -0,0 +1,214 @@
+package com.yas.search.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.yas.commonlibrary.exception.BadRequestException;
+import com.yas.search.config.ProductReindexConfig;
+import com.yas.search.constant.enums.ReindexStatus;
+import com.yas.search.model.Product;
+import com.yas.search.viewmodel.ProductEsDetailVm;
+import com.yas.search.viewmodel.ReindexStatusVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+
+class ProductReindexServiceTest {
+
+    private static final String NEW_INDEX = "product-1";
+
+    private ProductSyncDataService productSyncDataService;
+    private ElasticsearchOperations elasticsearchOperations;
+    private IndexOperations newIndexOperations;
+    private IndexOperations aliasOperations;
+    private IndexOperations rebuildAliasOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductReindexService productReindexService;
+
+    @BeforeEach
+    void setUp() {
+        productSyncDataService = mock(ProductSyncDataService.class);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        newIndexOperations = mock(IndexOperations.class);
+        aliasOperations = mock(IndexOperations.class);
+        rebuildAliasOperations = mock(IndexOperations.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(elasticsearchOperations.indexOps(indexNamed(NEW_INDEX))).thenReturn(newIndexOperations);
+        when(elasticsearchOperations.indexOps(indexNamed(ProductReindexService.PRODUCT_ALIAS)))
+            .thenReturn(aliasOperations);
+        when(elasticsearchOperations.indexOps(indexNamed(ProductSyncDataService.REBUILD_ALIAS)))
+            .thenReturn(rebuildAliasOperations);
+        productReindexService = new ProductReindexService(productSyncDataService, elasticsearchOperations,
+            new ProductReindexConfig(2, 2, Duration.ZERO), meterRegistry);
+    }
+
+    @Test
+    void reindex_whenAllChunksAreIndexed_swapAliasAndDropPreviousIndex() {
+        when(productSyncDataService.getPublishedProductEsDetails(0L, 2))
+            .thenReturn(List.of(productEsDetailVm(1L), productEsDetailVm(2L)));
+        when(productSyncDataService.getPublishedProductEsDetails(2L, 2)).thenReturn(List.of(productEsDetailVm(5L)));
+        when(aliasOperations.exists()).thenReturn(true);
+        when(aliasOperations.getAliasesForIndex(ProductReindexService.PRODUCT_ALIAS))
+            .thenReturn(Map.of("product-0", Set.of()));
+        ProductReindexService.ReindexJob job = new ProductReindexService.ReindexJob(NEW_INDEX);
+
+        productReindexService.reindex(job);
+
+        verify(newIndexOperations).create(any(), any());
+        ArgumentCaptor<AliasActions> rebuildAliasActions = ArgumentCaptor.forClass(AliasActions.class);
+        verify(newIndexOperations).alias(rebuildAliasActions.capture());
+        assertThat(rebuildAliasActions.getValue().getActions().getFirst().getParameters().getAliases())
+            .containsExactly(ProductSyncDataService.REBUILD_ALIAS);
+        ArgumentCaptor<List<IndexQuery>> indexQueries = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations, times(2)).bulkIndex(indexQueries.capture(), indexNamed(NEW_INDEX));
+        assertThat(indexQueries.getAllValues()).allSatisfy(queries -> assertThat(queries)
+            .extracting(IndexQuery::getOpType).containsOnly(IndexQuery.OpType.CREATE));
+        ArgumentCaptor<AliasActions> aliasActions = ArgumentCaptor.forClass(AliasActions.class);
+        verify(aliasOperations).alias(aliasActions.capture());
+        List<AliasAction> actions = aliasActions.getValue().getActions();
+        assertThat(actions).hasSize(3);
+        assertThat(actions.get(0)).isInstanceOf(AliasAction.Add.class);
+        assertThat(actions.get(0).getParameters().getIndices()).containsExactly(NEW_INDEX);
+        assertThat(actions.get(1)).isInstanceOf(AliasAction.Remove.class);
+        assertThat(actions.get(1).getParameters().getAliases()).containsExactly(ProductSyncDataService.REBUILD_ALIAS);
+        assertThat(actions.get(2)).isInstanceOf(AliasAction.RemoveIndex.class);
+        assertThat(actions.get(2).getParameters().getIndices()).containsExactly("product-0");
+
+        ReindexStatusVm status = job.toStatusVm();
+        assertThat(status.status()).isEqualTo(ReindexStatus.COMPLETED);
+        assertThat(status.indexedCount()).isEqualTo(3);
+        assertThat(status.failedCount()).isZero();
+        assertThat(meterRegistry.get("search.reindex.documents").tag("outcome", "indexed").counter().count())
+            .isEqualTo(3);
+    }
+
+    @Test
+    void reindex_whenSomeDocumentsFail_deleteNewIndexAndKeepAlias() {
+        when(productSyncDataService.getPublishedProductEsDetails(0L, 2)).thenReturn(List.of(productEsDetailVm(1L)));
+        when(elasticsearchOperations.bulkIndex(anyList(), indexNamed(NEW_INDEX)))
+            .thenThrow(new BulkFailureException("Bulk indexing has failures",
+                Map.of("1", new BulkFailureException.FailureDetails(400, "mapper_parsing_exception"))));
+        ProductReindexService.ReindexJob job = new ProductReindexService.ReindexJob(NEW_INDEX);
+
+        productReindexService.reindex(job);
+
+        verify(newIndexOperations).delete();
+        verify(aliasOperations, never()).alias(any());
+        ReindexStatusVm status = job.toStatusVm();
+        assertThat(status.status()).isEqualTo(ReindexStatus.FAILED);
+        assertThat(status.failedCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("search.reindex.documents").tag("outcome", "failed").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void reindex_whenDocumentWasWrittenBySync_countItAsIndexed() {
+        when(productSyncDataService.getPublishedProductEsDetails(0L, 2))
+            .thenReturn(List.of(productEsDetailVm(1L), productEsDetailVm(2L)));
+        when(elasticsearchOperations.bulkIndex(anyList(), indexNamed(NEW_INDEX)))
+            .thenThrow(new BulkFailureException("Bulk indexing has failures",
+                Map.of("1", new BulkFailureException.FailureDetails(409, "version_conflict_engine_exception"))));
+        ProductReindexService.ReindexJob job = new ProductReindexService.ReindexJob(NEW_INDEX);
+
+        productReindexService.reindex(job);
+
+        verify(aliasOperations).alias(any());
+        ReindexStatusVm status = job.toStatusVm();
+        assertThat(status.status()).isEqualTo(ReindexStatus.COMPLETED);
+        assertThat(status.indexedCount()).isEqualTo(2);
+        assertThat(status.failedCount()).isZero();
+    }
+
+    @Test
+    void startReindex_whenAnotherInstanceRebuildsTheIndex_throwBadRequestException() {
+        String rebuildIndex = "product-" + System.currentTimeMillis();
+        when(rebuildAliasOperations.exists()).thenReturn(true);
+        when(rebuildAliasOperations.getAliasesForIndex(ProductSyncDataService.REBUILD_ALIAS))
+            .thenReturn(Map.of(rebuildIndex, Set.of()));
+
+        assertThatThrownBy(() -> productReindexService.startReindex()).isInstanceOf(BadRequestException.class);
+        ReindexStatusVm status = productReindexService.getStatus();
+        assertThat(status.status()).isEqualTo(ReindexStatus.RUNNING);
+        assertThat(status.indexName()).isEqualTo(rebuildIndex);
+        verify(productSyncDataService, never()).getPublishedProductEsDetails(anyLong(), anyInt());
+    }
+
+    @Test
+    void startReindex_whenRebuildWasAbandoned_dropItsIndexAndStart() {
+        String abandonedIndex = "product-" + Instant.now().minus(Duration.ofDays(1)).toEpochMilli();
+        IndexOperations abandonedIndexOperations = mock(IndexOperations.class);
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(newIndexOperations);
+        when(elasticsearchOperations.indexOps(indexNamed(ProductSyncDataService.REBUILD_ALIAS)))
+            .thenReturn(rebuildAliasOperations);
+        when(elasticsearchOperations.indexOps(indexNamed(abandonedIndex))).thenReturn(abandonedIndexOperations);
+        when(abandonedIndexOperations.exists()).thenReturn(true);
+        when(rebuildAliasOperations.exists()).thenReturn(true);
+        when(rebuildAliasOperations.getAliasesForIndex(ProductSyncDataService.REBUILD_ALIAS))
+            .thenReturn(Map.of(abandonedIndex, Set.of()));
+
+        ReindexStatusVm started = productReindexService.startReindex();
+
+        assertThat(started.indexName()).isNotEqualTo(abandonedIndex);
+        verify(abandonedIndexOperations).delete();
+    }
+
+    @Test
+    void startReindex_whenReindexIsRunning_throwBadRequestException() throws InterruptedException {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(newIndexOperations);
+        when(productSyncDataService.getPublishedProductEsDetails(anyLong(), anyInt())).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        ReindexStatusVm started = productReindexService.startReindex();
+        assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(started.status()).isEqualTo(ReindexStatus.RUNNING);
+        assertThat(productReindexService.getStatus().status()).isEqualTo(ReindexStatus.RUNNING);
+        assertThatThrownBy(() -> productReindexService.startReindex()).isInstanceOf(BadRequestException.class);
+        releaseFetch.countDown();
+    }
+
+    @Test
+    void getStatus_whenNoReindexWasStarted_returnIdle() {
+        assertThat(productReindexService.getStatus().status()).isEqualTo(ReindexStatus.IDLE);
+    }
+
+    private static IndexCoordinates indexNamed(String indexName) {
+        return argThat(index -> index != null && indexName.equals(index.getIndexName()));
+    }
+
+    private static ProductEsDetailVm productEsDetailVm(Long id) {
+        return new ProductEsDetailVm(id, "Product " + id, "product-" + id, 10.0, true, true, true, false,
+            null, "Brand", List.of(), List.of());
+    }
+}
@@ -10,21 +10,26 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.yas.search.config.CacheConfig;
 import com.yas.search.constant.enums.SortType;
 import com.yas.search.model.Product;
 import com.yas.search.model.ProductCriteriaDto;
 import com.yas.search.viewmodel.ProductListGetVm;
 import com.yas.search.viewmodel.ProductNameGetVm;
 import com.yas.search.viewmodel.ProductNameListVm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.AggregationsContainer;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
@@ -41,10 +46,14 @@ class ProductServiceTest {
 
     private ProductService productService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         elasticsearchOperations = mock(ElasticsearchOperations.class);
-        productService = new ProductService(elasticsearchOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        productService = new ProductService(elasticsearchOperations,
+            new CaffeineCacheManager(CacheConfig.PRODUCT_SEARCH_CACHE), meterRegistry, Duration.ZERO);
     }
 
     @Test
@@ -142,6 +151,66 @@ class ProductServiceTest {
         assertEquals("createdOn: DESC", Objects.requireNonNull(captor.getValue().getSort()).toString());
     }
 
+    @Test
+    void testFindProductAdvance_whenEquivalentCriteriaRepeated_thenServeFromCache() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+
+        ProductListGetVm first = productService.findProductAdvance(new ProductCriteriaDto(
+            " ", 0, 12, "Apple,Samsung", null, "", null, null, SortType.DEFAULT));
+        ProductListGetVm second = productService.findProductAdvance(new ProductCriteriaDto(
+            "", 0, 12, "samsung, apple", "", null, null, null, null));
+
+        verify(elasticsearchOperations, times(1)).search(any(NativeQuery.class), eq(Product.class));
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testFindProductAdvance_whenCacheEvicted_thenSearchAgain() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+        ProductCriteriaDto criteriaDto = new ProductCriteriaDto(
+            "", 0, 12, null, null, null, null, null, SortType.DEFAULT);
+
+        productService.findProductAdvance(criteriaDto);
+        productService.evictProductSearchCache();
+        productService.findProductAdvance(criteriaDto);
+
+        verify(elasticsearchOperations, times(2)).search(any(NativeQuery.class), eq(Product.class));
+    }
+
+    @Test
+    void testFindProductAdvance_whenCacheEvictedWithinInterval_thenClearAfterInterval() throws InterruptedException {
+        productService = new ProductService(elasticsearchOperations,
+            new CaffeineCacheManager(CacheConfig.PRODUCT_SEARCH_CACHE), meterRegistry, Duration.ofMillis(200));
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+        ProductCriteriaDto criteriaDto = new ProductCriteriaDto(
+            "", 0, 12, null, null, null, null, null, SortType.DEFAULT);
+
+        productService.evictProductSearchCache();
+        productService.findProductAdvance(criteriaDto);
+        productService.evictProductSearchCache();
+        productService.findProductAdvance(criteriaDto);
+        verify(elasticsearchOperations, times(1)).search(any(NativeQuery.class), eq(Product.class));
+
+        Thread.sleep(250);
+        productService.findProductAdvance(criteriaDto);
+        verify(elasticsearchOperations, times(2)).search(any(NativeQuery.class), eq(Product.class));
+    }
+
+    @Test
+    void testFindProductAdvance_whenServedFromCache_thenAddMeasuredSearchTimeToSavedTime() {
+        when(elasticsearchOperations.search(any(NativeQuery.class), eq(Product.class))).thenReturn(getSearchHits());
+        ProductCriteriaDto criteriaDto = new ProductCriteriaDto(
+            "", 0, 12, null, null, null, null, null, SortType.DEFAULT);
+
+        productService.findProductAdvance(criteriaDto);
+        productService.findProductAdvance(criteriaDto);
+        productService.findProductAdvance(criteriaDto);
+
+        double searchSeconds = meterRegistry.get("search.product.query").timer().totalTime(TimeUnit.SECONDS);
+        assertTrue(searchSeconds > 0);
+        assertEquals(2 * searchSeconds, meterRegistry.get("search.product.cache.saved").counter().count(), 1e-9);
+    }
+
     @Test
     void testAutoCompleteProductName_whenExistsProducts_returnProductNameListVm() {
 
@@ -158,7 +227,11 @@ class ProductServiceTest {
         ProductNameGetVm productNameGetVm = result.productNames().getFirst();
         assertEquals("Test Product", productNameGetVm.name());
 
-        verify(elasticsearchOperations).search(any(NativeQuery.class), eq(Product.class));
+        ArgumentCaptor<NativeQuery> captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(elasticsearchOperations).search(captor.capture(), eq(Product.class));
+        NativeQuery query = captor.getValue();
+        assertEquals("name.autocomplete", Objects.requireNonNull(query.getQuery()).match().field());
+        assertEquals(ProductService.AUTOCOMPLETE_MAX_RESULTS, query.getPageable().getPageSize());
     }
 
     private static SearchHits<Product> getSearchHits() {
@@ -2,8 +2,12 @@ package com.yas.search.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -14,11 +18,20 @@ import com.yas.search.repository.ProductRepository;
 import com.yas.search.viewmodel.ProductEsDetailVm;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -31,6 +44,10 @@ class ProductSyncDataServiceTest {
 
     private ServiceUrlConfig serviceUrlConfig;
 
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private IndexOperations rebuildAliasOperations;
+
     RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
 
     RestClient.ResponseSpec responseSpec;
@@ -45,7 +62,11 @@ class ProductSyncDataServiceTest {
         productRepository = mock(ProductRepository.class);
         restClient = mock(RestClient.class);
         serviceUrlConfig = mock(ServiceUrlConfig.class);
-        productSyncDataService = new ProductSyncDataService(restClient, serviceUrlConfig, productRepository);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        rebuildAliasOperations = mock(IndexOperations.class);
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(rebuildAliasOperations);
+        productSyncDataService = new ProductSyncDataService(restClient, serviceUrlConfig, productRepository,
+            elasticsearchOperations);
         requestHeadersUriSpec = mock(RestClient.RequestHeadersUriSpec.class);
         responseSpec = mock(RestClient.ResponseSpec.class);
 
@@ -169,16 +190,52 @@ class ProductSyncDataServiceTest {
     }
 
     @Test
-    void testUpdateProduct_whenProductDoesNotExist_throwsNotFoundException() {
+    void testUpdateProduct_whenProductIsNotIndexed_indexesProduct() {
 
         mockProductThumbnailVmsByUri();
         when(productRepository.findById(ID)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> productSyncDataService.updateProduct(ID))
-            .isInstanceOf(NotFoundException.class)
-            .hasMessage("The product 1 is not found");
+        productSyncDataService.updateProduct(ID);
+
+        ArgumentCaptor<Product> argumentCaptor = ArgumentCaptor.forClass(Product.class);
+        verify(productRepository).save(argumentCaptor.capture());
+        assertThat(argumentCaptor.getValue().getId()).isEqualTo(ID);
+        assertThat(argumentCaptor.getValue().getName()).isEqualTo("Smartphone XYZ");
     }
 
+    @Test
+    void testUpdateProduct_whenIndexIsRebuilt_savesProductToBothIndices() {
+
+        mockProductThumbnailVmsByUri();
+        when(rebuildAliasOperations.exists()).thenReturn(true);
+        when(rebuildAliasOperations.getAliasesForIndex(ProductSyncDataService.REBUILD_ALIAS))
+            .thenReturn(Map.of("product-2", Set.of()));
+        Product existingProduct = new Product();
+        existingProduct.setId(ID);
+        when(productRepository.findById(ID)).thenReturn(Optional.of(existingProduct));
+
+        productSyncDataService.updateProduct(ID);
+
+        verify(productRepository).save(existingProduct);
+        verify(elasticsearchOperations).save(existingProduct, IndexCoordinates.of("product-2"));
+    }
+
+    @Test
+    void testCreateProduct_whenProductNotPublished_deletesProduct() {
+        URI url = UriComponentsBuilder.fromHttpUrl(PRODUCT_URL)
+            .path("/storefront/products-es/{id}").buildAndExpand(ID).toUri();
+        when(serviceUrlConfig.product()).thenReturn(PRODUCT_URL);
+        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(url)).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(ProductEsDetailVm.class)).thenReturn(new ProductEsDetailVm(ID, "Old phone",
+            "old-phone", 99.0, false, true, true, false, null, "BrandName", List.of(), List.of()));
+
+        productSyncDataService.createProduct(ID);
+
+        verify(productRepository).deleteById(ID);
+        verify(productRepository, never()).save(any());
+    }
 
     @Test
     void testCreateProduct_whenNormalCase_createsAndSavesProduct() {
@@ -232,4 +289,52 @@ class ProductSyncDataServiceTest {
 
         verify(productRepository, never()).deleteById(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUpsertProducts_whenNormalCase_bulkIndexesPublishedAndDeletesUnpublished() {
+        ProductEsDetailVm unpublished = new ProductEsDetailVm(2L, "Old phone", "old-phone", 99.0, false,
+            true, true, false, null, "BrandName", List.of(), List.of());
+        mockProductEsDetailsByIds(List.of(getProductThumbnailVms(), unpublished));
+
+        Map<Long, Exception> failures = productSyncDataService.upsertProducts(List.of(ID, 2L));
+
+        assertThat(failures).isEmpty();
+        ArgumentCaptor<List<IndexQuery>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchOperations).bulkIndex(argumentCaptor.capture(), eq(Product.class));
+        assertThat(argumentCaptor.getValue()).extracting(IndexQuery::getId).containsExactly("1");
+        verify(productRepository).deleteAllById(List.of(2L));
+    }
+
+    @Test
+    void testUpsertProducts_whenDocumentFailsOrIsMissing_returnsFailurePerProduct() {
+        mockProductEsDetailsByIds(List.of(getProductThumbnailVms()));
+        when(elasticsearchOperations.bulkIndex(anyList(), eq(Product.class)))
+            .thenThrow(new BulkFailureException("Bulk indexing has failures",
+                Map.of("1", new BulkFailureException.FailureDetails(400, "mapper_parsing_exception"))));
+
+        Map<Long, Exception> failures = productSyncDataService.upsertProducts(List.of(ID, 3L));
+
+        assertThat(failures).containsOnlyKeys(ID, 3L);
+        assertThat(failures.get(ID)).hasMessageContaining("mapper_parsing_exception");
+        assertThat(failures.get(3L)).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void testGetProductEsDetailsByIds_whenMoreIdsThanOneCall_splitsIdsIntoCalls() {
+        mockProductEsDetailsByIds(List.of(getProductThumbnailVms()));
+        List<Long> ids = LongStream.rangeClosed(1, ProductSyncDataService.MAX_IDS_PER_CALL + 1L).boxed().toList();
+
+        List<ProductEsDetailVm> result = productSyncDataService.getProductEsDetailsByIds(ids);
+
+        assertThat(result).hasSize(2);
+        verify(restClient, times(2)).get();
+    }
+
+    private void mockProductEsDetailsByIds(List<ProductEsDetailVm> productEsDetailVms) {
+        when(serviceUrlConfig.product()).thenReturn(PRODUCT_URL);
+        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(URI.class))).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(any(ParameterizedTypeReference.class))).thenReturn(productEsDetailVms);
+    }
+}